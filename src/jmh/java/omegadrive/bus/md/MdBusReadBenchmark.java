@@ -0,0 +1,75 @@
+package omegadrive.bus.md;
+
+import omegadrive.memory.IMemoryProvider;
+import omegadrive.memory.MemoryProvider;
+import omegadrive.util.MdRuntimeData;
+import omegadrive.util.Size;
+import omegadrive.util.SystemTestUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MdBusReadBenchmark
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * 68k word reads from the bus, ROM and RAM go through the page table, the VDP through the address decoding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MdBusReadBenchmark {
+
+    public enum Area {
+        ROM(0, 0x10_0000), RAM(0xFF_0000, 0x1_0000), VDP_HV(0xC0_0008, 2);
+
+        final int start, len;
+
+        Area(int start, int len) {
+            this.start = start;
+            this.len = len;
+        }
+    }
+
+    private static final int NUM_ADDRESSES = 1024;
+
+    @Param
+    public Area area;
+
+    private MdBus bus;
+    private final int[] addresses = new int[NUM_ADDRESSES];
+
+    @Setup
+    public void setup() {
+        Random r = new Random(0x68);
+        byte[] rom = new byte[0x10_0000];
+        r.nextBytes(rom);
+        IMemoryProvider mem = MemoryProvider.createInstance(rom, MemoryProvider.M68K_RAM_SIZE);
+        bus = (MdBus) SystemTestUtil.setupNewMdSystem(mem);
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = (area.start + r.nextInt(area.len)) & ~1;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        MdRuntimeData.releaseInstance();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ADDRESSES)
+    public int readData() {
+        int res = 0;
+        for (int i = 0; i < NUM_ADDRESSES; i++) {
+            res += bus.readData(addresses[i], Size.WORD);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,94 @@
+package omegadrive.sound;
+
+import omegadrive.sound.blip.BlipBuffer;
+import omegadrive.sound.javasound.AbstractSoundManager;
+import omegadrive.util.RegionDetector.Region;
+import omegadrive.util.SoundUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SoundMixBenchmark
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * One frame (60hz) of audio: blip buffer synthesis of a psg-like square wave, then the mixers
+ * used by the sound managers on random fm, pwm and psg buffers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SoundMixBenchmark {
+
+    private static final int FPS = 60;
+    private static final int MONO_SAMPLES = SoundProvider.SAMPLE_RATE_HZ / FPS;
+    private static final int CLOCK_RATE = (int) SoundProvider.getPsgSoundClock(Region.USA);
+    private static final int CLOCKS_PER_FRAME = CLOCK_RATE / FPS;
+    //~1.5khz square wave
+    private static final int HALF_PERIOD_CLOCKS = CLOCK_RATE / 3000;
+
+    private BlipBuffer blip;
+    private int[] fm, pwm;
+    private byte[] psg, out, blipOut;
+    private int level = 0x800;
+
+    @Setup
+    public void setup() {
+        blip = new BlipBuffer();
+        blip.setSampleRate((int) AbstractSoundManager.audioFormat.getSampleRate(), 1000 / FPS + 10);
+        blip.setClockRate(CLOCK_RATE);
+        Random r = new Random(0x4321);
+        fm = new int[MONO_SAMPLES << 1];
+        pwm = new int[MONO_SAMPLES << 1];
+        psg = new byte[MONO_SAMPLES];
+        out = new byte[MONO_SAMPLES << 2];
+        blipOut = new byte[blip.getBufLen() << 2];
+        for (int i = 0; i < fm.length; i++) {
+            fm[i] = (short) r.nextInt();
+            pwm[i] = (short) r.nextInt();
+        }
+        r.nextBytes(psg);
+    }
+
+    @Benchmark
+    public int blipFrame() {
+        for (int t = 0; t < CLOCKS_PER_FRAME; t += HALF_PERIOD_CLOCKS) {
+            blip.addDelta(t, level, level);
+            level = -level;
+        }
+        blip.endFrame(CLOCKS_PER_FRAME);
+        return blip.readSamples16bitStereo(blipOut, 0, blip.samplesAvail());
+    }
+
+    @Benchmark
+    public void mixFmPsg(Blackhole bh) {
+        SoundUtil.intStereo14ToByteStereo16Mix(fm, out, psg, fm.length);
+        bh.consume(out);
+    }
+
+    @Benchmark
+    public void mixFmPwm(Blackhole bh) {
+        SoundUtil.intStereo14ToByteStereo16PwmMix(out, fm, pwm, fm.length);
+        bh.consume(out);
+    }
+
+    @Benchmark
+    public void mixFmPwmPsg(Blackhole bh) {
+        SoundUtil.intStereo14ToByteStereo16PsgPwmMix(out, fm, pwm, psg, fm.length);
+        bh.consume(out);
+    }
+
+    @Benchmark
+    public void mixPsg(Blackhole bh) {
+        SoundUtil.byteMono8ToByteStereo16Mix(psg, out);
+        bh.consume(out);
+    }
+}
@@ -0,0 +1,66 @@
+package omegadrive.sound.fm.ym2612.nukeykt;
+
+import omegadrive.sound.SoundProvider;
+import omegadrive.sound.javasound.AbstractSoundManager;
+import omegadrive.util.RegionDetector.Region;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ym2612NukeBenchmark
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Clocks the chip with all six channels keyed on, one chip sample (24 internal cycles) per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Ym2612NukeBenchmark {
+
+    private static final int CYCLES_PER_SAMPLE = 24;
+
+    private Ym2612Nuke fm;
+
+    @Setup
+    public void setup() {
+        fm = new Ym2612Nuke(AbstractSoundManager.audioFormat, SoundProvider.getFmSoundClock(Region.USA));
+        fm.reset();
+        for (int port = 0; port < 2; port++) {
+            for (int ch = 0; ch < 3; ch++) {
+                writeReg(port, 0xB0 + ch, 0x3A); //feedback, algorithm 2
+                writeReg(port, 0xB4 + ch, 0xC0); //L+R
+                writeReg(port, 0xA4 + ch, 0x22 + ch); //block, fnum
+                writeReg(port, 0xA0 + ch, 0x69);
+                for (int op = 0; op < 16; op += 4) {
+                    writeReg(port, 0x30 + op + ch, 0x71); //dt, mul
+                    writeReg(port, 0x40 + op + ch, 0x10 + op); //tl
+                    writeReg(port, 0x50 + op + ch, 0x1F); //ar
+                    writeReg(port, 0x60 + op + ch, 0x05); //d1r
+                    writeReg(port, 0x70 + op + ch, 0x02); //d2r
+                    writeReg(port, 0x80 + op + ch, 0x1F); //sl, rr
+                }
+                writeReg(0, 0x28, 0xF0 | (port << 2) | ch); //key on
+            }
+        }
+    }
+
+    private void writeReg(int port, int reg, int data) {
+        fm.write(port << 1, reg);
+        fm.write((port << 1) + 1, data);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CYCLES_PER_SAMPLE)
+    public void spinOnce() {
+        for (int i = 0; i < CYCLES_PER_SAMPLE; i++) {
+            fm.spinOnce();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package omegadrive.ui;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RenderingStrategyBenchmark
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Nearest neighbour scaling of an H40 frame to the window size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderingStrategyBenchmark {
+
+    @Param({"2", "3", "4"})
+    public int scale;
+
+    private final Dimension src = new Dimension(320, 224);
+    private Dimension dest;
+    private int[] srcPixels, destPixels;
+
+    @Setup
+    public void setup() {
+        dest = new Dimension(src.width * scale, src.height * scale);
+        srcPixels = new Random(0x99).ints(src.width * src.height).toArray();
+        destPixels = new int[dest.width * dest.height];
+    }
+
+    @Benchmark
+    public void renderNearest(Blackhole bh) {
+        RenderingStrategy.renderNearest(srcPixels, destPixels, src, dest);
+        bh.consume(destPixels);
+    }
+}
@@ -0,0 +1,68 @@
+package omegadrive.vdp.md;
+
+import omegadrive.util.MdRuntimeData;
+import omegadrive.util.SystemTestUtil;
+import omegadrive.vdp.MdVdpTestUtil;
+import omegadrive.vdp.model.MdVdpProvider;
+import omegadrive.vdp.model.VdpRenderHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VdpRenderBenchmark
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Renders a frame of random tiles, planes and sprites, one line at a time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VdpRenderBenchmark {
+
+    public enum RenderMode {
+        H32(0x00), H40(0x81), H40_SHADOW_HIGHLIGHT(0x89);
+
+        final int mode4;
+
+        RenderMode(int mode4) {
+            this.mode4 = mode4;
+        }
+    }
+
+    @Param
+    public RenderMode mode;
+
+    private VdpRenderHandler renderHandler;
+    private int numLines;
+
+    @Setup
+    public void setup() {
+        MdVdpMemoryInterface mem = MdVdpMemoryInterface.createInstance();
+        MdVdpProvider vdp = SystemTestUtil.setupNewMdSystem(mem).getVdp();
+        renderHandler = VdpRenderHandlerImpl.createInstance(vdp, mem);
+        MdVdpTestUtil.setupRandomFrame(vdp, mem, mode.mode4, new Random(0x1234));
+        numLines = vdp.getVideoMode().getDimension().height;
+    }
+
+    @TearDown
+    public void tearDown() {
+        MdRuntimeData.releaseInstance();
+    }
+
+    @Benchmark
+    public void renderFrame(Blackhole bh) {
+        for (int i = 0; i < numLines; i++) {
+            renderHandler.renderLine(i);
+        }
+        bh.consume(renderHandler.getScreenDataLinear());
+    }
+}
@@ -0,0 +1,112 @@
+package s32x.sh2;
+
+import omegadrive.util.MdRuntimeData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import s32x.MarsRegTestUtil;
+import s32x.bus.Sh2BusImpl;
+import s32x.sh2.Sh2Helper.Sh2Config;
+import s32x.util.MarsLauncherHelper.Sh2LaunchContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static omegadrive.util.BufferUtil.CpuDeviceAccess.MASTER;
+import static s32x.dict.S32xDict.SH2_START_SDRAM;
+import static s32x.dict.S32xDict.SH2_START_SDRAM_CACHE;
+
+/**
+ * Sh2RunBenchmark
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * The master sh2 spins on a generated loop in sdram (alu ops, a load and a store),
+ * the score is the time per loop iteration; r4 counts the iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Sh2RunBenchmark {
+
+    public enum Sh2Mode {
+        //poll detection off, it would put the cpu to sleep on a loop that keeps reading the same location
+        INTERPRETER(new Sh2Config(false, false, false, false)),
+        DRC(new Sh2Config(true, true, false, false));
+
+        final Sh2Config config;
+
+        Sh2Mode(Sh2Config config) {
+            this.config = config;
+        }
+    }
+
+    private static final int CODE_OFFSET = 0x100;
+    private static final int DATA_OFFSET = 0x800;
+    private static final int ITERATIONS = 1000;
+
+    private static final int[] LOOP = {
+            0x312C, //add r2,r1
+            0x231A, //xor r1,r3
+            0x4300, //shll r3
+            0x6562, //mov.l @r6,r5
+            0x351C, //add r1,r5
+            0x2652, //mov.l r5,@r6
+            0x7401, //add #1,r4
+            0xAFF7, //bra loop
+            0x0009, //nop
+    };
+
+    @Param
+    public Sh2Mode mode;
+
+    private Sh2 sh2;
+    private Sh2Context ctx;
+
+    @Setup
+    public void setup() {
+        Sh2Config.reset(mode.config);
+        Sh2LaunchContext lc = MarsRegTestUtil.createTestInstance();
+        lc.s32XMMREG.aden = 1;
+        Sh2Helper.clear();
+        Sh2BusImpl memory = (Sh2BusImpl) lc.memory;
+        for (int i = 0; i < LOOP.length; i++) {
+            memory.write16(SH2_START_SDRAM | (CODE_OFFSET + (i << 1)), LOOP[i]);
+        }
+        int start = SH2_START_SDRAM_CACHE | CODE_OFFSET;
+        memory.getMemoryDataCtx().bios[MASTER.ordinal()].buffer.putInt(0, start);
+        sh2 = lc.sh2;
+        ctx = lc.masterCtx;
+        sh2.reset(ctx);
+        ctx.registers[2] = 0x1234_5677;
+        ctx.registers[6] = SH2_START_SDRAM_CACHE | DATA_OFFSET;
+        if (mode.config.drcEn) {
+            int cnt = 0;
+            do {
+                sh2.run(ctx);
+            } while (Sh2Helper.get(start, MASTER).block.stage2Drc == null && ++cnt < 100_000);
+            if (cnt == 100_000) {
+                throw new IllegalStateException("Block not compiled: " + mode);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Sh2Config.reset(Sh2Config.DEFAULT_CONFIG);
+        MdRuntimeData.releaseInstance();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void run(Blackhole bh) {
+        final int target = ctx.registers[4] + ITERATIONS;
+        while (ctx.registers[4] - target < 0) {
+            sh2.run(ctx);
+        }
+        bh.consume(ctx.registers[5]);
+    }
+}
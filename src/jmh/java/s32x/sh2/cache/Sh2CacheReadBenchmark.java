@@ -0,0 +1,78 @@
+package s32x.sh2.cache;
+
+import omegadrive.util.MdRuntimeData;
+import omegadrive.util.Size;
+import org.openjdk.jmh.annotations.*;
+import s32x.MarsRegTestUtil;
+import s32x.bus.Sh2BusImpl;
+import s32x.util.MarsLauncherHelper.Sh2LaunchContext;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static omegadrive.util.BufferUtil.CpuDeviceAccess.MASTER;
+import static s32x.dict.S32xDict.SH2_START_SDRAM_CACHE;
+
+/**
+ * Sh2CacheReadBenchmark
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Long reads from sdram via the master cache, the working set either fits the 4Kb cache or is well beyond it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Sh2CacheReadBenchmark {
+
+    public enum WorkingSet {
+        HIT(0x800), MISS(0x4_0000);
+
+        final int len;
+
+        WorkingSet(int len) {
+            this.len = len;
+        }
+    }
+
+    private static final int NUM_ADDRESSES = 1024;
+
+    @Param
+    public WorkingSet workingSet;
+
+    private Sh2Cache cache;
+    private final int[] addresses = new int[NUM_ADDRESSES];
+
+    @Setup
+    public void setup() {
+        Sh2LaunchContext lc = MarsRegTestUtil.createTestInstance();
+        MdRuntimeData.setAccessTypeExt(MASTER);
+        cache = ((Sh2BusImpl) lc.memory).cache[MASTER.ordinal()];
+        cache.cacheClear();
+        cache.updateState(1);
+        Random r = new Random(0x5A2);
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = (SH2_START_SDRAM_CACHE | r.nextInt(workingSet.len)) & ~3;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        MdRuntimeData.releaseInstance();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ADDRESSES)
+    public int cacheMemoryRead() {
+        int res = 0;
+        for (int i = 0; i < NUM_ADDRESSES; i++) {
+            res += cache.cacheMemoryRead(addresses[i], Size.LONG);
+        }
+        return res;
+    }
+}
@@ -70,7 +70,7 @@ public class McdDeviceHelper {
 
             subCpu = MC68000Wrapper.createInstance(SUB_M68K, subBus);
             interruptHandler = McdSubInterruptHandler.create(memoryContext, subCpu);
-            cdc = Cdc.createInstance(memoryContext, interruptHandler);
+            cdc = Cdc.createInstance(memoryContext, interruptHandler, pcm);
             cdd = Cdd.createInstance(memoryContext, interruptHandler, cdc, soundEnabled);
             asic = new Asic(memoryContext, interruptHandler);
             subBus.attachDevices(subCpu, pcm, cdd, asic, cdc, interruptHandler);
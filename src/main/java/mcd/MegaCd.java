@@ -29,9 +29,10 @@ import omegadrive.system.MediaSpecHolder;
 import omegadrive.system.Megadrive;
 import omegadrive.system.SysUtil;
 import omegadrive.system.SystemProvider;
+import omegadrive.system.perf.Telemetry;
+import omegadrive.system.perf.Telemetry.Section;
 import omegadrive.ui.DisplayWindow;
 import omegadrive.util.LogHelper;
-import omegadrive.util.MdRuntimeData;
 import omegadrive.util.VideoMode;
 import omegadrive.vdp.util.UpdatableViewer;
 import org.slf4j.Logger;
@@ -116,25 +117,48 @@ public class MegaCd extends Megadrive {
     protected void loop() {
         updateVideoMode(true);
         do {
-            run68k();
-            runSub68k();
-            runZ80();
-            runSound();
-            //this should be last as it could change the counter
-            runVdp();
-            cycleCounter++;
+            if (Telemetry.SECTIONS && --sectionSampleCnt == 0) {
+                runCycleSampled();
+            } else {
+                run68k();
+                runSub68k();
+                runZ80();
+                runSound();
+                //this should be last as it could change the counter
+                runVdp();
+            }
+            advanceCycleCounter();
         } while (!futureDoneFlag);
     }
 
+    @Override
+    protected void runCycleSampled() {
+        long t = System.nanoTime();
+        run68k();
+        t = sampleSection(Section.M68K, t);
+        runSub68k();
+        t = sampleSection(Section.SUB_M68K, t);
+        runZ80();
+        t = sampleSection(Section.Z80, t);
+        runSound();
+        t = sampleSection(Section.AUDIO, t);
+        runVdpSampled(t);
+    }
+
+    @Override
+    protected int nextEventCycle(int from) {
+        return Math.min(super.nextEventCycle(from), Math.max(from, (int) Math.ceil(nextSub68kCycle)));
+    }
+
     double subCnt = 0;
 
     protected void runSub68k() {
         while (nextSub68kCycle <= cycleCounter) {
             boolean canRun = !subCpu.isStopped();// && !MC68000Wrapper.subCpuBusHalt;
             int cycleDelayCpu = 1;
-            MdRuntimeData.setAccessTypeExt(SUB_M68K);
+            rt.setAccessType(SUB_M68K);
             if (canRun) {
-                cycleDelayCpu = subCpu.runInstruction() + MdRuntimeData.resetCpuDelayExt();
+                cycleDelayCpu = subCpu.runInstruction() + rt.resetCpuDelay();
             }
             //interrupts are processed after the current instruction
             interruptHandler.handleInterrupts();
@@ -143,7 +167,7 @@ public class MegaCd extends Megadrive {
             mcdLaunchContext.stepDevices(cycleDelayCpu);
             //convert cycles @ 12.5 Mhz to cycles @ 7.67 Mhz
             nextSub68kCycle += M68K_DIVIDER * mcd68kRatio * cycleDelayCpu;
-            assert MdRuntimeData.resetCpuDelayExt() == 0;
+            assert rt.resetCpuDelay() == 0;
         }
     }
 
@@ -168,6 +192,10 @@ public class MegaCd extends Megadrive {
         super.onNewFrame();
     }
 
+    public McdDeviceHelper.McdLaunchContext getMcdLaunchContext() {
+        return mcdLaunchContext;
+    }
+
     protected UpdatableViewer createMemView() {
         return McdMemView.createInstance(bus, mcdLaunchContext, vdp.getVdpMemory());
     }
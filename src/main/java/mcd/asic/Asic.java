@@ -3,10 +3,14 @@ package mcd.asic;
 import mcd.asic.AsicModel.*;
 import mcd.bus.McdSubInterruptHandler;
 import mcd.dict.MegaCdMemoryContext;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.LogHelper;
 import omegadrive.util.Size;
 import org.slf4j.Logger;
 
+import java.nio.ByteBuffer;
+
 import static mcd.asic.AsicModel.StampRepeat.REPEAT_MAP;
 import static mcd.asic.AsicModel.StampRepeat.vals;
 import static mcd.bus.McdSubInterruptHandler.SubCpuInterrupt.INT_ASIC;
@@ -33,6 +37,8 @@ public class Asic implements AsicOp {
     //bios_EU likes 75
     //bios_JP 1.00 > 50
     private static final int ASIC_LINES_AT_32p5Khz = 75;
+    private static final int STATE_VERSION = 1;
+    private static final AsicEvent[] asicEventVals = AsicEvent.values();
     private StampConfig stampConfig = new StampConfig();
 
     private MegaCdMemoryContext memoryContext;
@@ -349,4 +355,53 @@ public class Asic implements AsicOp {
 //        printWram(memoryContext);
         doRenderLines(ASIC_LINES_AT_32p5Khz);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.MCD_ASIC, STATE_VERSION);
+        StampConfig sc = stampConfig;
+        StateCodec.putEnum(buffer, sc.stampSize);
+        StateCodec.putEnum(buffer, sc.stampMapSize);
+        StateCodec.putEnum(buffer, sc.stampRepeat);
+        StateCodec.putEnum(buffer, sc.priorityMode);
+        buffer.putInt(sc.stampStartLocation).putInt(sc.vCellSize);
+        buffer.putInt(sc.imgDestBufferLocation).putInt(sc.imgTraceTableLocation);
+        buffer.putInt(sc.hPixelOffset).putInt(sc.vPixelOffset).putInt(sc.imgOffset);
+        buffer.putInt(sc.imgHeightPx).putInt(sc.imgWidthPx);
+        StateCodec.putEnum(buffer, asicEvent);
+        buffer.putInt(cd_graphics_x).putInt(cd_graphics_dst_x).putInt(cd_graphics_y).putInt(cd_graphics_dst_y);
+        buffer.putInt(cd_graphics_dx).putInt(cd_graphics_dy).putInt(cycles).putInt(cycleCost);
+        StateCodec.putInts(buffer, cd_graphics_pixels);
+        StateCodec.putBoolean(buffer, doFetch);
+    }
+
+    @Override
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.MCD_ASIC, STATE_VERSION);
+        StampConfig sc = stampConfig;
+        sc.stampSize = StateCodec.getEnum(buffer, StampSize.vals);
+        sc.stampMapSize = StateCodec.getEnum(buffer, StampMapSize.vals);
+        sc.stampRepeat = StateCodec.getEnum(buffer, StampRepeat.vals);
+        sc.priorityMode = StateCodec.getEnum(buffer, StampPriorityMode.vals);
+        sc.stampStartLocation = buffer.getInt();
+        sc.vCellSize = buffer.getInt();
+        sc.imgDestBufferLocation = buffer.getInt();
+        sc.imgTraceTableLocation = buffer.getInt();
+        sc.hPixelOffset = buffer.getInt();
+        sc.vPixelOffset = buffer.getInt();
+        sc.imgOffset = buffer.getInt();
+        sc.imgHeightPx = buffer.getInt();
+        sc.imgWidthPx = buffer.getInt();
+        asicEvent = StateCodec.getEnum(buffer, asicEventVals);
+        cd_graphics_x = buffer.getInt();
+        cd_graphics_dst_x = buffer.getInt();
+        cd_graphics_y = buffer.getInt();
+        cd_graphics_dst_y = buffer.getInt();
+        cd_graphics_dx = buffer.getInt();
+        cd_graphics_dy = buffer.getInt();
+        cycles = buffer.getInt();
+        cycleCost = buffer.getInt();
+        StateCodec.getInts(buffer, cd_graphics_pixels);
+        doFetch = StateCodec.getBoolean(buffer);
+    }
+}
@@ -3,11 +3,14 @@ package mcd.bus;
 import mcd.dict.MegaCdMemoryContext;
 import omegadrive.Device;
 import omegadrive.cpu.m68k.M68kProvider;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.LogHelper;
 import omegadrive.util.RegionDetector.Region;
 import omegadrive.util.Util;
 import org.slf4j.Logger;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static mcd.bus.McdSubInterruptHandler.SubCpuInterrupt.INT_ASIC;
@@ -71,6 +74,8 @@ public interface McdSubInterruptHandler extends Device {
     }
 
     class McdSubInterruptHandlerImpl implements McdSubInterruptHandler {
+        private static final int STATE_VERSION = 1;
+
         private M68kProvider subCpu;
         private MegaCdMemoryContext context;
 
@@ -109,7 +114,7 @@ public interface McdSubInterruptHandler extends Device {
                 return;
             }
             final int mask = getRegMask();
-            final int ifl2 = MegaCdMainCpuBus.ifl2Trigger;
+            final int ifl2 = context.ifl2Trigger;
             for (int i = 1; i < pendingInterrupts.length; i++) {
 //            for (int i = pendingInterrupts.length - 1; i > 0; i--) {
                 if (pendingInterrupts[i]) {
@@ -167,5 +172,19 @@ public interface McdSubInterruptHandler extends Device {
             pendingMask = 0;
             Arrays.fill(pendingInterrupts, false);
         }
+
+        @Override
+        public void saveContext(ByteBuffer buffer) {
+            StateCodec.writeHeader(buffer, ContextId.MCD_INT_HANDLER, STATE_VERSION);
+            buffer.putInt(pendingMask);
+            StateCodec.putBooleans(buffer, pendingInterrupts);
+        }
+
+        @Override
+        public void loadContext(ByteBuffer buffer) {
+            StateCodec.readHeader(buffer, ContextId.MCD_INT_HANDLER, STATE_VERSION);
+            pendingMask = buffer.getInt();
+            StateCodec.getBooleans(buffer, pendingInterrupts);
+        }
     }
 }
@@ -10,6 +10,8 @@ import omegadrive.bus.model.MdMainBusProvider;
 import omegadrive.cart.MdCartInfoProvider;
 import omegadrive.cpu.m68k.MC68000Wrapper;
 import omegadrive.joypad.MdJoypad;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.sound.fm.FmProvider;
 import omegadrive.sound.psg.PsgProvider;
 import omegadrive.system.SystemProvider;
@@ -44,6 +46,7 @@ import static omegadrive.util.Util.*;
 public class MegaCdMainCpuBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements MegaCdMainCpuBusIntf {
 
     private static final Logger LOG = LogHelper.getLogger(MegaCdMainCpuBus.class.getSimpleName());
+    private static final int STATE_VERSION = 1;
 
     public static final int MCD_GATE_REGS_SIZE = 0x40;
     public static final int MCD_GATE_REGS_MASK = MCD_GATE_REGS_SIZE - 1;
@@ -77,13 +80,6 @@ public class MegaCdMainCpuBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> im
 
     protected MdMainBusProvider mdBus;
 
-    @Deprecated
-    public static boolean subCpuReset = false;
-
-    @Deprecated
-    //detects 0->1, 1->0 transitions only when written to
-    public static int ifl2Trigger = 0;
-
     public MegaCdMainCpuBus(MegaCdMemoryContext ctx, MdMainBusProvider mdBus) {
         cpu = M68K;
         prgRam = ByteBuffer.wrap(ctx.prgRam);
@@ -96,8 +92,8 @@ public class MegaCdMainCpuBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> im
         biosHolder = McdBiosHolder.getInstance();
         maskMode1 = !enableMode1 ? MCD_MAIN_MODE1_MASK : 0;
         this.mdBus = mdBus;
-        ifl2Trigger = 0;
-        subCpuReset = false;
+        memCtx.ifl2Trigger = 0;
+        memCtx.subCpuReset = false;
     }
 
     @Override
@@ -432,14 +428,14 @@ public class MegaCdMainCpuBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> im
         int subIntReg = (resWord >> bitWordPos) & 1; //IFL2
         if (subIntReg > 0) {
             if (((prevWord >> bitWordPos) & 1) == 0) {
-                ifl2Trigger = 1;
+                memCtx.ifl2Trigger = 1;
                 LogHelper.logInfo(LOG, "M SubCpu int2 request");
                 //TODO should check IEN2 = 1?
                 subCpuBus.getInterruptHandler().raiseInterrupt(INT_LEVEL2);
             }
         } else if (subIntReg == 0) {
             //explicit set ifl2 to 0
-            ifl2Trigger = 0;
+            memCtx.ifl2Trigger = 0;
         }
     }
 
@@ -514,4 +510,23 @@ public class MegaCdMainCpuBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> im
         logHelper.logWarningOnceWhenEnRepeat(LOG, "{} MCD reg {} {} ({}) {} {}", cpu, read ? "read" : "write",
                 size, regSpec.getName(), th(address), !read ? ": " + th(value) : "");
     }
+
+    @Override
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.MCD_MAIN_BUS, STATE_VERSION);
+        buffer.putInt(prgRamBankValue);
+        StateCodec.putBoolean(buffer, enableMCDBus);
+        StateCodec.putBoolean(buffer, memCtx.subCpuReset);
+        buffer.putInt(memCtx.ifl2Trigger);
+    }
+
+    @Override
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.MCD_MAIN_BUS, STATE_VERSION);
+        prgRamBankValue = buffer.getInt();
+        prgRamBankShift = prgRamBankValue << 17;
+        enableMCDBus = StateCodec.getBoolean(buffer);
+        memCtx.subCpuReset = StateCodec.getBoolean(buffer);
+        memCtx.ifl2Trigger = buffer.getInt();
+    }
 }
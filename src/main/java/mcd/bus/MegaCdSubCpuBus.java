@@ -12,6 +12,8 @@ import omegadrive.bus.md.BusArbiter;
 import omegadrive.bus.model.MdM68kBusProvider;
 import omegadrive.cpu.m68k.MC68000Wrapper;
 import omegadrive.joypad.MdJoypad;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.system.SystemProvider;
 import omegadrive.util.LogHelper;
 import omegadrive.util.MdRuntimeData;
@@ -52,6 +54,7 @@ import static omegadrive.util.Util.*;
 public class MegaCdSubCpuBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements MegaCdSubCpuBusIntf {
 
     private static final Logger LOG = LogHelper.getLogger(MegaCdSubCpuBus.class.getSimpleName());
+    private static final int STATE_VERSION = 1;
 
     private static class TimerContext {
         public int counter, rate;
@@ -521,13 +524,34 @@ public class MegaCdSubCpuBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> imp
                 releaseSubCpuReset();
             }
         }
-        if (MegaCdMainCpuBus.subCpuReset && subCpuResetFrameCount == 0) {
+        if (memCtx.subCpuReset && subCpuResetFrameCount == 0) {
             subCpuResetFrameCount = 6; //~100ms
         }
     }
 
+    @Override
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.MCD_SUB_BUS, STATE_VERSION);
+        buffer.putInt(timerContext.counter).putInt(timerContext.rate);
+        buffer.putInt(counter32p5Khz.cycleAccumulator).putInt(counter32p5Khz.cycleAcc75);
+        buffer.putDouble(counterCddaAcc).putDouble(counterCdcDma);
+        buffer.putInt(subCpuResetFrameCount);
+    }
+
+    @Override
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.MCD_SUB_BUS, STATE_VERSION);
+        timerContext.counter = buffer.getInt();
+        timerContext.rate = buffer.getInt();
+        counter32p5Khz.cycleAccumulator = buffer.getInt();
+        counter32p5Khz.cycleAcc75 = buffer.getInt();
+        counterCddaAcc = buffer.getDouble();
+        counterCdcDma = buffer.getDouble();
+        subCpuResetFrameCount = buffer.getInt();
+    }
+
     private void releaseSubCpuReset() {
-        MegaCdMainCpuBus.subCpuReset = false;
+        memCtx.subCpuReset = false;
         subCpu.reset();
         resetDone();
         //get SBRQ from main
@@ -5,6 +5,9 @@ import mcd.cdd.*;
 import mcd.cdd.CdModel.ExtendedTrackData;
 import mcd.dict.MegaCdDict;
 import mcd.dict.MegaCdMemoryContext;
+import mcd.pcm.McdPcm;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.sound.msumd.CueFileParser;
 import omegadrive.sound.msumd.CueFileParser.MsfHolder;
 import omegadrive.util.BufferUtil;
@@ -24,6 +27,7 @@ import static mcd.dict.MegaCdDict.*;
 import static mcd.dict.MegaCdDict.RegSpecMcd.MCD_CDC_MODE;
 import static mcd.dict.MegaCdDict.RegSpecMcd.MCD_STOPWATCH;
 import static mcd.util.McdRegBitUtil.getInvertedBitFromByte;
+import static omegadrive.savestate.StateCodec.*;
 import static omegadrive.sound.msumd.CueFileParser.toBcdByte;
 import static omegadrive.util.ArrayEndianUtil.getByteInWordBE;
 import static omegadrive.util.ArrayEndianUtil.setByteInWordBE;
@@ -44,6 +48,7 @@ public class CdcImpl implements Cdc {
     private final static Logger LOG = LogHelper.getLogger(CdcImpl.class.getSimpleName());
 
     protected static final boolean verbose = false;
+    private static final int STATE_VERSION = 1;
     private final MegaCdMemoryContext memoryContext;
     private final McdSubInterruptHandler interruptHandler;
     private final CdcContext cdcContext;
@@ -60,13 +65,13 @@ public class CdcImpl implements Cdc {
 
     private boolean hasMedia;
 
-    public CdcImpl(MegaCdMemoryContext mc, McdSubInterruptHandler ih) {
+    public CdcImpl(MegaCdMemoryContext mc, McdSubInterruptHandler ih, McdPcm pcm) {
         memoryContext = mc;
         interruptHandler = ih;
         cdcContext = new CdcContext();
         transfer = cdcContext.transfer;
         ram = ByteBuffer.allocate(RAM_SIZE); //16 Kbytes
-        transferHelper = new CdcTransferHelper(this, memoryContext, ram);
+        transferHelper = new CdcTransferHelper(this, memoryContext, ram, pcm);
     }
 
     @Override
@@ -574,4 +579,103 @@ public class CdcImpl implements Cdc {
     public void step75hz() {
         assert false;
     }
+
+    @Override
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.MCD_CDC, STATE_VERSION);
+        CdcContext c = cdcContext;
+        putBuffer(buffer, ram);
+        buffer.putInt(c.address).putInt(c.stopwatch).putInt(wasPending);
+        CdcStatus s = c.status;
+        putBytes(buffer, s.fifo);
+        buffer.putInt(s.read).putInt(s.write).putInt(s.empty);
+        buffer.putInt(s.enable).putInt(s.active).putInt(s.busy).putInt(s.wait);
+        CdcDecoder d = c.decoder;
+        buffer.putInt(d.enable).putInt(d.mode).putInt(d.form).putInt(d.valid);
+        CdcTransfer t = c.transfer;
+        buffer.put((byte) (t.destination == null ? -1 : t.destination.ordinal()));
+        buffer.putInt(t.address).putInt(t.source).putInt(t.target).putInt(t.pointer).putInt(t.length);
+        buffer.putInt(t.enable).putInt(t.active).putInt(t.busy).putInt(t.wait).putInt(t.ready).putInt(t.completed);
+        buffer.putInt(c.irq.enable).putInt(c.irq.pending);
+        buffer.putInt(c.irq.decoder.enable).putInt(c.irq.decoder.pending);
+        buffer.putInt(c.irq.transfer.enable).putInt(c.irq.transfer.pending);
+        CdcControl ct = c.control;
+        putInts(buffer, new int[]{ct.head, ct.mode, ct.form, ct.commandBreak, ct.modeByteCheck, ct.erasureRequest,
+                ct.writeRequest, ct.pCodeCorrection, ct.qCodeCorrection, ct.autoCorrection, ct.errorCorrection,
+                ct.edcCorrection, ct.correctionWrite, ct.descramble, ct.syncDetection, ct.syncInterrupt,
+                ct.erasureCorrection, ct.statusTrigger, ct.statusControl});
+        CdcHeader h = c.header;
+        buffer.putInt(h.minute).putInt(h.second).putInt(h.frame).putInt(h.mode);
+    }
+
+    @Override
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.MCD_CDC, STATE_VERSION);
+        CdcContext c = cdcContext;
+        getBuffer(buffer, ram);
+        c.address = buffer.getInt();
+        c.stopwatch = buffer.getInt();
+        wasPending = buffer.getInt();
+        CdcStatus s = c.status;
+        getBytes(buffer, s.fifo);
+        s.read = buffer.getInt();
+        s.write = buffer.getInt();
+        s.empty = buffer.getInt();
+        s.enable = buffer.getInt();
+        s.active = buffer.getInt();
+        s.busy = buffer.getInt();
+        s.wait = buffer.getInt();
+        CdcDecoder d = c.decoder;
+        d.enable = buffer.getInt();
+        d.mode = buffer.getInt();
+        d.form = buffer.getInt();
+        d.valid = buffer.getInt();
+        CdcTransfer t = c.transfer;
+        int dest = buffer.get();
+        t.destination = dest < 0 ? null : CdcTransferDestination.vals[dest];
+        t.address = buffer.getInt();
+        t.source = buffer.getInt();
+        t.target = buffer.getInt();
+        t.pointer = buffer.getInt();
+        t.length = buffer.getInt();
+        t.enable = buffer.getInt();
+        t.active = buffer.getInt();
+        t.busy = buffer.getInt();
+        t.wait = buffer.getInt();
+        t.ready = buffer.getInt();
+        t.completed = buffer.getInt();
+        c.irq.enable = buffer.getInt();
+        c.irq.pending = buffer.getInt();
+        c.irq.decoder.enable = buffer.getInt();
+        c.irq.decoder.pending = buffer.getInt();
+        c.irq.transfer.enable = buffer.getInt();
+        c.irq.transfer.pending = buffer.getInt();
+        int[] ctl = new int[19];
+        getInts(buffer, ctl);
+        CdcControl ct = c.control;
+        ct.head = ctl[0];
+        ct.mode = ctl[1];
+        ct.form = ctl[2];
+        ct.commandBreak = ctl[3];
+        ct.modeByteCheck = ctl[4];
+        ct.erasureRequest = ctl[5];
+        ct.writeRequest = ctl[6];
+        ct.pCodeCorrection = ctl[7];
+        ct.qCodeCorrection = ctl[8];
+        ct.autoCorrection = ctl[9];
+        ct.errorCorrection = ctl[10];
+        ct.edcCorrection = ctl[11];
+        ct.correctionWrite = ctl[12];
+        ct.descramble = ctl[13];
+        ct.syncDetection = ctl[14];
+        ct.syncInterrupt = ctl[15];
+        ct.erasureCorrection = ctl[16];
+        ct.statusTrigger = ctl[17];
+        ct.statusControl = ctl[18];
+        CdcHeader h = c.header;
+        h.minute = buffer.getInt();
+        h.second = buffer.getInt();
+        h.frame = buffer.getInt();
+        h.mode = buffer.getInt();
+    }
 }
@@ -32,14 +32,15 @@ public class CdcTransferHelper implements CdcModel.CdcTransferAction {
     private CdcModel.CdcTransfer t;
     private MegaCdMemoryContext memoryContext;
     private ByteBuffer ram;
+    private final McdPcm pcm;
 
-
-    public CdcTransferHelper(Cdc cdc, MegaCdMemoryContext memoryContext, ByteBuffer ram) {
+    public CdcTransferHelper(Cdc cdc, MegaCdMemoryContext memoryContext, ByteBuffer ram, McdPcm pcm) {
         this.cdc = cdc;
         assert cdc.getContext() != null;
         this.t = cdc.getContext().transfer;
         this.memoryContext = memoryContext;
         this.ram = ram;
+        this.pcm = pcm;
     }
 
     @Override
@@ -149,7 +150,7 @@ public class CdcTransferHelper implements CdcModel.CdcTransferAction {
         address &= PCM_ADDRESS_MASK;
         if (verbose) LOG.info("CDC,DMA_PCM,pcm_ram[{}]={},srcAddrWord={},len={}",
                 th(address & PCM_ADDRESS_MASK), th(data & 0xFF), th(t.source), th(t.length));
-        McdPcm.pcm.pcmDataWriteByte(address & PCM_ADDRESS_MASK, data);
+        pcm.pcmDataWriteByte(address & PCM_ADDRESS_MASK, data);
     }
 
     @Override
@@ -5,6 +5,8 @@ import mcd.cdc.Cdc;
 import mcd.dict.MegaCdDict;
 import mcd.dict.MegaCdMemoryContext;
 import mcd.pcm.BlipPcmProvider;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.sound.PcmProvider;
 import omegadrive.sound.msumd.CueFileParser;
 import omegadrive.util.LogHelper;
@@ -13,6 +15,7 @@ import omegadrive.util.Size;
 import omegadrive.util.VideoMode;
 import org.slf4j.Logger;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static mcd.bus.McdSubInterruptHandler.SubCpuInterrupt.INT_CDD;
@@ -31,6 +34,7 @@ import static omegadrive.util.Util.th;
 class CddImpl implements Cdd {
 
     private final static Logger LOG = LogHelper.getLogger(CddImpl.class.getSimpleName());
+    private static final int STATE_VERSION = 1;
 
     private final boolean verbose = false;
     private final boolean verboseReg = false;
@@ -876,4 +880,35 @@ class CddImpl implements Cdd {
     public void reset() {
         playSupport.reset();
     }
-}
\ No newline at end of file
+
+    /**
+     * The disc position is in the io context: track, sector and sample within the sector
+     */
+    @Override
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.MCD_CDD, STATE_VERSION);
+        CddIo io = cddContext.io;
+        StateCodec.putEnum(buffer, io.status);
+        buffer.putInt(io.seeking).putInt(io.latency).putInt(io.sector).putInt(io.sample);
+        buffer.putInt(io.track).putInt(io.tocRead);
+        buffer.putInt(cddContext.hostClockEnable);
+        StateCodec.putInts(buffer, cddContext.statusRegs);
+        StateCodec.putInts(buffer, cddContext.commandRegs);
+    }
+
+    @Override
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.MCD_CDD, STATE_VERSION);
+        CddIo io = cddContext.io;
+        io.status = StateCodec.getEnum(buffer, statusVals);
+        io.seeking = buffer.getInt();
+        io.latency = buffer.getInt();
+        io.sector = buffer.getInt();
+        io.sample = buffer.getInt();
+        io.track = buffer.getInt();
+        io.tocRead = buffer.getInt();
+        cddContext.hostClockEnable = buffer.getInt();
+        StateCodec.getInts(buffer, cddContext.statusRegs);
+        StateCodec.getInts(buffer, cddContext.commandRegs);
+    }
+}
@@ -1,19 +1,35 @@
 package mcd.cdd;
 
 import omegadrive.util.FileUtil;
+import omegadrive.util.LogHelper;
+import org.slf4j.Logger;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.StringJoiner;
 
+import static mcd.cdd.CdModel.SECTOR_2352;
+
 /**
  * Federico Berti
  * <p>
  * Copyright 2026
+ * <p>
+ * FILE_MAPPED: the whole file is mapped in memory, sector and CDDA sample reads are plain memory loads.
+ * FILE: files that do not fit a MappedByteBuffer (> 2Gb) or when mapping is disabled,
+ * reads are served from a window of READ_AHEAD_SECTORS sectors, refilled sequentially.
  */
 public class TrackContentHelper implements Closeable {
 
-    enum TrackContentType {FILE, BYTE_ARRAY}
+    private static final Logger LOG = LogHelper.getLogger(TrackContentHelper.class.getSimpleName());
+
+    enum TrackContentType {FILE, FILE_MAPPED, BYTE_ARRAY}
+
+    static final boolean MAP_FILES = Boolean.parseBoolean(System.getProperty("helios.mcd.disc.mmap", "true"));
+    static final int READ_AHEAD_SECTORS = Integer.parseInt(System.getProperty("helios.mcd.disc.read.ahead", "16"));
+
     private RandomAccessFile raf;
     private ByteBuffer bb;
 
@@ -21,21 +37,51 @@ public class TrackContentHelper implements Closeable {
 
     private String fName;
 
+    //FILE only
+    private byte[] window;
+    private long windowStart, pos;
+    private int windowLen;
+
     public static TrackContentHelper ofFile(File f) throws FileNotFoundException {
+        return ofFile(f, MAP_FILES);
+    }
+
+    static TrackContentHelper ofFile(File f, boolean tryMap) throws FileNotFoundException {
         var t = new TrackContentHelper();
         t.raf = new RandomAccessFile(f, "r");
         t.fName = f.getName();
         t.tct = TrackContentType.FILE;
+        if (tryMap) {
+            t.tryMap();
+        }
+        if (t.tct == TrackContentType.FILE) {
+            t.window = new byte[READ_AHEAD_SECTORS * SECTOR_2352];
+            t.windowStart = t.windowLen = 0;
+        }
         return t;
     }
 
     public static TrackContentHelper ofDataArray(byte[] b) {
         var t = new TrackContentHelper();
-        t.bb = ByteBuffer.wrap(b);
+        t.bb = ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN);
         t.tct = TrackContentType.BYTE_ARRAY;
         return t;
     }
 
+    private void tryMap() {
+        try {
+            long len = raf.length();
+            if (len > Integer.MAX_VALUE) {
+                LOG.info("{} is too large to be mapped: {} bytes, using buffered reads", fName, len);
+                return;
+            }
+            bb = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, len).order(ByteOrder.LITTLE_ENDIAN);
+            tct = TrackContentType.FILE_MAPPED;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.warn("Unable to map {}, using buffered reads: {}", fName, e.getMessage());
+        }
+    }
+
     public long length() throws IOException {
         if (isFileBased()) {
             return raf.length();
@@ -48,26 +94,74 @@ public class TrackContentHelper implements Closeable {
     }
 
     public int read(byte[] sec, int offset, int length) throws IOException {
-        if (isFileBased()) {
-            return raf.read(sec, offset, length);
-        } else {
-            bb.get(sec, offset, length);
-            return length;
+        if (tct == TrackContentType.FILE) {
+            return readBuffered(sec, offset, length);
         }
+        if (tct == TrackContentType.FILE_MAPPED) { //behave like RandomAccessFile on short reads
+            int n = Math.min(length, bb.remaining());
+            bb.get(sec, offset, n);
+            return n == 0 && length > 0 ? -1 : n;
+        }
+        bb.get(sec, offset, length);
+        return length;
     }
 
     public int readShortLE() throws IOException {
-        if (isFileBased()) {
-            return FileUtil.readShortLE(raf);
+        if (tct == TrackContentType.FILE) {
+            if (pos < windowStart || pos + 2 > windowStart + windowLen) {
+                fillWindow(pos);
+            }
+            int wp = (int) (pos - windowStart);
+            pos += 2;
+            if (wp + 2 > windowLen) { //EOF, let the file return what it does
+                raf.seek(pos - 2);
+                return FileUtil.readShortLE(raf);
+            }
+            return (short) ((window[wp] & 0xFF) | (window[wp + 1] << 8));
         }
-        return FileUtil.readShortLE(bb);
+        if (tct == TrackContentType.FILE_MAPPED && bb.remaining() < 2) { //EOF, same as RandomAccessFile
+            return (short) (readMappedByte() + (readMappedByte() << 8));
+        }
+        return bb.getShort();
+    }
+
+    private int readMappedByte() {
+        return bb.hasRemaining() ? bb.get() & 0xFF : -1;
     }
 
     public void seek(int pos) throws IOException {
-        if (isFileBased()) raf.seek(pos);
+        if (tct == TrackContentType.FILE) this.pos = pos;
         else bb.position(pos);
     }
 
+    private int readBuffered(byte[] dest, int offset, int length) throws IOException {
+        int done = 0;
+        while (done < length) {
+            if (pos < windowStart || pos >= windowStart + windowLen) {
+                fillWindow(pos);
+                if (windowLen == 0) {
+                    break;
+                }
+            }
+            int wp = (int) (pos - windowStart);
+            int n = Math.min(length - done, windowLen - wp);
+            System.arraycopy(window, wp, dest, offset + done, n);
+            done += n;
+            pos += n;
+        }
+        return done == 0 && length > 0 ? -1 : done;
+    }
+
+    private void fillWindow(long start) throws IOException {
+        raf.seek(start);
+        windowStart = start;
+        int len = 0, n;
+        while (len < window.length && (n = raf.read(window, len, window.length - len)) > 0) {
+            len += n;
+        }
+        windowLen = len;
+    }
+
     @Override
     public void close() throws IOException {
         if (isFileBased()) raf.close();
@@ -82,7 +176,11 @@ public class TrackContentHelper implements Closeable {
     }
 
     public boolean isFileBased() {
-        return tct == TrackContentType.FILE;
+        return tct != TrackContentType.BYTE_ARRAY;
+    }
+
+    TrackContentType getType() {
+        return tct;
     }
 
     @Override
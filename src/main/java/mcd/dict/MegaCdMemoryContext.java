@@ -3,6 +3,8 @@ package mcd.dict;
 import mcd.bus.McdWordRamHelper;
 import mcd.cdd.cdbios.CdBiosHelper;
 import mcd.util.BuramHelper;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import omegadrive.util.LogHelper;
 import omegadrive.util.Size;
@@ -22,6 +24,7 @@ import static mcd.dict.MegaCdRegWriteHandlers.setByteHandlersMain;
 import static mcd.dict.MegaCdRegWriteHandlers.setByteHandlersSub;
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.M68K;
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.SUB_M68K;
+import static omegadrive.savestate.StateCodec.*;
 import static omegadrive.util.BufferUtil.readBuffer;
 import static omegadrive.util.Util.th;
 import static omegadrive.util.Util.writeData;
@@ -37,6 +40,8 @@ public class MegaCdMemoryContext implements Serializable {
     private static final long serialVersionUID = 9209612516906245680L;
 
     private static final Logger LOG = LogHelper.getLogger(MegaCdMemoryContext.class.getSimpleName());
+    private static final int STATE_VERSION = 1;
+    private static final WramSetup[] wramSetupVals = WramSetup.values();
     public static final int MCD_WORD_RAM_2M_SIZE = 0x40_000;
     public static final int MCD_WORD_RAM_1M_SIZE = MCD_WORD_RAM_2M_SIZE >> 1;
     public static final int MCD_PRG_RAM_SIZE = 0x80_000;
@@ -63,6 +68,11 @@ public class MegaCdMemoryContext implements Serializable {
 
     public int writeProtectRam = 0;
 
+    //main cpu side state read by the sub cpu devices, stored by the main cpu bus
+    public transient boolean subCpuReset;
+    //detects 0->1, 1->0 transitions only when written to
+    public transient int ifl2Trigger;
+
     public WramSetup wramSetup = WramSetup.W_2M_MAIN;
 
     public enum WordRamMode {_1M, _2M}
@@ -147,4 +157,35 @@ public class MegaCdMemoryContext implements Serializable {
         }
         return readBuffer(b, regSpec.addr, Size.WORD);
     }
+
+    /**
+     * Raw bulk copy of the memory arrays, the buffer must have room for them (~800Kb)
+     */
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.MCD_MEMORY, STATE_VERSION);
+        putBytes(buffer, prgRam);
+        putBytes(buffer, wordRam01[0]);
+        putBytes(buffer, wordRam01[1]);
+        putBytes(buffer, sysGateRegs[0]);
+        putBytes(buffer, sysGateRegs[1]);
+        putBytes(buffer, commonGateRegs);
+        putBytes(buffer, backupRamArr);
+        putBytes(buffer, writeableHint);
+        buffer.putInt(writeProtectRam);
+        putEnum(buffer, wramSetup);
+    }
+
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.MCD_MEMORY, STATE_VERSION);
+        getBytes(buffer, prgRam);
+        getBytes(buffer, wordRam01[0]);
+        getBytes(buffer, wordRam01[1]);
+        getBytes(buffer, sysGateRegs[0]);
+        getBytes(buffer, sysGateRegs[1]);
+        getBytes(buffer, commonGateRegs);
+        getBytes(buffer, backupRamArr);
+        getBytes(buffer, writeableHint);
+        writeProtectRam = buffer.getInt();
+        wramSetup = getEnum(buffer, wramSetupVals);
+    }
 }
@@ -2,6 +2,8 @@ package mcd.pcm;
 
 import mcd.dict.MegaCdDict;
 import mcd.dict.MegaCdDict.RegSpecMcd;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.sound.PcmProvider;
 import omegadrive.util.*;
 import org.slf4j.Logger;
@@ -63,6 +65,8 @@ public class McdPcm implements BufferUtil.StepDevice {
 
     public static final int PCM_SAMPLE_RATE_HZ = (int) pcmSampleRateHz;
 
+    private static final int STATE_VERSION = 1;
+
     private ByteBuffer waveData, pcmRegs;
     private PcmChannelContext[] chan;
 
@@ -74,7 +78,6 @@ public class McdPcm implements BufferUtil.StepDevice {
     int sampleNum = 0;
 
     //TODO
-    public static McdPcm pcm;
 
     final boolean verbose = false;
 
@@ -97,7 +100,6 @@ public class McdPcm implements BufferUtil.StepDevice {
             chan[i] = new PcmChannelContext();
             chan[i].num = i;
         }
-        pcm = this;
     }
 
 
@@ -315,4 +317,41 @@ public class McdPcm implements BufferUtil.StepDevice {
     public void reset() {
         playSupport.reset();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.MCD_PCM, STATE_VERSION);
+        StateCodec.putBuffer(buffer, waveData);
+        StateCodec.putBuffer(buffer, pcmRegs);
+        buffer.putInt(channelBank).putInt(waveBank).putInt(active).putInt(chanControl);
+        buffer.putInt(ls).putInt(rs);
+        for (PcmChannelContext c : chan) {
+            buffer.putInt(c.on).putInt(c.env).putInt(c.panl).putInt(c.panr).putInt(c.freqDelta);
+            buffer.putInt(c.loopAddr).putInt(c.startAddr).putInt(c.addrCounter);
+        }
+    }
+
+    @Override
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.MCD_PCM, STATE_VERSION);
+        StateCodec.getBuffer(buffer, waveData);
+        StateCodec.getBuffer(buffer, pcmRegs);
+        channelBank = buffer.getInt();
+        waveBank = buffer.getInt();
+        active = buffer.getInt();
+        chanControl = buffer.getInt();
+        ls = buffer.getInt();
+        rs = buffer.getInt();
+        for (PcmChannelContext c : chan) {
+            c.on = buffer.getInt();
+            c.env = buffer.getInt();
+            c.panl = buffer.getInt();
+            c.panr = buffer.getInt();
+            c.freqDelta = buffer.getInt();
+            c.loopAddr = buffer.getInt();
+            c.startAddr = buffer.getInt();
+            c.addrCounter = buffer.getInt();
+            c.updateChannelFactors();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package mcd.savestate;
+
+import com.google.common.primitives.Bytes;
+import mcd.McdDeviceHelper.McdLaunchContext;
+import mcd.MegaCd;
+import omegadrive.Device;
+import omegadrive.savestate.BaseStateHandler;
+import omegadrive.savestate.GshStateHandler;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
+import omegadrive.savestate.StateUtil;
+import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
+import omegadrive.util.Util;
+import org.slf4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * MegaCd data layout, after the MD data: START_GSCD_TOKEN, [{@link StateCodec} header][numEntries:s32]
+ * {[nameLen:u16][name:ascii][dataLen:s32][data]}*, END_GSCD_TOKEN.
+ * PRG-RAM, WORD-RAM, backup RAM and PCM RAM are stored as raw bulk copies.
+ * The disc image is not stored, the same disc should be inserted when loading.
+ */
+public class GscdStateHandler extends GshStateHandler {
+
+    private static final Logger LOG = LogHelper.getLogger(GscdStateHandler.class.getSimpleName());
+    protected static final String MAGIC_WORD_MCD = "GCD";
+
+    protected static final String START_MCD_TOKEN = "START_GSCD";
+    protected static final String END_MCD_TOKEN = "END_GSCD";
+    public static final String fileExtensionMcd = "gscd";
+
+    private static final int CONTAINER_VERSION = 1;
+    private static final int NUM_ENTRIES = 9;
+
+    private static final int SCRATCH_SIZE = FILE_SIZE << 3;
+
+    private McdLaunchContext mcdContext;
+
+    public static BaseStateHandler createInstance(String fileName, Type type, Set<Device> deviceSet) {
+        GscdStateHandler h = new GscdStateHandler();
+        h.type = type;
+        h.init(fileName);
+        h.setDevicesWithContext(deviceSet);
+        return h;
+    }
+
+    public static BaseStateHandler createInstance(String fileName, Set<Device> deviceSet, byte[] data) {
+        GscdStateHandler h = new GscdStateHandler();
+        h.type = Type.LOAD;
+        h.fileName = handleFileExtension(fileName);
+        h.buffer = ByteBuffer.wrap(data);
+        h.detectStateFileType();
+        h.setDevicesWithContext(deviceSet);
+        return h;
+    }
+
+    protected GscdStateHandler() {
+    }
+
+    protected static String handleFileExtension(String fileName) {
+        boolean hasExtension = fileName.toLowerCase().contains("." + fileExtensionMcd);
+        return fileName + (!hasExtension ? "." + fileExtensionMcd : "");
+    }
+
+    protected void init(String fileNameEx) {
+        this.fileName = handleFileExtension(fileNameEx);
+        if (this.type == Type.SAVE) {
+            this.buffer = ByteBuffer.allocate(FILE_SIZE);
+            this.buffer.put(MAGIC_WORD_MCD.getBytes());
+        } else {
+            this.buffer = StateUtil.loadStateFile(this.fileName, new String[]{".gs"});
+            this.detectStateFileType();
+        }
+    }
+
+    protected BaseStateHandler detectStateFileType() {
+        byte[] magicWord = new byte[MAGIC_WORD_MCD.length()];
+        buffer.get(magicWord);
+        String fileType = Util.toStringValue(magicWord);
+        boolean isSupported = MAGIC_WORD_MCD.equalsIgnoreCase(fileType);
+        if (!isSupported || buffer.capacity() < FILE_SIZE) {
+            LOG.error("Unable to load save state of type: {}, size: {}", fileType, buffer.capacity());
+            return BaseStateHandler.EMPTY_STATE;
+        }
+        version = buffer.get(VERSION_OFFSET) & 0xFF;
+        softwareId = buffer.get(SWID_OFFSET) & 0xFF;
+        LOG.info("Savestate type {}, version: {}, softwareId: {}", fileType, version, softwareId);
+        return this;
+    }
+
+    @Override
+    protected void setDevicesWithContext(Set<Device> devs) {
+        super.setDevicesWithContext(devs);
+        mcdContext = devs.stream().filter(MegaCd.class::isInstance).map(d -> ((MegaCd) d).getMcdLaunchContext()).
+                findFirst().orElseThrow(() -> new RuntimeException("Unable to find the MegaCd system"));
+    }
+
+    @Override
+    public void processState() {
+        super.processState(); //do MD stuff
+        if (type == Type.SAVE) {
+            final ByteBuffer b = MdRuntimeData.current().getStateScratch(SCRATCH_SIZE);
+            saveMcd(b, mcdContext);
+            buffer = StateUtil.storeData(START_MCD_TOKEN, END_MCD_TOKEN, b.array(), 0, b.position(), buffer);
+        } else {
+            int mcdStart = Bytes.indexOf(buffer.array(), START_MCD_TOKEN.getBytes());
+            if (mcdStart < 0) {
+                LOG.error("Missing MegaCd savestate data: {}", fileName);
+                return;
+            }
+            loadMcd(ByteBuffer.wrap(buffer.array()).position(mcdStart + START_MCD_TOKEN.length()), mcdContext);
+        }
+    }
+
+    static void saveMcd(ByteBuffer b, McdLaunchContext ctx) {
+        StateCodec.writeHeader(b, ContextId.MCD_CONTAINER, CONTAINER_VERSION);
+        b.putInt(NUM_ENTRIES);
+        StateCodec.putEntry(b, "MegaCdMemoryContext", ctx.memoryContext::saveContext);
+        StateCodec.putEntry(b, "SubCpu", ctx.subCpu::saveContext);
+        StateCodec.putEntry(b, "SubBus", ctx.subBus::saveContext);
+        StateCodec.putEntry(b, "MainBus", ctx.mainBus::saveContext);
+        StateCodec.putEntry(b, "InterruptHandler", ctx.interruptHandler::saveContext);
+        StateCodec.putEntry(b, "Cdc", ctx.cdc::saveContext);
+        StateCodec.putEntry(b, "Cdd", ctx.cdd::saveContext);
+        StateCodec.putEntry(b, "Pcm", ctx.pcm::saveContext);
+        StateCodec.putEntry(b, "Asic", ctx.asic::saveContext);
+    }
+
+    static void loadMcd(ByteBuffer data, McdLaunchContext ctx) {
+        StateCodec.readHeader(data, ContextId.MCD_CONTAINER, CONTAINER_VERSION);
+        Map<String, ByteBuffer> entries = StateCodec.getEntries(data);
+        loadEntry(entries, "MegaCdMemoryContext", ctx.memoryContext::loadContext);
+        loadEntry(entries, "SubCpu", ctx.subCpu::loadContext);
+        loadEntry(entries, "SubBus", ctx.subBus::loadContext);
+        loadEntry(entries, "MainBus", ctx.mainBus::loadContext);
+        loadEntry(entries, "InterruptHandler", ctx.interruptHandler::loadContext);
+        loadEntry(entries, "Cdc", ctx.cdc::loadContext);
+        loadEntry(entries, "Cdd", ctx.cdd::loadContext);
+        loadEntry(entries, "Pcm", ctx.pcm::loadContext);
+        loadEntry(entries, "Asic", ctx.asic::loadContext);
+    }
+
+    private static void loadEntry(Map<String, ByteBuffer> entries, String name, Consumer<ByteBuffer> loader) {
+        ByteBuffer data = entries.get(name);
+        if (data == null) {
+            LOG.warn("Missing MegaCd savestate data for: {}", name);
+            return;
+        }
+        loader.accept(data);
+    }
+}
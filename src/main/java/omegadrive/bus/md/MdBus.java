@@ -86,7 +86,7 @@ public class MdBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements Md
         }
     };
 
-    private static long ROM_END_ADDRESS;
+    private long romEndAddress;
 
     enum BusState {READY, NOT_READY}
 
@@ -102,6 +102,12 @@ public class MdBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements Md
     //NOTE only a stub for serial ports, not supported
     private byte[] serialPortData = new byte[20];
 
+    //64Kb pages backed by an array (ROM, RAM), a null page goes through the address decoding below
+    private static final int PAGE_SHIFT = 16;
+    private final byte[][] readPages = new byte[(ADDRESS_UPPER_LIMIT + 1) >>> PAGE_SHIFT][];
+    private final int[] readPagesMask = new int[readPages.length];
+    private final byte[][] writePages = new byte[readPages.length][];
+
     public MdBus() {
         this.mapper = this;
         this.enableTmss = Boolean.parseBoolean(System.getProperty("md.enable.tmss", "false"));
@@ -112,8 +118,8 @@ public class MdBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements Md
         SystemLoader.SystemType st = systemProvider.getSystemType();
         cartridgeInfoProvider = (MdCartInfoProvider) systemProvider.getMediaSpec().getBootableMedia().mediaInfoProvider;
         assert cartridgeInfoProvider != null;
-        ROM_END_ADDRESS = Math.min(cartridgeInfoProvider.getRomSize(), Z80_ADDRESS_SPACE_START);
-        assert ROM_END_ADDRESS > 0;
+        romEndAddress = Math.min(cartridgeInfoProvider.getRomSize(), Z80_ADDRESS_SPACE_START);
+        assert romEndAddress > 0;
         if (cartridgeInfoProvider.getEntry().hasEeprom()) {
             checkBackupMemoryMapper(SramMode.READ_WRITE, cartridgeInfoProvider.getEntry());
         } else if (cartridgeInfoProvider.isSramEnabled()) {
@@ -125,8 +131,8 @@ public class MdBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements Md
         }
         msuMdHandler = MsuMdHandlerImpl.createInstance(st, systemProvider.getRomPath());
         //some homebrews use a flat ROM mapper, in theory up to Z80_ADDRESS_SPACE_START
-        if (st == SystemLoader.SystemType.MD && !cartridgeInfoProvider.isSsfMapper() && ROM_END_ADDRESS > DEFAULT_ROM_END_ADDRESS) {
-            LOG.warn("Assuming flat ROM mapper up to address: {}", ROM_END_ADDRESS);
+        if (st == SystemLoader.SystemType.MD && !cartridgeInfoProvider.isSsfMapper() && romEndAddress > DEFAULT_ROM_END_ADDRESS) {
+            LOG.warn("Assuming flat ROM mapper up to address: {}", romEndAddress);
         }
         if (cartridgeInfoProvider.isSvp()) {
             checkSvpMapper();
@@ -207,13 +213,36 @@ public class MdBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements Md
         ram = memoryProvider.getRamData();
         rom = memoryProvider.getRomData();
         romMask = memoryProvider.getRomMask();
+        updatePageTable();
+    }
+
+    /**
+     * Only whole pages get mapped, a ROM ending within a page leaves that page to the address decoding.
+     */
+    private void updatePageTable() {
+        for (int i = 0; i < readPages.length; i++) {
+            int start = i << PAGE_SHIFT;
+            int end = start + (1 << PAGE_SHIFT);
+            readPages[i] = writePages[i] = null;
+            if (end <= romEndAddress) {
+                readPages[i] = rom;
+                readPagesMask[i] = romMask;
+            } else if (start >= ADDRESS_RAM_MAP_START) {
+                readPages[i] = writePages[i] = ram;
+                readPagesMask[i] = M68K_RAM_MASK;
+            }
+        }
     }
 
     @Override
     public int readData(int address, final Size size) {
         address &= MD_PC_MASK;
+        final int page = address >>> PAGE_SHIFT;
+        if (readPages[page] != null) {
+            return Util.readDataMask(readPages[page], address, readPagesMask[page], size) & size.getMask();
+        }
         int data;
-        if (address < ROM_END_ADDRESS) {  //ROM
+        if (address < romEndAddress) {  //ROM
             data = Util.readDataMask(rom, address, romMask, size);
         } else if (address >= ADDRESS_RAM_MAP_START && address <= ADDRESS_UPPER_LIMIT) {  //RAM (64K mirrored)
             data = Util.readDataMask(ram, address, M68K_RAM_MASK, size);
@@ -243,6 +272,11 @@ public class MdBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements Md
         //RegAccessLogger.regAccess("M68K",  addressL,  data, size, false);
         address &= MD_PC_MASK;
         data &= size.getMask();
+        final int page = address >>> PAGE_SHIFT;
+        if (writePages[page] != null) {
+            Util.writeDataMask(writePages[page], address, data, readPagesMask[page], size);
+            return;
+        }
         if (address >= ADDRESS_RAM_MAP_START && address <= ADDRESS_UPPER_LIMIT) {  //RAM (64K mirrored)
             Util.writeDataMask(ram, address, data, M68K_RAM_MASK, size);
         } else if (address >= Z80_ADDRESS_SPACE_START && address <= Z80_ADDRESS_SPACE_END) {    //	Z80 addressing space
@@ -253,7 +287,7 @@ public class MdBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements Md
             internalRegWrite(address, size, data);
         } else if (address >= VDP_ADDRESS_SPACE_START && address < VDP_ADDRESS_SPACE_END) {  //VDP
             vdpWrite(address, size, data);
-        } else if (address < ROM_END_ADDRESS) {
+        } else if (address < romEndAddress) {
             cartWrite(address, data, size);
         } else if (cartridgeInfoProvider.isSramUsedWithBrokenHeader(address)) { // Buck Rogers
             checkBackupMemoryMapper(SramMode.READ_WRITE);
@@ -24,6 +24,7 @@ import omegadrive.cart.mapper.RomMapper;
 import omegadrive.cpu.ssp16.Ssp16;
 import omegadrive.memory.IMemoryProvider;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Size;
 import org.slf4j.Logger;
 
@@ -42,10 +43,7 @@ public class SvpMapper implements RomMapper, SvpBus {
     private static final boolean verbose = false;
     private static final boolean VR_TEST_MODE = false;
 
-    //TODO fix
-    public static Ssp16 ssp16 = NO_SVP;
-    private static SvpMapper instance = null;
-
+    protected final Ssp16 ssp16;
     protected Svp_t svpCtx;
     protected Ssp1601_t sspCtx;
 
@@ -56,7 +54,15 @@ public class SvpMapper implements RomMapper, SvpBus {
         ssp16 = ssp16p;
         this.svpCtx = ssp16p.getSvpContext();
         this.sspCtx = this.svpCtx.ssp1601;
-        instance = this;
+        MdRuntimeData.current().svpMapper = this;
+    }
+
+    /**
+     * @return the svp of the emulator bound to the calling thread, NO_SVP if the cart doesn't have one
+     */
+    public static Ssp16 getSsp16() {
+        SvpMapper m = MdRuntimeData.current().svpMapper;
+        return m != null ? m.ssp16 : NO_SVP;
     }
 
     public static SvpMapper createInstance(RomMapper baseMapper, Ssp16 ssp16) {
@@ -229,11 +235,12 @@ public class SvpMapper implements RomMapper, SvpBus {
     }
 
     public static void setSvpContext(Svp_t svpCtx) {
-        if (svpCtx == null) {
+        SvpMapper instance = MdRuntimeData.current().svpMapper;
+        if (svpCtx == null || instance == null) {
             return;
         }
         instance.svpCtx = svpCtx;
         instance.sspCtx = svpCtx.ssp1601;
-        ssp16.loadSvpContext(svpCtx);
+        instance.ssp16.loadSvpContext(svpCtx);
     }
 }
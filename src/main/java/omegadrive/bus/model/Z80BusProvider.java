@@ -19,6 +19,7 @@
 
 package omegadrive.bus.model;
 
+import omegadrive.cpu.z80.Z80PageTable;
 import omegadrive.cpu.z80.Z80Provider;
 
 public interface Z80BusProvider extends BaseBusProvider {
@@ -28,4 +29,11 @@ public interface Z80BusProvider extends BaseBusProvider {
     void writeIoPort(int port, int value);
 
     int readIoPort(int port);
+
+    /**
+     * ROM/RAM pages the Z80 can access without going through the bus, null if none
+     */
+    default Z80PageTable getPageTable() {
+        return null;
+    }
 }
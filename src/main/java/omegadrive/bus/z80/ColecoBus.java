@@ -22,6 +22,7 @@ package omegadrive.bus.z80;
 import omegadrive.SystemLoader;
 import omegadrive.bus.DeviceAwareBus;
 import omegadrive.bus.model.Z80BusProvider;
+import omegadrive.cpu.z80.Z80PageTable;
 import omegadrive.cpu.z80.Z80Provider;
 import omegadrive.joypad.ColecoPad;
 import omegadrive.util.FileUtil;
@@ -60,12 +61,29 @@ public class ColecoBus extends DeviceAwareBus<Tms9918aVdp, ColecoPad> implements
 
     private boolean isNmiSet = false;
 
+    private final Z80PageTable pageTable = new Z80PageTable();
+
     public ColecoBus() {
         Path p = Paths.get(SystemLoader.biosFolder, SystemLoader.biosNameColeco);
         bios = FileUtil.loadBiosFile(p);
         LOG.info("Loading Coleco bios from: {}", p.toAbsolutePath());
     }
 
+    @Override
+    public void init() {
+        //$2000-$5FFF is unmapped and reads 0xFF, any write ends up in ram
+        pageTable.mapRead(BIOS_START, BIOS_END + 1, bios, 0, BIOS_END);
+        pageTable.mapRead(RAM_START, RAM_END - RAM_START + 1, memoryProvider.getRamData(), 0, RAM_SIZE - 1);
+        pageTable.mapRead(ROM_START, ROM_END - ROM_START + 1, memoryProvider.getRomData(), 0,
+                memoryProvider.getRomMask());
+        pageTable.mapWrite(0, 0x10000, memoryProvider.getRamData(), 0, RAM_SIZE - 1);
+    }
+
+    @Override
+    public Z80PageTable getPageTable() {
+        return pageTable;
+    }
+
     @Override
     public int read(int addressL, Size size) {
         int address = addressL;
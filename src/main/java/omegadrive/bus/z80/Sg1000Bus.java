@@ -21,6 +21,7 @@ package omegadrive.bus.z80;
 
 import omegadrive.bus.DeviceAwareBus;
 import omegadrive.bus.model.Z80BusProvider;
+import omegadrive.cpu.z80.Z80PageTable;
 import omegadrive.cpu.z80.Z80Provider;
 import omegadrive.joypad.TwoButtonsJoypad;
 import omegadrive.util.LogHelper;
@@ -42,6 +43,21 @@ public class Sg1000Bus extends DeviceAwareBus<Tms9918aVdp, TwoButtonsJoypad> imp
     private static final int RAM_SIZE = 0x400;  //1Kb
     private static final int ROM_SIZE = ROM_END + 1; //48kb
 
+    private final Z80PageTable pageTable = new Z80PageTable();
+
+    @Override
+    public void init() {
+        //ram is mirrored on $C000-$FFFF, any write ends up in ram
+        pageTable.mapRead(ROM_START, ROM_SIZE, memoryProvider.getRomData(), 0, memoryProvider.getRomMask());
+        pageTable.mapRead(RAM_START, RAM_END - RAM_START + 1, memoryProvider.getRamData(), 0, RAM_SIZE - 1);
+        pageTable.mapWrite(0, 0x10000, memoryProvider.getRamData(), 0, RAM_SIZE - 1);
+    }
+
+    @Override
+    public Z80PageTable getPageTable() {
+        return pageTable;
+    }
+
     @Override
     public int read(int addressL, Size size) {
         int address = addressL;
@@ -26,6 +26,7 @@ import omegadrive.cart.MediaInfoProvider;
 import omegadrive.cart.mapper.MapperSelector;
 import omegadrive.cart.mapper.RomMapper;
 import omegadrive.cart.mapper.sms.SmsMapper;
+import omegadrive.cpu.z80.Z80PageTable;
 import omegadrive.cpu.z80.Z80Provider;
 import omegadrive.joypad.TwoButtonsJoypad;
 import omegadrive.util.FileUtil;
@@ -89,6 +90,7 @@ public class SmsBus extends DeviceAwareBus<SmsVdp, TwoButtonsJoypad> implements
 
     private boolean isGG = false;
     private boolean ioEnable = true;
+    private final Z80PageTable pageTable = new Z80PageTable();
 
     @Override
     public void init() {
@@ -121,10 +123,15 @@ public class SmsBus extends DeviceAwareBus<SmsVdp, TwoButtonsJoypad> implements
         } else {
             LOG.info("Unknown rom, assuming {} mapper, crc32: {}", mapperName, cartridgeInfoProvider.getCrc32());
         }
-        smsMapper = SmsMapper.createInstance(cartridgeInfoProvider.getRomName(), memoryProvider);
+        smsMapper = SmsMapper.createInstance(cartridgeInfoProvider.getRomName(), memoryProvider, pageTable);
         mapper = smsMapper.setupRomMapper(mapperName, mapper);
     }
 
+    @Override
+    public Z80PageTable getPageTable() {
+        return pageTable;
+    }
+
     @Override
     public int read(int addressL, Size size) {
         //TODO should be in the mapper?
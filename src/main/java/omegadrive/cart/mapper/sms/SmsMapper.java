@@ -23,6 +23,7 @@ import omegadrive.SystemLoader;
 import omegadrive.bus.z80.SmsBus;
 import omegadrive.cart.mapper.BackupMemoryMapper;
 import omegadrive.cart.mapper.RomMapper;
+import omegadrive.cpu.z80.Z80PageTable;
 import omegadrive.memory.IMemoryProvider;
 import omegadrive.util.LogHelper;
 import omegadrive.util.Size;
@@ -58,10 +59,18 @@ public class SmsMapper {
     private Type currentType = Type.NONE;
     private static final String sramFileType = "srm";
     private String smsRomName;
+    private Z80PageTable pageTable;
+    //rom slot 2 replaced by sram
+    private boolean slot2Sram;
 
     public static SmsMapper createInstance(String romName, IMemoryProvider memoryProvider) {
+        return createInstance(romName, memoryProvider, new Z80PageTable());
+    }
+
+    public static SmsMapper createInstance(String romName, IMemoryProvider memoryProvider, Z80PageTable pageTable) {
         SmsMapper s = new SmsMapper();
         s.memoryProvider = memoryProvider;
+        s.pageTable = pageTable;
         s.smsRomName = romName;
         s.init();
         return s;
@@ -113,6 +122,25 @@ public class SmsMapper {
     private void init() {
         numPages = Math.max(1, memoryProvider.getRomSize() >> 14);
         frameReg = Arrays.copyOf(FRAME_REG_DEFAULT, FRAME_REG_DEFAULT.length);
+        updatePages();
+    }
+
+    /**
+     * Maps the rom frames and the ram, the page holding the Sega mapping registers ($FFFC-$FFFF)
+     * and rom writes still go through the mapper.
+     */
+    private void updatePages() {
+        for (int i = 0; i < frameReg.length; i++) {
+            pageTable.mapRead(i << 14, 0x4000, memoryProvider.getRomData(), frameReg[i] << 14,
+                    memoryProvider.getRomMask());
+        }
+        if (slot2Sram) {
+            pageTable.unmapRead(2 << 14, 0x4000);
+        }
+        int ramLen = SmsBus.RAM_END - SmsBus.RAM_START + 1;
+        pageTable.mapRead(SmsBus.RAM_START, ramLen, memoryProvider.getRamData(), 0, SmsBus.RAM_MASK);
+        pageTable.mapWrite(SmsBus.RAM_START, ramLen - Z80PageTable.PAGE_SIZE, memoryProvider.getRamData(), 0,
+                SmsBus.RAM_MASK);
     }
 
     public int readDataMapper(int addressL, Size size) {
@@ -225,6 +253,7 @@ public class SmsMapper {
                     frameReg[frameRegNum] = data;
                     break;
             }
+            updatePages();
             if (verbose) LOG.info("writeMappingReg: {} , data: {}", addressL, data);
         }
 
@@ -232,6 +261,7 @@ public class SmsMapper {
             //This feature is not known to be used by any software.
 //            sramWriteEnable = (data & 0x80) == 0;
             sramSlot2Enable = (data & 8) > 0;
+            slot2Sram = sramSlot2Enable;
             if (sramSlot2Enable) {
                 initBackupFileIfNecessary();
             }
@@ -266,6 +296,7 @@ public class SmsMapper {
         @Override
         public void writeBankData(int page, int data) {
             frameReg[page] = (data & 0xFF);
+            updatePages();
         }
     }
 
@@ -291,6 +322,7 @@ public class SmsMapper {
         @Override
         public void writeBankData(int addressL, int dataL) {
             frameReg[2] = (dataL & 0xFF);
+            updatePages();
         }
     }
 }
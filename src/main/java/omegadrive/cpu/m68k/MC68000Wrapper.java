@@ -25,11 +25,15 @@ import m68k.cpu.MC68000;
 import m68k.memory.AddressSpace;
 import omegadrive.bus.model.MdM68kBusProvider;
 import omegadrive.cpu.m68k.debug.MC68000WrapperFastDebug;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import omegadrive.util.LogHelper;
 import omegadrive.util.MdRuntimeData;
 import org.slf4j.Logger;
 
+import java.nio.ByteBuffer;
+
 import static m68k.cpu.Cpu.AUTO_VECTOR_EXCEPTION_OFFSET;
 import static omegadrive.util.Util.th;
 
@@ -55,6 +59,8 @@ public class MC68000Wrapper implements M68kProvider {
 
     public static boolean subCpuBusHalt = false;
 
+    private static final int STATE_VERSION = 1;
+
     private static final CpuConfig tasBrokenConfig = CpuConfig.DEFAULT_CONFIG.withBrokenTas(true);
 
     public MC68000Wrapper(CpuDeviceAccess cpu, MdM68kBusProvider busProvider) {
@@ -154,6 +160,35 @@ public class MC68000Wrapper implements M68kProvider {
         return m68k;
     }
 
+    /**
+     * Registers and stop flag, the MD main cpu is stored by {@link omegadrive.savestate.GstStateHandler} instead.
+     * The pending interrupt level is not stored, the interrupt handler raises it again.
+     */
+    @Override
+    public void saveContext(ByteBuffer buffer) {
+        StateCodec.writeHeader(buffer, ContextId.M68K, STATE_VERSION);
+        buffer.putInt(m68k.getPC()).putInt(m68k.getSR()).putInt(m68k.getUSP()).putInt(m68k.getSSP());
+        for (int i = 0; i < 8; i++) {
+            buffer.putInt(m68k.getDataRegisterLong(i)).putInt(m68k.getAddrRegisterLong(i));
+        }
+        StateCodec.putBoolean(buffer, stop);
+    }
+
+    @Override
+    public void loadContext(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.M68K, STATE_VERSION);
+        m68k.setPC(buffer.getInt());
+        //sets the supervisor mode first, then the stack pointers
+        m68k.setSR(buffer.getInt());
+        m68k.setUSP(buffer.getInt());
+        m68k.setSSP(buffer.getInt());
+        for (int i = 0; i < 8; i++) {
+            m68k.setDataRegisterLong(i, buffer.getInt());
+            m68k.setAddrRegisterLong(i, buffer.getInt());
+        }
+        stop = StateCodec.getBoolean(buffer);
+    }
+
     private MC68000 createCpu(CpuConfig config) {
         return new MC68000(config) {
             @Override
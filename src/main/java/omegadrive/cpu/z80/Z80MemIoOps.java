@@ -30,6 +30,7 @@ import static omegadrive.util.Util.th;
 public class Z80MemIoOps implements IMemIoOps {
 
     private Z80BusProvider z80BusProvider;
+    private Z80PageTable pages = Z80PageTable.NO_PAGES;
     private long tstatesCount = 0;
     private boolean activeInterrupt;
     private byte[] ram;
@@ -67,6 +68,9 @@ public class Z80MemIoOps implements IMemIoOps {
             }
         };
         m.z80BusProvider = z80BusProvider;
+        if (z80BusProvider.getPageTable() != null) {
+            m.pages = z80BusProvider.getPageTable();
+        }
         return m;
     }
 
@@ -130,7 +134,8 @@ public class Z80MemIoOps implements IMemIoOps {
 
     protected final int fetchOpcodeBus(int address) {
         tstatesCount += 4;
-        lastFetch = z80BusProvider.read(address, Size.BYTE) & 0xFF;
+        int res = pages.read(address);
+        lastFetch = res >= 0 ? res : z80BusProvider.read(address, Size.BYTE) & 0xFF;
         return lastFetch;
     }
 
@@ -142,13 +147,16 @@ public class Z80MemIoOps implements IMemIoOps {
     @Override
     public int peek8(int address) {
         tstatesCount += 3;
-        return z80BusProvider.read(address, Size.BYTE) & 0xFF;
+        int res = pages.read(address);
+        return res >= 0 ? res : z80BusProvider.read(address, Size.BYTE) & 0xFF;
     }
 
     @Override
     public void poke8(int address, int value) {
         tstatesCount += 3;
-        z80BusProvider.write(address, value & 0xFF, Size.BYTE);
+        if (!pages.write(address, value)) {
+            z80BusProvider.write(address, value & 0xFF, Size.BYTE);
+        }
     }
 
     @Override
@@ -0,0 +1,85 @@
+package omegadrive.cpu.z80;
+
+/**
+ * Z80PageTable
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * 1Kb pages of the Z80 address space backed by a byte array, a null page goes through the bus.
+ * The bus owns the table and maps ROM and RAM pages, the mapper updates them on bank switches;
+ * pages with side effects (mapper registers, sram, I/O) stay unmapped.
+ */
+public class Z80PageTable {
+
+    public static final int PAGE_SHIFT = 10;
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    public static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int NUM_PAGES = 0x10000 >> PAGE_SHIFT;
+
+    //never mapped, for buses without a table
+    static final Z80PageTable NO_PAGES = new Z80PageTable();
+
+    final byte[][] readPages = new byte[NUM_PAGES][];
+    final int[] readOffset = new int[NUM_PAGES];
+    final byte[][] writePages = new byte[NUM_PAGES][];
+    final int[] writeOffset = new int[NUM_PAGES];
+
+    /**
+     * Maps [start, start + len) to data[(dataStart + i) & dataMask], dataMask needs to cover at least one page
+     * and stay within the data, otherwise the range is left to the bus.
+     */
+    public void mapRead(int start, int len, byte[] data, int dataStart, int dataMask) {
+        map(readPages, readOffset, start, len, data, dataStart, dataMask);
+    }
+
+    public void mapWrite(int start, int len, byte[] data, int dataStart, int dataMask) {
+        map(writePages, writeOffset, start, len, data, dataStart, dataMask);
+    }
+
+    public void unmapRead(int start, int len) {
+        map(readPages, readOffset, start, len, null, 0, 0);
+    }
+
+    public void unmapWrite(int start, int len) {
+        map(writePages, writeOffset, start, len, null, 0, 0);
+    }
+
+    public void unmapAll() {
+        unmapRead(0, NUM_PAGES << PAGE_SHIFT);
+        unmapWrite(0, NUM_PAGES << PAGE_SHIFT);
+    }
+
+    /**
+     * @return the byte at the address, -1 if the page is not mapped
+     */
+    public int read(int address) {
+        final int page = (address & 0xFFFF) >>> PAGE_SHIFT;
+        final byte[] data = readPages[page];
+        return data != null ? data[readOffset[page] + (address & PAGE_MASK)] & 0xFF : -1;
+    }
+
+    /**
+     * @return false if the page is not mapped
+     */
+    public boolean write(int address, int value) {
+        final int page = (address & 0xFFFF) >>> PAGE_SHIFT;
+        final byte[] data = writePages[page];
+        if (data != null) {
+            data[writeOffset[page] + (address & PAGE_MASK)] = (byte) value;
+            return true;
+        }
+        return false;
+    }
+
+    private static void map(byte[][] pages, int[] offset, int start, int len, byte[] data, int dataStart, int dataMask) {
+        assert (start & PAGE_MASK) == 0 && (len & PAGE_MASK) == 0 && (dataStart & PAGE_MASK) == 0;
+        boolean valid = data != null && dataMask >= PAGE_MASK && dataMask < data.length;
+        for (int i = 0; i < len; i += PAGE_SIZE) {
+            int page = (start + i) >>> PAGE_SHIFT;
+            pages[page] = valid ? data : null;
+            offset[page] = valid ? (dataStart + i) & dataMask : 0;
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package omegadrive.savestate;
 
+import mcd.savestate.GscdStateHandler;
 import omegadrive.Device;
 import omegadrive.SystemLoader;
 import omegadrive.util.FileUtil;
@@ -73,6 +74,9 @@ public interface BaseStateHandler {
             case S32X:
                 h = Gs32xStateHandler.createInstance(fileName, type, devices);
                 break;
+            case MEGACD:
+                h = GscdStateHandler.createInstance(fileName, type, devices);
+                break;
             case SMS:
             case GG:
                 h = MekaStateHandler.createInstance(systemType, fileName, type, devices);
@@ -92,6 +96,29 @@ public interface BaseStateHandler {
         return h;
     }
 
+    /**
+     * Load a state from memory, only MD, S32X and MEGACD support it.
+     */
+    static BaseStateHandler createInstance(SystemLoader.SystemType systemType, String name,
+                                           Set<Device> devices, byte[] data) {
+        BaseStateHandler h = BaseStateHandler.EMPTY_STATE;
+        switch (systemType) {
+            case MD:
+                h = GshStateHandler.createInstance(name, devices, data);
+                break;
+            case S32X:
+                h = Gs32xStateHandler.createInstance(name, devices, data);
+                break;
+            case MEGACD:
+                h = GscdStateHandler.createInstance(name, devices, data);
+                break;
+            default:
+                LOG.error("{} doesn't support loading savestates from memory", systemType);
+                break;
+        }
+        return h;
+    }
+
     default void processState() {
         //DO NOTHING
     }
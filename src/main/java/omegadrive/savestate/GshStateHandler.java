@@ -44,10 +44,12 @@ public class GshStateHandler extends GstStateHandler {
     protected static final String MAGIC_WORD = "GSH";
     protected static final String MAGIC_WORD_GST = "GST";
     protected static final String FM_MAGIC_WORD_NUKE = "NUKE";
+    protected static final String FM_MAGIC_WORD_NUKE_BIN = "NUKB";
     protected static final String SVP_MAGIC_WORD = "SVP0";
     protected static final String fileExtension = "gsh";
 
     private static final int SSF2_MAPPER_REG_OFFSET = 0x440;
+    private static final int FM_STATE_MAX_SIZE = 0x2000;
 
     public static BaseStateHandler createInstance(String fileName, Type type, Set<Device> deviceSet) {
         GshStateHandler h = new GshStateHandler();
@@ -57,6 +59,16 @@ public class GshStateHandler extends GstStateHandler {
         return h;
     }
 
+    public static BaseStateHandler createInstance(String fileName, Set<Device> deviceSet, byte[] data) {
+        GshStateHandler h = new GshStateHandler();
+        h.type = Type.LOAD;
+        h.fileName = handleFileExtension(fileName);
+        h.buffer = ByteBuffer.wrap(data);
+        h.detectStateFileType();
+        h.setDevicesWithContext(deviceSet);
+        return h;
+    }
+
     protected GshStateHandler() {
     }
 
@@ -97,8 +109,11 @@ public class GshStateHandler extends GstStateHandler {
     @Override
     public void loadFmState(FmProvider fm) {
         byte[] ba = buffer.array();
+        int fmNukeBinStart = Bytes.indexOf(ba, FM_MAGIC_WORD_NUKE_BIN.getBytes());
         int fmNukeStart = Bytes.indexOf(ba, FM_MAGIC_WORD_NUKE.getBytes());
-        if (fmNukeStart > -1 && fm instanceof Ym2612Nuke nukeFm) {
+        if (fmNukeBinStart > -1 && fm instanceof Ym2612Nuke nukeFm) {
+            nukeFm.loadState(ByteBuffer.wrap(ba).position(fmNukeBinStart + FM_MAGIC_WORD_NUKE_BIN.length()));
+        } else if (fmNukeStart > -1 && fm instanceof Ym2612Nuke nukeFm) {
             Optional<Serializable> res = StateUtil.loadSerializedData(FM_MAGIC_WORD_NUKE, fmNukeStart, ba);
             res.ifPresent(ser -> nukeFm.setState((Ym2612Nuke.Ym3438Context) ser));
         } else {
@@ -119,9 +134,10 @@ public class GshStateHandler extends GstStateHandler {
     @Override
     public void saveFm(FmProvider fm) {
         super.saveFm(fm); //save FM registers, back-compat
-        if (fm instanceof Ym2612Nuke) {
-            Ym2612Nuke.Ym3438Context chip = ((Ym2612Nuke) fm).getState();
-            buffer = StateUtil.storeSerializedData(FM_MAGIC_WORD_NUKE, chip, buffer);
+        if (fm instanceof Ym2612Nuke nukeFm) {
+            ByteBuffer b = ByteBuffer.allocate(FM_STATE_MAX_SIZE);
+            nukeFm.saveState(b);
+            buffer = StateUtil.storeData(FM_MAGIC_WORD_NUKE_BIN, FM_MAGIC_WORD_NUKE_BIN, b.array(), 0, b.position(), buffer);
         }
     }
 
@@ -135,7 +151,7 @@ public class GshStateHandler extends GstStateHandler {
     public void saveZ80(Z80Provider z80, MdMainBusProvider bus) {
         super.saveZ80(z80, bus);
         saveMapper(bus);
-        saveSvp(SvpMapper.ssp16);
+        saveSvp(SvpMapper.getSsp16());
     }
 
     private void saveMapper(MdMainBusProvider bus) {
@@ -149,7 +165,7 @@ public class GshStateHandler extends GstStateHandler {
     public void loadZ80(Z80Provider z80, MdMainBusProvider bus) {
         super.loadZ80(z80, bus);
         loadMapper(bus);
-        loadSvpState(SvpMapper.ssp16);
+        loadSvpState(SvpMapper.getSsp16());
     }
 
     private void loadMapper(MdMainBusProvider bus) {
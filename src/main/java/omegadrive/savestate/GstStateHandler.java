@@ -47,7 +47,7 @@ import java.util.Set;
 import java.util.stream.IntStream;
 
 import static omegadrive.savestate.StateUtil.*;
-import static omegadrive.vdp.model.MdVdpProvider.VdpRamType.VRAM;
+import static omegadrive.vdp.model.MdVdpProvider.VdpRamType.*;
 
 public class GstStateHandler implements BaseStateHandler {
 
@@ -170,15 +170,13 @@ public class GstStateHandler implements BaseStateHandler {
             vmi.writeVideoRamByte(VRAM, i + 1, buffer.get(i + VRAM_DATA_OFFSET + 1));
         }
         //cram is swapped
-        byte[] cram = vmi.getCram().array();
         for (int i = 0; i < MdVdpProvider.VDP_CRAM_SIZE; i += 2) {
-            cram[i] = buffer.get(i + CRAM_DATA_OFFSET + 1);
-            cram[i + 1] = buffer.get(i + CRAM_DATA_OFFSET);
+            vmi.writeVideoRamByte(CRAM, i, buffer.get(i + CRAM_DATA_OFFSET + 1));
+            vmi.writeVideoRamByte(CRAM, i + 1, buffer.get(i + CRAM_DATA_OFFSET));
         }
-        byte[] vsram = vmi.getVsram().array();
         for (int i = 0; i < MdVdpProvider.VDP_VSRAM_SIZE; i += 2) {
-            vsram[i] = buffer.get(i + VSRAM_DATA_OFFSET);
-            vsram[i + 1] = buffer.get(i + VSRAM_DATA_OFFSET + 1);
+            vmi.writeVideoRamByte(VSRAM, i, buffer.get(i + VSRAM_DATA_OFFSET));
+            vmi.writeVideoRamByte(VSRAM, i + 1, buffer.get(i + VSRAM_DATA_OFFSET + 1));
         }
     }
 
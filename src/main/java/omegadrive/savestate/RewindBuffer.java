@@ -0,0 +1,276 @@
+package omegadrive.savestate;
+
+import omegadrive.util.LogHelper;
+import omegadrive.util.PriorityThreadFactory;
+import omegadrive.util.Util;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * RewindBuffer
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Keeps the most recent snapshot as is and every older snapshot as a reverse delta:
+ * older XOR newer, zero-run-length encoded, stored in a preallocated byte ring.
+ * Stepping back is newest ^ delta, when the ring is full the oldest deltas are dropped.
+ * <p>
+ * The emulation thread only hands over the snapshot, the encoding runs on a background thread.
+ * Record layout: [olderLen:s32]{[zeroRun:varint][literalLen:varint][literal bytes]}*
+ */
+public class RewindBuffer {
+
+    private static final Logger LOG = LogHelper.getLogger(RewindBuffer.class.getSimpleName());
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("helios.rewind", "false"));
+    public static final int SIZE_MB = Integer.parseInt(System.getProperty("helios.rewind.size.mb", "64"));
+    public static final int INTERVAL_FRAMES = Integer.parseInt(System.getProperty("helios.rewind.frames", "10"));
+
+    //a run of zeros shorter than this is stored as a literal
+    private static final int MIN_ZERO_RUN = 4;
+
+    private final byte[] ring;
+    //newest record last, each entry is [offset:32|length:32]
+    private final ArrayDeque<Long> records = new ArrayDeque<>();
+    private final int intervalFrames;
+    private final ExecutorService exec;
+    private int head, used;
+    private byte[] latest;
+    private byte[] scratch = new byte[0];
+    private long frameCnt;
+
+    public static RewindBuffer createInstance() {
+        return new RewindBuffer(SIZE_MB << 20, INTERVAL_FRAMES, true);
+    }
+
+    /**
+     * @param async when false the encoding runs on the caller thread
+     */
+    public RewindBuffer(int capacityBytes, int intervalFrames, boolean async) {
+        this.ring = new byte[capacityBytes];
+        this.intervalFrames = Math.max(1, intervalFrames);
+        this.exec = async ? Executors.newSingleThreadExecutor(new PriorityThreadFactory(Thread.MIN_PRIORITY, this)) : null;
+        LOG.info("Rewind buffer: {} Mb, a snapshot every {} frames", capacityBytes >> 20, this.intervalFrames);
+    }
+
+    /**
+     * Emulation thread, call once per frame
+     */
+    public boolean isCaptureFrame() {
+        return ++frameCnt % intervalFrames == 0;
+    }
+
+    /**
+     * The snapshot must not be modified afterwards
+     */
+    public void push(byte[] snapshot) {
+        run(() -> pushInternal(snapshot));
+    }
+
+    /**
+     * Returns the latest snapshot and steps back, the following call returns the snapshot before it.
+     */
+    public Optional<byte[]> pop() {
+        //the next capture happens intervalFrames from now
+        frameCnt = 0;
+        if (exec == null) {
+            return Optional.ofNullable(popInternal());
+        }
+        try {
+            //waits for any pending push
+            return Optional.ofNullable(exec.submit(this::popInternal).get());
+        } catch (Exception e) {
+            LOG.error("Unable to rewind", e);
+            return Optional.empty();
+        }
+    }
+
+    public void clear() {
+        run(this::clearInternal);
+    }
+
+    public void close() {
+        if (exec != null) {
+            exec.shutdownNow();
+        }
+    }
+
+    /**
+     * Number of snapshots available
+     */
+    public synchronized int size() {
+        return latest == null ? 0 : records.size() + 1;
+    }
+
+    public synchronized int usedBytes() {
+        return used;
+    }
+
+    private void run(Runnable r) {
+        if (exec == null) {
+            r.run();
+        } else {
+            exec.execute(Util.wrapRunnableEx(r));
+        }
+    }
+
+    private synchronized void clearInternal() {
+        records.clear();
+        head = used = 0;
+        latest = null;
+    }
+
+    private synchronized void pushInternal(byte[] snapshot) {
+        if (latest != null) {
+            int len = encode(latest, snapshot);
+            if (len > ring.length) {
+                LOG.warn("Snapshot delta too large: {} bytes, rewind buffer: {} bytes", len, ring.length);
+                records.clear();
+                head = used = 0;
+            } else {
+                while (used + len > ring.length) {
+                    used -= (int) records.removeFirst().longValue();
+                }
+                int start = head;
+                copyToRing(scratch, len);
+                records.addLast(((long) start << 32) | len);
+            }
+        }
+        latest = snapshot;
+    }
+
+    private synchronized byte[] popInternal() {
+        byte[] res = latest;
+        if (records.isEmpty()) {
+            latest = null;
+            return res;
+        }
+        long rec = records.removeLast();
+        int start = (int) (rec >>> 32), len = (int) rec;
+        ensureScratch(len);
+        copyFromRing(start, len);
+        head = start;
+        used -= len;
+        latest = decode(res, len);
+        return res;
+    }
+
+    private int encode(byte[] older, byte[] newer) {
+        final int n = older.length;
+        ensureScratch(16);
+        int pos = putInt(scratch, 0, n);
+        int i = 0;
+        while (i < n) {
+            int zeroStart = i;
+            while (i < n && xor(older, newer, i) == 0) {
+                i++;
+            }
+            int zeroRun = i - zeroStart;
+            int litStart = i;
+            //literal ends at the first run of MIN_ZERO_RUN zeros
+            int zeros = 0;
+            while (i < n && zeros < MIN_ZERO_RUN) {
+                zeros = xor(older, newer, i) == 0 ? zeros + 1 : 0;
+                i++;
+            }
+            if (zeros == MIN_ZERO_RUN) {
+                i -= zeros;
+            }
+            int litLen = i - litStart;
+            ensureScratch(pos + 10 + litLen);
+            pos = putVarInt(scratch, pos, zeroRun);
+            pos = putVarInt(scratch, pos, litLen);
+            for (int j = litStart; j < i; j++) {
+                scratch[pos++] = xor(older, newer, j);
+            }
+        }
+        return pos;
+    }
+
+    private byte[] decode(byte[] newer, int len) {
+        final int n = getInt(scratch, 0);
+        byte[] older = new byte[n];
+        System.arraycopy(newer, 0, older, 0, Math.min(n, newer.length));
+        int pos = 4, i = 0;
+        long v;
+        while (pos < len) {
+            v = getVarInt(scratch, pos);
+            i += (int) v;
+            pos = (int) (v >>> 32);
+            v = getVarInt(scratch, pos);
+            int litLen = (int) v;
+            pos = (int) (v >>> 32);
+            for (int j = 0; j < litLen; j++, i++) {
+                older[i] ^= scratch[pos++];
+            }
+        }
+        assert i <= n;
+        return older;
+    }
+
+    private static byte xor(byte[] older, byte[] newer, int i) {
+        return (byte) (older[i] ^ (i < newer.length ? newer[i] : 0));
+    }
+
+    private void copyToRing(byte[] src, int len) {
+        int first = Math.min(len, ring.length - head);
+        System.arraycopy(src, 0, ring, head, first);
+        System.arraycopy(src, first, ring, 0, len - first);
+        head = (head + len) % ring.length;
+        used += len;
+    }
+
+    private void copyFromRing(int start, int len) {
+        int first = Math.min(len, ring.length - start);
+        System.arraycopy(ring, start, scratch, 0, first);
+        System.arraycopy(ring, 0, scratch, first, len - first);
+    }
+
+    private void ensureScratch(int len) {
+        if (scratch.length < len) {
+            byte[] s = new byte[Math.max(len, scratch.length + (scratch.length >> 1))];
+            System.arraycopy(scratch, 0, s, 0, scratch.length);
+            scratch = s;
+        }
+    }
+
+    private static int putInt(byte[] b, int pos, int v) {
+        b[pos] = (byte) (v >>> 24);
+        b[pos + 1] = (byte) (v >>> 16);
+        b[pos + 2] = (byte) (v >>> 8);
+        b[pos + 3] = (byte) v;
+        return pos + 4;
+    }
+
+    private static int getInt(byte[] b, int pos) {
+        return (b[pos] & 0xFF) << 24 | (b[pos + 1] & 0xFF) << 16 | (b[pos + 2] & 0xFF) << 8 | (b[pos + 3] & 0xFF);
+    }
+
+    private static int putVarInt(byte[] b, int pos, int v) {
+        while ((v & ~0x7F) != 0) {
+            b[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        b[pos++] = (byte) v;
+        return pos;
+    }
+
+    /**
+     * @return [nextPos:32|value:32]
+     */
+    private static long getVarInt(byte[] b, int pos) {
+        int v = 0, shift = 0, k;
+        do {
+            k = b[pos++];
+            v |= (k & 0x7F) << shift;
+            shift += 7;
+        } while ((k & 0x80) != 0);
+        return ((long) pos << 32) | (v & 0xFFFF_FFFFL);
+    }
+}
@@ -0,0 +1,200 @@
+package omegadrive.savestate;
+
+import omegadrive.util.Fifo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * StateCodec
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Reflection-free binary format for device contexts, replaces java serialization.
+ * Each context is written as: [MAGIC:u16][contextId:u8][version:u8][fields...],
+ * fields have a fixed layout defined by the device, arrays are length-prefixed.
+ * <p>
+ * Contexts saved by older releases via java serialization start with 0xACED, see {@link #isLegacy(ByteBuffer)}.
+ */
+public final class StateCodec {
+
+    public static final short MAGIC = 0x4853; //HS
+    private static final short JAVA_SERIAL_MAGIC = (short) 0xACED;
+
+    /**
+     * Do not reorder or reuse ids, add new ones at the end
+     */
+    public enum ContextId {
+        SH2(1), SH2_CACHE(2), S32X_BUS(3), DMA_FIFO_68K(4), PWM(5), S32X_MMREG(6), SH2_MMREG(7),
+        MARS_VDP(8), YM3438(9), S32X_CONTAINER(10), M68K(11), MCD_MEMORY(12), MCD_SUB_BUS(13), MCD_MAIN_BUS(14),
+        MCD_CDC(15), MCD_CDD(16), MCD_PCM(17), MCD_ASIC(18), MCD_INT_HANDLER(19), MCD_CONTAINER(20);
+
+        public final int id;
+
+        ContextId(int id) {
+            this.id = id;
+        }
+    }
+
+    private StateCodec() {
+    }
+
+    /**
+     * Checks the data at the current position, does not move it.
+     */
+    public static boolean isLegacy(ByteBuffer b) {
+        return b.remaining() >= 2 && b.getShort(b.position()) == JAVA_SERIAL_MAGIC;
+    }
+
+    public static void writeHeader(ByteBuffer b, ContextId ctx, int version) {
+        b.putShort(MAGIC).put((byte) ctx.id).put((byte) version);
+    }
+
+    /**
+     * @return the version of the data
+     */
+    public static int readHeader(ByteBuffer b, ContextId ctx, int currentVersion) {
+        short magic = b.getShort();
+        int id = b.get() & 0xFF;
+        int version = b.get() & 0xFF;
+        if (magic != MAGIC || id != ctx.id) {
+            throw new IllegalStateException("Unexpected context data, expected: " + ctx + ", found id: " + id
+                    + ", magic: " + Integer.toHexString(magic & 0xFFFF));
+        }
+        if (version > currentVersion) {
+            throw new IllegalStateException("Unsupported " + ctx + " version: " + version
+                    + ", current: " + currentVersion);
+        }
+        return version;
+    }
+
+    public static void putBoolean(ByteBuffer b, boolean val) {
+        b.put((byte) (val ? 1 : 0));
+    }
+
+    public static boolean getBoolean(ByteBuffer b) {
+        return b.get() != 0;
+    }
+
+    public static void putInts(ByteBuffer b, int[] data) {
+        b.putInt(data.length);
+        for (int v : data) {
+            b.putInt(v);
+        }
+    }
+
+    public static void getInts(ByteBuffer b, int[] dest) {
+        checkLen(b.getInt(), dest.length);
+        for (int i = 0; i < dest.length; i++) {
+            dest[i] = b.getInt();
+        }
+    }
+
+    public static void putInts(ByteBuffer b, int[][] data) {
+        b.putInt(data.length);
+        for (int[] row : data) {
+            putInts(b, row);
+        }
+    }
+
+    public static void getInts(ByteBuffer b, int[][] dest) {
+        checkLen(b.getInt(), dest.length);
+        for (int[] row : dest) {
+            getInts(b, row);
+        }
+    }
+
+    public static void putBooleans(ByteBuffer b, boolean[] data) {
+        b.putInt(data.length);
+        for (boolean v : data) {
+            putBoolean(b, v);
+        }
+    }
+
+    public static void getBooleans(ByteBuffer b, boolean[] dest) {
+        checkLen(b.getInt(), dest.length);
+        for (int i = 0; i < dest.length; i++) {
+            dest[i] = getBoolean(b);
+        }
+    }
+
+    public static void putBytes(ByteBuffer b, byte[] data) {
+        b.putInt(data.length);
+        b.put(data);
+    }
+
+    public static void getBytes(ByteBuffer b, byte[] dest) {
+        checkLen(b.getInt(), dest.length);
+        b.get(dest);
+    }
+
+    /**
+     * Bulk copy of the whole src buffer, position and limit of src are not modified.
+     */
+    public static void putBuffer(ByteBuffer b, ByteBuffer src) {
+        final int len = src.capacity();
+        b.putInt(len);
+        b.put(b.position(), src, 0, len);
+        b.position(b.position() + len);
+    }
+
+    public static void getBuffer(ByteBuffer b, ByteBuffer dest) {
+        final int len = dest.capacity();
+        checkLen(b.getInt(), len);
+        dest.put(0, b, b.position(), len);
+        b.position(b.position() + len);
+    }
+
+    public static <E extends Enum<E>> void putEnum(ByteBuffer b, E e) {
+        b.put((byte) e.ordinal());
+    }
+
+    public static <E extends Enum<E>> E getEnum(ByteBuffer b, E[] values) {
+        return values[b.get() & 0xFF];
+    }
+
+    public static void putIntFifo(ByteBuffer b, Fifo<Integer> fifo) {
+        ((Fifo.FixedSizeFifo<Integer>) fifo).saveIntContext(b);
+    }
+
+    public static void getIntFifo(ByteBuffer b, Fifo<Integer> fifo) {
+        ((Fifo.FixedSizeFifo<Integer>) fifo).loadIntContext(b);
+    }
+
+    /**
+     * Named entry: [nameLen:u16][name:ascii][dataLen:s32][data], the data is written by the writer.
+     */
+    public static void putEntry(ByteBuffer b, String name, Consumer<ByteBuffer> writer) {
+        b.putShort((short) name.length()).put(name.getBytes(StandardCharsets.US_ASCII));
+        int lenPos = b.position();
+        b.putInt(0);
+        writer.accept(b);
+        b.putInt(lenPos, b.position() - lenPos - 4);
+    }
+
+    /**
+     * Reads [numEntries:s32] followed by the entries, each value is a view on the entry data.
+     */
+    public static Map<String, ByteBuffer> getEntries(ByteBuffer b) {
+        Map<String, ByteBuffer> entries = new HashMap<>();
+        for (int i = b.getInt(); i > 0; i--) {
+            byte[] name = new byte[b.getShort()];
+            b.get(name);
+            int len = b.getInt();
+            entries.put(new String(name, StandardCharsets.US_ASCII), b.slice(b.position(), len));
+            b.position(b.position() + len);
+        }
+        return entries;
+    }
+
+    private static void checkLen(int len, int expected) {
+        if (len != expected) {
+            throw new IllegalStateException("Unexpected array length: " + len + ", expected: " + expected);
+        }
+    }
+}
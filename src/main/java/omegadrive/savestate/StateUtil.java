@@ -173,14 +173,21 @@ public class StateUtil {
 
     public static ByteBuffer storeSerializedData(String magicWordStart, String magicWordEnd, Serializable object,
                                                  ByteBuffer buffer) {
+        return storeData(magicWordStart, magicWordEnd, Util.serializeObject(object), 0, -1, buffer);
+    }
+
+    /**
+     * Appends [magicWordStart][data[offset, offset+len)][magicWordEnd] to the buffer, len < 0 means the whole array
+     */
+    public static ByteBuffer storeData(String magicWordStart, String magicWordEnd, byte[] data, int offset, int len,
+                                       ByteBuffer buffer) {
         int prevPos = buffer.position();
-        int len = magicWordStart.length() + magicWordEnd.length();
-        byte[] data = Util.serializeObject(object);
-        buffer = extendBuffer(buffer, data.length + len);
+        len = len < 0 ? data.length - offset : len;
+        buffer = extendBuffer(buffer, len + magicWordStart.length() + magicWordEnd.length());
 
         try {
             buffer.put(magicWordStart.getBytes());
-            buffer.put(data);
+            buffer.put(data, offset, len);
             buffer.put(magicWordEnd.getBytes());
         } catch (Exception var10) {
             LOG.error("Unable to save {} data", magicWordStart);
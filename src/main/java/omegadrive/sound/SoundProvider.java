@@ -20,6 +20,7 @@
 package omegadrive.sound;
 
 import omegadrive.Device;
+import omegadrive.SystemLoader;
 import omegadrive.sound.SoundDevice.SoundDeviceType;
 import omegadrive.sound.fm.FmProvider;
 import omegadrive.sound.psg.PsgProvider;
@@ -50,6 +51,13 @@ public interface SoundProvider extends Device, BaseVdpProvider.VdpEventListener,
 
     boolean JAL_SOUND_MGR = Boolean.parseBoolean(System.getProperty("helios.jal.sound.mgr", "false"));
 
+    /**
+     * Frontends providing their own sound output, ie. the headless batch runner
+     */
+    interface Factory {
+        SoundProvider createSoundProvider(SystemLoader.SystemType systemType);
+    }
+
     void init(Region region);
 
     PsgProvider getPsg();
@@ -114,9 +114,12 @@ public class AudioRateControl {
         public final String sourceName;
         public String infoString;
         private final int samplesPerSecond;
+        private final Telemetry telemetry;
 
         protected StatsHolder(String sourceName, int samplesPerSecond) {
             this.sourceName = sourceName;
+            //the sound thread is not bound to the emulator instance
+            this.telemetry = Telemetry.getInstance();
             this.samplesPerSecond = samplesPerSecond;
             statsHolderMap.clear();
             statsHolderMap.put(sourceName, this);
@@ -124,9 +127,9 @@ public class AudioRateControl {
 
         protected void computeTelemetryStats() {
             audioDelayMs = (long) (1000.0 * latestLen / samplesPerSecond);
-            Telemetry.getInstance().addSample(sourceName + ".fmCalcPerMicros", fmCalcPerMicros);
-            Telemetry.getInstance().addSample(sourceName + ".audioDelayMs", audioDelayMs);
-            Telemetry.getInstance().addSample(sourceName + ".audioQueueLen", latestLen);
+            telemetry.addSample(sourceName + ".fmCalcPerMicros", fmCalcPerMicros);
+            telemetry.addSample(sourceName + ".audioDelayMs", audioDelayMs);
+            telemetry.addSample(sourceName + ".audioQueueLen", latestLen);
         }
 
         protected String computeStringStats() {
@@ -2,13 +2,9 @@ package omegadrive.sound.fm;
 
 import omegadrive.system.BaseSystem;
 import omegadrive.util.LogHelper;
-import omegadrive.util.Util;
-import org.jctools.queues.atomic.SpscAtomicArrayQueue;
 import org.slf4j.Logger;
 
 import javax.sound.sampled.AudioFormat;
-import java.util.Queue;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static omegadrive.util.Util.th;
 
@@ -22,11 +18,9 @@ import static omegadrive.util.Util.th;
 public class GenericAudioProvider implements FmProvider {
 
     private static final Logger LOG = LogHelper.getLogger(GenericAudioProvider.class.getSimpleName());
-    protected final AtomicInteger stereoQueueLen = new AtomicInteger();
-    //NOTE: each element represent a 16 bit sample for one channel
-    protected final Queue<Integer> sampleQueue;
+    //NOTE: each element represents a stereo frame
+    protected final StereoSampleRing sampleRing;
     protected volatile boolean running = false;
-    private final Integer[] stereoSamples = new Integer[2]; //[0] left, [1] right
     private final int audioScaleBits;
     private final int sampleShift;
 
@@ -35,8 +29,11 @@ public class GenericAudioProvider implements FmProvider {
         this(inputAudioFormat, 0, ((int) inputAudioFormat.getSampleRate()) << 2);
     }
 
+    /**
+     * @param maxQueueLen in 16 bit samples, ie. two per stereo frame
+     */
     public GenericAudioProvider(AudioFormat inputAudioFormat, int audioScaleBits, int maxQueueLen) {
-        sampleQueue = new SpscAtomicArrayQueue<>(maxQueueLen);
+        sampleRing = new StereoSampleRing(maxQueueLen >> 1);
         sampleShift = 16 - inputAudioFormat.getSampleSizeInBits();
         this.audioScaleBits = audioScaleBits;
         LOG.info("Input sound source format: {}, audioScaleBits: {}", inputAudioFormat, audioScaleBits);
@@ -48,54 +45,29 @@ public class GenericAudioProvider implements FmProvider {
             return 0;
         }
         offset <<= 1;
-        int end = (count << 1) + offset;
-        int queueIndicativeLen = stereoQueueLen.get();
-        int i = offset;
-        for (; i < end && queueIndicativeLen > 0; i += 2) {
-            //when using mono we process two samples
-            if (!fillStereoSamples(stereoSamples)) {
-                LOG.warn("Null left sample QL{} P{}", queueIndicativeLen, i);
-                break;
-            }
-            queueIndicativeLen = stereoQueueLen.addAndGet(-2);
-            //Integer -> short -> int
-            buf_lr[i] = ((short) (stereoSamples[0] & 0xFFFF)) << audioScaleBits;
-            buf_lr[i + 1] = ((short) (stereoSamples[1] & 0xFFFF)) << audioScaleBits;
-        }
-        return i;
+        int frames = sampleRing.drainStereo16(buf_lr, offset, count, audioScaleBits);
+        return offset + (frames << 1);
     }
 
-    private boolean fillStereoSamples(Integer[] stereoSamples) {
-        stereoSamples[0] = sampleQueue.peek();
-        if (stereoSamples[0] == null) {
-            return false;
-        }
-        sampleQueue.poll();
-        stereoSamples[1] = sampleQueue.poll();
-        if (stereoSamples[1] == null) {
-            stereoSamples[1] = stereoSamples[0];
-            LOG.warn("Null right sample, left: {}", stereoSamples[0]);
-        }
-        //sanity check
-        assert (stereoSamples[0] & 1) == 1 && (stereoSamples[1] & 1) == 0;
-        return true;
+    /**
+     * Number of 16 bit samples waiting to be played, ie. two per stereo frame
+     */
+    protected int getStereoQueueLen() {
+        return sampleRing.size() << 1;
+    }
+
+    protected void clearQueue() {
+        sampleRing.clear();
     }
 
     protected void addStereoSample(int left, int right) {
         if (!running) {
             return;
         }
-        boolean res = sampleQueue.offer(Util.getFromIntegerCache((left << sampleShift) | 1)); //sampleL is always odd
-        boolean res2 = sampleQueue.offer(Util.getFromIntegerCache((right << sampleShift) & ~1)); //sampleR is always even
-        stereoQueueLen.addAndGet(2);
+        boolean res = sampleRing.offer(left << sampleShift, right << sampleShift);
         if (!res) {
             //NOTE when running at > 60 fps we expect to drop samples
-            if (!BaseSystem.fullThrottle) LOG.warn("Left sample dropped: {}", th(left));
-            stereoQueueLen.decrementAndGet();
-        }
-        if (!res2) {
-            if (!BaseSystem.fullThrottle) LOG.warn("Right sample dropped: {}", th(right));
-            stereoQueueLen.decrementAndGet();
+            if (!BaseSystem.fullThrottle) LOG.warn("Sample dropped, L/R: {}/{}", th(left), th(right));
         }
     }
 
@@ -106,6 +78,14 @@ public class GenericAudioProvider implements FmProvider {
         addStereoSample(sample, sample);
     }
 
+    /**
+     * Publishes the samples of this frame, see {@link StereoSampleRing#flush()}
+     */
+    @Override
+    public void onNewFrame() {
+        sampleRing.flush();
+    }
+
     public void start() {
         running = true;
         //LOG.debug("Running: {}", running);
@@ -129,8 +109,7 @@ public class GenericAudioProvider implements FmProvider {
     @Override
     public void reset() {
         stop();
-        sampleQueue.clear();
-        stereoQueueLen.set(0);
+        sampleRing.clear();
         start();
     }
 }
@@ -72,7 +72,8 @@ public abstract class VariableSampleRateSource extends GenericAudioProvider {
 
     @Override
     public void onNewFrame() {
-        fmCalcsPerMicros = audioRateControl.adaptiveRateControl(stereoQueueLen.get(), fmCalcsPerMicros, sampleRatePerFrame);
+        super.onNewFrame();
+        fmCalcsPerMicros = audioRateControl.adaptiveRateControl(getStereoQueueLen(), fmCalcsPerMicros, sampleRatePerFrame);
         sampleRatePerFrame = 0;
     }
 }
@@ -297,7 +297,7 @@ public final class YM2612 extends Ym2612RegSupport implements MdFmProvider {
     //busy last 90 Z80 cycles  @ 3.75 Mhz = 45 cycles @ 1.67 Mhz
     static int BUSY_MICROS = 24; //was 44
 
-    private static boolean isResetting;
+    private boolean isResetting;
 
     public final void reset() {
         int i, j;
@@ -365,7 +365,7 @@ public final class YM2612 extends Ym2612RegSupport implements MdFmProvider {
         isResetting = false;
     }
 
-    private static void logWarn(String msg) {
+    private void logWarn(String msg) {
         if (isResetting) {
             return;
         }
@@ -19,6 +19,8 @@
 
 package omegadrive.sound.fm.ym2612.nukeykt;
 
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.sound.fm.MdFmProvider;
 import omegadrive.sound.fm.VariableSampleRateSource;
 import omegadrive.sound.fm.ym2612.Ym2612RegSupport;
@@ -28,6 +30,7 @@ import org.slf4j.Logger;
 import javax.sound.sampled.AudioFormat;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -174,6 +177,16 @@ public class Ym2612Nuke extends VariableSampleRateSource implements MdFmProvider
         return state;
     }
 
+    public void saveState(ByteBuffer buffer) {
+        state.save(buffer);
+    }
+
+    public void loadState(ByteBuffer buffer) {
+        spin(); //flush pending cycles before the chip is overwritten
+        state.load(buffer);
+        setState(state);
+    }
+
     public static class Ym3438Context implements Serializable {
 
         @Serial
@@ -184,10 +197,27 @@ public class Ym2612Nuke extends VariableSampleRateSource implements MdFmProvider
         final int[][] ym3438_accm = new int[24][2];
         IYm3438.IYm3438_Type chip;
 
+        private static final int STATE_VERSION = 1;
+
         public void reset() {
             ym3438_cycles = 0;
             ym3438_diffLR_sampleL = 0;
             Arrays.stream(ym3438_accm).forEach(row -> Arrays.fill(row, 0));
         }
+
+        void save(ByteBuffer b) {
+            StateCodec.writeHeader(b, ContextId.YM3438, STATE_VERSION);
+            b.putInt(ym3438_cycles).putInt(ym3438_diffLR_sampleL);
+            StateCodec.putInts(b, ym3438_accm);
+            Ym3438ChipCodec.save(b, chip);
+        }
+
+        void load(ByteBuffer b) {
+            StateCodec.readHeader(b, ContextId.YM3438, STATE_VERSION);
+            ym3438_cycles = b.getInt();
+            ym3438_diffLR_sampleL = b.getInt();
+            StateCodec.getInts(b, ym3438_accm);
+            Ym3438ChipCodec.load(b, chip);
+        }
     }
 }
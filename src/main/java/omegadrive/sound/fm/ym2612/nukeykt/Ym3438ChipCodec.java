@@ -0,0 +1,287 @@
+package omegadrive.sound.fm.ym2612.nukeykt;
+
+import java.nio.ByteBuffer;
+
+import static omegadrive.savestate.StateCodec.*;
+
+/**
+ * Ym3438ChipCodec
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Fixed layout binary codec for {@link IYm3438.IYm3438_Type}, fields are written in declaration order.
+ * Any change to the layout requires bumping {@link Ym2612Nuke.Ym3438Context} STATE_VERSION.
+ */
+final class Ym3438ChipCodec {
+
+    private Ym3438ChipCodec() {
+    }
+
+    static void save(ByteBuffer b, IYm3438.IYm3438_Type c) {
+        b.putInt(c.cycles);
+        b.putInt(c.channel);
+        b.putInt(c.mol);
+        b.putInt(c.mor);
+        b.putInt(c.write_data);
+        b.putInt(c.write_a);
+        b.putInt(c.write_d);
+        putBoolean(b, c.write_a_en);
+        putBoolean(b, c.write_d_en);
+        b.putInt(c.write_busy);
+        b.putInt(c.write_busy_cnt);
+        putBoolean(b, c.write_fm_address);
+        b.putInt(c.write_fm_data);
+        b.putInt(c.write_fm_mode_a);
+        b.putInt(c.address);
+        b.putInt(c.data);
+        b.putInt(c.pin_test_in);
+        b.putInt(c.pin_irq);
+        b.putInt(c.busy);
+        b.putInt(c.lfo_en);
+        b.putInt(c.lfo_freq);
+        b.putInt(c.lfo_pm);
+        b.putInt(c.lfo_am);
+        b.putInt(c.lfo_cnt);
+        b.putInt(c.lfo_inc);
+        b.putInt(c.lfo_quotient);
+        b.putInt(c.pg_fnum);
+        b.putInt(c.pg_block);
+        b.putInt(c.pg_kcode);
+        putInts(b, c.pg_inc);
+        putInts(b, c.pg_phase);
+        putBooleans(b, c.pg_reset);
+        b.putInt(c.pg_read);
+        b.putInt(c.eg_cycle);
+        b.putInt(c.eg_cycle_stop);
+        b.putInt(c.eg_shift);
+        b.putInt(c.eg_shift_lock);
+        b.putInt(c.eg_timer_low_lock);
+        b.putInt(c.eg_timer);
+        b.putInt(c.eg_timer_inc);
+        b.putInt(c.eg_quotient);
+        putBoolean(b, c.eg_custom_timer);
+        b.putInt(c.eg_rate);
+        b.putInt(c.eg_ksv);
+        b.putInt(c.eg_inc);
+        b.putInt(c.eg_ratemax);
+        putInts(b, c.eg_sl);
+        b.putInt(c.eg_lfo_am);
+        putInts(b, c.eg_tl);
+        putInts(b, c.eg_state);
+        putInts(b, c.eg_level);
+        putInts(b, c.eg_out);
+        putInts(b, c.eg_kon);
+        putInts(b, c.eg_kon_csm);
+        putInts(b, c.eg_kon_latch);
+        putInts(b, c.eg_csm_mode);
+        putBooleans(b, c.eg_ssg_enable);
+        putInts(b, c.eg_ssg_pgrst_latch);
+        putInts(b, c.eg_ssg_repeat_latch);
+        putInts(b, c.eg_ssg_hold_up_latch);
+        putInts(b, c.eg_ssg_dir);
+        putInts(b, c.eg_ssg_inv);
+        putInts(b, c.eg_read);
+        b.putInt(c.eg_read_inc);
+        putInts(b, c.fm_op1);
+        putInts(b, c.fm_op2);
+        putInts(b, c.fm_out);
+        putInts(b, c.fm_mod);
+        putInts(b, c.ch_acc);
+        putInts(b, c.ch_out);
+        b.putInt(c.ch_lock);
+        b.putInt(c.ch_lock_l);
+        b.putInt(c.ch_lock_r);
+        b.putInt(c.ch_read);
+        b.putInt(c.timer_a_cnt);
+        b.putInt(c.timer_a_reg);
+        putBoolean(b, c.timer_a_load_lock);
+        putBoolean(b, c.timer_a_load);
+        putBoolean(b, c.timer_a_enable);
+        putBoolean(b, c.timer_a_reset);
+        putBoolean(b, c.timer_a_load_latch);
+        putBoolean(b, c.timer_a_overflow_flag);
+        b.putInt(c.timer_a_overflow);
+        b.putInt(c.timer_b_cnt);
+        b.putInt(c.timer_b_subcnt);
+        b.putInt(c.timer_b_reg);
+        putBoolean(b, c.timer_b_load_lock);
+        putBoolean(b, c.timer_b_load);
+        putBoolean(b, c.timer_b_enable);
+        putBoolean(b, c.timer_b_reset);
+        putBoolean(b, c.timer_b_load_latch);
+        putBoolean(b, c.timer_b_overflow_flag);
+        b.putInt(c.timer_b_overflow);
+        putInts(b, c.mode_test_21);
+        putInts(b, c.mode_test_2c);
+        b.putInt(c.mode_ch3);
+        b.putInt(c.mode_kon_channel);
+        putInts(b, c.mode_kon_operator);
+        putInts(b, c.mode_kon);
+        putBoolean(b, c.mode_csm);
+        putBoolean(b, c.mode_kon_csm);
+        b.putInt(c.dacen);
+        b.putInt(c.dacdata);
+        putInts(b, c.ks);
+        putInts(b, c.ar);
+        putInts(b, c.sr);
+        putInts(b, c.dt);
+        putInts(b, c.multi);
+        putInts(b, c.sl);
+        putInts(b, c.rr);
+        putInts(b, c.dr);
+        putInts(b, c.am);
+        putInts(b, c.tl);
+        putInts(b, c.ssg_eg);
+        putInts(b, c.fnum);
+        putInts(b, c.block);
+        putInts(b, c.kcode);
+        putInts(b, c.fnum_3ch);
+        putInts(b, c.block_3ch);
+        putInts(b, c.kcode_3ch);
+        b.putInt(c.reg_a4);
+        b.putInt(c.reg_ac);
+        putInts(b, c.connect);
+        putInts(b, c.fb);
+        putInts(b, c.pan_l);
+        putInts(b, c.pan_r);
+        putInts(b, c.ams);
+        putInts(b, c.pms);
+        b.putInt(c.status);
+        b.putInt(c.status_time);
+    }
+
+    static void load(ByteBuffer b, IYm3438.IYm3438_Type c) {
+        c.cycles = b.getInt();
+        c.channel = b.getInt();
+        c.mol = b.getInt();
+        c.mor = b.getInt();
+        c.write_data = b.getInt();
+        c.write_a = b.getInt();
+        c.write_d = b.getInt();
+        c.write_a_en = getBoolean(b);
+        c.write_d_en = getBoolean(b);
+        c.write_busy = b.getInt();
+        c.write_busy_cnt = b.getInt();
+        c.write_fm_address = getBoolean(b);
+        c.write_fm_data = b.getInt();
+        c.write_fm_mode_a = b.getInt();
+        c.address = b.getInt();
+        c.data = b.getInt();
+        c.pin_test_in = b.getInt();
+        c.pin_irq = b.getInt();
+        c.busy = b.getInt();
+        c.lfo_en = b.getInt();
+        c.lfo_freq = b.getInt();
+        c.lfo_pm = b.getInt();
+        c.lfo_am = b.getInt();
+        c.lfo_cnt = b.getInt();
+        c.lfo_inc = b.getInt();
+        c.lfo_quotient = b.getInt();
+        c.pg_fnum = b.getInt();
+        c.pg_block = b.getInt();
+        c.pg_kcode = b.getInt();
+        getInts(b, c.pg_inc);
+        getInts(b, c.pg_phase);
+        getBooleans(b, c.pg_reset);
+        c.pg_read = b.getInt();
+        c.eg_cycle = b.getInt();
+        c.eg_cycle_stop = b.getInt();
+        c.eg_shift = b.getInt();
+        c.eg_shift_lock = b.getInt();
+        c.eg_timer_low_lock = b.getInt();
+        c.eg_timer = b.getInt();
+        c.eg_timer_inc = b.getInt();
+        c.eg_quotient = b.getInt();
+        c.eg_custom_timer = getBoolean(b);
+        c.eg_rate = b.getInt();
+        c.eg_ksv = b.getInt();
+        c.eg_inc = b.getInt();
+        c.eg_ratemax = b.getInt();
+        getInts(b, c.eg_sl);
+        c.eg_lfo_am = b.getInt();
+        getInts(b, c.eg_tl);
+        getInts(b, c.eg_state);
+        getInts(b, c.eg_level);
+        getInts(b, c.eg_out);
+        getInts(b, c.eg_kon);
+        getInts(b, c.eg_kon_csm);
+        getInts(b, c.eg_kon_latch);
+        getInts(b, c.eg_csm_mode);
+        getBooleans(b, c.eg_ssg_enable);
+        getInts(b, c.eg_ssg_pgrst_latch);
+        getInts(b, c.eg_ssg_repeat_latch);
+        getInts(b, c.eg_ssg_hold_up_latch);
+        getInts(b, c.eg_ssg_dir);
+        getInts(b, c.eg_ssg_inv);
+        getInts(b, c.eg_read);
+        c.eg_read_inc = b.getInt();
+        getInts(b, c.fm_op1);
+        getInts(b, c.fm_op2);
+        getInts(b, c.fm_out);
+        getInts(b, c.fm_mod);
+        getInts(b, c.ch_acc);
+        getInts(b, c.ch_out);
+        c.ch_lock = b.getInt();
+        c.ch_lock_l = b.getInt();
+        c.ch_lock_r = b.getInt();
+        c.ch_read = b.getInt();
+        c.timer_a_cnt = b.getInt();
+        c.timer_a_reg = b.getInt();
+        c.timer_a_load_lock = getBoolean(b);
+        c.timer_a_load = getBoolean(b);
+        c.timer_a_enable = getBoolean(b);
+        c.timer_a_reset = getBoolean(b);
+        c.timer_a_load_latch = getBoolean(b);
+        c.timer_a_overflow_flag = getBoolean(b);
+        c.timer_a_overflow = b.getInt();
+        c.timer_b_cnt = b.getInt();
+        c.timer_b_subcnt = b.getInt();
+        c.timer_b_reg = b.getInt();
+        c.timer_b_load_lock = getBoolean(b);
+        c.timer_b_load = getBoolean(b);
+        c.timer_b_enable = getBoolean(b);
+        c.timer_b_reset = getBoolean(b);
+        c.timer_b_load_latch = getBoolean(b);
+        c.timer_b_overflow_flag = getBoolean(b);
+        c.timer_b_overflow = b.getInt();
+        getInts(b, c.mode_test_21);
+        getInts(b, c.mode_test_2c);
+        c.mode_ch3 = b.getInt();
+        c.mode_kon_channel = b.getInt();
+        getInts(b, c.mode_kon_operator);
+        getInts(b, c.mode_kon);
+        c.mode_csm = getBoolean(b);
+        c.mode_kon_csm = getBoolean(b);
+        c.dacen = b.getInt();
+        c.dacdata = b.getInt();
+        getInts(b, c.ks);
+        getInts(b, c.ar);
+        getInts(b, c.sr);
+        getInts(b, c.dt);
+        getInts(b, c.multi);
+        getInts(b, c.sl);
+        getInts(b, c.rr);
+        getInts(b, c.dr);
+        getInts(b, c.am);
+        getInts(b, c.tl);
+        getInts(b, c.ssg_eg);
+        getInts(b, c.fnum);
+        getInts(b, c.block);
+        getInts(b, c.kcode);
+        getInts(b, c.fnum_3ch);
+        getInts(b, c.block_3ch);
+        getInts(b, c.kcode_3ch);
+        c.reg_a4 = b.getInt();
+        c.reg_ac = b.getInt();
+        getInts(b, c.connect);
+        getInts(b, c.fb);
+        getInts(b, c.pan_l);
+        getInts(b, c.pan_r);
+        getInts(b, c.ams);
+        getInts(b, c.pms);
+        c.status = b.getInt();
+        c.status_time = b.getInt();
+    }
+}
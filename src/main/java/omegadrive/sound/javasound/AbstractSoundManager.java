@@ -80,7 +80,7 @@ public abstract class AbstractSoundManager implements SoundProvider {
     protected List<SoundDevice.MutableDevice> mutableDeviceList = new ArrayList<>();
     protected AtomicBoolean initedOnce = new AtomicBoolean(false);
 
-    protected static AtomicReference<Map<SoundDeviceType, SoundDevice>> sdRef = new AtomicReference<>();
+    protected final AtomicReference<Map<SoundDeviceType, SoundDevice>> sdRef = new AtomicReference<>();
 
     public static SoundProvider createSoundProvider(SystemLoader.SystemType systemType) {
         if (!ENABLE_SOUND) {
@@ -0,0 +1,104 @@
+package omegadrive.sound.javasound;
+
+import omegadrive.SystemLoader;
+import omegadrive.sound.SoundDevice;
+import omegadrive.util.LogHelper;
+import omegadrive.util.RegionDetector;
+import org.slf4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static omegadrive.sound.SoundDevice.SoundDeviceType.*;
+
+/**
+ * OfflineSoundManager
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * No audio line and no sound thread: the devices output is drained by the emulation thread once per frame,
+ * at the nominal output rate, so that the same rom always produces the same samples.
+ */
+public class OfflineSoundManager extends AbstractSoundManager {
+
+    private static final Logger LOG = LogHelper.getLogger(OfflineSoundManager.class.getSimpleName());
+
+    private int[] fm_buf_ints, pwm_buf_ints, pcm_buf_ints;
+    private byte[] psg_buf_bytes;
+    private ByteBuffer crcBuffer;
+    private IntBuffer crcIntBuffer;
+    private int fmSizeMono, monoSamplesPerFrame;
+
+    public OfflineSoundManager(SystemLoader.SystemType type) {
+        this.type = type;
+    }
+
+    @Override
+    public void init(RegionDetector.Region region) {
+        super.init(region);
+        fm_buf_ints = new int[fmSize];
+        pwm_buf_ints = new int[fmSize];
+        pcm_buf_ints = new int[fmSize];
+        psg_buf_bytes = new byte[psgSize];
+        crcBuffer = ByteBuffer.allocate(fmSize << 2).order(ByteOrder.LITTLE_ENDIAN);
+        crcIntBuffer = crcBuffer.asIntBuffer();
+        fmSizeMono = fmSize >> 1;
+        monoSamplesPerFrame = Math.min(psgSize, (int) audioFormat.getSampleRate() / region.getFps());
+    }
+
+    @Override
+    public void init() {
+        LOG.info("Offline audioFormat: {}, bufferSize: {}, region: {}", audioFormat, fmSize, region);
+    }
+
+    /**
+     * Drains the samples produced during the last frame, the output of each device goes into the crc.
+     * When there is no FM, the other devices produce a frame worth of samples.
+     *
+     * @return the number of stereo samples
+     */
+    public int drainFrame(CRC32 crc) {
+        int monoLen = monoSamplesPerFrame;
+        if (isEnabled(FM)) {
+            monoLen = getFm().updateStereo16(fm_buf_ints, 0, fmSizeMono) >> 1;
+            update(crc, fm_buf_ints, monoLen << 1);
+        }
+        if (isEnabled(PWM)) {
+            Arrays.fill(pwm_buf_ints, 0);
+            getPwm().updateStereo16(pwm_buf_ints, 0, monoLen);
+            update(crc, pwm_buf_ints, monoLen << 1);
+        }
+        if (isEnabled(PCM)) {
+            Arrays.fill(pcm_buf_ints, 0);
+            getPcm().updateStereo16(pcm_buf_ints, 0, monoLen);
+            update(crc, pcm_buf_ints, monoLen << 1);
+        }
+        if (isEnabled(PSG)) {
+            getPsg().fillBuffer(psg_buf_bytes, 0, monoLen);
+            crc.update(psg_buf_bytes, 0, monoLen);
+        }
+        return monoLen << 1;
+    }
+
+    private void update(CRC32 crc, int[] buf, int len) {
+        crcIntBuffer.clear();
+        crcIntBuffer.put(buf, 0, len);
+        crc.update(crcBuffer.array(), 0, len << 2);
+    }
+
+    @Override
+    public void onNewFrame() {
+        //fixed output rate, nobody is listening
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        soundDeviceMap.values().forEach(SoundDevice::reset);
+    }
+}
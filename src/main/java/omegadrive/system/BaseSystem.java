@@ -28,6 +28,7 @@ import omegadrive.input.KeyboardInput;
 import omegadrive.joypad.JoypadProvider;
 import omegadrive.memory.IMemoryProvider;
 import omegadrive.savestate.BaseStateHandler;
+import omegadrive.savestate.RewindBuffer;
 import omegadrive.sound.SoundProvider;
 import omegadrive.sound.javasound.AbstractSoundManager;
 import omegadrive.system.perf.Telemetry;
@@ -40,11 +41,14 @@ import omegadrive.vdp.model.BaseVdpProvider;
 import org.slf4j.Logger;
 
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.*;
 
 import static omegadrive.system.MediaSpecHolder.NO_ROM;
+import static omegadrive.system.perf.Telemetry.Section.AUDIO;
+import static omegadrive.system.perf.Telemetry.Section.COMPOSITE;
 
 public abstract class BaseSystem<BUS extends BaseBusProvider> implements
         SystemProvider, SystemProvider.NewFrameListener, SystemProvider.SystemClock {
@@ -53,6 +57,7 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
 
     static final long MAX_DRIFT_NS = Duration.ofMillis(10).toNanos();
     private static final long DRIFT_THRESHOLD_NS = Util.MILLI_IN_NS / 10;
+    private static final String REWIND_STATE_NAME = "rewind";
 
     protected IMemoryProvider memory;
     protected BaseVdpProvider vdp;
@@ -67,10 +72,13 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
 
     protected DisplayWindow.DisplayContext displayContext;
 
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final ExecutorService executorService =
+            Executors.newSingleThreadExecutor(r -> new MdRuntimeData.RuntimeThread(r, "emu"));
 
     protected volatile boolean saveStateFlag = false;
     protected volatile BaseStateHandler stateHandler;
+    protected RewindBuffer rewindBuffer;
+    protected volatile boolean rewindPending = false;
 
     protected MdRuntimeData rt;
 
@@ -84,31 +92,33 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
 
     //frame pacing stuff
     protected Telemetry telemetry;
-    public static final boolean fullThrottle;
+    public static boolean fullThrottle = Boolean.parseBoolean(java.lang.System.getProperty("helios.fullSpeed", "false"));
     protected long elapsedWaitNs, frameProcessingDelayNs;
     protected long targetNs, startNs = 0;
     private long driftNs = 0;
 
     private final CyclicBarrier pauseBarrier = new CyclicBarrier(2);
 
-    static {
-        fullThrottle = Boolean.parseBoolean(java.lang.System.getProperty("helios.fullSpeed", "false"));
-    }
-
     protected abstract void loop();
 
     @Override
     public void init() {
         MdRuntimeData.releaseInstance();
         rt = MdRuntimeData.newInstance(systemType, this);
-        sound = AbstractSoundManager.createSoundProvider(systemType);
+        Optional.ofNullable(telemetry).ifPresent(Telemetry::unregisterJmx);
+        telemetry = Telemetry.resetClock(this);
+        telemetry.registerJmx(systemType.name());
+        rt.telemetry = telemetry;
+        sound = display instanceof SoundProvider.Factory f ? f.createSoundProvider(systemType) :
+                AbstractSoundManager.createSoundProvider(systemType);
         mediaSpec.region = RegionDetector.selectRegion(display, mediaSpec.getBootableMedia().mediaInfoProvider);
         sound.init(mediaSpec.getRegion());
         displayContext = new DisplayWindow.DisplayContext();
         displayContext.megaCdLedState = Optional.empty();
         displayContext.videoMode = VideoMode.PAL_H40_V30;
-        telemetry = Telemetry.resetClock(this);
         display.setRomData(mediaSpec);
+        Optional.ofNullable(rewindBuffer).ifPresent(RewindBuffer::close);
+        rewindBuffer = RewindBuffer.ENABLED ? RewindBuffer.createInstance() : null;
 
         LOG.info("Region set as: {}", mediaSpec.region);
         LogHelper.clear();
@@ -165,6 +175,9 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
             case SOFT_RESET:
                 softResetPending = true;
                 break;
+            case REWIND:
+                rewindPending = rewindBuffer != null;
+                break;
             case PAD_SETUP_CHANGE:
             case FORCE_PAD_TYPE:
                 UserConfigHolder.addUserConfig(event, parameter);
@@ -234,12 +247,34 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
                 stateHandler.storeData();
             } else {
                 sound.getPsg().reset();
+                Optional.ofNullable(rewindBuffer).ifPresent(RewindBuffer::clear);
             }
             stateHandler = BaseStateHandler.EMPTY_STATE;
             saveStateFlag = false;
         }
     }
 
+    protected void processRewind() {
+        if (rewindBuffer == null) {
+            return;
+        }
+        if (rewindPending) {
+            rewindPending = false;
+            rewindBuffer.pop().ifPresent(data -> {
+                BaseStateHandler h = BaseStateHandler.createInstance(systemType, REWIND_STATE_NAME,
+                        bus.getAllDevices(Device.class), data);
+                h.processState();
+                sound.getPsg().reset();
+            });
+        } else if (rewindBuffer.isCaptureFrame()) {
+            BaseStateHandler h = createStateHandler(Paths.get(REWIND_STATE_NAME), BaseStateHandler.Type.SAVE);
+            h.processState();
+            if (h.getDataBuffer() != null) {
+                rewindBuffer.push(h.getData());
+            }
+        }
+    }
+
     protected void handleCloseRom() {
         handleRomInternal();
     }
@@ -300,6 +335,8 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
             handlePause();
         }
         if (isRomRunning()) {
+            //the caller might not be the thread that created this system
+            MdRuntimeData.setCurrent(rt);
             futureDoneFlag = true;
             runningRomFuture.cancel(true);
             while (isRomRunning()) {
@@ -310,7 +347,10 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
             sound.reset();
             bus.closeRom();
             telemetry.reset();
+            telemetry.unregisterJmx();
             Optional.ofNullable(vdp).ifPresent(Device::reset);
+            Optional.ofNullable(rewindBuffer).ifPresent(RewindBuffer::close);
+            rewindBuffer = null;
             cycleCounter = 1;
             MdRuntimeData.releaseInstance();
         }
@@ -338,10 +378,14 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
         startNs = System.nanoTime();
         updateVideoMode(false);
         getStats(startNs, prevStartNs);
+        long renderNs = System.nanoTime();
         doRendering(vdp.getScreenDataLinear());
+        //this is part of the next frame
+        telemetry.addSectionNs(COMPOSITE, System.nanoTime() - renderNs);
         frameProcessingDelayNs = startNs - startWaitNs - elapsedWaitNs;
         handleVdpDumpScreenData();
         processSaveState();
+        processRewind();
         pauseAndWait();
         resetCycleCounters(cycleCounter);
         cycleCounter = 0;
@@ -365,6 +409,7 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
 
         @Override
         public void run() {
+            MdRuntimeData.setCurrent(rt);
             MdRuntimeData.assertInstanceSet();
             try {
                 if (memory.getRomData().length == 0) {
@@ -382,6 +427,8 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
                 LOG.error("Error", e);
             }
             handleCloseRom();
+            //the executor thread is reused by the next rom
+            MdRuntimeData.setCurrent(null);
         }
     }
 
@@ -405,6 +452,15 @@ public abstract class BaseSystem<BUS extends BaseBusProvider> implements
         }
     }
 
+    /**
+     * The sound devices generate the samples of the frame
+     */
+    protected void soundNewFrame() {
+        long start = System.nanoTime();
+        sound.onNewFrame();
+        telemetry.addSectionNs(AUDIO, System.nanoTime() - start);
+    }
+
     protected void doRendering(int[] data) {
         displayContext.data = data;
         display.renderScreenLinear(displayContext);
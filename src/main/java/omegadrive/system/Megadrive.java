@@ -36,6 +36,8 @@ import omegadrive.sound.SoundDevice;
 import omegadrive.sound.SoundDevice.SoundDeviceType;
 import omegadrive.sound.fm.ym2612.nukeykt.BlipYm2612Nuke;
 import omegadrive.sound.fm.ym2612.nukeykt.Ym2612Nuke;
+import omegadrive.system.perf.Telemetry;
+import omegadrive.system.perf.Telemetry.Section;
 import omegadrive.ui.DisplayWindow;
 import omegadrive.util.*;
 import omegadrive.vdp.model.BaseVdpProvider;
@@ -44,6 +46,8 @@ import omegadrive.vdp.util.MemView;
 import omegadrive.vdp.util.UpdatableViewer;
 import org.slf4j.Logger;
 
+import java.util.Arrays;
+
 import static omegadrive.system.Sms.NTSC_PSG_SAMPLES_PER_SEC;
 import static omegadrive.system.Sms.PAL_PSG_SAMPLES_PER_SEC;
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.M68K;
@@ -74,8 +78,18 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
     private static final int FAST_FM_DIV_MASK = FAST_FM_DIV - 1;
     private boolean isNuke;
 
+    /**
+     * true: jump straight to the next cycle where a device is due, see {@link #nextEventCycle(int)}
+     * false: step every cycle, legacy loop
+     */
+    protected static final boolean EVENT_SCHEDULER;
+    //log a per-frame digest of the cycle counters and the screen data, to diff the two loops
+    private static final boolean SCHEDULER_TRACE;
+
     static {
         BufferUtil.assertPowerOf2Minus1("FAST_FM_DIV_MASK", FAST_FM_DIV_MASK);
+        EVENT_SCHEDULER = Boolean.parseBoolean(System.getProperty("helios.md.event.scheduler", "true"));
+        SCHEDULER_TRACE = Boolean.parseBoolean(System.getProperty("helios.md.scheduler.trace", "false"));
     }
 
     private final static Logger LOG = LogHelper.getLogger(Megadrive.class.getSimpleName());
@@ -99,6 +113,8 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
     protected int nextZ80Cycle = Z80_DIVIDER;
 
     protected int nextFmCycle = FM_DIVIDER;
+    //loop iterations until the next timed one, see Telemetry.SECTIONS
+    protected int sectionSampleCnt = 1;
 
     protected Megadrive(DisplayWindow emuFrame) {
         super(emuFrame);
@@ -121,11 +137,31 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
         vdp = MdVdpProvider.createVdp(bus);
         cpu = MC68000Wrapper.createInstance(bus);
         z80 = Z80CoreWrapper.createInstance(getSystemType(), bus);
-        vdp.addVdpEventListener(sound);
+        vdp.addVdpEventListener(new BaseVdpProvider.VdpEventListener() {
+            @Override
+            public void onVdpEvent(BaseVdpProvider.VdpEvent event, Object value) {
+                sound.onVdpEvent(event, value);
+            }
+
+            @Override
+            public void onRegisterChange(int reg, int value) {
+                sound.onRegisterChange(reg, value);
+            }
+
+            @Override
+            public void onNewFrame() {
+                soundNewFrame();
+            }
+
+            @Override
+            public int order() {
+                return sound.order();
+            }
+        });
         bus.attachDevices(this, memory, joypad, vdp, cpu, z80, sound);
         reloadWindowState();
         createAndAddVdpEventListener();
-        SvpMapper.ssp16 = Ssp16.NO_SVP;
+        rt.svpMapper = null;
         memView.reset();
         memView = createMemView();
         fm = sound.getFm();
@@ -135,16 +171,115 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
     protected void loop() {
         updateVideoMode(true);
         do {
-            run68k();
-            runZ80();
-            runSound();
-            if (hasSvp) runSvp();
-            //this should be last as it could change the counter
-            runVdp();
-            cycleCounter++;
+            if (Telemetry.SECTIONS && --sectionSampleCnt == 0) {
+                runCycleSampled();
+            } else {
+                run68k();
+                runZ80();
+                runSound();
+                if (hasSvp) runSvp();
+                //this should be last as it could change the counter
+                runVdp();
+            }
+            advanceCycleCounter();
         } while (!futureDoneFlag);
     }
 
+    /**
+     * Same as one iteration of the loop, the time spent by each device goes to the telemetry
+     */
+    protected void runCycleSampled() {
+        long t = System.nanoTime();
+        run68k();
+        t = sampleSection(Section.M68K, t);
+        runZ80();
+        t = sampleSection(Section.Z80, t);
+        runSound();
+        t = sampleSection(Section.AUDIO, t);
+        if (hasSvp) {
+            runSvp();
+            t = System.nanoTime();
+        }
+        runVdpSampled(t);
+    }
+
+    protected final long sampleSection(Section section, long startNs) {
+        long now = System.nanoTime();
+        telemetry.addSampledNs(section, now - startNs);
+        return now;
+    }
+
+    /**
+     * A new frame might start here: the end of frame processing and the frame sync are accounted separately,
+     * the sample is dropped
+     */
+    protected final void runVdpSampled(long startNs) {
+        final long frame = telemetry.getFrameCounter();
+        runVdp();
+        if (frame == telemetry.getFrameCounter()) {
+            sampleSection(Section.VDP, startNs);
+        }
+        sectionSampleCnt = telemetry.nextSampleInterval();
+    }
+
+    /**
+     * Moves the cycleCounter to the next cycle where a device needs to run,
+     * the cycles in between would only compare counters and return.
+     */
+    protected final void advanceCycleCounter() {
+        final int from = cycleCounter + 1;
+        if (!EVENT_SCHEDULER) {
+            cycleCounter = from;
+            return;
+        }
+        final int next = nextEventCycle(from);
+        assert next >= from;
+        //the nuke countdown is decremented on every cycle, account for the skipped ones
+        if (isNuke) {
+            nextFmCycle -= next - from;
+            assert nextFmCycle > 0;
+        }
+        cycleCounter = next;
+    }
+
+    /**
+     * Returns the first cycle, starting at from, where at least one device is due.
+     * Subclasses adding devices to the loop should add their own deadlines.
+     */
+    protected int nextEventCycle(int from) {
+        int next = (int) Math.ceil(nextVdpCycle);
+        next = minDue(next, next68kCycle, from);
+        next = minDue(next, nextZ80Cycle, from);
+        next = Math.min(next, isNuke ? from + nextFmCycle - 1 : nextFastFmCycle(from));
+        if (hasSvp) {
+            next = Math.min(next, nextSvpCycle(from));
+        }
+        return Math.max(from, next);
+    }
+
+    /**
+     * Counters behind the current cycle are not due, ie. a sleeping cpu.
+     */
+    protected static int minDue(int next, int deviceCycle, int from) {
+        return deviceCycle >= from ? Math.min(next, deviceCycle) : next;
+    }
+
+    static int nextFastFmCycle(int from) {
+        return (from + FAST_FM_DIV_MASK) & ~FAST_FM_DIV_MASK;
+    }
+
+    /**
+     * Matches the runSvp condition: (cycle & SVP_CYCLES_MASK) == 0
+     */
+    static int nextSvpCycle(int from) {
+        int next = (from + 3) & ~3;
+        if ((next & SVP_CYCLES_MASK) != 0) {
+            next = (next | 0x7F) + 1;
+        }
+        assert (next & SVP_CYCLES_MASK) == 0;
+        return next;
+    }
+
     protected final void runVdp() {
         if (cycleCounter >= nextVdpCycle) {
             int vdpMclk = vdp.runSlot();
@@ -157,9 +292,9 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
             boolean isRunning = bus.is68kRunning();
             boolean canRun = !cpu.isStopped() && isRunning;
             int cycleDelay = 1;
-            MdRuntimeData.setAccessTypeExt(M68K);
+            rt.setAccessType(M68K);
             if (canRun) {
-                cycleDelay = cpu.runInstruction() + MdRuntimeData.resetCpuDelayExt();
+                cycleDelay = cpu.runInstruction() + rt.resetCpuDelay();
             }
             //interrupts are processed after the current instruction
             if (isRunning) {
@@ -167,7 +302,7 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
             }
             cycleDelay = Math.max(1, cycleDelay);
             next68kCycle += M68K_DIVIDER * cycleDelay;
-            assert MdRuntimeData.resetCpuDelayExt() == 0;
+            assert rt.resetCpuDelay() == 0;
         }
     }
 
@@ -176,14 +311,14 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
             int cycleDelay = 0;
             boolean running = bus.isZ80Running();
             if (running) {
-                MdRuntimeData.setAccessTypeExt(Z80);
+                rt.setAccessType(Z80);
                 cycleDelay = z80.executeInstruction();
                 bus.handleVdpInterruptsZ80();
-                cycleDelay += MdRuntimeData.resetCpuDelayExt();
+                cycleDelay += rt.resetCpuDelay();
             }
             cycleDelay = Math.max(1, cycleDelay);
             nextZ80Cycle += Z80_DIVIDER * cycleDelay;
-            assert MdRuntimeData.resetCpuDelayExt() == 0;
+            assert rt.resetCpuDelay() == 0;
         }
     }
 
@@ -238,13 +373,18 @@ public class Megadrive extends BaseSystem<MdMainBusProvider> {
 
     @Override
     public void onNewFrame() {
+        if (SCHEDULER_TRACE) {
+            LOG.info("Frame#{}, cycle: {}, 68k: {}, z80: {}, vdp: {}, fm: {}, screen: {}", getFrameCounter(),
+                    cycleCounter, next68kCycle, nextZ80Cycle, nextVdpCycle, nextFmCycle,
+                    Integer.toHexString(Arrays.hashCode(vdp.getScreenDataLinear())));
+        }
         checkSvp();
         memView.update();
         super.onNewFrame();
     }
 
     private void checkSvp() {
-        ssp16 = SvpMapper.ssp16;
+        ssp16 = SvpMapper.getSsp16();
         hasSvp = ssp16 != Ssp16.NO_SVP;
     }
 
@@ -188,7 +188,7 @@ public class Z80BaseSystem extends BaseSystem<Z80BusProvider> {
     @Override
     public void onNewFrame() {
         super.onNewFrame();
-        sound.onNewFrame();
+        soundNewFrame();
     }
 
     private void handleInterrupt(){
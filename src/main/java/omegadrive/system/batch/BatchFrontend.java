@@ -0,0 +1,113 @@
+package omegadrive.system.batch;
+
+import omegadrive.SystemLoader.SystemType;
+import omegadrive.sound.SoundProvider;
+import omegadrive.sound.javasound.OfflineSoundManager;
+import omegadrive.system.MediaSpecHolder;
+import omegadrive.system.SystemProvider;
+import omegadrive.ui.DisplayWindow;
+
+import java.awt.event.KeyListener;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * BatchFrontend
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Headless frontend for one title, records the crc of the screen and of the audio produced by the first N frames.
+ * Both are computed on the emulation thread.
+ */
+class BatchFrontend implements DisplayWindow, SoundProvider.Factory {
+
+    final int[] screenCrc, audioCrc;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final CRC32 crc = new CRC32();
+    private OfflineSoundManager sound;
+    private ByteBuffer screenBuffer = ByteBuffer.allocate(0);
+    volatile int frameCount;
+    long audioSamples;
+
+    BatchFrontend(int numFrames) {
+        screenCrc = new int[numFrames];
+        audioCrc = new int[numFrames];
+    }
+
+    @Override
+    public SoundProvider createSoundProvider(SystemType systemType) {
+        sound = new OfflineSoundManager(systemType);
+        return sound;
+    }
+
+    @Override
+    public void renderScreenLinear(DisplayContext displayContext) {
+        final int frame = frameCount;
+        if (frame == screenCrc.length) {
+            return;
+        }
+        int[] data = displayContext.data;
+        if (screenBuffer.capacity() < data.length << 2) {
+            screenBuffer = ByteBuffer.allocate(data.length << 2).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        screenBuffer.clear();
+        screenBuffer.asIntBuffer().put(data);
+        crc.reset();
+        crc.update(screenBuffer.array(), 0, data.length << 2);
+        screenCrc[frame] = (int) crc.getValue();
+        crc.reset();
+        audioSamples += sound.drainFrame(crc);
+        audioCrc[frame] = (int) crc.getValue();
+        frameCount = frame + 1;
+        if (frameCount == screenCrc.length) {
+            done.countDown();
+        }
+    }
+
+    /**
+     * @return false if the frames have not been produced within the timeout or the emulation has stopped
+     */
+    boolean awaitFrames(SystemProvider systemProvider, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!done.await(100, TimeUnit.MILLISECONDS)) {
+            if (!systemProvider.isRomRunning() || System.currentTimeMillis() > deadline) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void setRomData(MediaSpecHolder rom) {
+    }
+
+    @Override
+    public void init() {
+    }
+
+    @Override
+    public void resetScreen() {
+    }
+
+    @Override
+    public void setFullScreen(boolean value) {
+    }
+
+    @Override
+    public String getRegionOverride() {
+        return null;
+    }
+
+    @Override
+    public void reloadSystem(SystemProvider systemProvider) {
+    }
+
+    @Override
+    public void addKeyListener(KeyListener keyAdapter) {
+    }
+}
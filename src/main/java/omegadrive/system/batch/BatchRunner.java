@@ -0,0 +1,195 @@
+package omegadrive.system.batch;
+
+import com.google.gson.GsonBuilder;
+import omegadrive.SystemLoader;
+import omegadrive.system.BaseSystem;
+import omegadrive.system.MediaSpecHolder;
+import omegadrive.system.SysUtil;
+import omegadrive.system.SystemProvider;
+import omegadrive.util.LogHelper;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static omegadrive.system.SystemProvider.SystemEvent.CLOSE_ROM;
+import static omegadrive.system.SystemProvider.SystemEvent.NEW_ROM;
+
+/**
+ * BatchRunner
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Runs each rom for a fixed number of frames at full speed, headless and without an audio line,
+ * a pool of workers runs the titles in parallel.
+ * Prints the crc of the screen and of the audio of every frame and the frames/sec of each title.
+ * <p>
+ * args: roms, folders or .txt files listing one rom per line
+ * <p>
+ * -Dhelios.batch.frames=600 -Dhelios.batch.workers=#cores -Dhelios.batch.format=json|csv
+ * -Dhelios.batch.timeout.ms=120000 -Dhelios.batch.out=file (default stdout)
+ */
+public class BatchRunner {
+
+    private static final Logger LOG = LogHelper.getLogger(BatchRunner.class.getSimpleName());
+
+    public enum Format {JSON, CSV}
+
+    public enum Status {OK, TIMEOUT, STOPPED, UNSUPPORTED, ERROR}
+
+    public static class Result {
+        public String rom;
+        public String system;
+        public Status status;
+        public int frames;
+        public long audioSamples;
+        public double fps;
+        public String[] screenCrc, audioCrc;
+    }
+
+    private final int numFrames, numWorkers;
+    private final long timeoutMs;
+
+    public BatchRunner(int numFrames, int numWorkers, long timeoutMs) {
+        this.numFrames = numFrames;
+        this.numWorkers = numWorkers;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Needs to be called once before running, it changes the jvm wide settings
+     */
+    public static void initBatchMode() {
+        BaseSystem.fullThrottle = true;
+        //as AutomatedGameTester, vdp listeners can change while a rom is closing
+        SystemLoader.testMode = true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        initBatchMode();
+        int frames = Integer.parseInt(System.getProperty("helios.batch.frames", "600"));
+        int workers = Integer.parseInt(System.getProperty("helios.batch.workers",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long timeoutMs = Long.parseLong(System.getProperty("helios.batch.timeout.ms", "120000"));
+        Format format = Format.valueOf(System.getProperty("helios.batch.format", "json").toUpperCase());
+        String out = System.getProperty("helios.batch.out");
+
+        List<Path> roms = listRoms(args);
+        LOG.info("Roms: {}, frames: {}, workers: {}", roms.size(), frames, workers);
+        long start = System.nanoTime();
+        List<Result> res = new BatchRunner(frames, workers, timeoutMs).run(roms);
+        double secs = (System.nanoTime() - start) / 1e9;
+        int totalFrames = res.stream().mapToInt(r -> r.frames).sum();
+        LOG.info("Done, roms: {}, frames: {}, {}s, {} frames/sec", res.size(), totalFrames,
+                String.format("%.1f", secs), String.format("%.1f", totalFrames / secs));
+        try (PrintStream ps = out == null ? new PrintStream(System.out, true) : new PrintStream(out)) {
+            write(res, format, ps);
+        }
+        System.exit(0);
+    }
+
+    public List<Result> run(List<Path> roms) throws Exception {
+        ExecutorService exec = Executors.newFixedThreadPool(numWorkers);
+        try {
+            List<Future<Result>> l = new ArrayList<>();
+            for (Path rom : roms) {
+                l.add(exec.submit(() -> runRom(rom)));
+            }
+            List<Result> res = new ArrayList<>();
+            for (Future<Result> f : l) {
+                res.add(f.get());
+            }
+            return res;
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    private Result runRom(Path rom) {
+        Result r = new Result();
+        r.rom = rom.toString();
+        BatchFrontend frontend = new BatchFrontend(numFrames);
+        SystemProvider system = null;
+        try {
+            MediaSpecHolder romSpec = MediaSpecHolder.of(rom);
+            system = SysUtil.createSystemProvider(romSpec, frontend);
+            r.system = romSpec.systemType.name();
+            if (system == null) {
+                r.status = Status.UNSUPPORTED;
+                return r;
+            }
+            long start = System.nanoTime();
+            system.handleSystemEvent(NEW_ROM, romSpec);
+            boolean done = frontend.awaitFrames(system, timeoutMs);
+            long elapsedNs = System.nanoTime() - start;
+            r.status = done ? Status.OK : (system.isRomRunning() ? Status.TIMEOUT : Status.STOPPED);
+            r.fps = frontend.frameCount * 1e9 / elapsedNs;
+        } catch (Exception | Error e) {
+            LOG.error("Error running: {}", rom, e);
+            r.status = Status.ERROR;
+        } finally {
+            if (system != null) {
+                system.handleSystemEvent(CLOSE_ROM, null);
+            }
+        }
+        r.frames = frontend.frameCount;
+        r.audioSamples = frontend.audioSamples;
+        r.screenCrc = toHex(frontend.screenCrc, r.frames);
+        r.audioCrc = toHex(frontend.audioCrc, r.frames);
+        LOG.info("{}: {}, frames: {}, {} frames/sec", r.rom, r.status, r.frames, String.format("%.1f", r.fps));
+        return r;
+    }
+
+    public static void write(List<Result> res, Format format, PrintStream ps) {
+        switch (format) {
+            case JSON -> ps.println(new GsonBuilder().setPrettyPrinting().create().toJson(res));
+            case CSV -> {
+                ps.println("rom,system,status,frames,fps,audioSamples,screenCrc,audioCrc");
+                for (Result r : res) {
+                    ps.println(String.join(",", "\"" + r.rom + "\"", r.system, r.status.name(),
+                            String.valueOf(r.frames), String.format("%.1f", r.fps), String.valueOf(r.audioSamples),
+                            String.join(" ", r.screenCrc), String.join(" ", r.audioCrc)));
+                }
+            }
+        }
+    }
+
+    private static String[] toHex(int[] crc, int len) {
+        return Arrays.stream(crc, 0, len).mapToObj(c -> String.format("%08x", c)).toArray(String[]::new);
+    }
+
+    private static List<Path> listRoms(String[] args) throws IOException {
+        List<Path> l = new ArrayList<>();
+        for (String arg : args) {
+            Path p = Path.of(arg);
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.walk(p)) {
+                    s.filter(Files::isRegularFile).filter(BatchRunner::isRomFile).sorted().forEach(l::add);
+                }
+            } else if (arg.endsWith(".txt")) {
+                l.addAll(Files.readAllLines(p).stream().map(String::trim).filter(s -> !s.isEmpty())
+                        .map(Path::of).collect(Collectors.toList()));
+            } else {
+                l.add(p);
+            }
+        }
+        return l;
+    }
+
+    private static boolean isRomFile(Path p) {
+        String name = p.getFileName().toString().toLowerCase();
+        return Arrays.stream(SysUtil.binaryTypes).anyMatch(name::endsWith);
+    }
+}
@@ -101,7 +101,7 @@ public class Gb extends BaseSystem<BaseBusProvider> {
     @Override
     public void onNewFrame() {
         super.onNewFrame();
-        sound.onNewFrame();
+        soundNewFrame();
     }
 
     @Override
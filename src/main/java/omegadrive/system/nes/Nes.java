@@ -99,7 +99,7 @@ public class Nes extends BaseSystem<BaseBusProvider> {
     @Override
     public void onNewFrame() {
         super.onNewFrame();
-        sound.onNewFrame();
+        soundNewFrame();
     }
 
     @Override
@@ -0,0 +1,77 @@
+package omegadrive.system.perf;
+
+import jdk.jfr.*;
+
+import static omegadrive.system.perf.Telemetry.Section.*;
+
+/**
+ * FrameEvent
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * One event per emulated frame, enabled with -Dhelios.telemetry.jfr=true and a JFR recording.
+ */
+@Name("helios.Frame")
+@Label("Frame")
+@Category("Helios")
+@StackTrace(false)
+class FrameEvent extends Event {
+
+    @Label("Frame")
+    long frame;
+    @Label("Frame time")
+    @Timespan
+    long frameNs;
+    @Label("68K")
+    @Timespan
+    long m68kNs;
+    @Label("Sub 68K")
+    @Timespan
+    long sub68kNs;
+    @Label("Z80")
+    @Timespan
+    long z80Ns;
+    @Label("SH2 master")
+    @Timespan
+    long sh2MasterNs;
+    @Label("SH2 slave")
+    @Timespan
+    long sh2SlaveNs;
+    @Label("VDP")
+    @Timespan
+    long vdpNs;
+    @Label("Composite")
+    @Timespan
+    long compositeNs;
+    @Label("Audio")
+    @Timespan
+    long audioNs;
+    @Label("Sync")
+    @Timespan
+    long syncNs;
+    @Label("Other")
+    @Timespan
+    long otherNs;
+
+    static void emit(long frame, long[][] ring, int idx) {
+        FrameEvent e = new FrameEvent();
+        if (!e.shouldCommit()) {
+            return;
+        }
+        e.frame = frame;
+        e.frameNs = ring[FRAME.ordinal()][idx];
+        e.m68kNs = ring[M68K.ordinal()][idx];
+        e.sub68kNs = ring[SUB_M68K.ordinal()][idx];
+        e.z80Ns = ring[Z80.ordinal()][idx];
+        e.sh2MasterNs = ring[SH2_MASTER.ordinal()][idx];
+        e.sh2SlaveNs = ring[SH2_SLAVE.ordinal()][idx];
+        e.vdpNs = ring[VDP.ordinal()][idx];
+        e.compositeNs = ring[COMPOSITE.ordinal()][idx];
+        e.audioNs = ring[AUDIO.ordinal()][idx];
+        e.syncNs = ring[SYNC.ordinal()][idx];
+        e.otherNs = ring[OTHER.ordinal()][idx];
+        e.commit();
+    }
+}
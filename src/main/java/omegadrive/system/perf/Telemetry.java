@@ -5,9 +5,13 @@ import com.google.common.collect.TreeBasedTable;
 import omegadrive.sound.fm.AudioRateControl;
 import omegadrive.system.SystemProvider.SystemClock;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
+import omegadrive.util.JmxBridge;
 import omegadrive.util.Util;
 import org.slf4j.Logger;
 
+import javax.management.ObjectName;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -17,10 +21,10 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.time.Instant;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiFunction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -33,12 +37,34 @@ import java.util.stream.Collectors;
  * Federico Berti
  * <p>
  * Copyright 2020
- *
- * TODO clear frameTimeStamp periodically ?
+ * <p>
+ * Every frame is split in sections, the time spent in each one goes into a ring buffer holding
+ * the last RING_LEN frames, nothing is allocated per frame.
+ * COMPOSITE, AUDIO (end of frame mix) and SYNC are measured once per frame.
+ * The cpus, the VDP and the FM stepping run in the main loop, timing every step would cost more
+ * than the step itself: with -Dhelios.telemetry.sections=true a loop iteration every ~SAMPLE_STRIDE
+ * is timed, minus the cost of reading the clock, and weighted by the number of iterations it stands for.
+ * OTHER is whatever is left of the frame time, ie. the scheduler itself.
  */
-public class Telemetry {
+public class Telemetry implements TelemetryMXBean {
     private final static Logger LOG = LogHelper.getLogger(Telemetry.class.getSimpleName());
     public static final boolean enableLogToFile = false;
+    public static final boolean SECTIONS =
+            Boolean.parseBoolean(System.getProperty("helios.telemetry.sections", "false"));
+    public static final boolean JFR_EVENTS =
+            Boolean.parseBoolean(System.getProperty("helios.telemetry.jfr", "false"));
+
+    public static final int RING_LEN = 1024;
+    private static final int RING_MASK = RING_LEN - 1;
+    //power of 2
+    public static final int SAMPLE_STRIDE = 64;
+
+    public enum Section {M68K, SUB_M68K, Z80, SH2_MASTER, SH2_SLAVE, VDP, COMPOSITE, AUDIO, SYNC, OTHER, FRAME}
+
+    private static final Section[] sectionVals = Section.values();
+    //cost of reading the clock, included in every sampled interval
+    private static final long NANOTIME_OVERHEAD_NS = SECTIONS ? calibrateNanoTime() : 0;
+    private static final AtomicInteger instanceCnt = new AtomicInteger();
 
     private static final String FPS_KEY = "fps";
     private static final String DRIFT_KEY = "driftNs";
@@ -50,37 +76,62 @@ public class Telemetry {
         return res.substring(1, res.length() - 2);
     };
 
-    private static final BiFunction<Timing, Timing, String> toTimestampFn =
-            (now, prev) -> (now.nanoTime - prev.nanoTime) / (double) Util.MILLI_IN_NS + "," +
-                    Instant.ofEpochMilli(now.instantNow);
-
-    private static Telemetry telemetry = new Telemetry();
+    //used when no emulator instance is bound to the thread, ie. sound tests
+    private static final Telemetry DETACHED = new Telemetry();
     private static final NumberFormat fpsFormatter = new DecimalFormat("#0.00");
     private static final int STATS_EVERY_FRAMES = 50;
-    private static final Timing NO_TIMING = new Timing();
     private Path telemetryFile;
 
     private SystemClock systemClock;
-    private long frameCounter = 0;
+    private volatile long frameCounter = 0;
+    //only used when logging to file
     private final Table<String, Long, Double> data = TreeBasedTable.create();
-    private final Map<Long, Timing> frameTimeStamp = new HashMap<>();
+
+    //indexed by frame & RING_MASK
+    private final long[] frameEndNs = new long[RING_LEN];
+    private final long[] frameEndMs = new long[RING_LEN];
+    private final long[] frameWaitNs = new long[RING_LEN];
+    private final long[][] sectionNs = new long[sectionVals.length][RING_LEN];
+    //current frame
+    private final long[] sectionAcc = new long[sectionVals.length];
+    private final long[] percScratch = new long[RING_LEN];
+    private int sampleWeight = SAMPLE_STRIDE, sampleSeed = 0x2545F491;
+    private ObjectName jmxName;
 
     private void addFrameTimestamp(double waitNs) {
-        Timing t = new Timing();
-        t.instantNow = Instant.now().toEpochMilli();
-        t.nanoTime = System.nanoTime();
-        t.frameWaitNs = (long) waitNs;
-        frameTimeStamp.put(systemClock.getFrameCounter(), t);
+        int idx = (int) (frameCounter & RING_MASK);
+        frameEndNs[idx] = System.nanoTime();
+        frameWaitNs[idx] = (long) waitNs;
+        if (enableLogToFile) {
+            frameEndMs[idx] = System.currentTimeMillis();
+        }
     }
 
     public static Telemetry resetClock(SystemClock clock) {
-        telemetry = new Telemetry();
+        Telemetry telemetry = new Telemetry();
         telemetry.systemClock = clock;
         return telemetry;
     }
 
+    /**
+     * Exports this instance via JMX, see {@link TelemetryMXBean}
+     */
+    public void registerJmx(String name) {
+        unregisterJmx();
+        jmxName = JmxBridge.registerMBean(this, Telemetry.class.getSimpleName(),
+                name + "-" + instanceCnt.incrementAndGet());
+    }
+
+    public void unregisterJmx() {
+        if (jmxName != null) {
+            JmxBridge.unregisterMBean(jmxName);
+            jmxName = null;
+        }
+    }
+
     public static Telemetry getInstance() {
-        return telemetry;
+        MdRuntimeData rt = MdRuntimeData.current();
+        return rt != null && rt.telemetry != null ? rt.telemetry : DETACHED;
     }
 
     private static void writeToFile(Path file, String res) {
@@ -109,22 +160,113 @@ public class Telemetry {
     }
 
     public double getAvgFrameTimeMs(long fc) {
-        Timing current = frameTimeStamp.get(fc);
-        Timing prev = frameTimeStamp.getOrDefault(fc - STATS_EVERY_FRAMES, NO_TIMING);
-        if (prev == NO_TIMING) { //first frame gets a huge frame delay
+        if (fc < STATS_EVERY_FRAMES || fc >= frameCounter) { //first frame gets a huge frame delay
             return 16.6;
         }
-        return 1.0 * (current.instantNow - prev.instantNow) / STATS_EVERY_FRAMES;
+        long deltaNs = frameEndNs[(int) (fc & RING_MASK)] - frameEndNs[(int) ((fc - STATS_EVERY_FRAMES) & RING_MASK)];
+        return (double) deltaNs / Util.MILLI_IN_NS / STATS_EVERY_FRAMES;
     }
 
     public long getAvgWaitTimeNs(long fc) {
         long totWaitNs = 0;
-        for (long i = fc - STATS_EVERY_FRAMES; i <= fc; i++) {
-            totWaitNs += frameTimeStamp.getOrDefault(i, NO_TIMING).frameWaitNs;
+        for (long i = Math.max(0, fc - STATS_EVERY_FRAMES); i <= fc && i < frameCounter; i++) {
+            totWaitNs += frameWaitNs[(int) (i & RING_MASK)];
         }
         return totWaitNs / STATS_EVERY_FRAMES;
     }
 
+    /**
+     * Time measured directly, once per frame
+     */
+    public void addSectionNs(Section section, long ns) {
+        sectionAcc[section.ordinal()] += ns;
+    }
+
+    /**
+     * Time of a sampled loop iteration, stands for the iterations since the previous sample
+     */
+    public void addSampledNs(Section section, long ns) {
+        //can go negative, the total is clamped at the end of the frame
+        sectionAcc[section.ordinal()] += (ns - NANOTIME_OVERHEAD_NS) * sampleWeight;
+    }
+
+    private static long calibrateNanoTime() {
+        final int len = 200_000;
+        long tot = 0;
+        for (int i = 0; i < len; i++) {
+            long t = System.nanoTime();
+            tot += System.nanoTime() - t;
+        }
+        LOG.info("Sampling loop sections, nanoTime overhead: {}ns", tot / len);
+        return tot / len;
+    }
+
+    /**
+     * @return the number of loop iterations until the next sample, in [1, 2*SAMPLE_STRIDE],
+     * a fixed stride could alias with the periodic scheduling of the devices
+     */
+    public int nextSampleInterval() {
+        int x = sampleSeed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        sampleSeed = x;
+        sampleWeight = (x & ((SAMPLE_STRIDE << 1) - 1)) + 1;
+        return sampleWeight;
+    }
+
+    private void endFrameSections(long frameTimeNs, long waitNs) {
+        final int idx = (int) (frameCounter & RING_MASK);
+        final long[] acc = sectionAcc;
+        acc[Section.SYNC.ordinal()] += waitNs;
+        long tot = 0;
+        for (int i = 0; i < Section.OTHER.ordinal(); i++) {
+            acc[i] = Math.max(0, acc[i]);
+            tot += acc[i];
+        }
+        acc[Section.OTHER.ordinal()] = Math.max(0, frameTimeNs - tot);
+        acc[Section.FRAME.ordinal()] = frameTimeNs;
+        for (int i = 0; i < acc.length; i++) {
+            sectionNs[i][idx] = acc[i];
+            acc[i] = 0;
+        }
+        if (JFR_EVENTS) {
+            FrameEvent.emit(frameCounter, sectionNs, idx);
+        }
+    }
+
+    /**
+     * Nearest rank percentile over the frames in the ring, the first frame is ignored.
+     */
+    public synchronized long getPercentileNs(Section section, double percentile) {
+        final long fc = frameCounter;
+        final int len = (int) Math.min(RING_LEN, fc - 1);
+        if (len <= 0) {
+            return 0;
+        }
+        final long[] ring = sectionNs[section.ordinal()];
+        for (int i = 0; i < len; i++) {
+            percScratch[i] = ring[(int) ((fc - 1 - i) & RING_MASK)];
+        }
+        Arrays.sort(percScratch, 0, len);
+        int rank = (int) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * len);
+        return percScratch[Math.max(0, rank - 1)];
+    }
+
+    public long getAvgNs(Section section) {
+        final long fc = frameCounter;
+        final int len = (int) Math.min(RING_LEN, fc - 1);
+        if (len <= 0) {
+            return 0;
+        }
+        final long[] ring = sectionNs[section.ordinal()];
+        long tot = 0;
+        for (int i = 0; i < len; i++) {
+            tot += ring[(int) ((fc - 1 - i) & RING_MASK)];
+        }
+        return tot / len;
+    }
+
     public boolean hasNewStats(long fc) {
         return fc % STATS_EVERY_FRAMES == 0; //update fps label every N frames
     }
@@ -143,12 +285,19 @@ public class Telemetry {
     public void reset() {
         frameCounter = 0;
         data.clear();
-        frameTimeStamp.clear();
+        Arrays.fill(frameEndNs, 0);
+        Arrays.fill(frameEndMs, 0);
+        Arrays.fill(frameWaitNs, 0);
+        Arrays.fill(sectionAcc, 0);
+        for (long[] r : sectionNs) {
+            Arrays.fill(r, 0);
+        }
         telemetryFile = null;
     }
 
     public void newFrame(double frameTimeNs, double driftNs, double waitNs) {
         addFrameTimestamp(waitNs);
+        endFrameSections((long) frameTimeNs, (long) waitNs);
         if (enableLogToFile) {
             addSample(FPS_KEY, (1.0 * Util.SECOND_IN_NS) / frameTimeNs);
             addSample(DRIFT_KEY, driftNs);
@@ -183,22 +332,69 @@ public class Telemetry {
     }
 
     private String toLogString(Long num) {
+        int idx = (int) (num & RING_MASK), prevIdx = (int) ((num - 1) & RING_MASK);
         return num + "," + toStringFn.apply(data.column(num)) + "," +
-                toTimestampFn.apply(
-                        frameTimeStamp.getOrDefault(num, NO_TIMING),
-                        frameTimeStamp.getOrDefault(num - 1, NO_TIMING));
-    }
-
-    static class Timing {
-        long instantNow;
-        long nanoTime;
-        long frameWaitNs;
+                (frameEndNs[idx] - frameEndNs[prevIdx]) / (double) Util.MILLI_IN_NS + "," +
+                Instant.ofEpochMilli(frameEndMs[idx]);
     }
 
+    @Override
     public long getFrameCounter() {
         return frameCounter;
     }
 
+    @Override
+    public double getFps() {
+        return 1000.0 / getAvgFrameTimeMs(frameCounter - 1);
+    }
+
+    @Override
+    public boolean isSectionSampling() {
+        return SECTIONS;
+    }
+
+    @Override
+    public Map<String, Double> getAvgMs() {
+        Map<String, Double> m = new LinkedHashMap<>();
+        for (Section s : sectionVals) {
+            m.put(s.name(), (double) getAvgNs(s) / Util.MILLI_IN_NS);
+        }
+        return m;
+    }
+
+    @Override
+    public Map<String, Double> getP50Ms() {
+        return percentilesMs(50);
+    }
+
+    @Override
+    public Map<String, Double> getP95Ms() {
+        return percentilesMs(95);
+    }
+
+    @Override
+    public Map<String, Double> getP99Ms() {
+        return percentilesMs(99);
+    }
+
+    @Override
+    public Map<String, Double> getMaxMs() {
+        return percentilesMs(100);
+    }
+
+    @Override
+    public double percentileMs(String section, double percentile) {
+        return (double) getPercentileNs(Section.valueOf(section.toUpperCase()), percentile) / Util.MILLI_IN_NS;
+    }
+
+    private Map<String, Double> percentilesMs(double percentile) {
+        Map<String, Double> m = new LinkedHashMap<>();
+        for (Section s : sectionVals) {
+            m.put(s.name(), (double) getPercentileNs(s, percentile) / Util.MILLI_IN_NS);
+        }
+        return m;
+    }
+
     public int getCycleCounter() {
         return systemClock.getCycleCounter();
     }
@@ -0,0 +1,37 @@
+package omegadrive.system.perf;
+
+import java.util.Map;
+
+/**
+ * TelemetryMXBean
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Frame budget of one running system, computed over the last {@link Telemetry#RING_LEN} frames.
+ * Maps are keyed by {@link Telemetry.Section}, values in milliseconds.
+ */
+public interface TelemetryMXBean {
+
+    long getFrameCounter();
+
+    double getFps();
+
+    /**
+     * The cpu/vdp sections are only measured with -Dhelios.telemetry.sections=true
+     */
+    boolean isSectionSampling();
+
+    Map<String, Double> getAvgMs();
+
+    Map<String, Double> getP50Ms();
+
+    Map<String, Double> getP95Ms();
+
+    Map<String, Double> getP99Ms();
+
+    Map<String, Double> getMaxMs();
+
+    double percentileMs(String section, double percentile);
+}
@@ -67,7 +67,7 @@ public class PrefStore {
         uiProperties.putIfAbsent(UI_SWING_THEME, String.valueOf(uiSwingThemeIndex));
     }
 
-    public static void addRecentFile(String path) {
+    public static synchronized void addRecentFile(String path) {
         map.put(path.hashCode(), path);
         //discard the oldest (first) element
         if (map.size() > PrefStore.recentFileTotal) {
@@ -77,7 +77,7 @@ public class PrefStore {
     }
 
 
-    public static List<String> getRecentFilesList() {
+    public static synchronized List<String> getRecentFilesList() {
         List<String> l = new ArrayList<>(map.values());
         Collections.reverse(l);
         return l;
@@ -51,10 +51,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -82,7 +81,6 @@ public class SwingWindow implements DisplayWindow {
     private Dimension outputScreenSize = DEFAULT_SCALED_SCREEN_SIZE;
 
     private BufferedImage dest;
-    private int[] pixelsSrc;
     private int[] pixelsDest;
     private double scale = DEFAULT_SCALE_FACTOR;
 
@@ -240,36 +238,60 @@ public class SwingWindow implements DisplayWindow {
                 map(AbstractButton::getText).findFirst().orElse(null);
     }
 
-    private Future<?> previousFrame = CompletableFuture.completedFuture(null);
+    //frames handed over to the frameSubmitter thread, the emulation never waits for it
+    private final TripleBuffer<DisplayContext> frames = new TripleBuffer<>(() -> {
+        DisplayContext dc = new DisplayContext();
+        dc.data = new int[0];
+        return dc;
+    });
+    private final AtomicBoolean presenting = new AtomicBoolean();
+    private final Runnable presentTask = Util.wrapRunnableEx(this::presentFrames);
 
-    private DisplayContext dcCopy = new DisplayContext();
-
-    //NOTE: this will copy the input array
+    //NOTE: when scaling on a thread, this will copy the input array
     @Override
     public void renderScreenLinear(DisplayContext dc) {
-        if (dc.data.length != pixelsSrc.length) {
-            pixelsSrc = dc.data.clone();
+        if (!UI_SCALE_ON_THREAD) {
+            renderScreenLinearInternal(dc.data, dc);
+            return;
+        }
+        DisplayContext back = frames.getBack();
+        if (back.data.length != dc.data.length) {
+            back.data = new int[dc.data.length];
+        }
+        System.arraycopy(dc.data, 0, back.data, 0, dc.data.length);
+        back.megaCdLedState = dc.megaCdLedState;
+        back.label = dc.label;
+        back.videoMode = dc.videoMode;
+        back.fps = dc.fps;
+        back.waitNs = dc.waitNs;
+        if (!frames.publish()) {
+            LogHelper.logWarnOnce(LOG, "Slow frame presentation, dropping frames");
         }
-        System.arraycopy(dc.data, 0, pixelsSrc, 0, dc.data.length);
-        if (UI_SCALE_ON_THREAD) {
-            assert checkSlowDown();
-            dcCopy.megaCdLedState = dc.megaCdLedState;
-            dcCopy.label = dc.label;
-            dcCopy.videoMode = dc.videoMode;
-            dcCopy.fps = dc.fps;
-            dcCopy.waitNs = dc.waitNs;
-            previousFrame =
-                    executorService.submit(Util.wrapRunnableEx(() -> renderScreenLinearInternal(pixelsSrc, dcCopy)));
-        } else {
-            renderScreenLinearInternal(pixelsSrc, dc);
+        if (presenting.compareAndSet(false, true)) {
+            executorService.execute(presentTask);
         }
     }
 
-    private boolean checkSlowDown() {
-        if (!previousFrame.isDone()) {
-            LOG.error("Slow frame!!");
-        }
-        return true;
+    /**
+     * Renders the newest frame, the frames published in the meantime are dropped
+     */
+    private void presentFrames() {
+        do {
+            DisplayContext dc;
+            while ((dc = frames.take()) != null) {
+                renderScreenLinearInternal(dc.data, dc);
+            }
+            presenting.set(false);
+            //a frame published after the last take, with presenting still set
+        } while (frames.hasNew() && presenting.compareAndSet(false, true));
+    }
+
+    public long getDroppedFrames() {
+        return frames.getDroppedCount();
+    }
+
+    public long getPresentedFrames() {
+        return frames.getPublishedCount() - frames.getDroppedCount();
     }
 
     public void init() {
@@ -280,7 +302,6 @@ public class SwingWindow implements DisplayWindow {
         LOG.info("Emulation viewport size: {}", ScreenSizeHelper.DEFAULT_SCALED_SCREEN_SIZE);
         LOG.info("Application size: {}", DEFAULT_FRAME_SIZE);
 
-        pixelsSrc = new int[0];
         dest = createImage(gd, outputNonScaledScreenSize);
         screenLabel.setIcon(new ImageIcon(dest));
 
@@ -402,6 +423,9 @@ public class SwingWindow implements DisplayWindow {
         JMenuItem quickLoadStateItem = new JMenuItem("Quick Load State");
         addKeyAction(quickLoadStateItem, QUICK_LOAD, e -> handleQuickLoadState());
 
+        JMenuItem rewindItem = new JMenuItem("Rewind");
+        addKeyAction(rewindItem, REWIND, e -> handleSystemEvent(REWIND, null, null));
+
         JMenuItem exitItem = new JMenuItem("Exit");
         addKeyAction(exitItem, CLOSE_APP, e -> {
             handleSystemEvent(CLOSE_APP, null, null);
@@ -441,6 +465,7 @@ public class SwingWindow implements DisplayWindow {
         menu.add(saveStateItem);
         menu.add(quickLoadStateItem);
         menu.add(quickSaveStateItem);
+        menu.add(rewindItem);
         menu.add(exitItem);
         helpMenu.add(aboutItem);
         helpMenu.add(keyBindingsItem);
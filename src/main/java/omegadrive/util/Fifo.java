@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -98,6 +99,30 @@ public interface Fifo<T> extends Serializable {
             return fifo[popPointer];
         }
 
+        /**
+         * Savestate support, Integer fifos only: stores the raw slots, peek can return a stale entry
+         */
+        public void saveIntContext(ByteBuffer b) {
+            b.putInt(fifoSize).putInt(popPointer).putInt(pushPointer).putInt(currentSize);
+            for (int i = 0; i < fifoSize; i++) {
+                b.putInt((Integer) fifo[i]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public void loadIntContext(ByteBuffer b) {
+            int size = b.getInt();
+            if (size != fifoSize) {
+                throw new IllegalStateException("Unexpected fifo size: " + size + ", expected: " + fifoSize);
+            }
+            popPointer = b.getInt();
+            pushPointer = b.getInt();
+            currentSize = b.getInt();
+            for (int i = 0; i < fifoSize; i++) {
+                fifo[i] = (T) Util.getFromIntegerCache(b.getInt());
+            }
+        }
+
         @Override
         public boolean isEmpty() {
             return currentSize == 0;
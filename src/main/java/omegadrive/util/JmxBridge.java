@@ -21,6 +21,9 @@ package omegadrive.util;
 
 import org.slf4j.Logger;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Method;
 
 public class JmxBridge {
@@ -58,4 +61,32 @@ public class JmxBridge {
             }
         }
     }
+
+    /**
+     * Registers a standard MBean/MXBean with the platform MBeanServer, as helios:type=[type],name=[name]
+     *
+     * @return the ObjectName or null if the registration failed
+     */
+    public static ObjectName registerMBean(Object mbean, String type, String name) {
+        try {
+            ObjectName on = new ObjectName("helios:type=" + type + ",name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, on);
+            LOG.info("MBean registered: {}", on);
+            return on;
+        } catch (Exception | Error e) {
+            LOG.warn("Unable to register MBean: {}, {}", name, e.getMessage());
+        }
+        return null;
+    }
+
+    public static void unregisterMBean(ObjectName on) {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            if (mbs.isRegistered(on)) {
+                mbs.unregisterMBean(on);
+            }
+        } catch (Exception e) {
+            LOG.warn("Unable to unregister MBean: {}, {}", on, e.getMessage());
+        }
+    }
 }
@@ -1,11 +1,20 @@
 package omegadrive.util;
 
 import omegadrive.SystemLoader.SystemType;
+import omegadrive.bus.md.SvpMapper;
 import omegadrive.system.SystemProvider.SystemClock;
+import omegadrive.system.perf.Telemetry;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import org.slf4j.Logger;
 import s32x.Md32x;
+import s32x.StaticBootstrapSupport.NextCycleResettable;
+import s32x.event.PollSysEventManager;
+import s32x.savestate.Gs32xStateHandler;
 import s32x.sh2.Sh2Helper.Sh2Config;
+import s32x.sh2.Sh2Helper.Sh2PcInfoWrapper;
+import s32x.sh2.drc.Sh2BlockRecompiler;
+
+import java.nio.ByteBuffer;
 
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.MASTER;
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.cdaValues;
@@ -14,6 +23,10 @@ import static omegadrive.util.BufferUtil.CpuDeviceAccess.cdaValues;
  * Federico Berti
  * <p>
  * Copyright 2022
+ * <p>
+ * Runtime state of one emulator instance, each system owns one and binds it to the threads running it.
+ * The static *Ext accessors resolve the instance bound to the calling thread, so that N systems
+ * can run on N threads in the same JVM.
  */
 public class MdRuntimeData {
 
@@ -27,7 +40,31 @@ public class MdRuntimeData {
     private final SystemType type;
 
     private final SystemClock clock;
-    private static MdRuntimeData rt;
+
+    //per instance state, these used to be static singletons
+    public Telemetry telemetry;
+    public final PollSysEventManager sysEventManager = new PollSysEventManager.SysEventManagerImpl();
+    public Sh2PcInfoWrapper[][] sh2PcInfo;
+    public Sh2BlockRecompiler sh2Recompiler;
+    public SvpMapper svpMapper;
+    public NextCycleResettable nextCycleResettable;
+    public final Gs32xStateHandler.S32xDeviceSet s32xDeviceSet = new Gs32xStateHandler.S32xDeviceSet();
+    //savestate scratch buffer, allocated on first use
+    private ByteBuffer stateScratch;
+
+    //threads that are not a RuntimeThread, ie. the caller of BaseSystem::init, tests
+    private static final ThreadLocal<MdRuntimeData> threadRt = new ThreadLocal<>();
+
+    /**
+     * The emulation thread of a system, avoids a ThreadLocal lookup on the hot path.
+     */
+    public static class RuntimeThread extends Thread {
+        private MdRuntimeData rt;
+
+        public RuntimeThread(Runnable r, String name) {
+            super(r, name);
+        }
+    }
 
     private MdRuntimeData(SystemType type, SystemClock clock) {
         this.type = type;
@@ -39,21 +76,42 @@ public class MdRuntimeData {
         ignoreDelays = id;
     }
 
+    /**
+     * Creates a new instance and binds it to the calling thread
+     */
     public static MdRuntimeData newInstance(SystemType type, SystemClock clock) {
-        if (rt != null) {
-            LOG.error("Previous instance has not been released! {}", rt.type);
+        MdRuntimeData prev = current();
+        if (prev != null) {
+            LOG.error("Previous instance has not been released! {}", prev.type);
         }
         MdRuntimeData mrt = new MdRuntimeData(type, clock);
-        rt = mrt;
+        setCurrent(mrt);
         return mrt;
     }
 
+    /**
+     * Unbinds the instance from the calling thread
+     */
     public static MdRuntimeData releaseInstance() {
-        MdRuntimeData m = rt;
-        rt = null;
+        MdRuntimeData m = current();
+        setCurrent(null);
         return m;
     }
 
+    public static void setCurrent(MdRuntimeData mrt) {
+        if (Thread.currentThread() instanceof RuntimeThread t) {
+            t.rt = mrt;
+        } else if (mrt == null) {
+            threadRt.remove();
+        } else {
+            threadRt.set(mrt);
+        }
+    }
+
+    public static MdRuntimeData current() {
+        return Thread.currentThread() instanceof RuntimeThread t ? t.rt : threadRt.get();
+    }
+
     public final void addCpuDelay(int delay) {
         //NOTE in general this doesnt work as various subsystems (ie Dmac) can run while polling
 //        assert accessType.regSide == S32xUtil.S32xRegSide.SH2 ?
@@ -61,47 +119,72 @@ public class MdRuntimeData {
         cpuDelay[accType] += delay;
     }
 
+    public final void addCpuDelay(int[][] delays, int deviceType) {
+        cpuDelay[accType] += delays[accType][deviceType];
+    }
+
     public final int resetCpuDelay() {
+        return resetCpuDelay(0);
+    }
+
+    public final int resetCpuDelay(int value) {
         int res = cpuDelay[accType];
-        cpuDelay[accType] = 0;
-        return res;
+        cpuDelay[accType] = value;
+        return ignoreDelays ? 0 : res;
+    }
+
+    public final void resetCpuDelay(CpuDeviceAccess cpu, int value) {
+        cpuDelay[cpu.ordinal()] = value;
+    }
+
+    public final int getCpuDelay() {
+        return cpuDelay[accType];
+    }
+
+    public final int getCpuDelay(CpuDeviceAccess cpu) {
+        return cpuDelay[cpu.ordinal()];
     }
 
-    public void setAccessType(CpuDeviceAccess accessType) {
+    /**
+     * @return the previous access type
+     */
+    public final CpuDeviceAccess setAccessType(CpuDeviceAccess accessType) {
+        CpuDeviceAccess prev = this.accessType;
         this.accessType = accessType;
         accType = accessType.ordinal();
+        return prev;
     }
 
-    protected CpuDeviceAccess getAccessType() {
+    public final CpuDeviceAccess getAccessType() {
         return accessType;
     }
 
+    /**
+     * The *Ext accessors below look up the instance bound to the calling thread, the hot paths
+     * hold a reference to their instance instead, see {@link #current()}.
+     */
     public static void addCpuDelayExt(int delay) {
-        rt.addCpuDelay(delay);
+        current().addCpuDelay(delay);
     }
 
     public static void addCpuDelayExt(int[][] delays, int deviceType) {
-        rt.addCpuDelay(delays[rt.accType][deviceType]);
+        current().addCpuDelay(delays, deviceType);
     }
 
     public static CpuDeviceAccess setAccessTypeExt(CpuDeviceAccess accessType) {
-        CpuDeviceAccess prev = rt.accessType;
-        rt.accessType = accessType;
-        rt.accType = accessType.ordinal();
-        return prev;
+        return current().setAccessType(accessType);
     }
 
     public static int resetCpuDelayExt(int value) {
-        int res = rt.cpuDelay[rt.accType];
-        rt.cpuDelay[rt.accType] = value;
-        return rt.ignoreDelays ? 0 : res;
+        return current().resetCpuDelay(value);
     }
 
     public static void resetCpuDelayExt(CpuDeviceAccess cpu, int value) {
-        rt.cpuDelay[cpu.ordinal()] = value;
+        current().resetCpuDelay(cpu, value);
     }
 
     public static void resetAllCpuDelayExt() {
+        final MdRuntimeData rt = current();
         for (CpuDeviceAccess v : cdaValues) {
             rt.cpuDelay[v.ordinal()] = 0;
         }
@@ -112,23 +195,34 @@ public class MdRuntimeData {
     }
 
     public static int getCpuDelayExt() {
-        return rt.cpuDelay[rt.accType];
+        return current().getCpuDelay();
     }
 
     public static int getCpuDelayExt(CpuDeviceAccess cpu) {
-        return rt.cpuDelay[cpu.ordinal()];
+        return current().getCpuDelay(cpu);
     }
 
 
     public static CpuDeviceAccess getAccessTypeExt() {
-        return rt.accessType;
+        return current().accessType;
     }
 
     public static SystemClock getSystemClockExt() {
-        return rt.clock;
+        return current().clock;
+    }
+
+    /**
+     * The savestate handlers of this system use it one at a time, from the emulation thread
+     */
+    public ByteBuffer getStateScratch(int minSize) {
+        if (stateScratch == null || stateScratch.capacity() < minSize) {
+            stateScratch = ByteBuffer.allocate(minSize);
+        }
+        return stateScratch.clear();
     }
 
     public static void assertInstanceSet() {
+        MdRuntimeData rt = current();
         assert rt != null;
         if (rt == null) {
             LOG.error("Instance not set!!");
@@ -0,0 +1,83 @@
+package omegadrive.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * TripleBuffer
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Lock-free exchange between one producer and one consumer, neither of them ever waits.
+ * The producer fills the back slot and publishes it, the consumer takes the newest published slot.
+ * A published slot that is overwritten before the consumer takes it is dropped and counted.
+ * <p>
+ * The producer owns the slot returned by {@link #getBack()} until {@link #publish()},
+ * the consumer owns the slot returned by {@link #take()} until the next call to take.
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 3;
+    private static final int NEW_FLAG = 4;
+
+    private final T[] slots;
+    //index of the middle slot, NEW_FLAG when it has not been taken yet
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0, front = 2;
+    private volatile long published, dropped;
+
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(Supplier<T> factory) {
+        slots = (T[]) new Object[]{factory.get(), factory.get(), factory.get()};
+    }
+
+    /**
+     * Producer side
+     */
+    public T getBack() {
+        return slots[back];
+    }
+
+    /**
+     * Producer side, makes the back slot the newest one
+     *
+     * @return false if the previous one was never taken and has been dropped
+     */
+    public boolean publish() {
+        int prev = middle.getAndSet(back | NEW_FLAG);
+        back = prev & INDEX_MASK;
+        published++;
+        if ((prev & NEW_FLAG) > 0) {
+            dropped++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Consumer side
+     *
+     * @return the newest slot or null if nothing has been published since the last call
+     */
+    public T take() {
+        if (!hasNew()) {
+            return null;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return slots[front];
+    }
+
+    public boolean hasNew() {
+        return (middle.get() & NEW_FLAG) > 0;
+    }
+
+    public long getPublishedCount() {
+        return published;
+    }
+
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
@@ -135,7 +135,7 @@ public class MdVdp implements MdVdpProvider, BaseVdpAdapterEventSupport.VdpEvent
 
     private MdMainBusProvider bus;
     protected VdpInterruptHandler interruptHandler;
-    private VdpMemoryInterface memoryInterface;
+    private MdVdpMemoryInterface memoryInterface;
     private VdpDmaHandler dmaHandler;
     private VdpRenderHandler renderHandler;
     private VdpFifo fifo;
@@ -145,7 +145,7 @@ public class MdVdp implements MdVdpProvider, BaseVdpAdapterEventSupport.VdpEvent
     private UpdatableViewer debugViewer;
     private VdpPortAccessLogger vdpPortAccessLogger;
 
-    public static MdVdp createInstance(MdMainBusProvider bus, VdpMemoryInterface memoryInterface,
+    public static MdVdp createInstance(MdMainBusProvider bus, MdVdpMemoryInterface memoryInterface,
                                        VdpDmaHandler dmaHandler, RegionDetector.Region region) {
         MdVdp v = new MdVdp();
         v.bus = bus;
@@ -156,7 +156,7 @@ public class MdVdp implements MdVdpProvider, BaseVdpAdapterEventSupport.VdpEvent
         return v;
     }
 
-    public static MdVdp createInstance(MdMainBusProvider bus, VdpMemoryInterface memoryInterface) {
+    public static MdVdp createInstance(MdMainBusProvider bus, MdVdpMemoryInterface memoryInterface) {
         MdVdp v = new MdVdp();
         v.bus = bus;
         v.memoryInterface = memoryInterface;
@@ -216,7 +216,8 @@ public class MdVdp implements MdVdpProvider, BaseVdpAdapterEventSupport.VdpEvent
         this.list = SystemLoader.testMode ? new CopyOnWriteArrayList<>() : new ArrayList<>();
         list.add(this);
         this.interruptHandler = VdpInterruptHandler.createMdInstance(this);
-        this.renderHandler = VdpRenderHandlerImpl.createInstance(this, memoryInterface);
+        this.renderHandler = VdpRenderPipeline.ENABLED ? VdpRenderPipeline.createInstance(this, memoryInterface) :
+                VdpRenderHandlerImpl.createInstance(this, memoryInterface);
         this.debugViewer = VdpDebugView.createInstance(this, memoryInterface, renderHandler);
         this.fifo = new VdpFifo();
         this.vdpPortAccessLogger = VdpPortAccessLogger.NO_LOGGER;
@@ -863,6 +864,9 @@ public class MdVdp implements MdVdpProvider, BaseVdpAdapterEventSupport.VdpEvent
 
     @Override
     public void reset() {
+        if (renderHandler instanceof VdpRenderPipeline p) {
+            p.close();
+        }
         this.debugViewer.reset();
         this.list.clear();
     }
@@ -45,6 +45,8 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
     private int[] javaPalette;
     private final byte[] satCache = new byte[MAX_SPRITES_PER_FRAME_H40 * 8]; //8 bytes per sprite
     private int satBaseAddress = 0, satEndAddress = satBaseAddress + satCache.length;
+    private VdpTileCache tileCache;
+    private VdpRamWriteListener ramWriteListener;
 
     private final VdpColorMapper colorMapper;
 
@@ -62,6 +64,7 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
         vram = Util.initMemoryRandomBytes(ByteBuffer.allocate(VDP_VRAM_SIZE).order(ByteOrder.BIG_ENDIAN));
         cram = Util.initMemoryRandomBytes(ByteBuffer.allocate(VDP_CRAM_SIZE).order(ByteOrder.BIG_ENDIAN));
         vsram = Util.initMemoryRandomBytes(ByteBuffer.allocate(VDP_VSRAM_SIZE).order(ByteOrder.BIG_ENDIAN));
+        tileCache = new VdpTileCache(vram);
         initPalette();
     }
 
@@ -82,8 +85,12 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
 
     //    The address register wraps past address FFFFh.
     protected void writeVramByte(int address, byte data) {
+        if (ramWriteListener != null) {
+            ramWriteListener.onVdpRamWrite(VdpRamType.VRAM, address, data);
+        }
         vram.put(address & VDP_VRAM_MASK, data);
         updateSatCache(address & VDP_VRAM_MASK, data);
+        tileCache.invalidate(address);
     }
 
     @Override
@@ -153,6 +160,9 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
 
     @Override
     public void setSatBaseAddress(int satBaseAddress) {
+        if (ramWriteListener != null) {
+            ramWriteListener.onSatBaseAddress(satBaseAddress);
+        }
         this.satBaseAddress = satBaseAddress;
         this.satEndAddress = satBaseAddress + satCache.length;
     }
@@ -162,6 +172,17 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
         return satCache;
     }
 
+    /**
+     * Only one listener is supported, null to remove it
+     */
+    public void setRamWriteListener(VdpRamWriteListener ramWriteListener) {
+        this.ramWriteListener = ramWriteListener;
+    }
+
+    public VdpTileCache getTileCache() {
+        return tileCache;
+    }
+
     @Override
     public ByteBuffer getCram() {
         return cram;
@@ -185,6 +206,9 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
     //    Even though there are 40 words of VSRAM, the address register will wrap
 //    when it passes 7Fh. Writes to the addresses beyond 50h are ignored.
     protected void writeVsramByte(int address, byte data) {
+        if (ramWriteListener != null) {
+            ramWriteListener.onVdpRamWrite(VdpRamType.VSRAM, address, data);
+        }
         address &= 0x7F;
         if (address < MdVdpProvider.VDP_VSRAM_SIZE) {
             vsram.put(address, data);
@@ -196,6 +220,9 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
 
     //    The address register wraps past address 7Fh.
     protected void writeCramByte(int address, byte data) {
+        if (ramWriteListener != null) {
+            ramWriteListener.onVdpRamWrite(VdpRamType.CRAM, address, data);
+        }
         cram.put(address & VDP_CRAM_MASK, data);
         paletteUpdate(address & VDP_CRAM_MASK & EVEN_VALUE_MASK);
     }
@@ -229,4 +256,13 @@ public class MdVdpMemoryInterface implements VdpMemoryInterface {
         address &= EVEN_VALUE_MASK;
         return (readCramByte(address) & 0xFF) << 8 | (readCramByte(address + 1) & 0xFF);
     }
+
+    /**
+     * Notified before every VRAM, CRAM and VSRAM byte write, on the writer thread
+     */
+    public interface VdpRamWriteListener {
+        void onVdpRamWrite(VdpRamType type, int address, byte data);
+
+        void onSatBaseAddress(int address);
+    }
 }
@@ -54,6 +54,7 @@ public class VdpDmaHandlerImpl implements VdpDmaHandler {
 
     //TODO this should be in the VDP
     private final VdpFifo.VdpFifoEntry pendingReadEntry = new VdpFifo.VdpFifoEntry();
+    private final MdRuntimeData rt = MdRuntimeData.current();
 
     public static VdpDmaHandler createInstance(MdVdpProvider vdpProvider, VdpMemoryInterface memoryInterface,
                                                MdMainBusProvider busProvider) {
@@ -239,8 +240,8 @@ public class VdpDmaHandlerImpl implements VdpDmaHandler {
 
     public boolean doDmaSlot(VideoMode videoMode) {
         //TODO handle "DMA" delay
-        int delay = MdRuntimeData.getCpuDelayExt(M68K);
-        CpuDeviceAccess prev = MdRuntimeData.setAccessTypeExt(M68K);
+        int delay = rt.getCpuDelay(M68K);
+        CpuDeviceAccess prev = rt.setAccessType(M68K);
         boolean done = true;
         switch (dmaMode) {
             case VRAM_FILL:
@@ -264,8 +265,8 @@ public class VdpDmaHandlerImpl implements VdpDmaHandler {
             dmaMode = null; //Bug Hunt
             dmaFillReady = false;
         }
-        MdRuntimeData.resetCpuDelayExt(M68K, delay);
-        MdRuntimeData.setAccessTypeExt(prev);
+        rt.resetCpuDelay(M68K, delay);
+        rt.setAccessType(prev);
         return done;
     }
 
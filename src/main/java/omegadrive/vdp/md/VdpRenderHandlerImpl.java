@@ -19,7 +19,6 @@
 
 package omegadrive.vdp.md;
 
-import omegadrive.util.FastBitSet;
 import omegadrive.util.LogHelper;
 import omegadrive.util.Util;
 import omegadrive.util.VideoMode;
@@ -45,8 +44,8 @@ import static omegadrive.vdp.model.MdVdpProvider.VdpRegisterName.*;
 public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener {
 
     private final static Logger LOG = LogHelper.getLogger(VdpRenderHandlerImpl.class.getSimpleName());
-    private final MdVdpProvider vdpProvider;
-    private final VdpMemoryInterface memoryInterface;
+    private final MdVdpRenderState vdpProvider;
+    private final MdVdpMemoryInterface memoryInterface;
     private final VdpScrollHandler scrollHandler;
     private final VdpRenderDump renderDump;
     private int spritesFrame = 0;
@@ -56,6 +55,24 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
     private final VdpColorMapper colorMapper;
     private boolean lcb;
 
+    //RenderType.BACK_PLANE to RenderType.SPRITE
+    private static final int NUM_LAYERS = RenderType.SPRITE.ordinal() + 1;
+    private static final int SPRITE_LAYER = RenderType.SPRITE.ordinal();
+    private static final int PLANES_AB_MASK = (1 << RenderType.PLANE_A.ordinal()) | (1 << RenderType.PLANE_B.ordinal());
+    //indexed by RenderPriority ordinal
+    private static final int[] rpLayer = new int[RenderPriority.enums.length];
+    private static final int[] rpPriority = new int[RenderPriority.enums.length];
+    private static final int[] rpBlanking = new int[RenderPriority.enums.length];
+
+    static {
+        for (RenderPriority rp : RenderPriority.enums) {
+            rpLayer[rp.ordinal()] = rp.getRenderType().ordinal();
+            rpPriority[rp.ordinal()] = rp.getPriorityType().ordinal();
+            //lsb (bit) indicates blanking
+            rpBlanking[rp.ordinal()] = rp == RenderPriority.BACK_PLANE ? 1 : 0;
+        }
+    }
+
     private static final BiConsumer<SpriteDataHolder, SpriteDataHolder> updatePhase1DataFn =
             (src, dest) -> {
                 dest.verticalPos = src.verticalPos;
@@ -79,14 +96,19 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
     private final WindowPlaneContext windowPlaneContext;
     private InterlaceMode interlaceMode = InterlaceMode.NONE;
     private final ByteBuffer vram;
+    private final VdpTileCache tileCache;
     private final ByteBuffer cram;
     private final int[] javaPalette;
     private int activeLines = 0;
     private SpriteDataHolder[] spriteDataHoldersNext = new SpriteDataHolder[MAX_SPRITES_PER_LINE_H40];
-    private final PixelData[] linePixelData = new PixelData[COLS];
+    //line compositor state, see updatePixelData
+    private final int[] layerCram = new int[NUM_LAYERS * COLS];
+    private final byte[] linePriorityMask = new byte[COLS];
+    private final byte[] linePixelPriority = new byte[COLS];
+    private final int[][] layerLines = {planeBack, planeA, planeA, planeB, sprites};
     private int odd;
 
-    public static VdpRenderHandler createInstance(MdVdpProvider vdpProvider, VdpMemoryInterface memoryInterface) {
+    public static VdpRenderHandler createInstance(MdVdpRenderState vdpProvider, MdVdpMemoryInterface memoryInterface) {
         return new VdpRenderHandlerImpl(vdpProvider, memoryInterface);
     }
 
@@ -118,13 +140,14 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
         }
     }
 
-    public VdpRenderHandlerImpl(MdVdpProvider vdpProvider, VdpMemoryInterface memoryInterface) {
+    public VdpRenderHandlerImpl(MdVdpRenderState vdpProvider, MdVdpMemoryInterface memoryInterface) {
         this.vdpProvider = vdpProvider;
         this.memoryInterface = memoryInterface;
         this.colorMapper = VdpColorMapper.getInstance();
         this.renderDump = new VdpRenderDump();
         this.scrollHandler = VdpScrollHandler.createInstance(memoryInterface);
         this.vram = memoryInterface.getVram();
+        this.tileCache = memoryInterface.getTileCache();
         this.cram = memoryInterface.getCram();
         this.javaPalette = memoryInterface.getJavaColorPalette();
         this.scrollContextA = ScrollContext.createInstance(RenderType.PLANE_A, planeA);
@@ -135,9 +158,6 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
             spriteDataHoldersCurrent[i] = new SpriteDataHolder();
             spriteDataHoldersNext[i] = new SpriteDataHolder();
         }
-        for (int i = 0; i < COLS; i++) {
-            linePixelData[i] = new PixelData();
-        }
         clearDataLine();
         clearDataFrame();
     }
@@ -201,9 +221,11 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
         Arrays.fill(sprites, 0);
         Arrays.fill(planeA, 0);
         Arrays.fill(planeB, 0);
-        for (int i = 0; i < linePixelData.length; i++) {
-            linePixelData[i].reset(shadowHighlightMode);
+        if (shadowHighlightMode) {
+            Arrays.fill(linePriorityMask, (byte) 0);
+            Arrays.fill(layerCram, 0);
         }
+        Arrays.fill(linePixelPriority, (byte) RenderPriority.BACK_PLANE.ordinal());
         SpriteDataHolder[] temp = spriteDataHoldersCurrent;
         spriteDataHoldersCurrent = spriteDataHoldersNext;
         for (int i = 0; i < spriteDataHoldersCurrent.length; i++) {
@@ -257,13 +279,14 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
                               int horOffset, int spritePixelLineLimit) {
         final RenderPriority priority = holder.priority ? RenderPriority.SPRITE_PRIO :
                 RenderPriority.SPRITE_NO_PRIO;
-        for (int tileBytePos = 0; tileBytePos < BYTES_PER_TILE &&
-                spritePixelLineCount < spritePixelLineLimit; tileBytePos++, horOffset += 2) {
+        final byte[] pixels = tileCache.getPixels(holder.horFlip);
+        final int rowOffset = tileCache.getRowOffset(tileBytePointerBase);
+        //two pixels at a time, one vram byte
+        for (int px = 0; px < CELL_WIDTH &&
+                spritePixelLineCount < spritePixelLineLimit; px += 2, horOffset += 2) {
             spritePixelLineCount += 2;
-            int tileShift = tileBytePos ^ (holder.horFlipAmount & 3); //[0,4]
-            int tileBytePointer = tileBytePointerBase + tileShift;
-            storeSpriteData(priority, tileBytePointer, horOffset, holder, 0);
-            storeSpriteData(priority, tileBytePointer, horOffset + 1, holder, 1);
+            storeSpriteData(priority, pixels[rowOffset + px], horOffset, holder);
+            storeSpriteData(priority, pixels[rowOffset + px + 1], horOffset + 1, holder);
         }
     }
 
@@ -273,12 +296,11 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
 //    Sprites earlier in the list show up on top of sprites later in the list (priority flag does nothing here).
 // Whichever sprite ends up on top in a given pixel is what will
 // end up in the sprite layer (and sorted against plane A and B).
-    private void storeSpriteData(RenderPriority priority, int tileBytePointer, int horOffset, SpriteDataHolder holder, int pixelInTile) {
+    private void storeSpriteData(RenderPriority priority, int pixelIndex, int horOffset, SpriteDataHolder holder) {
         if (horOffset < 0 || horOffset >= COLS || //Ayrton Senna, TODO check this, can it be removed??
-                linePixelData[horOffset].pixelPriority.getRenderType() == RenderType.SPRITE) { //isSpriteAlreadyShown)
+                rpLayer[linePixelPriority[horOffset]] == SPRITE_LAYER) { //isSpriteAlreadyShown)
             return;
         }
-        int pixelIndex = getPixelIndexColor(tileBytePointer, pixelInTile, holder.horFlipAmount);
         int cramIndexColor = holder.paletteLineIndex + (pixelIndex << 1);
         sprites[horOffset] = cramIndexColor;
         updatePixelData(horOffset, priority, sprites[horOffset]);
@@ -304,15 +326,14 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
     //shadow/highlight version
     private int getPixelFromLayerSh(int col) {
         final ShadowHighlightType shadowHighlight = processShadowHighlight(col);
-        final PixelData pxData = linePixelData[col];
+        final int prioMask = linePriorityMask[col];
         int cramIndex = planeBack[col];
         int blanking = 1;
         for (int i = RenderPriority.enums.length - 1; i > 0; i--) {
-            RenderPriority rp = RenderPriority.enums[i];
-            final int rt = rp.getRenderType().ordinal();
-            if (pxData.priorityMap.get(rt) == rp.getPriorityType().ordinal() > 0
-                    && (pxData.cramIndexMap[rt] & CRAM_TRANSP_PIXEL_MASK) != 0) {
-                cramIndex = pxData.cramIndexMap[rt];
+            final int layer = rpLayer[i];
+            final int layerCramIndex = layerCram[layer * COLS + col];
+            if (((prioMask >> layer) & 1) == rpPriority[i] && (layerCramIndex & CRAM_TRANSP_PIXEL_MASK) != 0) {
+                cramIndex = layerCramIndex;
                 blanking = 0;
                 break;
             }
@@ -321,47 +342,31 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
         return color | blanking;
     }
 
-    private int getPixelFromLayer(RenderPriority rp, int col) {
-        switch (rp.getRenderType()) {
-            case PLANE_A:
-            case WINDOW_PLANE:
-                return javaPalette[planeA[col] >> 1] & ~1;
-            case PLANE_B:
-                return javaPalette[planeB[col] >> 1] & ~1;
-            case SPRITE:
-                return javaPalette[sprites[col] >> 1] & ~1;
-            case BACK_PLANE:
-                //lsb (bit) indicates blanking
-                return javaPalette[planeBack[col] >> 1] | 1;
-            default:
-                return -1;
-        }
+    private int getPixelFromLayer(int rpOrdinal, int col) {
+        return (javaPalette[layerLines[rpLayer[rpOrdinal]][col] >> 1] & ~1) | rpBlanking[rpOrdinal];
     }
 
     private ShadowHighlightType processShadowHighlight(int col) {
-        final int spriteRt = RenderType.SPRITE.ordinal();
-        final PixelData pxData = linePixelData[col];
-        final int spriteCramIndex = pxData.cramIndexMap[spriteRt];
+        final int spriteCramPos = SPRITE_LAYER * COLS + col;
+        final int spriteCramIndex = layerCram[spriteCramPos];
         final boolean spriteTransparent = (spriteCramIndex & CRAM_TRANSP_PIXEL_MASK) == 0;
         ShadowHighlightType shadowHighlight = ShadowHighlightType.NORMAL;
         if (!spriteTransparent) {
             switch (spriteCramIndex) {
                 case 0x7C: // palette 3, color E (14) = (3*0x10)+E << 1
                     shadowHighlight = shadowHighlight.brighter();
-                    pxData.cramIndexMap[spriteRt] = 0;
+                    layerCram[spriteCramPos] = 0;
                     break;
                 case 0x7E:  // palette 3, color F (15)
                     shadowHighlight = shadowHighlight.darker();
-                    pxData.cramIndexMap[spriteRt] = 0;
+                    layerCram[spriteCramPos] = 0;
                     break;
             }
         }
         boolean spritePalette14 = !spriteTransparent && spriteCramIndex % 0x1C == 0;
-        final FastBitSet pmap = pxData.priorityMap;
-        boolean anyLayerHighPrio = !pmap.isEmpty() && (
-                pmap.get(RenderType.PLANE_A.ordinal()) ||
-                        pmap.get(RenderType.PLANE_B.ordinal()) ||
-                        (!spriteTransparent && pmap.get(spriteRt)));
+        final int prioMask = linePriorityMask[col];
+        boolean anyLayerHighPrio = (prioMask & PLANES_AB_MASK) != 0 ||
+                (!spriteTransparent && ((prioMask >> SPRITE_LAYER) & 1) != 0);
         if (!anyLayerHighPrio && !spritePalette14) {
             shadowHighlight = shadowHighlight.darker();
         }
@@ -445,7 +450,7 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
         int k = width * line;
         if (!shadowHighlightMode) { //faster
             for (int col = 0; col < width; col++) {
-                linearScreen[k++] = getPixelFromLayer(linePixelData[col].pixelPriority, col);
+                linearScreen[k++] = getPixelFromLayer(linePixelPriority[col], col);
             }
         } else {
             for (int col = 0; col < width; col++) {
@@ -455,7 +460,7 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
         if (lcb) { //left column blank, use BACK_PLANE color
             k = width * line;
             for (int col = 0; col < CELL_WIDTH; col++) {
-                linearScreen[k++] = getPixelFromLayer(RenderPriority.BACK_PLANE, col);
+                linearScreen[k++] = getPixelFromLayer(RenderPriority.BACK_PLANE.ordinal(), col);
             }
         }
     }
@@ -486,40 +491,34 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
         final int[] plane = sc.plane;
 
         TileDataHolder tileDataHolder = spriteDataHolder;
-        RenderPriority rp = null;
 
         for (int twoCell = startTwoCells; twoCell < endTwoCells; twoCell++) {
-            int rowCellShift = 0, latestTileLocatorVram = -1;
             final int vScrollLineOffset = scrollHandler.getVerticalScroll(twoCell, sc);
             final int planeLine = (vScrollLineOffset + line) & vScrollSizeMask;
             final int planeCellVOffset = (planeLine >> 3) * sc.planeWidth;
             final int rowCellBase = planeLine & 7; //cellHeight;
-            final int startPixel = twoCell << 4;
-            for (int pixel = startPixel; pixel < startPixel + 16; pixel++) {
+            final int endPixel = (twoCell << 4) + 16;
+            int pixel = twoCell << 4;
+            //one tile row at a time, the first and last one can be partial
+            while (pixel < endPixel) {
                 int planeCellHOffset = ((pixel + hScrollPixelOffset) >> 3) % sc.planeWidth;
                 int tileLocatorVram = nameTableLocation + ((planeCellHOffset + planeCellVOffset) << 1);
                 int xPosCell = (pixel + hScrollPixelOffset) & CELL_WIDTH_MASK;
-                if (tileLocatorVram != latestTileLocatorVram) {
-                    //one word per 8x8 tile
-                    int tileNameTable = readBufferWord(vram, tileLocatorVram);
-                    tileDataHolder = getTileData(tileNameTable, tileDataHolder);
-                    latestTileLocatorVram = tileLocatorVram;
-                    rp = tileDataHolder.priority ? sc.highPrio : sc.lowPrio;
-                    int rowCell = rowCellBase ^ (tileDataHolder.vertFlipAmount & 7); //[0,7]
-                    rowCellShift = rowCell << (2 + interlaceMode.interlaceAdjust());
-                    rowCellShift += (odd << 2); //shift by 4 when odd field, 0 otherwise
+                //one word per 8x8 tile
+                int tileNameTable = readBufferWord(vram, tileLocatorVram);
+                tileDataHolder = getTileData(tileNameTable, tileDataHolder);
+                RenderPriority rp = tileDataHolder.priority ? sc.highPrio : sc.lowPrio;
+                int rowCell = rowCellBase ^ (tileDataHolder.vertFlipAmount & 7); //[0,7]
+                int rowCellShift = rowCell << (2 + interlaceMode.interlaceAdjust());
+                rowCellShift += (odd << 2); //shift by 4 when odd field, 0 otherwise
+                //4 bytes per row
+                final byte[] pixels = tileCache.getPixels(tileDataHolder.horFlip);
+                final int rowOffset = tileCache.getRowOffset(tileDataHolder.tileIndex + rowCellShift) + xPosCell;
+                final int len = Math.min(CELL_WIDTH - xPosCell, endPixel - pixel);
+                for (int i = 0; i < len; i++, pixel++) {
+                    plane[pixel] = tileDataHolder.paletteLineIndex + (pixels[rowOffset + i] << 1);
+                    updatePixelData(pixel, rp, plane[pixel]);
                 }
-                int colCell = xPosCell ^ (tileDataHolder.horFlipAmount & 7); //[0,7]
-                //two pixels per byte, 4 bytes per row
-                int tileBytePointer = tileDataHolder.tileIndex + (colCell >> 1) + rowCellShift;
-                int onePixelData = getPixelIndexColor(tileBytePointer, xPosCell, tileDataHolder.horFlipAmount);
-
-                plane[pixel] = tileDataHolder.paletteLineIndex + (onePixelData << 1);
-                updatePixelData(pixel, rp, plane[pixel]);
-//                System.out.printf("\n%s %d-%d, nameTableLocation: %x, tileLocatorVram: %x, " +
-//                        "tileBytePointer: %x, cramIdx: %d\n%s", sc.planeType,
-//                         line, pixel, nameTableLocation, tileLocatorVram, tileBytePointer, plane[pixel],
-//                         tileDataHolder);
             }
         }
     }
@@ -543,45 +542,25 @@ public class VdpRenderHandlerImpl implements VdpRenderHandler, VdpEventListener
             RenderPriority rp = tileDataHolder.priority ? RenderPriority.PLANE_A_PRIO :
                     RenderPriority.PLANE_A_NO_PRIO;
 
-            //two pixels at a time as they share a tile
-            for (int k = 0; k < 4; k++) {
-                int pixelHPosTile = k ^ (tileDataHolder.horFlipAmount & 3); //[0,4]
-                int pos = (hCell << 3) + (k << 1);
-
-                int tileBytePointer = (tileDataHolder.tileIndex + pixelHPosTile) + (pixelVPosTile << 2);
-
-                int pixelIndexColor1 = getPixelIndexColor(tileBytePointer, 0, tileDataHolder.horFlipAmount);
-                int pixelIndexColor2 = getPixelIndexColor(tileBytePointer, 1, tileDataHolder.horFlipAmount);
-
-                int val1 = tileDataHolder.paletteLineIndex + (pixelIndexColor1 << 1);
-                int val2 = tileDataHolder.paletteLineIndex + (pixelIndexColor2 << 1);
-
-//                System.out.printf("OLD PixelPos %d-%d, nameTableLocation: %x, tileLocatorVram: %x, tileBytePointer: %x, " +
-//                                    "cramIdx: %d\n", line, po,
-//                            nameTableLocation, tileLocatorVram, tileBytePointer, val1);
-                planeA[pos] = val1;
-                planeA[pos + 1] = val2;
-                updatePixelData(pos, rp, val1);
-                updatePixelData(pos + 1, rp, val2);
+            final byte[] pixels = tileCache.getPixels(tileDataHolder.horFlip);
+            final int rowOffset = tileCache.getRowOffset(tileDataHolder.tileIndex + (pixelVPosTile << 2));
+            final int pos = hCell << 3;
+            for (int k = 0; k < CELL_WIDTH; k++) {
+                int val = tileDataHolder.paletteLineIndex + (pixels[rowOffset + k] << 1);
+                planeA[pos + k] = val;
+                updatePixelData(pos + k, rp, val);
             }
         }
     }
 
-    private int getPixelIndexColor(int tileBytePointer, int pixelInTile, int horFlipAmount) {
-        //1 byte represents 2 pixels, 1 pixel = 4 bit = 16 color gamut
-        int twoPixelsData = vram.get(tileBytePointer & 0xFFFF) & 0xFF;
-        boolean isFirstPixel = (pixelInTile & 1) == (~horFlipAmount & 1);
-        return isFirstPixel ? twoPixelsData & 0x0F : (twoPixelsData & 0xF0) >> 4;
-    }
-
     private void updatePixelData(int pixel, RenderPriority rp, int cramIndex) {
-        final int rto = rp.getRenderType().ordinal();
-        final PixelData pixelData = linePixelData[pixel];
-        pixelData.priorityMap.set(rto, rp.getPriorityType().ordinal() > 0);
-        pixelData.cramIndexMap[rto] = cramIndex;
+        final int rpo = rp.ordinal();
+        final int layer = rpLayer[rpo];
+        linePriorityMask[pixel] = (byte) ((linePriorityMask[pixel] & ~(1 << layer)) | (rpPriority[rpo] << layer));
+        layerCram[layer * COLS + pixel] = cramIndex;
         //if non transparent and of higher priority
-        if ((cramIndex & CRAM_TRANSP_PIXEL_MASK) != 0 && rp.ordinal() > pixelData.pixelPriority.ordinal()) {
-            pixelData.pixelPriority = rp;
+        if ((cramIndex & CRAM_TRANSP_PIXEL_MASK) != 0 && rpo > linePixelPriority[pixel]) {
+            linePixelPriority[pixel] = (byte) rpo;
         }
     }
 
@@ -0,0 +1,298 @@
+package omegadrive.vdp.md;
+
+import omegadrive.util.LogHelper;
+import omegadrive.util.PriorityThreadFactory;
+import omegadrive.vdp.md.MdVdpMemoryInterface.VdpRamWriteListener;
+import omegadrive.vdp.model.*;
+import omegadrive.vdp.model.BaseVdpAdapterEventSupport.VdpEvent;
+import omegadrive.vdp.model.VdpMisc.RenderType;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static omegadrive.vdp.model.BaseVdpProvider.VdpEventListener;
+import static omegadrive.vdp.model.MdVdpProvider.*;
+
+/**
+ * VdpRenderPipeline
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Renders the MD VDP lines on a worker thread, the emulation thread only records the render inputs.
+ * The worker owns a replica of VRAM, CRAM, VSRAM and the SAT cache, kept in sync by replaying the writes
+ * in the order they happened, each line is rendered with the registers captured when the VDP reached the line:
+ * mid-frame raster effects look the same as with {@link VdpRenderHandlerImpl} running inline.
+ * The emulation thread waits for the worker only when the frame is read, see {@link #getScreenDataLinear()}.
+ */
+public class VdpRenderPipeline implements VdpRenderHandler, VdpEventListener, VdpRamWriteListener {
+
+    private final static Logger LOG = LogHelper.getLogger(VdpRenderPipeline.class.getSimpleName());
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("helios.vdp.render.thread", "false"));
+
+    //lines in flight, when the worker falls behind the emulation thread blocks
+    private static final int NUM_BATCHES = 32;
+    private static final int SYNC_SPIN_LIMIT = 1000;
+
+    //[op:4][payload:28]
+    private static final int OP_SHIFT = 28;
+    private static final int PAYLOAD_MASK = (1 << OP_SHIFT) - 1;
+    private static final int OP_RAM_WRITE = 0, OP_SAT_BASE = 1, OP_EVENT = 2, OP_INIT_LINE = 3;
+
+    private static final VdpRamType[] ramTypes = VdpRamType.values();
+    private static final VdpEvent[] vdpEvents = VdpEvent.values();
+
+    private final MdVdpProvider vdp;
+    private final MdVdpMemoryInterface memory;
+    private final MdVdpMemoryInterface replica;
+    private final RenderVdpView view;
+    private final VdpRenderHandlerImpl renderer;
+    private final BlockingQueue<LineBatch> pending = new ArrayBlockingQueue<>(NUM_BATCHES);
+    private final BlockingQueue<LineBatch> free = new ArrayBlockingQueue<>(NUM_BATCHES);
+    private final Thread worker;
+    private LineBatch current;
+    private long submitted;
+    //worker thread only
+    private long renderErrors;
+    private volatile long completed;
+    private volatile boolean running = true;
+
+    /**
+     * Ops recorded between two lines, followed by the line to render (if any)
+     */
+    static class LineBatch {
+        int[] ops = new int[256];
+        int numOps;
+        final List<Object> eventValues = new ArrayList<>();
+        final int[] registers = new int[VDP_REGISTERS_SIZE];
+        boolean displayEnabled, shadowHighlight;
+        int line = -1;
+
+        void add(int op, int payload) {
+            if (numOps == ops.length) {
+                int[] o = new int[ops.length << 1];
+                System.arraycopy(ops, 0, o, 0, ops.length);
+                ops = o;
+            }
+            ops[numOps++] = (op << OP_SHIFT) | (payload & PAYLOAD_MASK);
+        }
+
+        void reset() {
+            numOps = 0;
+            eventValues.clear();
+            line = -1;
+        }
+    }
+
+    public static VdpRenderHandler createInstance(MdVdp vdp, MdVdpMemoryInterface memoryInterface) {
+        return new VdpRenderPipeline(vdp, memoryInterface);
+    }
+
+    private VdpRenderPipeline(MdVdp vdp, MdVdpMemoryInterface memory) {
+        this.vdp = vdp;
+        this.memory = memory;
+        this.replica = MdVdpMemoryInterface.createInstance();
+        copyMemory(memory, replica, vdp.satStart);
+        this.view = new RenderVdpView();
+        this.renderer = new VdpRenderHandlerImpl(view, replica);
+        for (int i = 0; i < NUM_BATCHES; i++) {
+            free.add(new LineBatch());
+        }
+        this.current = takeFree();
+        memory.setRamWriteListener(this);
+        vdp.addVdpEventListener(this);
+        this.worker = new PriorityThreadFactory(Thread.MAX_PRIORITY, this).newThread(this::workerLoop);
+        worker.setDaemon(true);
+        worker.start();
+        LOG.info("Rendering VDP lines on thread: {}", worker.getName());
+    }
+
+    private static void copyMemory(MdVdpMemoryInterface src, MdVdpMemoryInterface dest, int satBaseAddress) {
+        for (VdpRamType type : ramTypes) {
+            int size = switch (type) {
+                case VRAM -> VDP_VRAM_SIZE;
+                case CRAM -> VDP_CRAM_SIZE;
+                case VSRAM -> VDP_VSRAM_SIZE;
+            };
+            for (int i = 0; i < size; i++) {
+                dest.writeVideoRamByte(type, i, src.readVideoRamByte(type, i));
+            }
+        }
+        dest.setSatBaseAddress(satBaseAddress);
+        byte[] satCache = src.getSatCache();
+        System.arraycopy(satCache, 0, dest.getSatCache(), 0, satCache.length);
+    }
+
+    @Override
+    public void onVdpRamWrite(VdpRamType type, int address, byte data) {
+        current.add(OP_RAM_WRITE, (type.ordinal() << 24) | ((address & 0xFFFF) << 8) | (data & 0xFF));
+    }
+
+    @Override
+    public void onSatBaseAddress(int address) {
+        current.add(OP_SAT_BASE, address);
+    }
+
+    @Override
+    public void onVdpEvent(VdpEvent event, Object value) {
+        switch (event) {
+            case VIDEO_MODE, LEFT_COL_BLANK, INTERLACE_FIELD_CHANGE, INTERLACE_MODE_CHANGE -> {
+                current.add(OP_EVENT, (event.ordinal() << 16) | current.eventValues.size());
+                current.eventValues.add(value);
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void renderLine(int line) {
+        LineBatch b = current;
+        for (int i = 0; i < b.registers.length; i++) {
+            b.registers[i] = vdp.getRegisterData(i);
+        }
+        b.displayEnabled = vdp.isDisplayEnabled();
+        b.shadowHighlight = vdp.isShadowHighlight();
+        b.line = line;
+        submitted++;
+        pending.add(b);
+        current = takeFree();
+    }
+
+    @Override
+    public void initLineData(int line) {
+        current.add(OP_INIT_LINE, line);
+    }
+
+    /**
+     * Waits for the worker to render all the pending lines
+     */
+    @Override
+    public int[] getScreenDataLinear() {
+        sync();
+        return renderer.getScreenDataLinear();
+    }
+
+    @Override
+    public int[] getPlaneData(RenderType type) {
+        sync();
+        return renderer.getPlaneData(type);
+    }
+
+    @Override
+    public void dumpScreenData() {
+        sync();
+        renderer.dumpScreenData();
+    }
+
+    public void close() {
+        running = false;
+        worker.interrupt();
+        memory.setRamWriteListener(null);
+        vdp.removeVdpEventListener(this);
+    }
+
+    private void sync() {
+        //usually a short wait, yield when the worker shares the core with us
+        for (int i = 0; completed != submitted && worker.isAlive(); i++) {
+            if (i < SYNC_SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private LineBatch takeFree() {
+        try {
+            return free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void workerLoop() {
+        while (running) {
+            LineBatch b;
+            try {
+                b = pending.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                process(b);
+            } catch (Exception e) {
+                //a broken state usually breaks every line after it, only the first one is logged
+                if (renderErrors++ == 0) {
+                    LOG.error("Unable to render line: {}", b.line, e);
+                }
+            }
+            b.reset();
+            free.add(b);
+            completed++;
+        }
+        LOG.info("Render thread stopped, lines not rendered: {}", renderErrors);
+    }
+
+    private void process(LineBatch b) {
+        for (int i = 0; i < b.numOps; i++) {
+            int op = b.ops[i];
+            int payload = op & PAYLOAD_MASK;
+            switch (op >>> OP_SHIFT) {
+                case OP_RAM_WRITE -> replica.writeVideoRamByte(ramTypes[payload >>> 24],
+                        (payload >> 8) & 0xFFFF, (byte) payload);
+                case OP_SAT_BASE -> replica.setSatBaseAddress(payload);
+                case OP_EVENT -> {
+                    view.fireVdpEvent(vdpEvents[payload >>> 16], b.eventValues.get(payload & 0xFFFF));
+                }
+                case OP_INIT_LINE -> renderer.initLineData(payload);
+            }
+        }
+        if (b.line >= 0) {
+            view.setLineState(b);
+            renderer.renderLine(b.line);
+        }
+    }
+
+    /**
+     * The VDP as seen by the worker, registers are the ones captured for the line being rendered
+     */
+    static class RenderVdpView implements MdVdpRenderState {
+
+        private final List<VdpEventListener> list = new ArrayList<>();
+        private final int[] registers = new int[VDP_REGISTERS_SIZE];
+        private boolean displayEnabled, shadowHighlight;
+
+        void setLineState(LineBatch b) {
+            System.arraycopy(b.registers, 0, registers, 0, registers.length);
+            displayEnabled = b.displayEnabled;
+            shadowHighlight = b.shadowHighlight;
+        }
+
+        @Override
+        public int getRegisterData(int reg) {
+            return registers[reg];
+        }
+
+        @Override
+        public boolean isDisplayEnabled() {
+            return displayEnabled;
+        }
+
+        @Override
+        public boolean isShadowHighlight() {
+            return shadowHighlight;
+        }
+
+        @Override
+        public List<VdpEventListener> getVdpEventListenerList() {
+            return list;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package omegadrive.vdp.md;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static omegadrive.vdp.model.MdVdpProvider.VDP_VRAM_MASK;
+import static omegadrive.vdp.model.MdVdpProvider.VDP_VRAM_SIZE;
+
+/**
+ * VdpTileCache
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Decoded 4bpp tile rows, one byte per pixel, 8 pixels per row (4 vram bytes).
+ * Each row is also stored horizontally flipped, a row is decoded again only after
+ * a vram write has touched it.
+ */
+public class VdpTileCache {
+
+    public static final int PIXELS_PER_ROW = 8;
+    private static final int NUM_ROWS = VDP_VRAM_SIZE >> 2;
+
+    private final ByteBuffer vram;
+    private final byte[] pixels = new byte[NUM_ROWS * PIXELS_PER_ROW];
+    private final byte[] pixelsHFlip = new byte[NUM_ROWS * PIXELS_PER_ROW];
+    private final long[] dirty = new long[NUM_ROWS >> 6];
+
+    public VdpTileCache(ByteBuffer vram) {
+        this.vram = vram;
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        Arrays.fill(dirty, -1L);
+    }
+
+    /**
+     * Call on every vram write
+     */
+    public void invalidate(int vramAddress) {
+        int row = (vramAddress & VDP_VRAM_MASK) >> 2;
+        dirty[row >> 6] |= 1L << row;
+    }
+
+    public byte[] getPixels(boolean horFlip) {
+        return horFlip ? pixelsHFlip : pixels;
+    }
+
+    /**
+     * @param vramRowAddress the address of the first byte of the row, 4-byte aligned
+     * @return the offset of the row in {@link #getPixels(boolean)}
+     */
+    public int getRowOffset(int vramRowAddress) {
+        int row = (vramRowAddress & VDP_VRAM_MASK) >> 2;
+        long mask = 1L << row;
+        if ((dirty[row >> 6] & mask) != 0) {
+            decodeRow(row);
+            dirty[row >> 6] &= ~mask;
+        }
+        return row << 3;
+    }
+
+    //1 byte represents 2 pixels, the first pixel is in the high nibble
+    private void decodeRow(int row) {
+        int base = row << 3;
+        int rowData = vram.getInt(row << 2);
+        for (int i = 0; i < PIXELS_PER_ROW; i++) {
+            byte px = (byte) ((rowData >>> (28 - (i << 2))) & 0xF);
+            pixels[base + i] = px;
+            pixelsHFlip[base + PIXELS_PER_ROW - 1 - i] = px;
+        }
+    }
+}
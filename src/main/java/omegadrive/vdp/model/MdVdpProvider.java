@@ -27,7 +27,7 @@ import org.slf4j.Logger;
 
 import java.util.EnumMap;
 
-public interface MdVdpProvider extends BaseVdpProvider {
+public interface MdVdpProvider extends BaseVdpProvider, MdVdpRenderState {
 
     Logger LOG = LogHelper.getLogger(MdVdpProvider.class.getSimpleName());
 
@@ -224,20 +224,12 @@ public interface MdVdpProvider extends BaseVdpProvider {
      */
     void setHip(boolean value);
 
-    boolean isShadowHighlight();
-
     VdpFifo getFifo();
 
     VramMode getVramMode();
 
     InterlaceMode getInterlaceMode();
 
-    boolean isDisplayEnabled();
-
-    default int getRegisterData(VdpRegisterName registerName) {
-        return getRegisterData(registerName.ordinal());
-    }
-
     default void updateRegisterData(VdpRegisterName registerName, int data) {
         updateRegisterData(registerName.ordinal(), data);
     }
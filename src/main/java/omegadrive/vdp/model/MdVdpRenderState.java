@@ -0,0 +1,25 @@
+package omegadrive.vdp.model;
+
+import omegadrive.vdp.model.MdVdpProvider.VdpRegisterName;
+
+/**
+ * MdVdpRenderState
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * The VDP state the line renderer reads, see {@link VdpRenderHandler}.
+ */
+public interface MdVdpRenderState extends BaseVdpAdapterEventSupport {
+
+    int getRegisterData(int reg);
+
+    boolean isDisplayEnabled();
+
+    boolean isShadowHighlight();
+
+    default int getRegisterData(VdpRegisterName registerName) {
+        return getRegisterData(registerName.ordinal());
+    }
+}
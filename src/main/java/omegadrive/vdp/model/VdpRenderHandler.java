@@ -19,11 +19,9 @@
 
 package omegadrive.vdp.model;
 
-import omegadrive.util.FastBitSet;
 import omegadrive.util.LogHelper;
 import omegadrive.vdp.model.VdpMisc.RenderType;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 import static omegadrive.vdp.model.MdVdpProvider.*;
@@ -98,12 +96,12 @@ public interface VdpRenderHandler {
         return isH40 ? H40 : H32;
     }
 
-    static int getHScrollDataLocation(MdVdpProvider vdp) {
+    static int getHScrollDataLocation(MdVdpRenderState vdp) {
         //	bit 6 = mode 128k
         return (vdp.getRegisterData(HORIZONTAL_SCROLL_DATA_LOC) & 0x3F) << HOR_SCROLL_SHIFT;
     }
 
-    static int getWindowPlaneNameTableLocation(MdVdpProvider vdp, boolean isH40) {
+    static int getWindowPlaneNameTableLocation(MdVdpRenderState vdp, boolean isH40) {
         int reg3 = vdp.getRegisterData(WINDOW_NAMETABLE);
         //	WD11 is ignored if the display resolution is 320px wide (H40),
         // which limits the Window nametable address to multiples of $1000.
@@ -123,15 +121,15 @@ public interface VdpRenderHandler {
 // it would be divided by $2000, which results in $07, the proper value for this register.
 //	SB16 is only valid if 128 KB mode is enabled, and allows for rebasing the
 // Plane B nametable to the second 64 KB of VRAM.
-    static int getPlaneBNameTableLocation(MdVdpProvider vdpProvider) {
+    static int getPlaneBNameTableLocation(MdVdpRenderState vdpProvider) {
         return (vdpProvider.getRegisterData(PLANE_B_NAMETABLE) & 0x7) << PLANE_B_SHIFT;
     }
 
-    static int getPlaneANameTableLocation(MdVdpProvider vdpProvider) {
+    static int getPlaneANameTableLocation(MdVdpRenderState vdpProvider) {
         return (vdpProvider.getRegisterData(PLANE_A_NAMETABLE) & 0x38) << PLANE_A_SHIFT;
     }
 
-    static int getSpriteTableLocation(MdVdpProvider vdp, boolean isH40) {
+    static int getSpriteTableLocation(MdVdpRenderState vdp, boolean isH40) {
         //	AT16 is only valid if 128 KB mode is enabled,
         // and allows for rebasing the Sprite Attribute Table to the second 64 KB of VRAM.
         // AT0: Ignored in 320 pixel wide mode, limiting the address to a multiple of $400.
@@ -243,18 +241,4 @@ public interface VdpRenderHandler {
             endHCell = startHCell = startHCellPlane = endHCellPlane = 0;
         }
     }
-
-    class PixelData {
-        public final FastBitSet priorityMap = new FastBitSet(8); //see RenderType
-        public final int[] cramIndexMap = new int[RenderType.values().length];
-        public RenderPriority pixelPriority = RenderPriority.BACK_PLANE; //shadow/highlight off
-
-        public void reset(boolean sh) {
-            if (sh) {
-                priorityMap.empty();
-                Arrays.fill(cramIndexMap, 0);
-            }
-            pixelPriority = RenderPriority.BACK_PLANE;
-        }
-    }
 }
@@ -39,7 +39,6 @@ public class TileViewer implements UpdatableViewer {
 
     private TileViewer(MdVdpProvider vdp, VdpMemoryInterface memoryInterface, VdpRenderHandler renderHandler) {
         this.vdp = vdp;
-        VdpRenderHandlerImpl renderHandler1 = (VdpRenderHandlerImpl) renderHandler;
         this.memoryInterface = memoryInterface;
         this.javaPalette = memoryInterface.getJavaColorPalette();
         this.panel = new JPanel();
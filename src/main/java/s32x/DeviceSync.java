@@ -0,0 +1,19 @@
+package s32x;
+
+/**
+ * DeviceSync
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * The pwm and the sh2 timers are only stepped when they are due to raise an interrupt or a dreq,
+ * in between they just count down; a register access brings them up to date first.
+ */
+public interface DeviceSync {
+
+    DeviceSync NO_SYNC = () -> {
+    };
+
+    void syncDevices();
+}
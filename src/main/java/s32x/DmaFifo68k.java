@@ -1,6 +1,8 @@
 package s32x;
 
 import omegadrive.Device;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.*;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import org.slf4j.Logger;
@@ -13,6 +15,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 
+import static omegadrive.savestate.StateCodec.*;
 import static omegadrive.util.Util.readBufferWord;
 import static omegadrive.util.Util.th;
 import static s32x.dict.S32xDict.RegSpecS32x.*;
@@ -36,8 +39,8 @@ public class DmaFifo68k implements Device, S32XMMREG.Dma68SHandler {
     private final ByteBuffer sysRegsMd, sysRegsSh2;
     private DmaTriggerHandler[] dmac;
     private DmaFifo68kContext ctx;
-    public static boolean rv = false;
     private static final boolean verbose = false;
+    private static final int STATE_VERSION = 1;
 
     static class DmaFifo68kContext implements Serializable {
         @Serial
@@ -52,7 +55,19 @@ public class DmaFifo68k implements Device, S32XMMREG.Dma68SHandler {
         this.sysRegsSh2 = regContext.sysRegsSh2;
         this.ctx = new DmaFifo68kContext();
         Gs32xStateHandler.addDevice(this);
-        ctx.rv = rv;
+    }
+
+    /**
+     * RV = 1, the cart ROM is mapped at its original address for the 68K, the SH2s cannot access it
+     */
+    public boolean isRv() {
+        return ctx.rv;
+    }
+
+    @Override
+    public void reset() {
+        //TODO soft reset shouldn't do this
+        ctx.rv = false;
     }
 
     public int read(RegSpecS32x regSpec, CpuDeviceAccess cpu, int address, Size size) {
@@ -109,13 +124,13 @@ public class DmaFifo68k implements Device, S32XMMREG.Dma68SHandler {
             int res = readBufferWord(sysRegsMd, MD_DMAC_CTRL.addr);
             boolean wasDmaOn = ctx.m68S;
             ctx.m68S = (res & 4) > 0;
-            rv = (res & 1) > 0;
+            ctx.rv = (res & 1) > 0;
             //sync sh2 reg, only lsb 3 bits
             BufferUtil.writeBufferRaw(sysRegsSh2, SH2_DREQ_CTRL.addr + 1, res & MD_DMAC_CTRL.regSpec.writableBitMask, Size.BYTE);
             //NOTE bit 1 is called DMA, only relevant when using SEGA CD (see picodrive)
 //            assert (res & 2) == 0;
             if (verbose)
-                LOG.info("{} write DREQ_CTL, dmaOn: {} , RV: {}", MdRuntimeData.getAccessTypeExt(), ctx.m68S, rv);
+                LOG.info("{} write DREQ_CTL, dmaOn: {} , RV: {}", MdRuntimeData.getAccessTypeExt(), ctx.m68S, ctx.rv);
             if (wasDmaOn && !ctx.m68S) {
                 LogHelper.logWarnOnce(LOG, "{} Setting 68S = 0, stops DMA while running", MdRuntimeData.getAccessTypeExt());
                 dmaEnd();
@@ -217,17 +232,25 @@ public class DmaFifo68k implements Device, S32XMMREG.Dma68SHandler {
     @Override
     public void saveContext(ByteBuffer buffer) {
         Device.super.saveContext(buffer);
-        ctx.rv = rv;
-        buffer.put(Util.serializeObject(ctx));
+        StateCodec.writeHeader(buffer, ContextId.DMA_FIFO_68K, STATE_VERSION);
+        putIntFifo(buffer, ctx.fifo);
+        putBoolean(buffer, ctx.m68S);
+        putBoolean(buffer, ctx.rv);
     }
 
     @Override
     public void loadContext(ByteBuffer buffer) {
         Device.super.loadContext(buffer);
-        Serializable s = Util.deserializeObject(buffer);
-        assert s instanceof DmaFifo68kContext;
-        ctx = (DmaFifo68kContext) s;
-        rv = ctx.rv;
+        if (StateCodec.isLegacy(buffer)) {
+            Serializable s = Util.deserializeObject(buffer);
+            assert s instanceof DmaFifo68kContext;
+            ctx = (DmaFifo68kContext) s;
+        } else {
+            StateCodec.readHeader(buffer, ContextId.DMA_FIFO_68K, STATE_VERSION);
+            getIntFifo(buffer, ctx.fifo);
+            ctx.m68S = getBoolean(buffer);
+            ctx.rv = getBoolean(buffer);
+        }
     }
 
     public void setDmac(DmaTriggerHandler... dmac) {
@@ -7,6 +7,8 @@ import omegadrive.sound.PwmProvider;
 import omegadrive.system.MediaSpecHolder;
 import omegadrive.system.Megadrive;
 import omegadrive.system.SystemProvider;
+import omegadrive.system.perf.Telemetry;
+import omegadrive.system.perf.Telemetry.Section;
 import omegadrive.ui.DisplayWindow;
 import omegadrive.util.*;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
@@ -81,6 +83,8 @@ public class Md32x extends Megadrive implements StaticBootstrapSupport.NextCycle
     }
 
     public int nextMSh2Cycle = 0, nextSSh2Cycle = 0;
+    //pwm and sh2 devices have been stepped up to this cycle, see runDevices
+    private int devicesCycle = 0;
     protected Sh2LaunchContext launchCtx;
     private Sh2 sh2;
     private Sh2Context masterCtx, slaveCtx;
@@ -118,6 +122,10 @@ public class Md32x extends Megadrive implements StaticBootstrapSupport.NextCycle
         nextSSh2Cycle = nextMSh2Cycle = launchCtx.s32XMMREG.aden & 1;
         marsVdp.updateDebugView(((MdVdp) vdp).getDebugViewer());
         launchCtx.pwm.setPwmProvider(ENABLE_PWM ? sound.getPwm() : PwmProvider.NO_SOUND);
+        launchCtx.pwm.setDeviceSync(this::syncDevices);
+        launchCtx.mDevCtx.sh2MMREG.setDeviceSync(this::syncDevices);
+        launchCtx.sDevCtx.sh2MMREG.setDeviceSync(this::syncDevices);
+        devicesCycle = cycleCounter - 1;
         sound.setEnabled(sound.getFm(), ENABLE_FM);
         sound.setEnabled(sound.getPwm(), !Pwm.PWM_USE_BLIP);
     }
@@ -135,45 +143,125 @@ public class Md32x extends Megadrive implements StaticBootstrapSupport.NextCycle
         updateVideoMode(true);
         assert cycleCounter == 1;
         do {
-            run68k();
-            runZ80();
-            runSound();
-            runSh2();
-            runDevices();
-            //this should be last as it could change the counter
-            runVdp();
-            cycleCounter++;
+            if (Telemetry.SECTIONS && --sectionSampleCnt == 0) {
+                runCycleSampled();
+            } else {
+                run68k();
+                runZ80();
+                runSound();
+                runSh2();
+                runDevices();
+                //this should be last as it could change the counter
+                runVdp();
+            }
+            advanceCycleCounter();
         } while (!futureDoneFlag);
     }
 
+    @Override
+    protected void runCycleSampled() {
+        long t = System.nanoTime();
+        run68k();
+        t = sampleSection(Section.M68K, t);
+        runZ80();
+        t = sampleSection(Section.Z80, t);
+        runSound();
+        t = sampleSection(Section.AUDIO, t);
+        runSh2Master();
+        t = sampleSection(Section.SH2_MASTER, t);
+        runSh2Slave();
+        sampleSection(Section.SH2_SLAVE, t);
+        runDevices();
+        runVdpSampled(System.nanoTime());
+    }
+
+    @Override
+    protected int nextEventCycle(int from) {
+        int next = super.nextEventCycle(from);
+        next = minDue(next, nextMSh2Cycle, from);
+        next = minDue(next, nextSSh2Cycle, from);
+        return Math.max(from, Math.min(next, nextDevicesCycle()));
+    }
+
+    /**
+     * First cycle where the pwm or the sh2 devices raise an interrupt, play a sample or move data,
+     * until then they only count down and are caught up when needed.
+     */
+    private int nextDevicesCycle() {
+        int cycles = Math.min(launchCtx.pwm.getCyclesToNextEvent(),
+                Math.min(launchCtx.mDevCtx.sh2MMREG.getCyclesToNextEvent(),
+                        launchCtx.sDevCtx.sh2MMREG.getCyclesToNextEvent()));
+        if (cycles == Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return devicesCycle + Math.max(1, (cycles + SH2_CYCLE_RATIO - 1) / SH2_CYCLE_RATIO);
+    }
+
     //PAL: 1/3.0 gives ~ 450k per frame, 22.8Mhz. but the games are too slow!!!
     //53/7*burstCycles = if burstCycles = 3 -> 23.01Mhz
+    //NOTE: the SH2s cannot run on separate threads (yet), what still assumes a single thread:
+    // - MdRuntimeData has one access type per system, every bus access reads it to pick the cpu and its delay slot
+    // - S32XMMREG, SDRAM/ROM/frame buffer, the Sh2Cache purge/through paths and the DMA engines are unsynchronized
+    // - the DRC block tables (MdRuntimeData.sh2PcInfo) are invalidated by writes coming from either cpu
+    // - the pollers of one cpu (MdRuntimeData.sysEventManager) are started/stopped by the other cpu writes
+    // - interrupts are raised by devices stepped on this thread, see runDevices
+    // - lockstep ordering: the cpus interleave every burstCycles, comm register handshakes and poller wake-ups
+    //   depend on it, syncing at quantum boundaries changes what the games see and the runs are no longer deterministic
     protected final void runSh2() {
+        runSh2Master();
+        runSh2Slave();
+    }
+
+    protected final void runSh2Master() {
         if (nextMSh2Cycle == cycleCounter) {
-            assert !PollSysEventManager.currentPollers[0].isPollingActive() : PollSysEventManager.currentPollers[0];
+            assert !PollSysEventManager.get().getPoller(MASTER).isPollingActive() : PollSysEventManager.get().getPoller(MASTER);
             rt.setAccessType(MASTER);
             sh2.run(masterCtx);
             assert (masterCtx.cycles_ran & CYCLE_TABLE_LEN_MASK) == masterCtx.cycles_ran : masterCtx.cycles_ran;
-            assert MdRuntimeData.resetCpuDelayExt() == 0;
+            assert rt.resetCpuDelay() == 0;
             nextMSh2Cycle += sh2CycleTable[masterCtx.cycles_ran];
         }
+    }
+
+    protected final void runSh2Slave() {
         if (nextSSh2Cycle == cycleCounter) {
-            assert !PollSysEventManager.currentPollers[1].isPollingActive() : PollSysEventManager.currentPollers[1];
+            assert !PollSysEventManager.get().getPoller(SLAVE).isPollingActive() : PollSysEventManager.get().getPoller(SLAVE);
             rt.setAccessType(SLAVE);
             sh2.run(slaveCtx);
             assert (slaveCtx.cycles_ran & CYCLE_TABLE_LEN_MASK) == slaveCtx.cycles_ran : slaveCtx.cycles_ran;
-            assert MdRuntimeData.resetCpuDelayExt() == 0;
+            assert rt.resetCpuDelay() == 0;
             nextSSh2Cycle += sh2CycleTable[slaveCtx.cycles_ran];
         }
     }
 
+    /**
+     * Catches up the devices to the current cycle, the scheduler only stops on the cycles where they are due,
+     * see nextDevicesCycle
+     */
     protected void runDevices() {
-        assert MdRuntimeData.getCpuDelayExt() == 0;
+        assert rt.getCpuDelay() == 0;
+        assert cycleCounter > devicesCycle;
+        final int cycles = (cycleCounter - devicesCycle) * SH2_CYCLE_RATIO;
+        devicesCycle = cycleCounter;
         //NOTE if Pwm triggers dreq, the cpuDelay should be assigned to the DMA engine, not to the CPU itself
-        launchCtx.pwm.step(SH2_CYCLE_RATIO);
-        launchCtx.mDevCtx.sh2MMREG.deviceStepSh2Rate(SH2_CYCLE_RATIO);
-        launchCtx.sDevCtx.sh2MMREG.deviceStepSh2Rate(SH2_CYCLE_RATIO);
-        assert MdRuntimeData.getCpuDelayExt() == 0;
+        launchCtx.pwm.step(cycles);
+        launchCtx.mDevCtx.sh2MMREG.deviceStepSh2Rate(cycles);
+        launchCtx.sDevCtx.sh2MMREG.deviceStepSh2Rate(cycles);
+        assert rt.getCpuDelay() == 0;
+    }
+
+    /**
+     * A device register is being accessed, catch up the devices to the end of the previous cycle.
+     * No device is due in between, this only moves the counters.
+     */
+    private void syncDevices() {
+        final int cycles = (cycleCounter - 1 - devicesCycle) * SH2_CYCLE_RATIO;
+        if (cycles > 0) {
+            devicesCycle = cycleCounter - 1;
+            launchCtx.pwm.step(cycles);
+            launchCtx.mDevCtx.sh2MMREG.stepTimers(cycles);
+            launchCtx.sDevCtx.sh2MMREG.stepTimers(cycles);
+        }
     }
 
     @Override
@@ -207,14 +295,15 @@ public class Md32x extends Megadrive implements StaticBootstrapSupport.NextCycle
         super.resetCycleCounters(counter);
         assert counter >= 0;
         if (nextMSh2Cycle >= 0) {
-            assert (launchCtx.s32XMMREG.aden & 1) > 0 ? nextMSh2Cycle - counter > 0 : true;
             //NOTE Sh2s will only start at the next vblank, not immediately when aden switches
+            assert (launchCtx.s32XMMREG.aden & 1) > 0 && nextMSh2Cycle > 0 ? nextMSh2Cycle - counter > 0 : true;
             nextMSh2Cycle = Math.max(launchCtx.s32XMMREG.aden & 1, nextMSh2Cycle - counter);
         }
         if (nextSSh2Cycle >= 0) {
-            assert (launchCtx.s32XMMREG.aden & 1) > 0 ? nextSSh2Cycle - counter > 0 : true;
+            assert (launchCtx.s32XMMREG.aden & 1) > 0 && nextSSh2Cycle > 0 ? nextSSh2Cycle - counter > 0 : true;
             nextSSh2Cycle = Math.max(launchCtx.s32XMMREG.aden & 1, nextSSh2Cycle - counter);
         }
+        devicesCycle = Math.max(0, devicesCycle - counter);
         launchCtx.pwm.newFrame();
         launchCtx.mDevCtx.sh2MMREG.newFrame();
         launchCtx.sDevCtx.sh2MMREG.newFrame();
@@ -271,10 +360,10 @@ public class Md32x extends Megadrive implements StaticBootstrapSupport.NextCycle
     public void onSysEvent(CpuDeviceAccess cpu, PollSysEventManager.SysEvent event) {
         switch (event) {
             case START_POLLING -> {
-                final Sh2DrcBlockOptimizer.PollerCtx pc = PollSysEventManager.instance.getPoller(cpu);
+                final Sh2DrcBlockOptimizer.PollerCtx pc = PollSysEventManager.get().getPoller(cpu);
                 assert pc.isPollingActive() : event + "," + pc;
                 setNextCycle(cpu, SH2_SLEEP_VALUE);
-                MdRuntimeData.resetCpuDelayExt(cpu, 0);
+                rt.resetCpuDelay(cpu, 0);
                 if (verbose) LOG.info("{} {} {}: {}", cpu, event, cycleCounter, pc);
             }
             case SH2_RESET_ON -> {
@@ -284,8 +373,8 @@ public class Md32x extends Megadrive implements StaticBootstrapSupport.NextCycle
             case SH2_RESET_OFF -> {
                 setNextCycle(MASTER, cycleCounter + 1);
                 setNextCycle(SLAVE, cycleCounter + 2);
-                MdRuntimeData.resetCpuDelayExt(MASTER, 0);
-                MdRuntimeData.resetCpuDelayExt(SLAVE, 0);
+                rt.resetCpuDelay(MASTER, 0);
+                rt.resetCpuDelay(SLAVE, 0);
             }
             //stop polling
             default -> stopPolling(cpu, event);
@@ -293,13 +382,13 @@ public class Md32x extends Megadrive implements StaticBootstrapSupport.NextCycle
     }
 
     private void stopPolling(CpuDeviceAccess cpu, PollSysEventManager.SysEvent event) {
-        final Sh2DrcBlockOptimizer.PollerCtx pctx = PollSysEventManager.instance.getPoller(cpu);
+        final Sh2DrcBlockOptimizer.PollerCtx pctx = PollSysEventManager.get().getPoller(cpu);
 //        assert event == SysEventManager.SysEvent.INT ? pc.isPollingBusyLoop() : true;
         boolean stopOk = event == pctx.event || event == PollSysEventManager.SysEvent.INT;
         if (stopOk) {
             if (verbose) LOG.info("{} stop polling {} {}: {}", cpu, event, cycleCounter, pctx);
             setNextCycle(cpu, cycleCounter + 1);
-            PollSysEventManager.instance.resetPoller(cpu);
+            PollSysEventManager.get().resetPoller(cpu);
         }
         if (BufferUtil.assertionsEnabled && !stopOk) {
             LOG.warn("{} {} ignore stop polling: {}", cpu, event, pctx);
@@ -11,9 +11,10 @@ import omegadrive.cpu.m68k.M68kProvider;
 import omegadrive.system.MediaSpecHolder;
 import omegadrive.system.SysUtil;
 import omegadrive.system.SystemProvider;
+import omegadrive.system.perf.Telemetry;
+import omegadrive.system.perf.Telemetry.Section;
 import omegadrive.ui.DisplayWindow;
 import omegadrive.util.LogHelper;
-import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Util;
 import omegadrive.util.VideoMode;
 import org.slf4j.Logger;
@@ -92,24 +93,53 @@ public class MegaCd32x extends Md32x {
         updateVideoMode(true);
         assert cycleCounter == 1;
         do {
-            run68k();
-            runSub68k();
-            runZ80();
-            runSound();
-            runSh2();
-            runDevices();
-            //this should be last as it could change the counter
-            runVdp();
-            cycleCounter++;
+            if (Telemetry.SECTIONS && --sectionSampleCnt == 0) {
+                runCycleSampled();
+            } else {
+                run68k();
+                runSub68k();
+                runZ80();
+                runSound();
+                runSh2();
+                runDevices();
+                //this should be last as it could change the counter
+                runVdp();
+            }
+            advanceCycleCounter();
         } while (!futureDoneFlag);
     }
+
+    @Override
+    protected void runCycleSampled() {
+        long t = System.nanoTime();
+        run68k();
+        t = sampleSection(Section.M68K, t);
+        runSub68k();
+        t = sampleSection(Section.SUB_M68K, t);
+        runZ80();
+        t = sampleSection(Section.Z80, t);
+        runSound();
+        t = sampleSection(Section.AUDIO, t);
+        runSh2Master();
+        t = sampleSection(Section.SH2_MASTER, t);
+        runSh2Slave();
+        sampleSection(Section.SH2_SLAVE, t);
+        runDevices();
+        runVdpSampled(System.nanoTime());
+    }
+
+    @Override
+    protected int nextEventCycle(int from) {
+        return Math.min(super.nextEventCycle(from), Math.max(from, (int) Math.ceil(nextSub68kCycle)));
+    }
+
     protected void runSub68k() {
         while (nextSub68kCycle <= cycleCounter) {
             boolean canRun = !subCpu.isStopped();// && !MC68000Wrapper.subCpuBusHalt;
             int cycleDelayCpu = 1;
-            MdRuntimeData.setAccessTypeExt(SUB_M68K);
+            rt.setAccessType(SUB_M68K);
             if (canRun) {
-                cycleDelayCpu = subCpu.runInstruction() + MdRuntimeData.resetCpuDelayExt();
+                cycleDelayCpu = subCpu.runInstruction() + rt.resetCpuDelay();
             }
             //interrupts are processed after the current instruction
             interruptHandler.handleInterrupts();
@@ -118,7 +148,7 @@ public class MegaCd32x extends Md32x {
             mcdLaunchContext.stepDevices(cycleDelayCpu);
             //convert cycles @ 12.5 Mhz to cycles @ 7.67 Mhz
             nextSub68kCycle += M68K_DIVIDER * mcd68kRatio * cycleDelayCpu;
-            assert MdRuntimeData.resetCpuDelayExt() == 0;
+            assert rt.resetCpuDelay() == 0;
         }
     }
 
@@ -1,6 +1,8 @@
 package s32x;
 
 import omegadrive.Device;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.*;
 import org.slf4j.Logger;
 import s32x.dict.S32xDict;
@@ -18,6 +20,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 
+import static omegadrive.savestate.StateCodec.*;
 import static omegadrive.util.BufferUtil.*;
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.*;
 import static omegadrive.util.LogHelper.logWarnOnce;
@@ -40,6 +43,7 @@ public class S32XMMREG implements Device {
     private static final Logger LOG = LogHelper.getLogger(S32XMMREG.class.getSimpleName());
 
     private static final boolean verbose = false, verboseRead = false;
+    private static final int STATE_VERSION = 1;
 
     public static final int CART_INSERTED = 0;
     public static final int CART_NOT_INSERTED = 1;
@@ -59,6 +63,7 @@ public class S32XMMREG implements Device {
     public final RegContext regContext = new RegContext();
     private final ByteBuffer sysRegsSh2 = regContext.sysRegsSh2;
     private final ByteBuffer sysRegsMd = regContext.sysRegsMd;
+    private final MdRuntimeData rt = MdRuntimeData.current();
 
     public IntControl[] interruptControls;
     public Pwm pwm;
@@ -109,7 +114,7 @@ public class S32XMMREG implements Device {
         address &= S32xDict.SH2_CACHE_THROUGH_MASK;
         if (address >= S32xDict.START_32X_SYSREG_CACHE && address < S32xDict.END_32X_VDPREG_CACHE) {
             handleRegWrite(address, value, size);
-            S32xMemAccessDelay.addWriteCpuDelay(deviceAccessType);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, deviceAccessType);
         } else {
             vdp.write(address, value, size);
         }
@@ -120,7 +125,7 @@ public class S32XMMREG implements Device {
         int res = 0;
         if (address >= S32xDict.START_32X_SYSREG_CACHE && address < S32xDict.END_32X_VDPREG_CACHE) {
             res = handleRegRead(address, size);
-            S32xMemAccessDelay.addReadCpuDelay(deviceAccessType);
+            S32xMemAccessDelay.addReadCpuDelay(rt, deviceAccessType);
         } else {
             res = vdp.read(address, size);
         }
@@ -128,7 +133,7 @@ public class S32XMMREG implements Device {
     }
 
     private int handleRegRead(int address, Size size) {
-        CpuDeviceAccess cpu = MdRuntimeData.getAccessTypeExt();
+        CpuDeviceAccess cpu = rt.getAccessType();
         RegSpecS32x regSpec = S32xDict.getRegSpec(cpu, address);
         if (regSpec == INVALID) {
             LOG.error("{} unable to handle read, addr: {} {}", cpu, th(address), size);
@@ -166,7 +171,7 @@ public class S32XMMREG implements Device {
 
     private boolean handleRegWrite(int address, int value, Size size) {
         final int reg = address & S32xDict.S32X_MMREG_MASK;
-        final CpuDeviceAccess cpu = MdRuntimeData.getAccessTypeExt();
+        final CpuDeviceAccess cpu = rt.getAccessType();
         final RegSpecS32x regSpec = S32xDict.getRegSpec(cpu, address);
         //RegAccessLogger.regAccess(regSpec.toString(), reg, value, size, false);
         boolean regChanged = false;
@@ -198,7 +203,7 @@ public class S32XMMREG implements Device {
             doLog(cpu, regSpec, address, value, size, false);
         }
         if (regChanged) {
-            Sh2Prefetch.checkPoller(cpu, regSpec.deviceType, address, value, size);
+            Sh2Prefetch.checkPoller(rt.sysEventManager, cpu, regSpec.deviceType, address, value, size);
         }
         return regChanged;
     }
@@ -233,7 +238,7 @@ public class S32XMMREG implements Device {
             //comm regs are shared
             BufferUtil.writeBuffers(sysRegsMd, sysRegsSh2, reg, value, size);
             //Brutal: force successive COMM writes to happen at least 12 cycles apart
-            MdRuntimeData.addCpuDelayExt(12);
+            rt.addCpuDelay(12);
         }
         return regChanged;
     }
@@ -241,7 +246,7 @@ public class S32XMMREG implements Device {
     private void doLog(CpuDeviceAccess cpu, RegSpecS32x regSpec, int address, int value, Size size, boolean read) {
         boolean isSys = address < S32xDict.END_32X_SYSREG_CACHE;
         ByteBuffer regArea = isSys ? (cpu == M68K ? sysRegsMd : sysRegsSh2) : regContext.vdpRegs;
-        logCtx.cpu = MdRuntimeData.getAccessTypeExt();
+        logCtx.cpu = rt.getAccessType();
         logCtx.regSpec = regSpec;
         logCtx.regArea = regArea;
         logCtx.read = read;
@@ -326,7 +331,7 @@ public class S32XMMREG implements Device {
     //Note: disabling ADEN not allowed, once it is set
     private int handleAden(int newVal) {
         if (aden > 0 && (newVal & MD_ADEN_BIT) == 0) {
-            LOG.warn("{} Disabling ADEN not allowed", MdRuntimeData.getAccessTypeExt());
+            LOG.warn("{} Disabling ADEN not allowed", rt.getAccessType());
             setBitRegFromWord(sysRegsMd, MD_ADAPTER_CTRL, MD_ADEN_BIT_POS, 1);
             newVal |= MD_ADEN_BIT;
         }
@@ -337,15 +342,15 @@ public class S32XMMREG implements Device {
     private void handleReset(int val, int newVal) {
         //reset cancel
         if ((val & S32xDict.P32XS_nRES) == 0 && (newVal & S32xDict.P32XS_nRES) > 0) {
-            LOG.info("{} unset reset Sh2s (nRes = 0)", MdRuntimeData.getAccessTypeExt());
-            PollSysEventManager.instance.fireSysEvent(MASTER, SH2_RESET_OFF);
+            LOG.info("{} unset reset Sh2s (nRes = 0)", rt.getAccessType());
+            PollSysEventManager.get().fireSysEvent(MASTER, SH2_RESET_OFF);
 //            S32xUtil.setBitRegFromWord(sysRegsMd, MD_ADAPTER_CTRL, P32XS_REN_POS, 1); //set REN to true
 //            bus.resetSh2(); //TODO check
         }
         //reset
         if ((val & S32xDict.P32XS_nRES) > 0 && (newVal & S32xDict.P32XS_nRES) == 0) {
-            LOG.info("{} set reset SH2s (nRes = 1)", MdRuntimeData.getAccessTypeExt());
-            PollSysEventManager.instance.fireSysEvent(MASTER, SH2_RESET_ON);
+            LOG.info("{} set reset SH2s (nRes = 1)", rt.getAccessType());
+            PollSysEventManager.get().fireSysEvent(MASTER, SH2_RESET_ON);
 //            S32xUtil.setBitRegFromWord(sysRegsMd, MD_ADAPTER_CTRL, P32XS_REN_POS, 0); //set REN to false during reset
         }
     }
@@ -360,7 +365,7 @@ public class S32XMMREG implements Device {
         int nhen = (newVal >> S32xDict.INTMASK_HEN_BIT_POS) & 1;
         if (nhen != ctx.hen) {
             ctx.hen = nhen;
-            if (verbose) LOG.info("{} HEN: {}", MdRuntimeData.getAccessTypeExt(), ctx.hen);
+            if (verbose) LOG.info("{} HEN: {}", rt.getAccessType(), ctx.hen);
         }
         BufferUtil.setBit(interruptControls[0].getSh2_int_mask_regs(),
                 interruptControls[1].getSh2_int_mask_regs(), 1, S32xDict.INTMASK_HEN_BIT_POS, ctx.hen, Size.BYTE);
@@ -405,7 +410,7 @@ public class S32XMMREG implements Device {
         BufferUtil.setBit(interruptControls[0].getSh2_int_mask_regs(),
                 interruptControls[1].getSh2_int_mask_regs(), 0, 7, fm, Size.BYTE);
         BufferUtil.setBit(sysRegsMd, MD_ADAPTER_CTRL.addr, 7, fm, Size.BYTE);
-        if (verbose) LOG.info("{} FM: {}", MdRuntimeData.getAccessTypeExt(), fm);
+        if (verbose) LOG.info("{} FM: {}", rt.getAccessType(), fm);
     }
 
     public void setDmaControl(DmaFifo68k dmaFifoControl) {
@@ -435,17 +440,27 @@ public class S32XMMREG implements Device {
     @Override
     public void saveContext(ByteBuffer buffer) {
         Device.super.saveContext(buffer);
-        regContext.sysRegsSh2.rewind().get(ctx.sysRegsSh2).rewind();
-        regContext.sysRegsMd.rewind().get(ctx.sysRegsMd).rewind();
-        regContext.vdpRegs.rewind().get(ctx.vdpRegs).rewind();
-        ctx.fm = fm;
-        ctx.aden = aden;
-        buffer.put(Util.serializeObject(ctx));
+        StateCodec.writeHeader(buffer, ContextId.S32X_MMREG, STATE_VERSION);
+        buffer.putInt(ctx.cart).putInt(fm).putInt(aden).putInt(ctx.hen);
+        putBuffer(buffer, regContext.sysRegsSh2);
+        putBuffer(buffer, regContext.sysRegsMd);
+        putBuffer(buffer, regContext.vdpRegs);
     }
 
     @Override
     public void loadContext(ByteBuffer buffer) {
         Device.super.loadContext(buffer);
+        if (!StateCodec.isLegacy(buffer)) {
+            StateCodec.readHeader(buffer, ContextId.S32X_MMREG, STATE_VERSION);
+            ctx.cart = buffer.getInt();
+            fm = ctx.fm = buffer.getInt();
+            aden = ctx.aden = buffer.getInt();
+            ctx.hen = buffer.getInt();
+            getBuffer(buffer, regContext.sysRegsSh2);
+            getBuffer(buffer, regContext.sysRegsMd);
+            getBuffer(buffer, regContext.vdpRegs);
+            return;
+        }
         Serializable s = Util.deserializeObject(buffer);
         assert s instanceof S32XMMREGContext;
         ctx = (S32XMMREGContext) s;
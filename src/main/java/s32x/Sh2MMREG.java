@@ -3,6 +3,8 @@ package s32x;
 import com.google.common.collect.Maps;
 import omegadrive.Device;
 import omegadrive.savestate.MapLikeHolder;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.*;
 import org.slf4j.Logger;
 import s32x.savestate.Gs32xStateHandler;
@@ -15,6 +17,8 @@ import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.stream.IntStream;
 
+import static omegadrive.savestate.StateCodec.getBuffer;
+import static omegadrive.savestate.StateCodec.putBuffer;
 import static omegadrive.util.LogHelper.logWarnOnce;
 import static omegadrive.util.Util.readBufferByte;
 import static omegadrive.util.Util.th;
@@ -31,6 +35,7 @@ public class Sh2MMREG implements Device {
     private static final Logger LOG = LogHelper.getLogger(Sh2MMREG.class.getSimpleName());
     public static final int SH2_REG_SIZE = 0x200;
     public static final int SH2_REG_MASK = SH2_REG_SIZE - 1;
+    private static final int STATE_VERSION = 1;
 
     public interface DmaTriggerHandler {
         void dmaReqTrigger(int channel, boolean enable);
@@ -56,8 +61,10 @@ public class Sh2MMREG implements Device {
     private WatchdogTimer wdt;
     private FreeRunningTimer frt;
     private final Sh2Cache cache;
+    private DeviceSync deviceSync = DeviceSync.NO_SYNC;
 
     private final BufferUtil.CpuDeviceAccess cpu;
+    private final MdRuntimeData rt = MdRuntimeData.current();
     private int ticksPerFrame, sh2TicksPerFrame;
     private static final boolean verbose = false;
 
@@ -110,9 +117,11 @@ public class Sh2MMREG implements Device {
                 intC.write(regSpec, pos, value, size);
                 break;
             case WDT:
+                deviceSync.syncDevices();
                 wdt.write(regSpec, pos, value, size);
                 break;
             case FRT:
+                deviceSync.syncDevices();
                 frt.write(regSpec, pos, value, size);
                 break;
             case BSC:
@@ -160,10 +169,16 @@ public class Sh2MMREG implements Device {
         int res = 0;
         if (regSpec != null) {
             switch (sh2RegDeviceMapping[reg & SH2_REG_MASK]) {
-                case WDT -> res = wdt.read(regSpec, pos, size);
+                case WDT -> {
+                    deviceSync.syncDevices();
+                    res = wdt.read(regSpec, pos, size);
+                }
                 case SCI -> res = sci.read(regSpec, pos, size);
                 case DIV -> res = divUnit.read(regSpec, pos, size);
-                case FRT -> res = frt.read(regSpec, pos, size);
+                case FRT -> {
+                    deviceSync.syncDevices();
+                    res = frt.read(regSpec, pos, size);
+                }
                 case BSC -> {
                     assert size != Size.BYTE;
                     res = BufferUtil.readBuffer(regs, pos, size);
@@ -235,14 +250,26 @@ public class Sh2MMREG implements Device {
     @Override
     public void saveContext(ByteBuffer buffer) {
         Device.super.saveContext(buffer);
-        regs.rewind().get(ctx.regsByte).rewind();
-        ctx.mlh.storeFromMap(ctx.dramModeRegs);
-        buffer.put(Util.serializeObject(ctx));
+        StateCodec.writeHeader(buffer, ContextId.SH2_MMREG, STATE_VERSION);
+        putBuffer(buffer, regs);
+        buffer.putInt(ctx.dramModeRegs.size());
+        for (var e : ctx.dramModeRegs.entrySet()) {
+            buffer.putInt(e.getKey()).putInt(e.getValue());
+        }
     }
 
     @Override
     public void loadContext(ByteBuffer buffer) {
         Device.super.loadContext(buffer);
+        if (!StateCodec.isLegacy(buffer)) {
+            StateCodec.readHeader(buffer, ContextId.SH2_MMREG, STATE_VERSION);
+            getBuffer(buffer, regs);
+            ctx.dramModeRegs.clear();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                ctx.dramModeRegs.put(buffer.getInt(), buffer.getInt());
+            }
+            return;
+        }
         Serializable s = Util.deserializeObject(buffer);
         assert s instanceof Sh2MMREGContext;
         ctx = (Sh2MMREGContext) s;
@@ -270,15 +297,39 @@ public class Sh2MMREG implements Device {
     }
 
     //23 Mhz
+    /**
+     * Steps the timers and runs one DMA step, cycles can cover many sh2 cycles as the timers are caught up lazily
+     */
     public void deviceStepSh2Rate(int cycles) {
-        assert cycles == 3;
-        MdRuntimeData.setAccessTypeExt(cpu);
+        rt.setAccessType(cpu);
+        stepTimers(cycles);
+        dmaC.step(cycles);
+        rt.resetCpuDelay(cpu, 0);
+    }
+
+    /**
+     * Catches up the timers only, it runs within a register access and doesn't touch the current cpu
+     */
+    public void stepTimers(int cycles) {
         wdt.step(cycles);
         if (SH2_ENABLE_FRT) {
             frt.step(cycles);
         }
-        dmaC.step(cycles);
-        MdRuntimeData.resetCpuDelayExt(cpu, 0);
         if (verbose) sh2TicksPerFrame += cycles;
     }
+
+    /**
+     * Sh2 cycles to the next timer interrupt, 1 when the DMA has data to transfer
+     */
+    public int getCyclesToNextEvent() {
+        if (dmaC.isStepPending()) {
+            return 1;
+        }
+        int cycles = wdt.getCyclesToNextEvent();
+        return SH2_ENABLE_FRT ? Math.min(cycles, frt.getCyclesToNextEvent()) : cycles;
+    }
+
+    public void setDeviceSync(DeviceSync deviceSync) {
+        this.deviceSync = deviceSync;
+    }
 }
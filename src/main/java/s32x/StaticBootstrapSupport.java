@@ -2,6 +2,7 @@ package s32x;
 
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
 import s32x.event.PollSysEventManager;
 import s32x.sh2.Sh2Helper;
 
@@ -19,33 +20,29 @@ public class StaticBootstrapSupport {
         void setNextCycle(CpuDeviceAccess cpu, int value);
     }
 
-    public static NextCycleResettable instance;
-
     /**
      * TODO remove
      * one-stop shop for all the hacky bits...
      */
     public static void initStatic(NextCycleResettable instance) {
         assert instance != null;
-        PollSysEventManager.instance.reset();
-        PollSysEventManager.instance.addSysEventListener(instance.getClass().getSimpleName(), instance);
-        //TODO soft reset shouldn't do this
-        DmaFifo68k.rv = false;
+        PollSysEventManager.get().reset();
+        PollSysEventManager.get().addSysEventListener(instance.getClass().getSimpleName(), instance);
         Sh2Helper.clear();
-        StaticBootstrapSupport.instance = instance;
+        MdRuntimeData.current().nextCycleResettable = instance;
         LogHelper.clear();
     }
 
     public static void afterStateLoad() {
-        assert instance != null;
-        PollSysEventManager.instance.resetPoller(MASTER);
-        PollSysEventManager.instance.resetPoller(SLAVE);
+        assert MdRuntimeData.current().nextCycleResettable != null;
+        PollSysEventManager.get().resetPoller(MASTER);
+        PollSysEventManager.get().resetPoller(SLAVE);
         Sh2Helper.clear();
         StaticBootstrapSupport.setNextCycleExt(MASTER, 0);
         StaticBootstrapSupport.setNextCycleExt(SLAVE, 0);
     }
 
     public static void setNextCycleExt(CpuDeviceAccess cpu, int value) {
-        instance.setNextCycle(cpu, value);
+        MdRuntimeData.current().nextCycleResettable.setNextCycle(cpu, value);
     }
 }
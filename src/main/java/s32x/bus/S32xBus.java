@@ -6,6 +6,8 @@ import omegadrive.bus.md.MdBus;
 import omegadrive.bus.model.MdMainBusProvider;
 import omegadrive.cart.MdCartInfoProvider;
 import omegadrive.joypad.MdJoypad;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.sound.PwmProvider;
 import omegadrive.sound.fm.FmProvider;
 import omegadrive.sound.psg.PsgProvider;
@@ -28,6 +30,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 
 import static m68k.cpu.Cpu.PC_MASK;
+import static omegadrive.savestate.StateCodec.getBytes;
+import static omegadrive.savestate.StateCodec.putBytes;
 import static omegadrive.util.BufferUtil.assertionsEnabled;
 import static omegadrive.util.LogHelper.logWarnOnce;
 import static omegadrive.util.LogHelper.logWarnOnceWhenEn;
@@ -42,8 +46,10 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
 
     private static final Logger LOG = LogHelper.getLogger(S32xBus.class.getSimpleName());
     static final boolean verboseMd = false;
+    private static final int STATE_VERSION = 1;
     private BiosHolder.BiosData bios68k;
     private S32XMMREG s32XMMREG;
+    private DmaFifo68k dmaFifo68k;
     public Sh2Context masterCtx, slaveCtx;
     private Sh2 sh2;
     private S32xBusContext busContext;
@@ -87,6 +93,8 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
             sh2 = (Sh2) device;
         } else if (device instanceof S32XMMREG) {
             s32XMMREG = (S32XMMREG) device;
+        } else if (device instanceof DmaFifo68k d) {
+            dmaFifo68k = d;
         } else if (vdpProvider != null) {
             vdpProvider.addVdpEventListener(this);
         }
@@ -231,16 +239,16 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
                 res = readHIntVector(address, size);
             }
         } else if (address >= S32xDict.M68K_START_ROM_MIRROR && address < S32xDict.M68K_END_ROM_MIRROR) {
-            if (!DmaFifo68k.rv) {
+            if (!dmaFifo68k.isRv()) {
                 res = mdBus.read(address & S32xDict.M68K_ROM_WINDOW_MASK, size);
             } else {
-                LOG.warn("Ignoring read access to ROM mirror when RV={}, addr: {} {}", DmaFifo68k.rv, th(address), size);
+                LOG.warn("Ignoring read access to ROM mirror when RV={}, addr: {} {}", dmaFifo68k.isRv(), th(address), size);
             }
         } else if (address >= S32xDict.M68K_START_ROM_MIRROR_BANK && address < S32xDict.M68K_END_ROM_MIRROR_BANK) {
-            if (!DmaFifo68k.rv) {
+            if (!dmaFifo68k.isRv()) {
                 res = mdBus.read(bankSetShift | (address & S32xDict.M68K_ROM_MIRROR_MASK), size);
             } else {
-                LOG.warn("Ignoring read access to ROM mirror bank when RV={}, addr: {} {}", DmaFifo68k.rv, th(address), size);
+                LOG.warn("Ignoring read access to ROM mirror bank when RV={}, addr: {} {}", dmaFifo68k.isRv(), th(address), size);
             }
         } else if (address >= S32xDict.M68K_START_FRAME_BUFFER && address < S32xDict.M68K_END_FRAME_BUFFER) {
             res = read32xWord((address & S32xDict.DRAM_MASK) | S32xDict.START_DRAM, size);
@@ -256,8 +264,8 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
             assert address == S32xDict.M68K_START_MARS_ID;
             res = 0x4d415253; //'MARS'
         } else {
-            if (!DmaFifo68k.rv && address <= DEFAULT_ROM_END_ADDRESS) {
-                logWarnOnce(LOG, "Ignoring read access to ROM when RV={}, addr: {} {}", DmaFifo68k.rv, th(address), size);
+            if (!dmaFifo68k.isRv() && address <= DEFAULT_ROM_END_ADDRESS) {
+                logWarnOnce(LOG, "Ignoring read access to ROM when RV={}, addr: {} {}", dmaFifo68k.isRv(), th(address), size);
                 return size.getMask();
             }
             //NOTE: only works when assertions are enabled
@@ -314,20 +322,20 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
         } else if (address >= S32xDict.M68K_START_32X_COLPAL && address < S32xDict.M68K_END_32X_COLPAL) {
             write32xWord((address & S32xDict.M68K_MASK_32X_COLPAL) | S32xDict.SH2_COLPAL_32X_OFFSET, data, size);
         } else if (address >= S32xDict.M68K_START_ROM_MIRROR_BANK && address < S32xDict.M68K_END_ROM_MIRROR_BANK) {
-            if (!DmaFifo68k.rv) {
+            if (!dmaFifo68k.isRv()) {
                 //NOTE it could be writing to SRAM via the rom mirror
                 mdBus.write((address & S32xDict.M68K_ROM_MIRROR_MASK) | bankSetShift, data, size);
             } else {
                 LOG.warn("Ignoring write access to ROM mirror bank when RV={}, addr: {}, addr68k: {}, val: {} {}",
-                        DmaFifo68k.rv, th(address), Util.th(address & S32xDict.M68K_ROM_WINDOW_MASK), th(data), size);
+                        dmaFifo68k.isRv(), th(address), Util.th(address & S32xDict.M68K_ROM_WINDOW_MASK), th(data), size);
             }
         } else if (address >= S32xDict.M68K_START_ROM_MIRROR && address < S32xDict.M68K_END_ROM_MIRROR) {
             //NOTE should not happen, SoulStar buggy?
-            if (!DmaFifo68k.rv) {
+            if (!dmaFifo68k.isRv()) {
                 mdBus.write(address & S32xDict.M68K_ROM_WINDOW_MASK, data, size);
             } else {
                 LOG.warn("Ignoring write access to ROM mirror when RV={}, addr: {}, addr68k: {}, val: {} {}",
-                        DmaFifo68k.rv, th(address), Util.th(address & S32xDict.M68K_ROM_WINDOW_MASK), th(data), size);
+                        dmaFifo68k.isRv(), th(address), Util.th(address & S32xDict.M68K_ROM_WINDOW_MASK), th(data), size);
             }
         } else if (address >= S32xDict.M68K_START_HINT_VECTOR_WRITEABLE && address < S32xDict.M68K_END_HINT_VECTOR_WRITEABLE) {
             if (verboseMd) LOG.info("HINT vector write, address: {}, data: {}, size: {}", th(address),
@@ -335,11 +343,11 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
             Util.writeData(busContext.writeableHint, address & 3, data, size);
         } else {
             if (address < S32xDict.M68K_END_VECTOR_ROM) {
-                logWarnOnceWhenEn(LOG, "Ignoring write access to vector rom, RV={}, addr: {} {}", DmaFifo68k.rv, th(address), size);
+                logWarnOnceWhenEn(LOG, "Ignoring write access to vector rom, RV={}, addr: {} {}", dmaFifo68k.isRv(), th(address), size);
                 return;
             }
-            if (!DmaFifo68k.rv && address <= DEFAULT_ROM_END_ADDRESS) {
-                LOG.warn("Ignoring write access to ROM when RV={}, addr: {} {}", DmaFifo68k.rv, th(address), size);
+            if (!dmaFifo68k.isRv() && address <= DEFAULT_ROM_END_ADDRESS) {
+                LOG.warn("Ignoring write access to ROM when RV={}, addr: {} {}", dmaFifo68k.isRv(), th(address), size);
                 return;
             }
             mdBus.write(address, data, size);
@@ -406,7 +414,7 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
         int res = Util.readData(busContext.writeableHint, 0, Size.LONG);
         if (res != -1) {
             res = Util.readData(busContext.writeableHint, address & 3, size);
-            if (verboseMd) LOG.info("HINT vector read, rv {}, address: {}, {} {}", DmaFifo68k.rv,
+            if (verboseMd) LOG.info("HINT vector read, rv {}, address: {}, {} {}", dmaFifo68k.isRv(),
                     th(address), th(res), size);
         } else {
             res = 0;
@@ -452,15 +460,23 @@ public class S32xBus extends DeviceAwareBus<MdVdpProvider, MdJoypad> implements
     @Override
     public void saveContext(ByteBuffer buffer) {
         super.saveContext(buffer);
-        buffer.put(Util.serializeObject(busContext));
+        StateCodec.writeHeader(buffer, ContextId.S32X_BUS, STATE_VERSION);
+        putBytes(buffer, busContext.writeableHint);
+        buffer.putInt(busContext.bankSetValue);
     }
 
     @Override
     public void loadContext(ByteBuffer buffer) {
         super.loadContext(buffer);
-        Serializable s = Util.deserializeObject(buffer);
-        assert s instanceof S32xBusContext;
-        busContext = (S32xBusContext) s;
+        if (StateCodec.isLegacy(buffer)) {
+            Serializable s = Util.deserializeObject(buffer);
+            assert s instanceof S32xBusContext;
+            busContext = (S32xBusContext) s;
+        } else {
+            StateCodec.readHeader(buffer, ContextId.S32X_BUS, STATE_VERSION);
+            getBytes(buffer, busContext.writeableHint);
+            busContext.bankSetValue = buffer.getInt();
+        }
         bankSetShift = busContext.bankSetValue << 20;
     }
 
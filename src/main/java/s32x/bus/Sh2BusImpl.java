@@ -47,13 +47,18 @@ public final class Sh2BusImpl implements Sh2Bus {
 
     private final Sh2MMREG[] sh2MMREGS = new Sh2MMREG[2];
     private final S32XMMREG s32XMMREG;
+    private final DmaFifo68k dmaFifo68k;
     private final MdRomAccess mdBus;
     private final MemoryDataCtx memoryDataCtx;
     private final Sh2Config config;
+    //runtime of the system being created, avoids the per access thread lookup
+    private final MdRuntimeData rt = MdRuntimeData.current();
 
-    public Sh2BusImpl(S32XMMREG s32XMMREG, ByteBuffer rom, BiosHolder biosHolder, MdRomAccess mdBus, Sh2Prefetch.Sh2DrcContext... drcCtx) {
+    public Sh2BusImpl(S32XMMREG s32XMMREG, DmaFifo68k dmaFifo68k, ByteBuffer rom, BiosHolder biosHolder,
+                      MdRomAccess mdBus, Sh2Prefetch.Sh2DrcContext... drcCtx) {
         memoryDataCtx = new MemoryDataCtx();
         this.s32XMMREG = s32XMMREG;
+        this.dmaFifo68k = dmaFifo68k;
         this.mdBus = mdBus;
         memoryDataCtx.rom = this.rom = rom;
         bios[MASTER.ordinal()] = biosHolder.getBiosData(MASTER);
@@ -76,7 +81,7 @@ public final class Sh2BusImpl implements Sh2Bus {
 
     @Override
     public int read(int address, Size size) {
-        CpuDeviceAccess cpuAccess = MdRuntimeData.getAccessTypeExt();
+        CpuDeviceAccess cpuAccess = rt.getAccessType();
         assert assertCheckBusOp(address, size);
         int res = 0;
         if (SH2_MEM_ACCESS_STATS) {
@@ -116,8 +121,8 @@ public final class Sh2BusImpl implements Sh2Bus {
         switch (address >>> 24) {
             case SH2_ROM_AREA_WT -> {
                 //TODO RV bit, sh2 should stall
-                assert DmaFifo68k.rv ? logWarnIllegalAccess(cpuAccess, "read", "ROM", "rv",
-                        DmaFifo68k.rv, address, size) : true;
+                assert dmaFifo68k.isRv() ? logWarnIllegalAccess(cpuAccess, "read", "ROM", "rv",
+                        true, address, size) : true;
                 res = mdBus.readRom(address & 0xFF_FFFF, size);
                 memDelay = S32xMemAccessDelay.ROM;
             }
@@ -150,14 +155,14 @@ public final class Sh2BusImpl implements Sh2Bus {
             default -> logWarnOnce(LOG, "{} invalid read from addr: {}, {}", cpuAccess, th(address), size);
         }
         if (memDelay > 0) {
-            S32xMemAccessDelay.addWriteCpuDelay(memDelay);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, memDelay);
         }
         return res;
     }
 
     @Override
     public void write(int address, int val, Size size, final boolean checkPoll) {
-        CpuDeviceAccess cpuAccess = MdRuntimeData.getAccessTypeExt();
+        CpuDeviceAccess cpuAccess = rt.getAccessType();
         assert assertCheckBusOp(address, size);
         val &= size.getMask();
         if (SH2_MEM_ACCESS_STATS) {
@@ -195,7 +200,7 @@ public final class Sh2BusImpl implements Sh2Bus {
             prefetch.dataWrite(cpuAccess, address, val, size);
         }
         if (checkPoll && config.pollDetectEn) {
-            Sh2Prefetch.checkPoller(cpuAccess, PollSysEventManager.SysEvent.SDRAM, address, val, size);
+            Sh2Prefetch.checkPoller(rt.sysEventManager, cpuAccess, PollSysEventManager.SysEvent.SDRAM, address, val, size);
         }
     }
 
@@ -230,7 +235,7 @@ public final class Sh2BusImpl implements Sh2Bus {
             default -> logWarnOnce(LOG, "{} invalid write to addr: {} {}", cpuAccess, th(address), size);
         }
         if (memDelay > 0) {
-            S32xMemAccessDelay.addWriteCpuDelay(memDelay);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, memDelay);
         }
         return hasMemoryChanged;
     }
@@ -246,12 +251,12 @@ public final class Sh2BusImpl implements Sh2Bus {
             case SH2_SDRAM_AREA_CACHE -> sdram.get(address & SH2_SDRAM_MASK, data);
             case SH2_VDP_FB_AREA_CACHE -> s32XMMREG.getVdp().readCacheLine(address, data);
             default -> {
-                int delay = MdRuntimeData.getCpuDelayExt();
+                int delay = rt.getCpuDelay();
                 for (int i = 0; i < CACHE_BYTES_PER_LINE; i += 4) {
                     int val = read32((address + i) | CACHE_THROUGH);
                     writeDataLong(data, i & LINE_MASK, val);
                 }
-                MdRuntimeData.resetCpuDelayExt(delay);
+                rt.resetCpuDelay(delay);
             }
         }
     }
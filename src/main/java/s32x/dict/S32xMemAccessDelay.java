@@ -77,4 +77,12 @@ public class S32xMemAccessDelay {
     public static void addWriteCpuDelay(int deviceType) {
         MdRuntimeData.addCpuDelayExt(writeDelays, deviceType);
     }
+
+    public static void addReadCpuDelay(MdRuntimeData rt, int deviceType) {
+        rt.addCpuDelay(readDelays, deviceType);
+    }
+
+    public static void addWriteCpuDelay(MdRuntimeData rt, int deviceType) {
+        rt.addCpuDelay(writeDelays, deviceType);
+    }
 }
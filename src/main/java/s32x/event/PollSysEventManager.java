@@ -3,6 +3,7 @@ package s32x.event;
 import omegadrive.Device;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
 import org.slf4j.Logger;
 import s32x.bus.Sh2Bus;
 import s32x.sh2.drc.Sh2DrcBlockOptimizer.PollerCtx;
@@ -24,10 +25,12 @@ public interface PollSysEventManager extends Device {
 
     Logger LOG = LogHelper.getLogger(PollSysEventManager.class.getSimpleName());
 
-    PollSysEventManager instance = new SysEventManagerImpl();
-
-    PollerCtx[] currentPollers = {NO_POLLER, NO_POLLER};
-    AtomicInteger pollerActiveMask = new AtomicInteger();
+    /**
+     * The instance belonging to the emulator bound to the calling thread
+     */
+    static PollSysEventManager get() {
+        return MdRuntimeData.current().sysEventManager;
+    }
 
     enum SysEvent {
         NONE,
@@ -64,28 +67,13 @@ public interface PollSysEventManager extends Device {
         return num;
     }
 
-    default void resetPoller(CpuDeviceAccess cpu) {
-        PollerCtx pctx = PollSysEventManager.currentPollers[cpu.ordinal()];
-        if (pctx != NO_POLLER) {
-            pctx.stopPolling();
-            PollSysEventManager.currentPollers[cpu.ordinal()] = NO_POLLER;
-            pollerActiveMask.set(pollerActiveMask.get() & ~(cpu.ordinal() + 1));
-        }
-    }
+    void resetPoller(CpuDeviceAccess cpu);
 
-    default void setPoller(CpuDeviceAccess cpu, PollerCtx ctx) {
-        assert PollSysEventManager.currentPollers[cpu.ordinal()] == NO_POLLER;
-        PollSysEventManager.currentPollers[cpu.ordinal()] = ctx;
-        pollerActiveMask.set(pollerActiveMask.get() | (cpu.ordinal() + 1));
-    }
+    void setPoller(CpuDeviceAccess cpu, PollerCtx ctx);
 
-    default PollerCtx getPoller(CpuDeviceAccess cpu) {
-        return PollSysEventManager.currentPollers[cpu.ordinal()];
-    }
+    PollerCtx getPoller(CpuDeviceAccess cpu);
 
-    default int anyPollerActive() {
-        return pollerActiveMask.get();
-    }
+    int anyPollerActive();
 
     static int readPollValue(PollerCtx blockPoller) {
         if (blockPoller.isPollingBusyLoop()) {
@@ -115,6 +103,35 @@ public interface PollSysEventManager extends Device {
         private final Map<String, SysEventListener> listenerMapSlave = new HashMap<>();
         //reduce object creation
         private final SysEventListener[][] listenerArr = new SysEventListener[2][0];
+        private final PollerCtx[] currentPollers = {NO_POLLER, NO_POLLER};
+        private final AtomicInteger pollerActiveMask = new AtomicInteger();
+
+        @Override
+        public void resetPoller(CpuDeviceAccess cpu) {
+            PollerCtx pctx = currentPollers[cpu.ordinal()];
+            if (pctx != NO_POLLER) {
+                pctx.stopPolling();
+                currentPollers[cpu.ordinal()] = NO_POLLER;
+                pollerActiveMask.set(pollerActiveMask.get() & ~(cpu.ordinal() + 1));
+            }
+        }
+
+        @Override
+        public void setPoller(CpuDeviceAccess cpu, PollerCtx ctx) {
+            assert currentPollers[cpu.ordinal()] == NO_POLLER;
+            currentPollers[cpu.ordinal()] = ctx;
+            pollerActiveMask.set(pollerActiveMask.get() | (cpu.ordinal() + 1));
+        }
+
+        @Override
+        public PollerCtx getPoller(CpuDeviceAccess cpu) {
+            return currentPollers[cpu.ordinal()];
+        }
+
+        @Override
+        public int anyPollerActive() {
+            return pollerActiveMask.get();
+        }
 
         @Override
         public boolean addSysEventListener(CpuDeviceAccess cpu, String name, SysEventListener l) {
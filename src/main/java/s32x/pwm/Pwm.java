@@ -1,12 +1,15 @@
 package s32x.pwm;
 
 import com.google.common.primitives.Ints;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.sound.PwmProvider;
 import omegadrive.util.Fifo;
 import omegadrive.util.LogHelper;
 import omegadrive.util.Size;
 import omegadrive.util.Util;
 import org.slf4j.Logger;
+import s32x.DeviceSync;
 import s32x.S32XMMREG;
 import s32x.dict.S32xDict;
 import s32x.dict.S32xDict.RegSpecS32x;
@@ -20,6 +23,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 
+import static omegadrive.savestate.StateCodec.*;
 import static omegadrive.util.BufferUtil.*;
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.MASTER;
 import static omegadrive.util.BufferUtil.CpuDeviceAccess.SLAVE;
@@ -78,7 +82,9 @@ public class Pwm implements StepDevice {
     private PwmContext ctx;
     private int pwmSamplesPerFrame = 0, stepsPerFrame = 0, dreqPerFrame = 0;
     private static final boolean verbose = false;
+    private static final int STATE_VERSION = 1;
     private PwmProvider playSupport = PwmProvider.NO_SOUND;
+    private DeviceSync deviceSync = DeviceSync.NO_SYNC;
 
     private final PwmChannelMap fifoMapLeft = new PwmChannelMap();
     private final PwmChannelMap fifoMapRight = new PwmChannelMap();
@@ -105,6 +111,7 @@ public class Pwm implements StepDevice {
     }
 
     public int read(CpuDeviceAccess cpu, RegSpecS32x regSpec, int address, Size size) {
+        deviceSync.syncDevices();
         int res = readBuffer(sysRegsMd, address, size);
         assert res == readBuffer(sysRegsSh2, address, size);
         if (verbose) LOG.info("{} PWM read {}: {} {}", cpu, regSpec.getName(), th(res), size);
@@ -113,6 +120,7 @@ public class Pwm implements StepDevice {
 
     public void write(CpuDeviceAccess cpu, RegSpecS32x regSpec, int reg, int value, Size size) {
         if (verbose) LOG.info("{} PWM write {}: {} {}", cpu, regSpec.getName(), th(value), size);
+        deviceSync.syncDevices();
         switch (size) {
             case BYTE -> writeByte(cpu, regSpec, reg, value);
             case WORD -> writeWord(cpu, regSpec, reg, value);
@@ -331,7 +339,7 @@ public class Pwm implements StepDevice {
         if (!Sh2DrcBlockOptimizer.PollType.PWM.supported) {
             return;
         }
-        switch (PollSysEventManager.instance.anyPollerActive()) {
+        switch (PollSysEventManager.get().anyPollerActive()) {
             case 1 -> checkPoller(MASTER);
             case 2 -> checkPoller(SLAVE);
             case 3 -> {
@@ -342,9 +350,9 @@ public class Pwm implements StepDevice {
     }
 
     private void checkPoller(CpuDeviceAccess cpu) {
-        Sh2DrcBlockOptimizer.PollerCtx c = PollSysEventManager.instance.getPoller(cpu);
+        Sh2DrcBlockOptimizer.PollerCtx c = PollSysEventManager.get().getPoller(cpu);
         if (c.isPollingActive() && PWM == c.event) {
-            PollSysEventManager.instance.fireSysEvent(cpu, c.event);
+            PollSysEventManager.get().fireSysEvent(cpu, c.event);
         }
     }
 
@@ -370,11 +378,21 @@ public class Pwm implements StepDevice {
         stepInternal(cycles);
     }
 
+    /**
+     * Sh2 cycles to the next sample, Integer.MAX_VALUE when pwm is disabled
+     */
+    public int getCyclesToNextEvent() {
+        if (!ctx.pwmEnable) {
+            return Integer.MAX_VALUE;
+        }
+        return PWM_USE_BLIP ? ctx.sh2TicksToNextPwmSample :
+                Math.min(ctx.sh2TicksToNextPwmSample, ctx.sh2TicksToNext22khzSample);
+    }
+
     private void stepInternal(int cycles) {
         ctx.sh2TicksToNextPwmSample -= cycles;
-        if (ctx.sh2TicksToNextPwmSample <= 0) {
+        while (ctx.sh2TicksToNextPwmSample <= 0) {
             ctx.sh2TicksToNextPwmSample += ctx.cycle;
-            assert ctx.sh2TicksToNextPwmSample > 0;
             if (verbose) pwmSamplesPerFrame++;
             //sample range should be [0,cycle], let's clamp to [sld, cycle - sld]
             ctx.ls = Math.min(ctx.cycle - SAMPLE_LIMIT_DELTA, readFifo(fifoMapLeft.fifo, fifoMapLeft.channel) + SAMPLE_LIMIT_DELTA);
@@ -392,10 +410,9 @@ public class Pwm implements StepDevice {
         }
         if (!PWM_USE_BLIP) {
             ctx.sh2TicksToNext22khzSample -= cycles;
-            if (ctx.sh2TicksToNext22khzSample <= 0) {
+            while (ctx.sh2TicksToNext22khzSample <= 0) {
                 playSupport.playSample(ctx.ls, ctx.rs);
                 ctx.sh2TicksToNext22khzSample += CYCLE_22khz;
-                assert ctx.sh2TicksToNext22khzSample > 0;
             }
         }
     }
@@ -443,6 +460,10 @@ public class Pwm implements StepDevice {
         this.dmac = dmac;
     }
 
+    public void setDeviceSync(DeviceSync deviceSync) {
+        this.deviceSync = deviceSync;
+    }
+
     public void setPwmProvider(PwmProvider p) {
         this.playSupport = p;
         playSupport.updatePwmCycle(ctx.cycle);
@@ -451,15 +472,46 @@ public class Pwm implements StepDevice {
     @Override
     public void saveContext(ByteBuffer buffer) {
         StepDevice.super.saveContext(buffer);
-        buffer.put(Util.serializeObject(ctx));
+        StateCodec.writeHeader(buffer, ContextId.PWM, STATE_VERSION);
+        putIntFifo(buffer, ctx.fifoLeft);
+        putIntFifo(buffer, ctx.fifoRight);
+        for (PwmChannelSetup cs : ctx.channelMap) {
+            putEnum(buffer, cs);
+        }
+        putBoolean(buffer, ctx.pwmEnable);
+        putBoolean(buffer, ctx.dreqEn);
+        buffer.putInt(ctx.cycle).putInt(ctx.interruptInterval);
+        buffer.putInt(ctx.sh2TicksToNextPwmSample).putInt(ctx.sh2ticksToNextPwmInterrupt);
+        buffer.putInt(ctx.sh2TicksToNext22khzSample);
+        buffer.putInt(ctx.rs).putInt(ctx.ls);
+        putInts(buffer, ctx.latestPwmValue);
     }
 
     @Override
     public void loadContext(ByteBuffer buffer) {
         StepDevice.super.loadContext(buffer);
-        Serializable s = Util.deserializeObject(buffer);
-        assert s instanceof PwmContext;
-        ctx = (PwmContext) s;
+        if (StateCodec.isLegacy(buffer)) {
+            Serializable s = Util.deserializeObject(buffer);
+            assert s instanceof PwmContext;
+            ctx = (PwmContext) s;
+        } else {
+            StateCodec.readHeader(buffer, ContextId.PWM, STATE_VERSION);
+            getIntFifo(buffer, ctx.fifoLeft);
+            getIntFifo(buffer, ctx.fifoRight);
+            for (int i = 0; i < ctx.channelMap.length; i++) {
+                ctx.channelMap[i] = getEnum(buffer, chanVals);
+            }
+            ctx.pwmEnable = getBoolean(buffer);
+            ctx.dreqEn = getBoolean(buffer);
+            ctx.cycle = buffer.getInt();
+            ctx.interruptInterval = buffer.getInt();
+            ctx.sh2TicksToNextPwmSample = buffer.getInt();
+            ctx.sh2ticksToNextPwmInterrupt = buffer.getInt();
+            ctx.sh2TicksToNext22khzSample = buffer.getInt();
+            ctx.rs = buffer.getInt();
+            ctx.ls = buffer.getInt();
+            getInts(buffer, ctx.latestPwmValue);
+        }
         updateChannelMap();
     }
 
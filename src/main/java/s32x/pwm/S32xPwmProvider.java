@@ -84,7 +84,7 @@ public class S32xPwmProvider extends GenericAudioProvider implements PwmProvider
             sleft = clampToShort(vleft);
             sright = clampToShort(vright);
         }
-        final int len = stereoQueueLen.get();
+        final int len = getStereoQueueLen();
         //very crude adaptive rate control, will break for anything not 22khz
         if (len < 2000) {
             addStereoSample(sleft, sright);
@@ -136,15 +136,15 @@ public class S32xPwmProvider extends GenericAudioProvider implements PwmProvider
 
     @Override
     public void onNewFrame() {
-        int monoLen = stereoQueueLen.get() >> 1;
+        super.onNewFrame();
+        int monoLen = getStereoQueueLen() >> 1;
         if (collectStats) {
             stats.print(monoLen);
             stats.reset();
         }
         if (monoLen > 5000) {
             LOG.warn("Pwm monoQLen: {}", monoLen);
-            sampleQueue.clear();
-            stereoQueueLen.set(0);
+            clearQueue();
         }
     }
 
@@ -5,8 +5,11 @@ import omegadrive.Device;
 import omegadrive.savestate.BaseStateHandler;
 import omegadrive.savestate.GshStateHandler;
 import omegadrive.savestate.MapLikeHolder;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.savestate.StateUtil;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Util;
 import org.slf4j.Logger;
 import s32x.StaticBootstrapSupport;
@@ -18,12 +21,14 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.*;
 
-import static omegadrive.savestate.StateUtil.storeSerializedData;
-
 /**
  * Federico Berti
  * <p>
  * Copyright 2023
+ * <p>
+ * 32x data layout: START_32X_TOKEN, [{@link StateCodec} header][numEntries:s32]
+ * {[nameLen:u16][name:ascii][dataLen:s32][data]}*, END_32X_TOKEN.
+ * States saved with java serialization (S32xContainer) can still be loaded.
  */
 public class Gs32xStateHandler extends GshStateHandler {
 
@@ -34,10 +39,11 @@ public class Gs32xStateHandler extends GshStateHandler {
     protected static final String END_32X_TOKEN = "END_GS32X";
     public static final String fileExtension32x = "gs32x";
 
-    private static final Map<String, Device> s32xDeviceSet = new WeakHashMap<>();
-    private static final Sh2ContextWrap wrap = new Sh2ContextWrap();
+    private static final int CONTAINER_VERSION = 1;
+    private static final String SH2_CTX_PREFIX = Sh2Context.class.getSimpleName() + "_";
+    private static final String SH2_CACHE_PREFIX = Sh2Cache.class.getSimpleName() + "_";
 
-    private ByteBuffer b = ByteBuffer.allocate(FILE_SIZE << 4);
+    private static final int SCRATCH_SIZE = FILE_SIZE << 4;
 
     static class S32xContainer implements Serializable {
         @Serial
@@ -67,6 +73,16 @@ public class Gs32xStateHandler extends GshStateHandler {
     }
 
 
+    public static BaseStateHandler createInstance(String fileName, Set<Device> deviceSet, byte[] data) {
+        Gs32xStateHandler h = new Gs32xStateHandler();
+        h.type = Type.LOAD;
+        h.fileName = handleFileExtension(fileName);
+        h.buffer = ByteBuffer.wrap(data);
+        h.detectStateFileType();
+        h.setDevicesWithContext(deviceSet);
+        return h;
+    }
+
     protected Gs32xStateHandler() {
     }
 
@@ -110,67 +126,122 @@ public class Gs32xStateHandler extends GshStateHandler {
         public transient Sh2Cache[] sh2Cache = new Sh2Cache[2];
     }
 
+    /**
+     * The 32x devices of one system, owned by its {@link MdRuntimeData}
+     */
+    public static class S32xDeviceSet {
+        private final Map<String, Device> devices = new LinkedHashMap<>();
+        private final Sh2ContextWrap wrap = new Sh2ContextWrap();
+    }
+
+    /**
+     * Registers the device with the runtime bound to the calling thread, ie. the system being created
+     */
     public static void addDevice(Device d) {
+        final MdRuntimeData rt = MdRuntimeData.current();
+        if (rt == null) {
+            throw new IllegalStateException("No runtime bound to the calling thread, unable to add: " +
+                    d.getClass().getSimpleName());
+        }
+        final S32xDeviceSet ds = rt.s32xDeviceSet;
         if (d instanceof Sh2Context s) {
-            wrap.sh2Ctx[s.cpuAccess.ordinal()] = s;
+            ds.wrap.sh2Ctx[s.cpuAccess.ordinal()] = s;
             return;
         }
         if (d instanceof Sh2Cache s) {
-            wrap.sh2Cache[s.getCacheContext().cpu.ordinal()] = s;
+            ds.wrap.sh2Cache[s.getCacheContext().cpu.ordinal()] = s;
             return;
         }
-        s32xDeviceSet.put(d.getClass().getSimpleName(), d);
+        ds.devices.put(d.getClass().getSimpleName(), d);
     }
 
     @Override
     public void processState() {
         super.processState(); //do MD stuff
-        Arrays.fill(b.array(), (byte) 0);
-        assert !s32xDeviceSet.isEmpty();
+        final MdRuntimeData rt = MdRuntimeData.current();
+        final S32xDeviceSet ds = rt.s32xDeviceSet;
+        assert !ds.devices.isEmpty();
         if (type == Type.SAVE) {
-            S32xContainer container = new S32xContainer();
-            for (int i = 0; i < 2; i++) {
-                b.rewind();
-                wrap.sh2Cache[i].saveContext(b);
-                wrap.sh2CacheCtx[i] = new byte[b.position()];
-                b.rewind().get(wrap.sh2CacheCtx[i]).rewind();
-            }
-            byte[] dt = Util.serializeObject(wrap);
-            container.dataMap.put(wrap.getClass().getSimpleName(), dt);
-            for (Device d : s32xDeviceSet.values()) {
-                d.saveContext(b);
-                byte[] data = new byte[b.position()];
-                b.rewind().get(data).rewind();
-                container.dataMap.put(d.getClass().getSimpleName(), data);
-            }
-            container.storeFromMap();
-            buffer = storeSerializedData(START_32X_TOKEN, END_32X_TOKEN, container, buffer);
+            save32x(ds, rt.getStateScratch(SCRATCH_SIZE));
         } else {
-            int s32xStart = Bytes.indexOf(buffer.array(), START_32X_TOKEN.getBytes()) + START_32X_TOKEN.length();
-            int s32xEnd = Bytes.indexOf(buffer.array(), END_32X_TOKEN.getBytes());
-            if (s32xStart > 0 && s32xEnd > 0) {
-                Serializable s = Util.deserializeObject(buffer.array(), s32xStart, s32xEnd);
-                assert s instanceof S32xContainer;
-                S32xContainer container = (S32xContainer) s;
-                container.loadToMap();
-                byte[] data = container.dataMap.get(Sh2ContextWrap.class.getSimpleName());
-                s = Util.deserializeObject(data);
-                assert s instanceof Sh2ContextWrap;
-                Sh2ContextWrap w = (Sh2ContextWrap) s;
-                for (int i = 0; i < 2; i++) {
-                    wrap.sh2Ctx[i].loadContext(w.sh2Ctx[i]);
-                    wrap.sh2Cache[i].loadContext(ByteBuffer.wrap(w.sh2CacheCtx[i]));
-                }
-                for (Device d : s32xDeviceSet.values()) {
-                    data = container.dataMap.get(d.getClass().getSimpleName());
-                    d.loadContext(ByteBuffer.wrap(data));
+            int s32xStart = Bytes.indexOf(buffer.array(), START_32X_TOKEN.getBytes());
+            if (s32xStart >= 0) {
+                ByteBuffer data = ByteBuffer.wrap(buffer.array()).position(s32xStart + START_32X_TOKEN.length());
+                if (StateCodec.isLegacy(data)) {
+                    loadLegacy32x(ds);
+                } else {
+                    load32x(ds, data);
                 }
             }
             StaticBootstrapSupport.afterStateLoad();
         }
     }
 
+    private void save32x(S32xDeviceSet ds, ByteBuffer b) {
+        StateCodec.writeHeader(b, ContextId.S32X_CONTAINER, CONTAINER_VERSION);
+        b.putInt(2 * 2 + ds.devices.size());
+        for (int i = 0; i < 2; i++) {
+            saveEntry(b, SH2_CTX_PREFIX + i, ds.wrap.sh2Ctx[i]);
+            saveEntry(b, SH2_CACHE_PREFIX + i, ds.wrap.sh2Cache[i]);
+        }
+        for (var e : ds.devices.entrySet()) {
+            saveEntry(b, e.getKey(), e.getValue());
+        }
+        buffer = StateUtil.storeData(START_32X_TOKEN, END_32X_TOKEN, b.array(), 0, b.position(), buffer);
+    }
+
+    private static void saveEntry(ByteBuffer b, String name, Device d) {
+        StateCodec.putEntry(b, name, d::saveContext);
+    }
+
+    private static void load32x(S32xDeviceSet ds, ByteBuffer data) {
+        StateCodec.readHeader(data, ContextId.S32X_CONTAINER, CONTAINER_VERSION);
+        Map<String, ByteBuffer> entries = StateCodec.getEntries(data);
+        for (int i = 0; i < 2; i++) {
+            loadEntry(entries, SH2_CTX_PREFIX + i, ds.wrap.sh2Ctx[i]);
+            loadEntry(entries, SH2_CACHE_PREFIX + i, ds.wrap.sh2Cache[i]);
+        }
+        for (var e : ds.devices.entrySet()) {
+            loadEntry(entries, e.getKey(), e.getValue());
+        }
+    }
+
+    private static void loadEntry(Map<String, ByteBuffer> entries, String name, Device d) {
+        ByteBuffer data = entries.get(name);
+        if (data == null) {
+            LOG.warn("Missing 32x savestate data for: {}", name);
+            return;
+        }
+        d.loadContext(data);
+    }
+
+    /**
+     * States saved with java serialization
+     */
+    private void loadLegacy32x(S32xDeviceSet ds) {
+        int s32xStart = Bytes.indexOf(buffer.array(), START_32X_TOKEN.getBytes()) + START_32X_TOKEN.length();
+        int s32xEnd = Bytes.indexOf(buffer.array(), END_32X_TOKEN.getBytes());
+        if (s32xStart > 0 && s32xEnd > 0) {
+            Serializable s = Util.deserializeObject(buffer.array(), s32xStart, s32xEnd);
+            assert s instanceof S32xContainer;
+            S32xContainer container = (S32xContainer) s;
+            container.loadToMap();
+            byte[] data = container.dataMap.get(Sh2ContextWrap.class.getSimpleName());
+            s = Util.deserializeObject(data);
+            assert s instanceof Sh2ContextWrap;
+            Sh2ContextWrap w = (Sh2ContextWrap) s;
+            for (int i = 0; i < 2; i++) {
+                ds.wrap.sh2Ctx[i].loadContext(w.sh2Ctx[i]);
+                ds.wrap.sh2Cache[i].loadContext(ByteBuffer.wrap(w.sh2CacheCtx[i]));
+            }
+            for (Device d : ds.devices.values()) {
+                data = container.dataMap.get(d.getClass().getSimpleName());
+                d.loadContext(ByteBuffer.wrap(data));
+            }
+        }
+    }
+
     public static Sh2ContextWrap getSh2ContextWrap() {
-        return wrap;
+        return MdRuntimeData.current().s32xDeviceSet.wrap;
     }
 }
@@ -1,6 +1,8 @@
 package s32x.sh2;
 
 import omegadrive.Device;
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import omegadrive.util.Util;
 import s32x.savestate.Gs32xStateHandler;
@@ -14,6 +16,8 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.StringJoiner;
 
+import static omegadrive.savestate.StateCodec.*;
+
 /**
  * Federico Berti
  * <p>
@@ -25,6 +29,7 @@ public class Sh2Context implements Device, Serializable {
     private static final long serialVersionUID = 2187364810718100709L;
 
     final static int NUM_REG = 16;
+    private static final int STATE_VERSION = 1;
 
     /* System Registers */
     public final int[] registers;
@@ -75,15 +80,43 @@ public class Sh2Context implements Device, Serializable {
     @Override
     public void saveContext(ByteBuffer buffer) {
         Device.super.saveContext(buffer);
-        buffer.put(Util.serializeObject(this));
+        StateCodec.writeHeader(buffer, ContextId.SH2, STATE_VERSION);
+        putEnum(buffer, cpuAccess);
+        putInts(buffer, registers);
+        buffer.putInt(GBR).putInt(VBR).putInt(SR).putInt(MACH).putInt(MACL).putInt(PR).putInt(PC);
+        buffer.putInt(opcode).putInt(delayPC).putInt(cycles).putInt(cycles_ran).putInt(burstCycles);
+        putBoolean(buffer, delaySlot);
+        putBoolean(buffer, checkInterrupt);
     }
 
     @Override
     public void loadContext(ByteBuffer buffer) {
         Device.super.loadContext(buffer);
-        Serializable s = Util.deserializeObject(buffer);
-        assert s instanceof Sh2Context;
-        loadContext((Sh2Context) s);
+        if (StateCodec.isLegacy(buffer)) {
+            Serializable s = Util.deserializeObject(buffer);
+            assert s instanceof Sh2Context;
+            loadContext((Sh2Context) s);
+            return;
+        }
+        StateCodec.readHeader(buffer, ContextId.SH2, STATE_VERSION);
+        CpuDeviceAccess cpu = getEnum(buffer, CpuDeviceAccess.cdaValues);
+        assert cpu == cpuAccess : cpu + "," + cpuAccess;
+        getInts(buffer, registers);
+        GBR = buffer.getInt();
+        VBR = buffer.getInt();
+        SR = buffer.getInt();
+        MACH = buffer.getInt();
+        MACL = buffer.getInt();
+        PR = buffer.getInt();
+        PC = buffer.getInt();
+        opcode = buffer.getInt();
+        delayPC = buffer.getInt();
+        cycles = buffer.getInt();
+        cycles_ran = buffer.getInt();
+        burstCycles = buffer.getInt();
+        delaySlot = getBoolean(buffer);
+        checkInterrupt = getBoolean(buffer);
+        invalidateFetchResult();
     }
 
     public void loadContext(Sh2Context ctx) {
@@ -104,7 +137,11 @@ public class Sh2Context implements Device, Serializable {
         cycles_ran = ctx.cycles_ran;
         checkInterrupt = ctx.checkInterrupt;
         burstCycles = ctx.burstCycles;
-        //invalidate on load
+        invalidateFetchResult();
+    }
+
+    //invalidate on load
+    private void invalidateFetchResult() {
         fetchResult.block = Sh2Block.INVALID_BLOCK;
         fetchResult.pc = 0;
         fetchResult.opcode = 0;
@@ -3,9 +3,11 @@ package s32x.sh2;
 import omegadrive.cpu.CpuFastDebug;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
 import org.slf4j.Logger;
 import s32x.dict.S32xDict;
 import s32x.sh2.drc.Sh2Block;
+import s32x.sh2.drc.Sh2KnownBlocks;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -28,7 +30,6 @@ public class Sh2Helper {
 
     private static final Sh2PcInfoWrapper[] EMPTY_WRAPPER = new Sh2PcInfoWrapper[0];
     public static final Sh2PcInfoWrapper SH2_NOT_VISITED = new Sh2PcInfoWrapper(0, 0);
-    private static Sh2PcInfoWrapper[][] piwArr = createPcInfoWrapper();
 
 
     /**
@@ -38,12 +39,9 @@ public class Sh2Helper {
     public final static class Sh2PcInfoWrapper extends CpuFastDebug.PcInfoWrapper {
 
         public Sh2Block block = Sh2Block.INVALID_BLOCK;
-        public Map<Integer, Sh2Block> knownBlocks = Collections.emptyMap();
+        public Sh2KnownBlocks knownBlocks = Sh2KnownBlocks.EMPTY;
         private static final boolean verbose = false;
 
-        //reduce boxing by using a 16-bit hash (key)
-        public static final int HASH_CODE_MASK = 0xFFFF;
-
         public Sh2PcInfoWrapper(int area, int pcMasked) {
             super(area, pcMasked);
         }
@@ -67,34 +65,31 @@ public class Sh2Helper {
 
         public Sh2Block addToKnownBlocks(Sh2Block b) {
             assert this != SH2_NOT_VISITED;
-            if (knownBlocks == Collections.EMPTY_MAP) {
-                knownBlocks = new HashMap<>(1);
+            if (knownBlocks == Sh2KnownBlocks.EMPTY) {
+                knownBlocks = new Sh2KnownBlocks();
             }
-            Sh2Block prev = knownBlocks.putIfAbsent(b.hashCodeWords & HASH_CODE_MASK, b);
-            //check for hash collisions
-            assert prev != null ? prev == b : true;
-            return prev;
+            return knownBlocks.putIfAbsent(b);
         }
     }
 
 
     public static void clear() {
-        piwArr = createWrapper(createContext());
+        MdRuntimeData.current().sh2PcInfo = createWrapper(createContext());
     }
 
     /**
      * Even indexes -> MASTER pc
      * Odd indexes  -> SLAVE pc, actual PC is pc & ~1
      */
-    private static Sh2PcInfoWrapper[][] createPcInfoWrapper() {
-        if (piwArr == null) {
-            piwArr = createWrapper(createContext());
-        }
-        return piwArr;
+    public static Sh2PcInfoWrapper[][] getPcInfoWrapper() {
+        return getPcInfoWrapper(MdRuntimeData.current());
     }
 
-    public static Sh2PcInfoWrapper[][] getPcInfoWrapper() {
-        assert piwArr != null;
+    public static Sh2PcInfoWrapper[][] getPcInfoWrapper(MdRuntimeData rt) {
+        Sh2PcInfoWrapper[][] piwArr = rt.sh2PcInfo;
+        if (piwArr == null) {
+            piwArr = rt.sh2PcInfo = createWrapper(createContext());
+        }
         return piwArr;
     }
 
@@ -116,13 +111,17 @@ public class Sh2Helper {
     public static boolean isValidPc(int pc, CpuDeviceAccess cpu) {
         assert (pc & 1) == 0 : th(pc);
         final int piwPc = pc | cpu.ordinal();
-        return piwArr[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT].length > 0;
+        return getPcInfoWrapper()[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT].length > 0;
     }
 
     public static Sh2PcInfoWrapper getOrDefault(int pc, CpuDeviceAccess cpu) {
+        return getOrDefault(MdRuntimeData.current(), pc, cpu);
+    }
+
+    public static Sh2PcInfoWrapper getOrDefault(MdRuntimeData rt, int pc, CpuDeviceAccess cpu) {
         assert (pc & 1) == 0 : th(pc);
         final int piwPc = pc | cpu.ordinal();
-        final Sh2PcInfoWrapper[] piwSubArr = piwArr[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT];
+        final Sh2PcInfoWrapper[] piwSubArr = getPcInfoWrapper(rt)[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT];
         if (piwSubArr.length == 0) {
             return SH2_NOT_VISITED;
         }
@@ -138,10 +137,17 @@ public class Sh2Helper {
      * pcMasked = pc & pcAreaMaskMap[area]
      */
     public static Sh2PcInfoWrapper get(int pc, CpuDeviceAccess cpu) {
+        return get(MdRuntimeData.current(), pc, cpu);
+    }
+
+    /**
+     * As {@link #get(int, CpuDeviceAccess)}, the caller passes its runtime and avoids the thread lookup.
+     */
+    public static Sh2PcInfoWrapper get(MdRuntimeData rt, int pc, CpuDeviceAccess cpu) {
         assert (pc & 1) == 0 : th(pc);
         final int piwPc = pc | cpu.ordinal();
         //TODO cache-through vs cached
-        Sh2PcInfoWrapper piw = piwArr[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT][piwPc & Sh2Debug.pcAreaMaskMap[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT]];
+        Sh2PcInfoWrapper piw = getPcInfoWrapper(rt)[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT][piwPc & Sh2Debug.pcAreaMaskMap[piwPc >>> S32xDict.SH2_PC_AREA_SHIFT]];
         assert (piw != SH2_NOT_VISITED
                 ? piw.pcMasked == (pc & Sh2Debug.pcAreaMaskMap[pc >>> S32xDict.SH2_PC_AREA_SHIFT]) : true) : th(piwPc) + "," + th(piw.pcMasked);
         return piw;
@@ -152,12 +158,16 @@ public class Sh2Helper {
      * pcMasked = pc & pcAreaMaskMap[area]
      */
     public static Sh2PcInfoWrapper getOrCreate(int pc, CpuDeviceAccess cpu) {
-        Sh2PcInfoWrapper piw = get(pc, cpu);
+        return getOrCreate(MdRuntimeData.current(), pc, cpu);
+    }
+
+    public static Sh2PcInfoWrapper getOrCreate(MdRuntimeData rt, int pc, CpuDeviceAccess cpu) {
+        Sh2PcInfoWrapper piw = get(rt, pc, cpu);
         assert piw != null;
         if (piw == SH2_NOT_VISITED) {
             final int piwPc = pc | cpu.ordinal();
             piw = new Sh2PcInfoWrapper(pc >>> S32xDict.SH2_PC_AREA_SHIFT, pc & Sh2Debug.pcAreaMaskMap[pc >>> S32xDict.SH2_PC_AREA_SHIFT]);
-            piwArr[piw.area][piw.pcMasked | cpu.ordinal()] = piw;
+            getPcInfoWrapper(rt)[piw.area][piw.pcMasked | cpu.ordinal()] = piw;
         }
         assert piw.pcMasked == (pc & Sh2Debug.pcAreaMaskMap[pc >>> S32xDict.SH2_PC_AREA_SHIFT]);
         return piw;
@@ -48,6 +48,7 @@ public class Sh2Impl implements Sh2 {
 
     private final static Logger LOG = LogHelper.getLogger(Sh2Impl.class.getSimpleName());
     private final int tasReadOffset;
+    private final MdRuntimeData rt = MdRuntimeData.current();
 
     protected Sh2Context ctx;
     protected Sh2Bus memory;
@@ -64,12 +65,16 @@ public class Sh2Impl implements Sh2 {
         }
     }
 
+    public Sh2Instructions.Sh2InstructionWrapper[] getOpcodeMap() {
+        return opcodeMap;
+    }
+
     public void run(final Sh2Context ctx) {
         assert ctx.burstCycles == Sh2Config.get().sh2Cycles;
         this.ctx = ctx;
         for (; ctx.cycles >= 0; ) {
             decode();
-            ctx.cycles -= MdRuntimeData.resetCpuDelayExt();
+            ctx.cycles -= rt.resetCpuDelay();
             if (ctx.checkInterrupt && acceptInterrupts()) {
                 break;
             }
@@ -95,7 +100,7 @@ public class Sh2Impl implements Sh2 {
             ctx.checkInterrupt = false;
             processInterrupt(ctx, level);
             ctx.devices.intC.clearCurrentInterrupt();
-            ctx.cycles -= MdRuntimeData.resetCpuDelayExt();
+            ctx.cycles -= rt.resetCpuDelay();
             return true;
         }
         return false;
@@ -113,7 +118,7 @@ public class Sh2Impl implements Sh2 {
 
     private void processInterrupt(final Sh2Context ctx, final int level) {
 //		System.out.println(ctx.cpuAccess + " Interrupt processed: " + level);
-        assert MdRuntimeData.getAccessTypeExt() == ctx.cpuAccess;
+        assert rt.getAccessType() == ctx.cpuAccess;
         push(ctx.SR);
         push(ctx.PC); //stores the next inst to be executed
         //SR 7-4
@@ -137,9 +142,9 @@ public class Sh2Impl implements Sh2 {
     }
 
     private void stopCpuPollingWhenActive(CpuDeviceAccess cpu) {
-        Sh2DrcBlockOptimizer.PollerCtx p = PollSysEventManager.instance.getPoller(cpu);
+        Sh2DrcBlockOptimizer.PollerCtx p = rt.sysEventManager.getPoller(cpu);
         if (p.isPollingActive()) {
-            PollSysEventManager.instance.fireSysEvent(cpu, p.event);
+            rt.sysEventManager.fireSysEvent(cpu, p.event);
         }
     }
 
@@ -181,17 +186,21 @@ public class Sh2Impl implements Sh2 {
             }
             return;
         }
-        assert !PollSysEventManager.instance.getPoller(ctx.cpuAccess).isPollingActive();
+        assert !rt.sysEventManager.getPoller(ctx.cpuAccess).isPollingActive();
         block.poller.spinCount = 0;
         setNextBlock(fr, block);
     }
 
     private void setNextBlock(final Sh2Helper.FetchResult fr, Sh2Block block) {
-        boolean nextBlockOk = block.nextBlock.prefetchPc == ctx.PC && block.nextBlock.isValid();
-        //nextBlock matches what we expect
-        if (nextBlockOk) {
+        Sh2Block next = block.nextBlock;
+        //nextBlock matches what we expect, otherwise try the static successors
+        if (next.prefetchPc != ctx.PC || !next.isValid()) {
+            next = block.getLinkedBlock(ctx.PC);
+        }
+        if (next != Sh2Block.INVALID_BLOCK) {
+            assert next.isValid();
             fr.pc = ctx.PC;
-            fr.block = block.nextBlock;
+            fr.block = next;
             fr.opcode = block.prefetchWords[0];
         } else {
             fetchNextBlock(fr);
@@ -206,6 +215,9 @@ public class Sh2Impl implements Sh2 {
         //jump in the middle of a block, doesnt happen anymore?
         assert prevBlock == fr.block ? fr.pc == fr.block.prefetchPc : true;
         prevBlock.nextBlock = fr.block;
+        if (prevBlock.isValid()) {
+            prevBlock.link(fr.pc, fr.block);
+        }
     }
 
     protected final void decodeSimple() {
@@ -233,7 +245,7 @@ public class Sh2Impl implements Sh2 {
     }
 
     public void reset(Sh2Context ctx) {
-        MdRuntimeData.setAccessTypeExt(ctx.cpuAccess);
+        rt.setAccessType(ctx.cpuAccess);
         ctx.VBR = 0;
         ctx.PC = memory.read32(0);
         ctx.SR = flagIMASK;
@@ -43,8 +43,9 @@ public class Sh2Instructions {
     }
 
     public static final int NUM_OPCODES = 0x10000;
-    public static Sh2InstructionWrapper[] instOpcodeMap;
-    public static Sh2BaseInstruction[] sh2OpcodeMap;
+    public static final Sh2BaseInstruction[] sh2OpcodeMap = new Sh2BaseInstruction[NUM_OPCODES];
+    //instruction lookups only, the runnables are not bound to any Sh2, see Sh2Impl#getOpcodeMap
+    public static final Sh2InstructionWrapper[] instOpcodeMap;
 
     //interrupts cannot be triggered during these instructions, I think it can be ignored
     public static Sh2BaseInstruction[] intDisabledOpcodes = {
@@ -61,16 +62,21 @@ public class Sh2Instructions {
     static {
         Arrays.sort(intDisabledOpcodes);
         Arrays.sort(illegalSlotOpcodes);
+        for (int i = 0; i < NUM_OPCODES; i++) {
+            sh2OpcodeMap[i] = getInstruction(i);
+        }
+        instOpcodeMap = createOpcodeMap(null);
     }
 
+    /**
+     * Each Sh2 needs its own map, several systems can run at the same time
+     */
     public static Sh2InstructionWrapper[] createOpcodeMap(Sh2Impl sh2) {
-        instOpcodeMap = new Sh2InstructionWrapper[NUM_OPCODES];
-        sh2OpcodeMap = new Sh2BaseInstruction[NUM_OPCODES];
-        for (int i = 0; i < instOpcodeMap.length; i++) {
-            sh2OpcodeMap[i] = getInstruction(i);
-            instOpcodeMap[i] = getInstruction(sh2, i);
+        Sh2InstructionWrapper[] map = new Sh2InstructionWrapper[NUM_OPCODES];
+        for (int i = 0; i < map.length; i++) {
+            map[i] = getInstruction(sh2, i);
         }
-        return instOpcodeMap;
+        return map;
     }
 
     private static String methodName() {
@@ -81,8 +87,8 @@ public class Sh2Instructions {
         return methodName.orElse("ERROR");
     }
 
-    public static Sh2Prefetcher.Sh2BlockUnit[] generateInst(int[] opcodes) {
-        return Arrays.stream(opcodes).mapToObj(op -> new Sh2Prefetcher.Sh2BlockUnit(instOpcodeMap[op])).toArray(Sh2Prefetcher.Sh2BlockUnit[]::new);
+    public static Sh2Prefetcher.Sh2BlockUnit[] generateInst(Sh2InstructionWrapper[] opcodeMap, int[] opcodes) {
+        return Arrays.stream(opcodes).mapToObj(op -> new Sh2Prefetcher.Sh2BlockUnit(opcodeMap[op])).toArray(Sh2Prefetcher.Sh2BlockUnit[]::new);
     }
 
     /**
@@ -25,6 +25,8 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301  USA
 \brief SH2 internal cache operations FIL0016332.PDF section 8
 */
 
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.*;
 import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import org.slf4j.Logger;
@@ -35,6 +37,7 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.Optional;
 
+import static omegadrive.savestate.StateCodec.*;
 import static omegadrive.util.Util.th;
 
 /**
@@ -51,6 +54,7 @@ public class Sh2CacheImpl implements Sh2Cache {
 
     //NOTE looks like this is NOT needed, ie. it doesn't improve compat
     public static final boolean PARANOID_ON_CACHE_ENABLED_TOGGLE = false;
+    private static final int STATE_VERSION = 1;
     protected final ByteBuffer data_array = ByteBuffer.allocate(DATA_ARRAY_SIZE); // cache (can be used as RAM)
 
     protected Sh2CacheContext ctx;
@@ -59,6 +63,7 @@ public class Sh2CacheImpl implements Sh2Cache {
     private final CpuDeviceAccess cpu;
     private final Sh2Bus memory;
     private final CacheInvalidateContext invalidCtx;
+    private final MdRuntimeData rt = MdRuntimeData.current();
 
     protected Sh2CacheImpl(CpuDeviceAccess cpu, Sh2Bus memory) {
         this.memory = memory;
@@ -105,7 +110,7 @@ public class Sh2CacheImpl implements Sh2Cache {
                         }
                     }
                 }
-                assert cpu == MdRuntimeData.getAccessTypeExt();
+                assert cpu == rt.getAccessType();
                 return memory.readMemoryUncachedNoDelay(addr, size);
             case CACHE_DATA_ARRAY:
                 return readDataArray(addr, size);
@@ -122,7 +127,7 @@ public class Sh2CacheImpl implements Sh2Cache {
         switch (addr & AREA_MASK) {
             case CACHE_USE: {
                 if (ca.enable == 0) {
-                    assert cpu == MdRuntimeData.getAccessTypeExt();
+                    assert cpu == rt.getAccessType();
                     return readMemoryUncached(memory, addr, size);
                 }
                 return readCache(addr, size);
@@ -292,7 +297,7 @@ public class Sh2CacheImpl implements Sh2Cache {
                 assert cacheRegCtx.twoWay == 0 || (cacheRegCtx.twoWay == 1 && i > 1);
                 //only v bit is changed, the rest of the data remains
                 ca.way[i][entry].tag |= CACHE_LINE_DISABLED_MASK;
-                MdRuntimeData.addCpuDelayExt(CACHE_PURGE_DELAY);
+                rt.addCpuDelay(CACHE_PURGE_DELAY);
                 invalidatePrefetcher(ca.way[i][entry], entry, addr & CACHE_PURGE_MASK);
             }
         }
@@ -400,8 +405,8 @@ public class Sh2CacheImpl implements Sh2Cache {
     }
 
     private void refillCache(byte[] data, int addr) {
-        MdRuntimeData.addCpuDelayExt(4);
-        assert cpu == MdRuntimeData.getAccessTypeExt();
+        rt.addCpuDelay(4);
+        assert cpu == rt.getAccessType();
         memory.readMemoryUncachedNoDelay(addr & 0xFFFFFFF0, data);
     }
 
@@ -433,15 +438,28 @@ public class Sh2CacheImpl implements Sh2Cache {
     @Override
     public void saveContext(ByteBuffer buffer) {
         Sh2Cache.super.saveContext(buffer);
-        data_array.rewind().get(ctx.dataArray);
-        ctx.cacheContext = cacheRegCtx;
-        ctx.ca = ca;
-        buffer.put(Util.serializeObject(ctx));
+        StateCodec.writeHeader(buffer, ContextId.SH2_CACHE, STATE_VERSION);
+        buffer.putInt(cacheRegCtx.ccr).putInt(cacheRegCtx.way).putInt(cacheRegCtx.cachePurge);
+        buffer.putInt(cacheRegCtx.twoWay).putInt(cacheRegCtx.dataReplaceDis).putInt(cacheRegCtx.instReplaceDis);
+        buffer.putInt(cacheRegCtx.cacheEn);
+        buffer.putInt(ca.enable);
+        putInts(buffer, ca.lru);
+        for (Sh2CacheLine[] lines : ca.way) {
+            for (Sh2CacheLine line : lines) {
+                buffer.putInt(line.tag);
+                buffer.put(line.data);
+            }
+        }
+        putBuffer(buffer, data_array);
     }
 
     @Override
     public void loadContext(ByteBuffer buffer) {
         Sh2Cache.super.loadContext(buffer);
+        if (!StateCodec.isLegacy(buffer)) {
+            loadContextBinary(buffer);
+            return;
+        }
         Serializable s = Util.deserializeObject(buffer);
         assert s instanceof Sh2CacheContext;
         ctx = (Sh2CacheContext) s;
@@ -450,6 +468,26 @@ public class Sh2CacheImpl implements Sh2Cache {
         cacheRegCtx = ctx.cacheContext;
     }
 
+    private void loadContextBinary(ByteBuffer buffer) {
+        StateCodec.readHeader(buffer, ContextId.SH2_CACHE, STATE_VERSION);
+        cacheRegCtx.ccr = buffer.getInt();
+        cacheRegCtx.way = buffer.getInt();
+        cacheRegCtx.cachePurge = buffer.getInt();
+        cacheRegCtx.twoWay = buffer.getInt();
+        cacheRegCtx.dataReplaceDis = buffer.getInt();
+        cacheRegCtx.instReplaceDis = buffer.getInt();
+        cacheRegCtx.cacheEn = buffer.getInt();
+        ca.enable = buffer.getInt();
+        getInts(buffer, ca.lru);
+        for (Sh2CacheLine[] lines : ca.way) {
+            for (Sh2CacheLine line : lines) {
+                line.tag = buffer.getInt();
+                buffer.get(line.data);
+            }
+        }
+        getBuffer(buffer, data_array);
+    }
+
     @Override
     public CacheRegContext getCacheContext() {
         return cacheRegCtx;
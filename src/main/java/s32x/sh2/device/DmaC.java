@@ -38,6 +38,7 @@ public class DmaC implements BufferUtil.Sh2Device, Sh2MMREG.DmaTriggerHandler {
     private final IntControl intControl;
     private final Sh2Bus memory;
     private final BufferUtil.CpuDeviceAccess cpu;
+    private final MdRuntimeData rt = MdRuntimeData.current();
     private final DmaHelper.DmaChannelSetup[] dmaChannelSetup;
 
     private Dma68SHandler dma68SHandler;
@@ -76,12 +77,34 @@ public class DmaC implements BufferUtil.Sh2Device, Sh2MMREG.DmaTriggerHandler {
             return;
         }
         for (DmaHelper.DmaChannelSetup c : dmaChannelSetup) {
-            if (c.dmaInProgress && (c.chcr_autoReq || c.dreqLevel)) {
+            if (isChannelStepping(c)) {
                 dmaOneStep(c);
             }
         }
     }
 
+    /**
+     * true if the next step transfers data, ie. a channel is running on auto request or has its dreq set
+     */
+    public boolean isStepPending() {
+        if (!oneDmaInProgress) {
+            return false;
+        }
+        for (DmaHelper.DmaChannelSetup c : dmaChannelSetup) {
+            if (isChannelStepping(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A channel transfers data on each step, shared by step and isStepPending so that they cannot diverge
+     */
+    private static boolean isChannelStepping(DmaHelper.DmaChannelSetup c) {
+        return c.dmaInProgress && (c.chcr_autoReq || c.dreqLevel);
+    }
+
     private void writeSh2(BufferUtil.CpuDeviceAccess cpu, RegSpecSh2 regSpec, int value, Size size) {
         switch (regSpec) {
             case DMA_CHCR0, DMA_CHCR1 -> {
@@ -139,7 +162,7 @@ public class DmaC implements BufferUtil.Sh2Device, Sh2MMREG.DmaTriggerHandler {
         if (enable) {
             checkDmaStart(d);
             if (d.dmaInProgress) {
-                MdRuntimeData.setAccessTypeExt(cpu);
+                rt.setAccessType(cpu);
                 dmaOneStep(d);
                 d.dreqLevel = false;
                 d.dmaInProgress = false;
@@ -169,7 +192,7 @@ public class DmaC implements BufferUtil.Sh2Device, Sh2MMREG.DmaTriggerHandler {
         int srcAddress = readBufferForChannel(c.channel, DMA_SAR0.addr, Size.LONG);
         int destAddress = readBufferForChannel(c.channel, DMA_DAR0.addr, Size.LONG);
         int steps = c.transfersPerStep;
-        assert cpu == MdRuntimeData.getAccessTypeExt();
+        assert cpu == rt.getAccessType();
         destAddress |= S32xDict.SH2_CACHE_THROUGH_OFFSET;
         srcAddress |= S32xDict.SH2_CACHE_THROUGH_OFFSET;
 
@@ -129,41 +129,52 @@ public class FreeRunningTimer implements BufferUtil.Sh2Device {
 
     @Override
     public void step(int cycles) {
-            while (cycles-- > 0) {
-                stepOne();
-            }
+        assert sh2TicksToNextFrtClock > 0;
+        while (cycles >= sh2TicksToNextFrtClock) {
+            cycles -= sh2TicksToNextFrtClock;
+            sh2TicksToNextFrtClock = clockDivider;
+            clock();
+        }
+        sh2TicksToNextFrtClock -= cycles;
     }
 
-    private void stepOne() {
-        if (--sh2TicksToNextFrtClock == 0) {
-            sh2TicksToNextFrtClock = clockDivider;
-            int cnt = increaseCount();
-            if (cnt == 0) { //overflow
-                setBit(regs, FRT_FTCSR.addr, FTCSR_OVF_BIT, 1, Size.BYTE);
-                if (ovfEnabled) {
-                    intControl.setOnChipDeviceIntPending(FRTOV);
-                }
+    /**
+     * Sh2 cycles to the next overflow, or to the next clock when the output compare is enabled
+     */
+    public int getCyclesToNextEvent() {
+        if (SH2_ENABLE_FRT_OCR) {
+            return sh2TicksToNextFrtClock;
+        }
+        return sh2TicksToNextFrtClock + (0xFFFF - count) * clockDivider;
+    }
+
+    private void clock() {
+        int cnt = increaseCount();
+        if (cnt == 0) { //overflow
+            setBit(regs, FRT_FTCSR.addr, FTCSR_OVF_BIT, 1, Size.BYTE);
+            if (ovfEnabled) {
+                intControl.setOnChipDeviceIntPending(FRTOV);
             }
-            if (SH2_ENABLE_FRT_OCR) {
-                int ocra = read(FRT_OCRAB_H, Size.WORD);
-                if (cnt == ocra) {
-                    setBit(regs, FRT_FTCSR.addr, FTCSR_OCFA_BIT, 1, Size.BYTE);
-                    boolean ociae = (read(FRT_TIER, Size.BYTE) & TIER_OCIAE_MASK) > 0;
-                    if (ociae) {
-                        intControl.setOnChipDeviceIntPending(FRTO);
-                    }
-                    boolean cclra = (read(FRT_FTCSR, Size.BYTE) & FTCSR_CCLRA_MASK) > 0;
-                    if (cclra) {
-                        write(FRT_FRCH, 0, Size.WORD);
-                    }
+        }
+        if (SH2_ENABLE_FRT_OCR) {
+            int ocra = read(FRT_OCRAB_H, Size.WORD);
+            if (cnt == ocra) {
+                setBit(regs, FRT_FTCSR.addr, FTCSR_OCFA_BIT, 1, Size.BYTE);
+                boolean ociae = (read(FRT_TIER, Size.BYTE) & TIER_OCIAE_MASK) > 0;
+                if (ociae) {
+                    intControl.setOnChipDeviceIntPending(FRTO);
+                }
+                boolean cclra = (read(FRT_FTCSR, Size.BYTE) & FTCSR_CCLRA_MASK) > 0;
+                if (cclra) {
+                    write(FRT_FRCH, 0, Size.WORD);
                 }
-                int ocrb = read(FRT_OCRAB_H, Size.WORD);
-                if (cnt == ocrb) {
-                    setBit(regs, FRT_FTCSR.addr, FTCSR_OCFB_BIT, 1, Size.BYTE);
-                    boolean ocibe = (read(FRT_TIER, Size.BYTE) & TIER_OCIBE_MASK) > 0;
-                    if (ocibe) {
-                        intControl.setOnChipDeviceIntPending(FRTO);
-                    }
+            }
+            int ocrb = read(FRT_OCRAB_H, Size.WORD);
+            if (cnt == ocrb) {
+                setBit(regs, FRT_FTCSR.addr, FTCSR_OCFB_BIT, 1, Size.BYTE);
+                boolean ocibe = (read(FRT_TIER, Size.BYTE) & TIER_OCIBE_MASK) > 0;
+                if (ocibe) {
+                    intControl.setOnChipDeviceIntPending(FRTO);
                 }
             }
         }
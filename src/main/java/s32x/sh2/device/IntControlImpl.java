@@ -243,9 +243,9 @@ public class IntControlImpl implements IntControl {
 
     private void fireInterruptSysEventMaybe(InterruptContext prev) {
         if (currentInterrupt.level != prev.level && currentInterrupt.level > 0) {
-            Sh2DrcBlockOptimizer.PollerCtx ctx = PollSysEventManager.instance.getPoller(cpu);
+            Sh2DrcBlockOptimizer.PollerCtx ctx = PollSysEventManager.get().getPoller(cpu);
             if (ctx != NO_POLLER && (ctx.isPollingActive() || ctx.isPollingBusyLoop())) {
-                PollSysEventManager.instance.fireSysEvent(cpu, PollSysEventManager.SysEvent.INT);
+                PollSysEventManager.get().fireSysEvent(cpu, PollSysEventManager.SysEvent.INT);
             }
             sh2Context.checkInterrupt = true;
         }
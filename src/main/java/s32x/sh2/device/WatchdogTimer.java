@@ -165,13 +165,22 @@ public class WatchdogTimer implements BufferUtil.Sh2Device {
         }
     }
 
+    /**
+     * Sh2 cycles to the next overflow, Integer.MAX_VALUE when the timer is disabled
+     */
+    public int getCyclesToNextEvent() {
+        if (!wdtTimerEnable) {
+            return Integer.MAX_VALUE;
+        }
+        return sh2TicksToNextWdtClock + (0xFF - count) * clockDivider;
+    }
+
     int ovfCnt = 0;
 
-    private void stepInternal(double cycles) {
+    private void stepInternal(int cycles) {
         sh2TicksToNextWdtClock -= cycles;
-        if (sh2TicksToNextWdtClock <= 0) {
+        while (sh2TicksToNextWdtClock <= 0) {
             sh2TicksToNextWdtClock += clockDivider;
-            assert sh2TicksToNextWdtClock > 0;
             int cnt = increaseCount();
             if (cnt == 0) { //overflow
                 BufferUtil.setBit(regs, WTCSR_ADDR_READ, OVF_BIT_POS, 1, Size.BYTE);
@@ -96,6 +96,8 @@ public class Ow2Sh2BlockRecompiler implements Sh2BlockRecompiler.InternalSh2Bloc
             ctx.classDesc = dsCtx.classDesc = blockClassDesc;
             ctx.drcCtx = dsCtx.drcCtx = drcCtx;
             ctx.mv = dsCtx.mv = lvs;
+            ctx.regCache = dsCtx.regCache = new Ow2Sh2RegCache();
+            ctx.regCache.loadAll(ctx, block);
             int totCycles = 0;
             for (int i = 0; i < block.prefetchLenWords; i++) {
                 Sh2BlockRecompiler.setDrcContext(ctx, block.inst[i], false);
@@ -118,6 +120,7 @@ public class Ow2Sh2BlockRecompiler implements Sh2BlockRecompiler.InternalSh2Bloc
                 Ow2Sh2Bytecode.setPcExt(ctx, block.inst[limit - 1].pc + 2);
             }
             Ow2Sh2Bytecode.subCyclesExt(ctx, totCycles);
+            ctx.regCache.flush(ctx);
             mv.visitInsn(RETURN);
             mv.visitMaxs(0, 0);
             mv.visitEnd();
@@ -10,6 +10,7 @@ import s32x.bus.Sh2BusImpl;
 import s32x.dict.S32xDict;
 import s32x.sh2.*;
 import s32x.sh2.prefetch.Sh2Prefetch.BytecodeContext;
+import s32x.sh2.prefetch.Sh2Prefetch.Sh2DrcContext;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -124,10 +125,9 @@ public class Ow2Sh2Bytecode {
         popSR(ctx);
 
         //ctx.registers[n] = (int) regN;
-        pushRegRefStack(ctx, n);
         ctx.mv.visitVarInsn(LLOAD, regNIdx);
         ctx.mv.visitInsn(L2I);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void ADDI(BytecodeContext ctx) {
@@ -381,8 +381,7 @@ public class Ow2Sh2Bytecode {
     }
 
     public static void cmpRegToZero(BytecodeContext ctx, int reg, int cmpOpcode) {
-        pushRegRefStack(ctx, reg);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, reg);
         cmpInternal(ctx, cmpOpcode);
     }
 
@@ -505,15 +504,13 @@ public class Ow2Sh2Bytecode {
         int qIdx = ctx.mv.newLocal(Type.INT_TYPE);
 
         //long udvd = ctx.registers[dvd] & 0xFFFF_FFFFL;
-        pushRegRefStack(ctx, dvd);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, dvd);
         ctx.mv.visitInsn(I2L);
         emitPushLongConstToStack(ctx, 0xFFFF_FFFFL);
         ctx.mv.visitInsn(LAND);
         ctx.mv.visitVarInsn(LSTORE, udvdIdx);
         //long udvsr = ctx.registers[dvsr] & 0xFFFF_FFFFL
-        pushRegRefStack(ctx, dvsr);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, dvsr);
         ctx.mv.visitInsn(I2L);
         emitPushLongConstToStack(ctx, 0xFFFF_FFFFL);
         ctx.mv.visitInsn(LAND);
@@ -592,10 +589,9 @@ public class Ow2Sh2Bytecode {
 
         //ctx.registers[dvd] = (int) r;
         ctx.mv.visitLabel(endLabel);
-        pushRegRefStack(ctx, dvd);
         ctx.mv.visitVarInsn(LLOAD, rIdx);
         ctx.mv.visitInsn(L2I);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, dvd);
 
         //int qm = ((ctx.SR >> posQ) & 1) ^ ((ctx.SR >> posM) & 1);
         pushSh2Context(ctx);
@@ -830,12 +826,10 @@ public class Ow2Sh2Bytecode {
         readMem(ctx, Size.LONG);
         ctx.mv.visitInsn(I2L);
         ctx.mv.visitVarInsn(LSTORE, regNIdx);
-        pushRegRefStack(ctx, n);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, n);
         emitPushConstToStack(ctx, 4);
         ctx.mv.visitInsn(IADD);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
 //        long regM = memory.read32(ctx.registers[m]);
 //        ctx.registers[m] += 4;
@@ -844,12 +838,10 @@ public class Ow2Sh2Bytecode {
         readMem(ctx, Size.LONG);
         ctx.mv.visitInsn(I2L);
         ctx.mv.visitVarInsn(LSTORE, regMIdx);
-        pushRegRefStack(ctx, m);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, m);
         emitPushConstToStack(ctx, 4);
         ctx.mv.visitInsn(IADD);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, m);
 
         //long res = regM * regN;
         ctx.mv.visitVarInsn(LLOAD, regMIdx);
@@ -937,12 +929,10 @@ public class Ow2Sh2Bytecode {
         readMem(ctx, Size.WORD);
         ctx.mv.visitInsn(I2S);
         ctx.mv.visitVarInsn(ISTORE, regNIdx);
-        pushRegRefStack(ctx, n);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, n);
         emitPushConstToStack(ctx, 2);
         ctx.mv.visitInsn(IADD);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
 //        final short rm = (short) memory.read16(ctx.registers[m]);
 //        ctx.registers[m] += 2;
@@ -951,12 +941,10 @@ public class Ow2Sh2Bytecode {
         readMem(ctx, Size.WORD);
         ctx.mv.visitInsn(I2S);
         ctx.mv.visitVarInsn(ISTORE, regMIdx);
-        pushRegRefStack(ctx, m);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, m);
         emitPushConstToStack(ctx, 2);
         ctx.mv.visitInsn(IADD);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, m);
         // if ((this.sh2Context.SR & flagS) > 0) {
         Label macw64Label = new Label();
         pushSh2ContextIntField(ctx, SR.name());
@@ -1132,9 +1120,8 @@ public class Ow2Sh2Bytecode {
     public static void MOV(BytecodeContext ctx) {
         int n = RN(ctx.opcode);
         int m = RM(ctx.opcode);
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, m);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -1148,9 +1135,8 @@ public class Ow2Sh2Bytecode {
             pcBase = ctx.branchPc + 2;
         }
         int memAddr = (pcBase & 0xfffffffc) + (d << 2);
-        pushRegRefStack(ctx, 0);
         emitPushConstToStack(ctx, memAddr);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, 0);
     }
 
     public final static void MOVBL(BytecodeContext ctx) {
@@ -1281,11 +1267,10 @@ public class Ow2Sh2Bytecode {
 
     public static void MOVT(BytecodeContext ctx) {
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
         pushSh2ContextIntField(ctx, SR.name());
         emitPushConstToStack(ctx, Sh2.flagT);
         ctx.mv.visitInsn(IAND);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -1340,11 +1325,10 @@ public class Ow2Sh2Bytecode {
     public static void NEG(BytecodeContext ctx) {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
         ctx.mv.visitInsn(ICONST_0);
         pushRegValStack(ctx, m);
         ctx.mv.visitInsn(ISUB);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void NEGC(BytecodeContext ctx) {
@@ -1375,10 +1359,9 @@ public class Ow2Sh2Bytecode {
         ctx.mv.visitVarInsn(LSTORE, regNIdx);
 
 //        ctx.registers[n] = (int) regN;
-        pushRegRefStack(ctx, n);
         ctx.mv.visitVarInsn(LLOAD, regNIdx);
         ctx.mv.visitInsn(L2I);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
 //        ctx.SR &= ~flagT;
         clearSrFlag(ctx, Sh2.flagT);
@@ -1410,11 +1393,10 @@ public class Ow2Sh2Bytecode {
     public static void NOT(BytecodeContext ctx) {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, m);
         ctx.mv.visitInsn(ICONST_M1);
         ctx.mv.visitInsn(IXOR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -1581,12 +1563,10 @@ public class Ow2Sh2Bytecode {
         ctx.mv.visitVarInsn(ISTORE, sIdx);
 
         //ctx.registers[n] -= ctx.registers[m];
-        pushRegRefStack(ctx, n);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, n);
         pushRegValStack(ctx, m);
         ctx.mv.visitInsn(add ? IADD : ISUB);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
 //        int r = ((ctx.registers[n] >> 31) & 1) + dest;
         pushRegValStack(ctx, n);
@@ -1677,28 +1657,25 @@ public class Ow2Sh2Bytecode {
         ctx.mv.visitInsn(ISHL);
         ctx.mv.visitVarInsn(ISTORE, temp1Idx);
 
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, m);
         emitPushConstToStack(ctx, 0xFF00);
         ctx.mv.visitInsn(IAND);
         emitPushConstToStack(ctx, 8);
         ctx.mv.visitInsn(ISHR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, n);
         ctx.mv.visitVarInsn(ILOAD, temp1Idx);
         ctx.mv.visitInsn(IOR);
         ctx.mv.visitVarInsn(ILOAD, temp0Idx);
         ctx.mv.visitInsn(IOR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void SWAPW(BytecodeContext ctx) {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
 
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, m);
         emitPushConstToStack(ctx, 16);
         ctx.mv.visitInsn(ISHL);
@@ -1708,7 +1685,7 @@ public class Ow2Sh2Bytecode {
         emitPushConstToStack(ctx, 0xFFFF);
         ctx.mv.visitInsn(IAND);
         ctx.mv.visitInsn(IOR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void TAS(BytecodeContext ctx) {
@@ -1797,7 +1774,6 @@ public class Ow2Sh2Bytecode {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
 
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, n);
         emitPushConstToStack(ctx, 0xffff0000);
         ctx.mv.visitInsn(IAND);
@@ -1809,7 +1785,7 @@ public class Ow2Sh2Bytecode {
         emitPushConstToStack(ctx, 16);
         ctx.mv.visitInsn(ISHL);
         ctx.mv.visitInsn(IOR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void fallback(BytecodeContext ctx) {
@@ -1823,40 +1799,41 @@ public class Ow2Sh2Bytecode {
         //if the delaySlot inst is a fallback the PC gets corrupted
         assert !ctx.delaySlot;
         setContextPcFallback(ctx);
-        ctx.mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Sh2Instructions.class), "instOpcodeMap",
-                Type.getDescriptor(Sh2Instructions.Sh2InstructionWrapper[].class));
+        ctx.regCache.flush(ctx);
+        ctx.mv.visitVarInsn(ALOAD, 0); //this
+        ctx.mv.visitFieldInsn(GETFIELD, ctx.classDesc, DRC_CLASS_FIELD.sh2DrcContext.name(),
+                Type.getDescriptor(Sh2DrcContext.class));
+        ctx.mv.visitFieldInsn(GETFIELD, Type.getInternalName(Sh2DrcContext.class),
+                SH2_DRC_CTX_CLASS_FIELD.opcodeMap.name(), Type.getDescriptor(Sh2Instructions.Sh2InstructionWrapper[].class));
         ctx.mv.visitLdcInsn(ctx.opcode);
         ctx.mv.visitInsn(AALOAD);
         ctx.mv.visitFieldInsn(GETFIELD, Type.getInternalName(Sh2Instructions.Sh2InstructionWrapper.class), "runnable",
                 Type.getDescriptor(Runnable.class));
         ctx.mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Runnable.class), "run", Ow2Sh2BlockRecompiler.noArgsNoRetDesc);
+        ctx.regCache.reloadAll(ctx);
     }
 
     public static void shiftConst(BytecodeContext ctx, int shiftBytecode, int shift) {
         assert shift == 2 || shift == 8 || shift == 16;
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, n);
         switch (shift) {
             case 2 -> ctx.mv.visitInsn(ICONST_2);
             case 8 -> ctx.mv.visitIntInsn(BIPUSH, 8);
             case 16 -> ctx.mv.visitIntInsn(BIPUSH, 16);
         }
         ctx.mv.visitInsn(shiftBytecode);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
     public static void opRegToReg(BytecodeContext ctx, int opBytecode) {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, n);
         pushRegValStack(ctx, m);
         ctx.mv.visitInsn(opBytecode);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -1865,12 +1842,10 @@ public class Ow2Sh2Bytecode {
     }
 
     public static void opRegImm(BytecodeContext ctx, int opBytecode, int reg, int i) {
-        pushRegRefStack(ctx, reg);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, reg);
         emitPushConstToStack(ctx, i);
         ctx.mv.visitInsn(opBytecode);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, reg);
 
     }
 
@@ -1899,9 +1874,8 @@ public class Ow2Sh2Bytecode {
     }
 
     public static void stsToReg(BytecodeContext ctx, String source) {
-        pushRegRefStack(ctx, RN(ctx.opcode));
         pushSh2ContextIntField(ctx, source);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, RN(ctx.opcode));
     }
 
     public static void stsMem(BytecodeContext ctx, String source) {
@@ -1936,12 +1910,10 @@ public class Ow2Sh2Bytecode {
         }
         popSh2ContextIntField(ctx, src);
 
-        pushRegRefStack(ctx, m);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, m);
         ctx.mv.visitInsn(ICONST_4);
         ctx.mv.visitInsn(IADD);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, m);
     }
 
 
@@ -1970,7 +1942,6 @@ public class Ow2Sh2Bytecode {
         ctx.mv.visitInsn(IOR);
         popSR(ctx);
 
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, n);
         emitPushConstToStack(ctx, 1);
         ctx.mv.visitInsn(left ? ISHL : IUSHR);
@@ -1978,7 +1949,7 @@ public class Ow2Sh2Bytecode {
         emitPushConstToStack(ctx, 31);
         ctx.mv.visitInsn(left ? IUSHR : ISHL);
         ctx.mv.visitInsn(IOR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
 
     }
@@ -2008,7 +1979,6 @@ public class Ow2Sh2Bytecode {
         ctx.mv.visitInsn(IAND);
         ctx.mv.visitVarInsn(ISTORE, highLowBit);
 
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, n);
         emitPushConstToStack(ctx, 1);
         ctx.mv.visitInsn(left ? ISHL : IUSHR);
@@ -2020,7 +1990,7 @@ public class Ow2Sh2Bytecode {
             ctx.mv.visitInsn(ISHL);
         }
         ctx.mv.visitInsn(IOR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
         // ctx.SR = (ctx.SR & ~flagT) | highLowBit;
         clearSrFlag(ctx, Sh2.flagT, false);
@@ -2054,11 +2024,10 @@ public class Ow2Sh2Bytecode {
         ctx.mv.visitInsn(IOR);
         popSR(ctx);
 
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, n);
         emitPushConstToStack(ctx, 1);
         ctx.mv.visitInsn(left ? ISHL : ISHR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -2087,12 +2056,10 @@ public class Ow2Sh2Bytecode {
         ctx.mv.visitInsn(IOR);
         popSR(ctx);
 
-        pushRegRefStack(ctx, n);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, n);
         emitPushConstToStack(ctx, 1);
         ctx.mv.visitInsn(left ? ISHL : IUSHR);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -2100,21 +2067,19 @@ public class Ow2Sh2Bytecode {
         assert size != Size.LONG;
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, m);
         emitCastIntToSize(ctx, size);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
     public static void extUnsigned(BytecodeContext ctx, Size size) {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
         pushRegValStack(ctx, m);
         ctx.mv.visitLdcInsn(size.getMask());
         ctx.mv.visitInsn(IAND);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -2122,12 +2087,11 @@ public class Ow2Sh2Bytecode {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
 
-        pushRegRefStack(ctx, n);
         pushMemory(ctx);
         pushRegValStack(ctx, m);
         readMem(ctx, size);
         emitCastIntToSize(ctx, size);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
 
     }
 
@@ -2135,14 +2099,13 @@ public class Ow2Sh2Bytecode {
         int d = ((ctx.opcode >> 0) & 0x0f);
         int n = size == Size.LONG ? RN(ctx.opcode) : 0;
         int m = RM(ctx.opcode);
-        pushRegRefStack(ctx, n);
         pushMemory(ctx);
         pushRegValStack(ctx, m);
         emitPushConstToStack(ctx, d << size.ordinal());
         ctx.mv.visitInsn(IADD);
         readMem(ctx, size);
         emitCastIntToSize(ctx, size);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void movRegToReg(BytecodeContext ctx, Size size) {
@@ -2181,13 +2144,12 @@ public class Ow2Sh2Bytecode {
     public static void movMemWithReg0ShiftToReg(BytecodeContext ctx, Size size) {
         int m = RM(ctx.opcode);
         int n = RN(ctx.opcode);
-        pushRegRefStack(ctx, n);
         pushMemory(ctx);
         pushTwoRegsValsStack(ctx, m, 0);
         ctx.mv.visitInsn(IADD);
         readMem(ctx, size);
         emitCastIntToSize(ctx, size);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void movMemWithPcOffsetToReg(BytecodeContext ctx, Size size) {
@@ -2202,12 +2164,11 @@ public class Ow2Sh2Bytecode {
             pcBase = ctx.branchPc + 2;
         }
         int memAddr = size == Size.WORD ? pcBase + (d << 1) : (pcBase & 0xfffffffc) + (d << 2);
-        pushRegRefStack(ctx, n);
         pushMemory(ctx);
         emitPushConstToStack(ctx, memAddr);
         readMem(ctx, size);
         emitCastIntToSize(ctx, size);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
     }
 
     public static void movRegPredecToMem(BytecodeContext ctx, Size size) {
@@ -2231,19 +2192,16 @@ public class Ow2Sh2Bytecode {
         int n = RN(ctx.opcode);
 
         int postIncVal = size.getByteSize();
-        pushRegRefStack(ctx, n);
         pushMemory(ctx);
         pushRegValStack(ctx, m);
         readMem(ctx, size);
         emitCastIntToSize(ctx, size);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, n);
         if (n != m) {
-            pushRegRefStack(ctx, m);
-            ctx.mv.visitInsn(DUP2);
-            ctx.mv.visitInsn(IALOAD);
+            pushRegValStack(ctx, m);
             emitPushConstToStack(ctx, postIncVal);
             ctx.mv.visitInsn(IADD);
-            ctx.mv.visitInsn(IASTORE);
+            popRegFromStack(ctx, m);
         }
 
     }
@@ -2252,14 +2210,13 @@ public class Ow2Sh2Bytecode {
         int d = ((ctx.opcode >> 0) & 0xff);
         //ctx.registers[0] = memory.read32(ctx.GBR + (d << n));
         int addVal = d << size.ordinal(); //{0,1,2}
-        pushRegRefStack(ctx, 0);
         pushMemory(ctx);
         pushSh2ContextIntField(ctx, GBR.name());
         emitPushConstToStack(ctx, addVal);
         ctx.mv.visitInsn(IADD);
         readMem(ctx, size);
         emitCastIntToSize(ctx, size);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, 0);
     }
 
     public static void movGBRShiftToReg0(BytecodeContext ctx, Size size) {
@@ -2275,6 +2232,7 @@ public class Ow2Sh2Bytecode {
     }
 
     public static void writeMem(BytecodeContext ctx, Size size) {
+        ctx.regCache.flush(ctx);
         ctx.mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Size.class), size.name(), Type.getDescriptor(Size.class));
         int invoke = Sh2BlockRecompiler.memoryClass.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL;
         ctx.mv.visitMethodInsn(invoke, Type.getInternalName(Sh2BusImpl.class), SH2MEMORY_METHOD.write.name(),
@@ -2282,6 +2240,7 @@ public class Ow2Sh2Bytecode {
     }
 
     public static void readMem(BytecodeContext ctx, Size size) {
+        ctx.regCache.flush(ctx);
         ctx.mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Size.class), size.name(), Type.getDescriptor(Size.class));
         int invoke = Sh2BlockRecompiler.memoryClass.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL;
         ctx.mv.visitMethodInsn(invoke, Type.getInternalName(Sh2BusImpl.class), SH2MEMORY_METHOD.read.name(),
@@ -2294,12 +2253,10 @@ public class Ow2Sh2Bytecode {
      * }
      */
     public static void decReg(BytecodeContext ctx, int reg, int val) {
-        pushRegRefStack(ctx, reg);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        pushRegValStack(ctx, reg);
         emitPushConstToStack(ctx, val);
         ctx.mv.visitInsn(ISUB);
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, reg);
     }
 
     public static void pushTwoRegsValsStack(BytecodeContext ctx, int reg1, int reg2) {
@@ -2318,18 +2275,23 @@ public class Ow2Sh2Bytecode {
     }
 
     public static void pushRegValStack(BytecodeContext ctx, int reg) {
-        pushRegRefStack(ctx, reg);
-        ctx.mv.visitInsn(IALOAD);
+        ctx.regCache.pushRegVal(ctx, reg);
+    }
+
+    /**
+     * Pops the value on top of the stack into the register
+     */
+    public static void popRegFromStack(BytecodeContext ctx, int reg) {
+        ctx.regCache.popRegVal(ctx, reg);
     }
 
 
     public static void storeToReg(BytecodeContext ctx, int reg, int val, Size size) {
-        pushRegRefStack(ctx, reg);
         switch (size) {
             case BYTE -> ctx.mv.visitIntInsn(BIPUSH, val);
             case WORD, LONG -> ctx.mv.visitLdcInsn(val);
         }
-        ctx.mv.visitInsn(IASTORE);
+        popRegFromStack(ctx, reg);
     }
 
     //store the long at varIndex to MACH, MACL
@@ -29,7 +29,7 @@ public class Ow2Sh2Helper {
 
     public enum SH2CTX_CLASS_FIELD {PC, PR, SR, GBR, VBR, MACH, MACL, delaySlot, cycles, devices}
 
-    public enum SH2_DRC_CTX_CLASS_FIELD {sh2Ctx, memory}
+    public enum SH2_DRC_CTX_CLASS_FIELD {sh2Ctx, memory, opcodeMap}
 
     public enum SH2_DEVICE_CTX_CLASS_FIELD {sh2MMREG}
 
@@ -200,8 +200,7 @@ public class Ow2Sh2Helper {
 
     public static void printRegValue(Sh2Prefetch.BytecodeContext ctx, int reg) {
         ctx.mv.visitFieldInsn(GETSTATIC, Type.getInternalName(System.class), "out", Type.getDescriptor(PrintStream.class));
-        Ow2Sh2Bytecode.pushRegRefStack(ctx, reg);
-        ctx.mv.visitInsn(IALOAD);
+        Ow2Sh2Bytecode.pushRegValStack(ctx, reg);
         ctx.mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(PrintStream.class), "println",
                 Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(int.class)));
     }
@@ -273,12 +272,10 @@ public class Ow2Sh2Helper {
         Ow2Sh2Bytecode.pushRegValStack(ctx, 15);
         Ow2Sh2Bytecode.readMem(ctx, Size.LONG);
         ctx.mv.visitVarInsn(ISTORE, resIdx);
-        Ow2Sh2Bytecode.pushRegRefStack(ctx, 15);
-        ctx.mv.visitInsn(DUP2);
-        ctx.mv.visitInsn(IALOAD);
+        Ow2Sh2Bytecode.pushRegValStack(ctx, 15);
         ctx.mv.visitInsn(ICONST_4);
         ctx.mv.visitInsn(IADD);
-        ctx.mv.visitInsn(IASTORE);
+        Ow2Sh2Bytecode.popRegFromStack(ctx, 15);
         ctx.mv.visitVarInsn(ILOAD, resIdx);
     }
 
@@ -287,6 +284,7 @@ public class Ow2Sh2Helper {
         if (!Ow2Sh2Bytecode.addPrintStuff) {
             return;
         }
+        ctx.regCache.flush(ctx);
         ctx.mv.visitFieldInsn(GETSTATIC, Type.getInternalName(System.class), "out", Type.getDescriptor(PrintStream.class));
         ctx.mv.visitVarInsn(ALOAD, 0); // push `this`
         ctx.mv.visitFieldInsn(GETFIELD, ctx.classDesc, name, fieldDesc);
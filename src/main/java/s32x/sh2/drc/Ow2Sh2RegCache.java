@@ -0,0 +1,108 @@
+package s32x.sh2.drc;
+
+import org.objectweb.asm.Type;
+import s32x.sh2.prefetch.Sh2Prefetch.BytecodeContext;
+
+import java.util.Arrays;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Ow2Sh2RegCache
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Keeps the Sh2 registers used by a block in JVM locals, the registers are loaded from Sh2Context::registers
+ * when the block starts and the ones written by the block are stored back before anything outside the block
+ * can look at them: memory accesses, interpreter fallbacks and the end of the block.
+ * A register is dirty once it has been written anywhere in the block, a flush within a conditional path
+ * can't clear it.
+ */
+public class Ow2Sh2RegCache {
+
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("helios.32x.sh2.drc.regCache", "true"));
+
+    private final int[] regLocals = new int[16];
+    private int dirtyMask;
+
+    public Ow2Sh2RegCache() {
+        Arrays.fill(regLocals, -1);
+    }
+
+    /**
+     * Allocates a local for every register the block might touch and loads it from the registers array
+     */
+    public void loadAll(BytecodeContext ctx, Sh2Block block) {
+        if (!ENABLED) {
+            return;
+        }
+        int mask = 1 | (1 << 15);
+        for (int i = 0; i < block.prefetchLenWords; i++) {
+            int opcode = block.prefetchWords[i];
+            mask |= (1 << ((opcode >> 8) & 0xF)) | (1 << ((opcode >> 4) & 0xF));
+        }
+        for (int reg = 0; reg < regLocals.length; reg++) {
+            if ((mask & (1 << reg)) > 0) {
+                regLocals[reg] = ctx.mv.newLocal(Type.INT_TYPE);
+            }
+        }
+        reloadAll(ctx);
+    }
+
+    /**
+     * Reads again all the cached registers, the registers array might have been modified by the interpreter
+     */
+    public void reloadAll(BytecodeContext ctx) {
+        for (int reg = 0; reg < regLocals.length; reg++) {
+            if (regLocals[reg] >= 0) {
+                Ow2Sh2Bytecode.pushRegRefStack(ctx, reg);
+                ctx.mv.visitInsn(IALOAD);
+                ctx.mv.visitVarInsn(ISTORE, regLocals[reg]);
+            }
+        }
+    }
+
+    /**
+     * Stores the dirty registers to the registers array, doesn't touch the stack
+     */
+    public void flush(BytecodeContext ctx) {
+        for (int reg = 0; reg < regLocals.length; reg++) {
+            if ((dirtyMask & (1 << reg)) > 0) {
+                Ow2Sh2Bytecode.pushRegRefStack(ctx, reg);
+                ctx.mv.visitVarInsn(ILOAD, regLocals[reg]);
+                ctx.mv.visitInsn(IASTORE);
+            }
+        }
+    }
+
+    public boolean isCached(int reg) {
+        return regLocals[reg] >= 0;
+    }
+
+    public void pushRegVal(BytecodeContext ctx, int reg) {
+        if (isCached(reg)) {
+            ctx.mv.visitVarInsn(ILOAD, regLocals[reg]);
+            return;
+        }
+        Ow2Sh2Bytecode.pushRegRefStack(ctx, reg);
+        ctx.mv.visitInsn(IALOAD);
+    }
+
+    /**
+     * Pops the value on top of the stack into the register
+     */
+    public void popRegVal(BytecodeContext ctx, int reg) {
+        if (isCached(reg)) {
+            ctx.mv.visitVarInsn(ISTORE, regLocals[reg]);
+            dirtyMask |= 1 << reg;
+            return;
+        }
+        Ow2Sh2Bytecode.pushRegRefStack(ctx, reg);
+        ctx.mv.visitInsn(DUP2_X1);
+        ctx.mv.visitInsn(POP2);
+        ctx.mv.visitInsn(IASTORE);
+    }
+}
@@ -2,7 +2,6 @@ package s32x.sh2.drc;
 
 import omegadrive.util.BufferUtil;
 import omegadrive.util.LogHelper;
-import omegadrive.util.MdRuntimeData;
 import org.slf4j.Logger;
 import s32x.Sh2MMREG;
 import s32x.sh2.Sh2;
@@ -50,11 +49,24 @@ public class Sh2Block {
     public int prefetchPc, hits, start, end, pcMasked, prefetchLenWords, fetchMemAccessDelay, cyclesConsumed;
     public ByteBuffer fetchBuffer;
     public Sh2Block nextBlock = INVALID_BLOCK;
+    //static successors: fall-through and fixed branch target, -1 when not known at decode time
+    public int fallThroughPc = -1, branchTargetPc = -1;
+    public Sh2Block fallThroughBlock = INVALID_BLOCK, branchTargetBlock = INVALID_BLOCK;
     public Sh2Prefetch.Sh2DrcContext drcContext;
     public PollerCtx poller = UNKNOWN_POLLER;
     public int blockFlags;
     public PollType pollType = PollType.UNKNOWN;
     public Runnable stage2Drc;
+    //background compilation, see Sh2BlockRecompiler.ASYNC_COMPILE
+    private static final Runnable DRC_FAILED = () -> {
+    };
+    //a block invalidated at every run never gets its class, compile it inline after this many drops
+    private static final int MAX_COMPILE_DROPPED = 2;
+    private volatile Runnable stage2DrcAsync;
+    private boolean compileQueued, compileFailed, pollDetected;
+    private int invalidateCount, compileInvalidateCount, compileDropped;
+    //see Sh2DrcBlockCache
+    boolean drcUsed, drcEvicted;
     public int hashCodeWords;
     private static final boolean verbose = false;
 
@@ -72,7 +84,11 @@ public class Sh2Block {
     public final void runBlock(Sh2 sh2, Sh2MMREG sm) {
         assert prefetchPc != -1;
         assert (blockFlags & VALID_FLAG) > 0;
+        if (compileQueued) {
+            publishStage2Drc();
+        }
         if (stage2Drc != null) {
+            drcUsed = true;
             stage2Drc.run();
             if (drcContext.sh2Ctx.debug) {
                 Sh2Debug.drcDebug(getCpu(), prefetchPc);
@@ -94,19 +110,25 @@ public class Sh2Block {
             }
             curr = curr.next;
         } while (true);
-        cyclesConsumed = (startCycle - ctx.cycles) + MdRuntimeData.getCpuDelayExt();
+        cyclesConsumed = (startCycle - ctx.cycles) + drcContext.rt.getCpuDelay();
         curr = prev;
     }
 
     public void addHit() {
         hits++;
-        if (stage2Drc == null && ((hits + 1) & OPT_THRESHOLD2) == 0) {
+        if (stage2Drc == null && !compileQueued && !compileFailed && ((hits + 1) & OPT_THRESHOLD2) == 0) {
             assert inst != null;
             if (verbose) LOG.info("{} HRC2 count: {}\n{}", "", th(hits), Sh2Helper.toListOfInst(this));
             stage2();
-            if (Sh2Config.get().pollDetectEn) {
-                Sh2DrcBlockOptimizer.pollDetector(this);
-            }
+            //evicted blocks and blocks compiled again have been checked already
+            pollDetectMaybe();
+        }
+    }
+
+    private void pollDetectMaybe() {
+        if (Sh2Config.get().pollDetectEn && !pollDetected) {
+            pollDetected = true;
+            Sh2DrcBlockOptimizer.pollDetector(this);
         }
     }
 
@@ -124,6 +146,7 @@ public class Sh2Block {
         Sh2Prefetcher.Sh2BlockUnit sbu = inst[lastIdx];
         sbu.pc = prefetchPc + (lastIdx << 1);
         curr = inst[0];
+        setStaticSuccessors();
         assert sbu.pc != 0;
         //TODO fix prefetch
         assert inst.length >= (MAX_INST_LEN - 1) ||
@@ -132,11 +155,115 @@ public class Sh2Block {
                 th(sbu.pc) + "," + inst.length + "\n" + this;
     }
 
+    private void setStaticSuccessors() {
+        final int endPc = prefetchPc + (inst.length << 1);
+        if (isNoJump()) {
+            fallThroughPc = endPc;
+            return;
+        }
+        for (Sh2Prefetcher.Sh2BlockUnit sbu : inst) {
+            if (!sbu.inst.isBranch()) {
+                continue;
+            }
+            switch (sbu.opcode & 0xF000) {
+                case 0x8000 -> { //BT, BF, BT/S, BF/S
+                    branchTargetPc = getBranchDestination(sbu.opcode, sbu.pc);
+                    fallThroughPc = endPc;
+                }
+                //BRA, BSR: 12 bit signed displacement, getBranchDestination is also used by the poll detection
+                //and only handles BRA
+                case 0xA000, 0xB000 -> branchTargetPc = sbu.pc + 4 + (((sbu.opcode << 20) >> 20) << 1);
+            }
+            break;
+        }
+    }
+
+    /**
+     * Links this block to the block starting at pc, if pc is a static successor
+     */
+    public void link(int pc, Sh2Block next) {
+        if (pc == fallThroughPc) {
+            fallThroughBlock = next;
+        } else if (pc == branchTargetPc) {
+            branchTargetBlock = next;
+        }
+    }
+
+    /**
+     * @return the linked block starting at pc, INVALID_BLOCK if none or if the link is stale.
+     * An invalid block has an odd prefetchPc, the pc check doubles as the validity guard.
+     */
+    public Sh2Block getLinkedBlock(int pc) {
+        if (fallThroughBlock.prefetchPc == pc) {
+            return fallThroughBlock;
+        } else if (branchTargetBlock.prefetchPc == pc) {
+            return branchTargetBlock;
+        }
+        return INVALID_BLOCK;
+    }
+
     public void stage2() {
         if (Sh2Config.get().drcEn) {
             assert drcContext != null;
-            stage2Drc = Sh2BlockRecompiler.getInstance().createDrcClass(this, drcContext);
+            if (Sh2BlockRecompiler.ASYNC_COMPILE && compileDropped < MAX_COMPILE_DROPPED) {
+                stage2Async();
+                return;
+            }
+            setStage2Drc(Sh2BlockRecompiler.getInstance().createDrcClass(this, drcContext));
+        }
+    }
+
+    /**
+     * Uses a class from the persistent code cache, skipping the interpreter warm-up
+     */
+    public void stage2(Runnable drc) {
+        assert stage2Drc == null;
+        setStage2Drc(drc);
+        pollDetectMaybe();
+    }
+
+    private void stage2Async() {
+        assert !compileQueued;
+        compileQueued = true;
+        compileInvalidateCount = invalidateCount;
+        Sh2BlockRecompiler.getInstance().createDrcClassAsync(this, drcContext,
+                r -> stage2DrcAsync = r == null ? DRC_FAILED : r);
+    }
+
+    //emulation thread, picks up the compiled class if it is ready.
+    private void publishStage2Drc() {
+        Runnable r = stage2DrcAsync;
+        if (r == null) {
+            return;
         }
+        stage2DrcAsync = null;
+        compileQueued = false;
+        if (r == DRC_FAILED) {
+            //the block keeps running in the interpreter
+            compileFailed = true;
+            return;
+        }
+        //drop it if the block has been invalidated while compiling, it will be queued again once hot
+        if (compileInvalidateCount != invalidateCount) {
+            compileDropped++;
+            return;
+        }
+        setStage2Drc(r);
+    }
+
+    private void setStage2Drc(Runnable r) {
+        stage2Drc = r;
+        Sh2BlockRecompiler.getInstance().getBlockCache().add(this);
+    }
+
+    /**
+     * Drops the compiled class, the block goes back to the interpreter until it gets hot again
+     */
+    void evictDrc() {
+        assert stage2Drc != null;
+        stage2Drc = null;
+        drcEvicted = true;
+        drcUsed = false;
     }
 
     public boolean isPollingBlock() {
@@ -169,6 +296,8 @@ public class Sh2Block {
     }
 
     public void invalidate() {
+        invalidateCount++;
+        nextBlock = fallThroughBlock = branchTargetBlock = INVALID_BLOCK;
         blockFlags &= ~VALID_FLAG;
         prefetchPc |= 1;
     }
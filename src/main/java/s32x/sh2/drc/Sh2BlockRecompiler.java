@@ -2,6 +2,8 @@ package s32x.sh2.drc;
 
 import omegadrive.util.FileUtil;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
+import omegadrive.util.PriorityThreadFactory;
 import omegadrive.util.Util;
 import org.slf4j.Logger;
 import s32x.bus.Sh2Bus;
@@ -10,10 +12,14 @@ import s32x.sh2.prefetch.Sh2Prefetch.BytecodeContext;
 import s32x.sh2.prefetch.Sh2Prefetch.Sh2DrcContext;
 import s32x.sh2.prefetch.Sh2Prefetcher.Sh2BlockUnit;
 
+import java.lang.invoke.MethodHandles;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static omegadrive.util.Util.th;
 
@@ -28,7 +34,14 @@ public class Sh2BlockRecompiler {
     private static final Path drcFolder = Paths.get("./res/drc_" + System.currentTimeMillis());
     private final static boolean writeClass = false;
 
-    private final OwnClassLoader cl = new OwnClassLoader();
+    //compile on a background thread, the block keeps running in the interpreter until the class is ready
+    public static final boolean ASYNC_COMPILE =
+            Boolean.parseBoolean(System.getProperty("helios.32x.sh2.drc.async", "false"));
+    private static final ExecutorService compileExecutor = ASYNC_COMPILE ?
+            Executors.newSingleThreadExecutor(new PriorityThreadFactory(Thread.NORM_PRIORITY, "sh2Drc")) : null;
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private final Sh2DrcBlockCache blockCache = new Sh2DrcBlockCache();
 
     public static final String drcPackage = Sh2BlockRecompiler.class.getPackageName();
 
@@ -36,7 +49,6 @@ public class Sh2BlockRecompiler {
     //should be faster
     public static Class<?> memoryClass;
 
-    private static Sh2BlockRecompiler current = null;
     private String token;
     private InternalSh2BlockRecompiler recompiler;
 
@@ -46,23 +58,18 @@ public class Sh2BlockRecompiler {
         void printSource(Path file, byte[] code);
     }
 
-    public static class OwnClassLoader extends ClassLoader {
-        public Class<?> defineClass(String name, byte[] b) {
-            return defineClass(name, b, 0, b.length);
-        }
-    }
-
     /**
-     * There is no easy way of releasing/removing a classLoader,
-     * GC should take care of it.
+     * Blocks are defined as hidden classes, each class can be unloaded as soon as its block is gone.
      */
     public static Sh2BlockRecompiler newInstance(String token) {
+        final MdRuntimeData rt = MdRuntimeData.current();
+        Sh2BlockRecompiler current = rt.sh2Recompiler;
         boolean firstOne = current == null;
         boolean newOne = firstOne || Objects.equals(current.token, token);
         if (newOne) {
             Sh2BlockRecompiler newrec = new Sh2BlockRecompiler();
             newrec.token = token;
-            current = newrec;
+            current = rt.sh2Recompiler = newrec;
             LOG.info("New recompiler: {}, with token: {}", newrec.recompiler.getClass().getName(), token);
         }
         return current;
@@ -73,23 +80,28 @@ public class Sh2BlockRecompiler {
     }
 
     public static Sh2BlockRecompiler getInstance() {
-        assert current != null;
+        Sh2BlockRecompiler current = MdRuntimeData.current().sh2Recompiler;
+        //drc enabled after the sh2 has been created
+        if (current == null) {
+            current = newInstance(String.valueOf(System.currentTimeMillis()));
+        }
         return current;
     }
 
     public Runnable createDrcClass(Sh2Block block, Sh2DrcContext drcCtx) {
+        //hidden classes, the name doesn't need to be unique
         String blockClass = drcPackage + "." + drcCtx.sh2Ctx.sh2ShortCode + "_" + th(block.prefetchPc)
-                + "_" + th(block.hashCodeWords) + "_" + System.nanoTime();
+                + "_" + th(block.hashCodeWords);
         memoryClass = drcCtx.memory instanceof Sh2BusImpl ? Sh2BusImpl.class : Sh2Bus.class;
         Runnable r;
         try {
             byte[] binc = recompiler.createClassBinary(block, drcCtx, blockClass, memoryClass);
             writeClassMaybe(blockClass, binc);
-            Class<?> clazz = cl.defineClass(blockClass, binc);
-            Object b = clazz.getDeclaredConstructor(int[].class, int[].class, Sh2DrcContext.class).
-                    newInstance(drcCtx.sh2Ctx.registers, block.prefetchWords, drcCtx);
-            assert b instanceof Runnable;
-            r = (Runnable) b;
+            Class<?> clazz = defineBlockClass(binc);
+            r = newBlockInstance(clazz, block, drcCtx);
+            if (drcCtx.codeCache != null) {
+                drcCtx.codeCache.store(block, blockClass, binc);
+            }
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Fatal! ," + blockClass);
@@ -97,6 +109,42 @@ public class Sh2BlockRecompiler {
         return r;
     }
 
+    static Class<?> defineBlockClass(byte[] code) throws IllegalAccessException {
+        return lookup.defineHiddenClass(code, true).lookupClass();
+    }
+
+    public Sh2DrcBlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    static Runnable newBlockInstance(Class<?> clazz, Sh2Block block, Sh2DrcContext drcCtx) {
+        try {
+            Object b = clazz.getDeclaredConstructor(int[].class, int[].class, Sh2DrcContext.class).
+                    newInstance(drcCtx.sh2Ctx.registers, block.prefetchWords, drcCtx);
+            assert b instanceof Runnable;
+            return (Runnable) b;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(clazz.getName(), e);
+        }
+    }
+
+    /**
+     * The class is created on the compiler thread, onDone runs on that thread and receives null
+     * when the compilation fails.
+     */
+    public void createDrcClassAsync(Sh2Block block, Sh2DrcContext drcCtx, Consumer<Runnable> onDone) {
+        assert ASYNC_COMPILE;
+        compileExecutor.execute(() -> {
+            Runnable r = null;
+            try {
+                r = createDrcClass(block, drcCtx);
+            } catch (Exception | Error e) {
+                LOG.error("{} unable to compile block at pc {}", drcCtx.cpu, th(block.prefetchPc), e);
+            }
+            onDone.accept(r);
+        });
+    }
+
     public static void setDrcContext(BytecodeContext ctx, Sh2BlockUnit sbu, boolean delaySlot) {
         ctx.opcode = sbu.opcode;
         ctx.pc = sbu.pc;
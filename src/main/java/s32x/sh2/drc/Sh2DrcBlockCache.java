@@ -0,0 +1,88 @@
+package s32x.sh2.drc;
+
+import omegadrive.util.LogHelper;
+import org.slf4j.Logger;
+
+import java.util.StringJoiner;
+
+/**
+ * Sh2DrcBlockCache
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Bounds the number of blocks holding a compiled class, an evicted block goes back to the interpreter
+ * and its hidden class can be unloaded.
+ * LRU is approximated with a clock: running a compiled block sets its used bit, the eviction hand
+ * clears the bit and evicts the first block found without it.
+ */
+public class Sh2DrcBlockCache {
+
+    private final static Logger LOG = LogHelper.getLogger(Sh2DrcBlockCache.class.getSimpleName());
+
+    public static final int MAX_BLOCKS = Integer.parseInt(System.getProperty("helios.32x.sh2.drc.maxBlocks", "8192"));
+
+    private final Sh2Block[] blocks;
+    private int hand, live;
+    private long compiled, evicted, recompiled;
+
+    public Sh2DrcBlockCache() {
+        this(MAX_BLOCKS);
+    }
+
+    Sh2DrcBlockCache(int maxBlocks) {
+        assert maxBlocks > 0;
+        blocks = new Sh2Block[maxBlocks];
+    }
+
+    /**
+     * The block has just been given a compiled class, evicts another block when full
+     */
+    public void add(Sh2Block block) {
+        compiled++;
+        if (block.drcEvicted) {
+            recompiled++;
+        }
+        block.drcUsed = true;
+        if (live < blocks.length) {
+            blocks[live++] = block;
+            return;
+        }
+        if (evicted == 0) {
+            LOG.info("Drc block cache full, evicting: {}", this);
+        }
+        Sh2Block b;
+        while ((b = blocks[hand]).drcUsed) {
+            b.drcUsed = false;
+            hand = (hand + 1) % blocks.length;
+        }
+        b.evictDrc();
+        evicted++;
+        blocks[hand] = block;
+        hand = (hand + 1) % blocks.length;
+    }
+
+    public int getLiveBlocks() {
+        return live;
+    }
+
+    public long getEvictedBlocks() {
+        return evicted;
+    }
+
+    public long getRecompiledBlocks() {
+        return recompiled;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", Sh2DrcBlockCache.class.getSimpleName() + "[", "]")
+                .add("max=" + blocks.length)
+                .add("live=" + live)
+                .add("compiled=" + compiled)
+                .add("evicted=" + evicted)
+                .add("recompiled=" + recompiled)
+                .toString();
+    }
+}
@@ -291,7 +291,7 @@ public class Sh2DrcBlockOptimizer {
 
 
     public static void pollDetector(Sh2Block block) {
-        Sh2Helper.Sh2PcInfoWrapper piw = Sh2Helper.get(block.prefetchPc, block.drcContext.cpu);
+        Sh2Helper.Sh2PcInfoWrapper piw = Sh2Helper.get(block.drcContext.rt, block.prefetchPc, block.drcContext.cpu);
         if (piw.block.poller != UNKNOWN_POLLER) {
             PollerCtx ctx = piw.block.poller;
             Sh2Block prevBlock = piw.block;
@@ -326,7 +326,7 @@ public class Sh2DrcBlockOptimizer {
         }
     }
 
-    private static int getBranchDestination(int jmpOpcode, int jmpPc) {
+    static int getBranchDestination(int jmpOpcode, int jmpPc) {
         int branchDest = 0;
         if ((jmpOpcode & 0xF000) == 0x8000) { //BT, BF, BTS, BFS
             int d = (byte) (jmpOpcode & 0xFF) << 1;
@@ -457,21 +457,22 @@ public class Sh2DrcBlockOptimizer {
 
     public final static void handlePoll(Sh2Block block) {
         final BufferUtil.CpuDeviceAccess cpu = block.getCpu();
+        final PollSysEventManager sem = block.drcContext.rt.sysEventManager;
         if (!block.isPollingBlock()) {
-            final PollerCtx current = PollSysEventManager.instance.getPoller(cpu);
+            final PollerCtx current = sem.getPoller(cpu);
             assert current != UNKNOWN_POLLER;
             if (current != NO_POLLER && block.pollType == BUSY_LOOP) { //TODO check
-                PollSysEventManager.instance.resetPoller(current.cpu);
+                sem.resetPoller(current.cpu);
             }
             return;
         }
-        final PollerCtx currentPoller = PollSysEventManager.instance.getPoller(cpu);
+        final PollerCtx currentPoller = sem.getPoller(cpu);
         final PollerCtx blockPoller = block.poller;
-        assert blockPoller == Sh2Helper.get(block.prefetchPc, cpu).block.poller;
+        assert blockPoller == Sh2Helper.get(block.drcContext.rt, block.prefetchPc, cpu).block.poller;
         if (currentPoller == NO_POLLER) {
             assert blockPoller != UNKNOWN_POLLER;
             if (blockPoller != NO_POLLER) {
-                PollSysEventManager.instance.setPoller(cpu, blockPoller);
+                sem.setPoller(cpu, blockPoller);
             } else {
                 //tempo, DMA polling not supported
                 assert ENABLE_POLL_DETECT ? !block.pollType.supported : true : block + "\n" + blockPoller;
@@ -480,7 +481,7 @@ public class Sh2DrcBlockOptimizer {
             }
         } else if (!currentPoller.isPollingActive()) {
             if (blockPoller != currentPoller) {
-                PollSysEventManager.instance.resetPoller(cpu);
+                sem.resetPoller(cpu);
                 return;
             }
             startPollingMaybe(blockPoller, block.pollType);
@@ -513,7 +514,7 @@ public class Sh2DrcBlockOptimizer {
         if (verbose)
             LOG.info("{} entering {} poll at PC {}, on address: {}, currentVal: {}", blockPoller.cpu, pollType,
                     th(blockPoller.pc), th(blockPoller.blockPollData.memLoadTarget), th(blockPoller.pollValue));
-        PollSysEventManager.instance.fireSysEvent(blockPoller.cpu, PollSysEventManager.SysEvent.START_POLLING);
+        PollSysEventManager.get().fireSysEvent(blockPoller.cpu, PollSysEventManager.SysEvent.START_POLLING);
     }
 
     private static boolean checkPollValueStable(PollerCtx blockPoller, PollType pollType) {
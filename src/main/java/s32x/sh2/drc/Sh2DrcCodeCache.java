@@ -0,0 +1,234 @@
+package s32x.sh2.drc;
+
+import omegadrive.util.BufferUtil.CpuDeviceAccess;
+import omegadrive.util.LogHelper;
+import omegadrive.util.Util;
+import org.slf4j.Logger;
+import s32x.sh2.Sh2Helper.Sh2Config;
+import s32x.sh2.prefetch.Sh2Prefetch.Sh2DrcContext;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static omegadrive.util.Util.th;
+
+/**
+ * Sh2DrcCodeCache
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Persistent cache of the recompiled Sh2 blocks, one file per rom, Sh2Config and recompiler version.
+ * Classes are appended to the file as they are created and defined again when the next run opens the cache,
+ * a new block picks up the cached class only if the words fetched from memory match the ones the class
+ * was compiled from.
+ */
+public class Sh2DrcCodeCache {
+
+    private final static Logger LOG = LogHelper.getLogger(Sh2DrcCodeCache.class.getSimpleName());
+
+    public static final String CACHE_FOLDER = System.getProperty("helios.32x.sh2.drc.cache.folder", "");
+    public static final boolean ENABLED = !CACHE_FOLDER.isEmpty();
+
+    //bump when the generated code changes
+    static final int RECOMPILER_VERSION = 3;
+    private static final int MAGIC = 0x48333244; //H32D
+    private static final int MAX_CODE_LEN = 1 << 20;
+    private static final long MAX_FILE_LEN = 1 << 30;
+
+    record Key(int cpu, int pc, int hashCodeWords) {
+        static Key of(Sh2Block block) {
+            return new Key(block.getCpu().ordinal(), block.prefetchPc, block.hashCodeWords);
+        }
+    }
+
+    record Entry(Key key, int[] words, String className, byte[] code) {
+    }
+
+    private final Path file;
+    private final Map<Key, Class<?>> classes = new HashMap<>();
+    private final Map<Key, int[]> classWords = new HashMap<>();
+    private final Set<Key> stored = new HashSet<>();
+
+    public static Sh2DrcCodeCache createInstance(ByteBuffer rom, Class<?> memoryClass) {
+        byte[] romData = new byte[rom.capacity()];
+        rom.get(0, romData);
+        String configKey = Sh2Config.get() + "," + memoryClass.getName() + "," + Ow2Sh2RegCache.ENABLED;
+        String name = Util.computeSha1Sum(romData) + "_" + Integer.toHexString(configKey.hashCode())
+                + "_v" + RECOMPILER_VERSION + ".drc";
+        return new Sh2DrcCodeCache(Paths.get(CACHE_FOLDER, name));
+    }
+
+    Sh2DrcCodeCache(Path file) {
+        this.file = file;
+        List<Entry> l = load(file);
+        for (Entry e : l) {
+            if (classes.containsKey(e.key)) {
+                continue;
+            }
+            try {
+                classes.put(e.key, Sh2BlockRecompiler.defineBlockClass(e.code));
+                classWords.put(e.key, e.words);
+                stored.add(e.key);
+            } catch (Throwable t) {
+                LOG.error("Unable to define class: {}", e.className, t);
+            }
+        }
+        LOG.info("Drc code cache: {}, classes: {}", file.toAbsolutePath(), classes.size());
+    }
+
+    /**
+     * @return the cached block class, null if none matches the block words
+     */
+    public Runnable getDrcClass(Sh2Block block, Sh2DrcContext drcCtx) {
+        Key key = Key.of(block);
+        Class<?> clazz = classes.get(key);
+        if (clazz == null || !Arrays.equals(classWords.get(key), block.prefetchWords)) {
+            return null;
+        }
+        return Sh2BlockRecompiler.newBlockInstance(clazz, block, drcCtx);
+    }
+
+    /**
+     * Appends the class to the cache file, can be called by the compiler thread
+     */
+    public synchronized void store(Sh2Block block, String className, byte[] code) {
+        Key key = Key.of(block);
+        if (!stored.add(key)) {
+            return;
+        }
+        Entry e = new Entry(key, block.prefetchWords.clone(), className, code);
+        Util.executorService.submit(() -> append(file, e));
+    }
+
+    /**
+     * Loads the entries, a truncated entry at the end is cut off the file so that the next ones are
+     * appended after the last good entry. A corrupted file is deleted and rebuilt by the next run.
+     */
+    static List<Entry> load(Path file) {
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+        List<Entry> l = new ArrayList<>();
+        synchronized (Sh2DrcCodeCache.class) {
+            try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock lock = fc.lock()) {
+                long size = fc.size();
+                if (size > MAX_FILE_LEN) {
+                    throw new IOException("File too big: " + size);
+                }
+                ByteBuffer data = ByteBuffer.allocate((int) size);
+                while (data.hasRemaining()) {
+                    if (fc.read(data, data.position()) < 0) {
+                        break;
+                    }
+                }
+                long good = readEntries(data.array(), l);
+                if (good < 0) {
+                    LOG.warn("Ignoring drc code cache: {}", file.toAbsolutePath());
+                    l.clear();
+                    fc.truncate(0);
+                } else if (good < size) {
+                    //the previous run has been killed while writing
+                    LOG.warn("Truncated drc code cache: {}, entries: {}", file.toAbsolutePath(), l.size());
+                    fc.truncate(good);
+                }
+            } catch (Exception | OutOfMemoryError e) {
+                LOG.error("Unable to load drc code cache: {}, deleting it", file.toAbsolutePath(), e);
+                l.clear();
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ex) {
+                    LOG.error("Unable to delete drc code cache: {}", file.toAbsolutePath(), ex);
+                }
+            }
+        }
+        return l;
+    }
+
+    /**
+     * @return the length of the good entries, -1 if the header does not match
+     * @throws IOException if an entry is corrupted
+     */
+    private static long readEntries(byte[] data, List<Entry> l) throws IOException {
+        ByteArrayInputStream bais = new ByteArrayInputStream(data);
+        DataInputStream dis = new DataInputStream(bais);
+        long good = 0;
+        try {
+            if (dis.readInt() != MAGIC || dis.readInt() != RECOMPILER_VERSION) {
+                return -1;
+            }
+            good = data.length - bais.available();
+            while (bais.available() > 0) {
+                Key key = new Key(dis.readByte(), dis.readInt(), dis.readInt());
+                int len = dis.readUnsignedShort();
+                if (key.cpu < 0 || key.cpu >= CpuDeviceAccess.cdaValues.length || len > Sh2Block.MAX_INST_LEN) {
+                    throw new IOException("Invalid entry at: " + good);
+                }
+                int[] words = new int[len];
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = dis.readUnsignedShort();
+                }
+                String className = dis.readUTF();
+                len = dis.readInt();
+                if (len < 0 || len > MAX_CODE_LEN) {
+                    throw new IOException("Invalid code length: " + len + " at: " + good);
+                }
+                byte[] code = new byte[len];
+                dis.readFully(code);
+                l.add(new Entry(key, words, className, code));
+                good = data.length - bais.available();
+            }
+        } catch (EOFException e) {
+            //truncated entry, keep the previous ones
+        }
+        return good;
+    }
+
+    /**
+     * The file lock keeps the entries of several processes sharing the cache from interleaving,
+     * the monitor does the same for several systems running in this jvm as the lock is held per jvm.
+     */
+    static void append(Path file, Entry e) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(e.code.length + 64);
+        synchronized (Sh2DrcCodeCache.class) {
+            try (DataOutputStream dos = new DataOutputStream(baos)) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                try (FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock lock = fc.lock()) {
+                    if (fc.size() == 0) {
+                        dos.writeInt(MAGIC);
+                        dos.writeInt(RECOMPILER_VERSION);
+                    }
+                    dos.writeByte(e.key.cpu);
+                    dos.writeInt(e.key.pc);
+                    dos.writeInt(e.key.hashCodeWords);
+                    dos.writeShort(e.words.length);
+                    for (int w : e.words) {
+                        dos.writeShort(w);
+                    }
+                    dos.writeUTF(e.className);
+                    dos.writeInt(e.code.length);
+                    dos.write(e.code);
+                    dos.flush();
+                    ByteBuffer b = ByteBuffer.wrap(baos.toByteArray());
+                    long pos = fc.size();
+                    while (b.hasRemaining()) {
+                        pos += fc.write(b, pos);
+                    }
+                }
+            } catch (IOException ex) {
+                LOG.error("Unable to write drc class {} {} to: {}", CpuDeviceAccess.cdaValues[e.key.cpu],
+                        th(e.key.pc), file.toAbsolutePath(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package s32x.sh2.drc;
+
+/**
+ * Sh2KnownBlocks
+ * <p>
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Blocks seen at a PC, keyed by Sh2Block::hashCodeWords.
+ * Open addressing with linear probing, the table holds at most MAX_BLOCKS and is never more than half full,
+ * when full the new block evicts the first block found probing from its home slot.
+ */
+public class Sh2KnownBlocks {
+
+    public static final int MAX_BLOCKS = Integer.parseInt(System.getProperty("helios.32x.sh2.knownBlocks.max", "64"));
+
+    public static final Sh2KnownBlocks EMPTY = new Sh2KnownBlocks(0);
+
+    private final int maxBlocks;
+    private int[] keys;
+    private Sh2Block[] blocks;
+    private int size, mask;
+
+    public Sh2KnownBlocks() {
+        this(MAX_BLOCKS);
+    }
+
+    Sh2KnownBlocks(int maxBlocks) {
+        this.maxBlocks = maxBlocks;
+        keys = new int[2];
+        blocks = new Sh2Block[2];
+        mask = 1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the block with the given hash, INVALID_BLOCK if none
+     */
+    public Sh2Block get(int hashCodeWords) {
+        for (int i = mix(hashCodeWords) & mask; blocks[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == hashCodeWords) {
+                return blocks[i];
+            }
+        }
+        return Sh2Block.INVALID_BLOCK;
+    }
+
+    /**
+     * @return the block already stored with the same hash, null if the block has been added
+     */
+    public Sh2Block putIfAbsent(Sh2Block b) {
+        assert this != EMPTY;
+        Sh2Block prev = get(b.hashCodeWords);
+        if (prev != Sh2Block.INVALID_BLOCK) {
+            return prev;
+        }
+        if (size == maxBlocks) {
+            evict(mix(b.hashCodeWords) & mask);
+        } else if ((size + 1) << 1 > blocks.length) {
+            resize(blocks.length << 1);
+        }
+        insert(b.hashCodeWords, b);
+        size++;
+        return null;
+    }
+
+    /**
+     * @return true if adding a new block replaces an existing one
+     */
+    public boolean isFull() {
+        return size >= maxBlocks;
+    }
+
+    /**
+     * Removes the first block found probing from slot i, the following entries of the probe chain
+     * are shifted back so that no tombstone is needed.
+     */
+    private void evict(int i) {
+        while (blocks[i] == null) {
+            i = (i + 1) & mask;
+        }
+        size--;
+        for (int j = (i + 1) & mask; blocks[j] != null; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            //move j into the hole if its home slot is not within (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                blocks[i] = blocks[j];
+                i = j;
+            }
+        }
+        blocks[i] = null;
+    }
+
+    private void insert(int key, Sh2Block b) {
+        int i = mix(key) & mask;
+        while (blocks[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        blocks[i] = b;
+    }
+
+    private void resize(int len) {
+        int[] oldKeys = keys;
+        Sh2Block[] oldBlocks = blocks;
+        keys = new int[len];
+        blocks = new Sh2Block[len];
+        mask = len - 1;
+        for (int i = 0; i < oldBlocks.length; i++) {
+            if (oldBlocks[i] != null) {
+                insert(oldKeys[i], oldBlocks[i]);
+            }
+        }
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -5,6 +5,7 @@ import omegadrive.util.BufferUtil.CpuDeviceAccess;
 import org.objectweb.asm.commons.LocalVariablesSorter;
 import org.slf4j.Logger;
 import s32x.bus.Sh2Bus;
+import s32x.bus.Sh2BusImpl;
 import s32x.dict.S32xDict;
 import s32x.dict.S32xMemAccessDelay;
 import s32x.event.PollSysEventManager;
@@ -13,8 +14,10 @@ import s32x.sh2.Sh2Context;
 import s32x.sh2.Sh2Debug;
 import s32x.sh2.Sh2Instructions;
 import s32x.sh2.cache.Sh2Cache;
+import s32x.sh2.drc.Ow2Sh2RegCache;
 import s32x.sh2.drc.Sh2Block;
 import s32x.sh2.drc.Sh2DrcBlockOptimizer;
+import s32x.sh2.drc.Sh2DrcCodeCache;
 import s32x.util.BiosHolder;
 
 import java.nio.ByteBuffer;
@@ -24,7 +27,6 @@ import static omegadrive.util.BufferUtil.assertionsEnabled;
 import static omegadrive.util.Util.readBufferWord;
 import static omegadrive.util.Util.th;
 import static s32x.sh2.Sh2Helper.*;
-import static s32x.sh2.Sh2Helper.Sh2PcInfoWrapper.HASH_CODE_MASK;
 
 /**
  * Federico Berti
@@ -40,7 +42,8 @@ public class Sh2Prefetch implements Sh2Prefetcher {
     public static final int PC_CACHE_AREA_SHIFT = 28;
 
     private static final boolean verbose = false;
-    private static final boolean collectStats = verbose || false;
+    private static final boolean collectStats = verbose ||
+            Boolean.parseBoolean(System.getProperty("helios.32x.sh2.prefetch.stats", "false"));
     private final Stats[] stats = {new Stats(CpuDeviceAccess.MASTER), new Stats(CpuDeviceAccess.SLAVE)};
 
     private final Sh2Bus memory;
@@ -56,12 +59,18 @@ public class Sh2Prefetch implements Sh2Prefetcher {
 
     //reusable instance to avoid creating too much GC
     private final Sh2Block baseBlock;
+    private final MdRuntimeData rt = MdRuntimeData.current();
 
     public static class Sh2DrcContext {
         public CpuDeviceAccess cpu;
         public Sh2 sh2;
+        //the instructions bound to sh2
+        public Sh2Instructions.Sh2InstructionWrapper[] opcodeMap;
         public Sh2Context sh2Ctx;
         public Sh2Bus memory;
+        //null when the persistent code cache is disabled
+        public Sh2DrcCodeCache codeCache;
+        public final MdRuntimeData rt = MdRuntimeData.current();
     }
 
     public static class BytecodeContext {
@@ -71,6 +80,7 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         public int opcode, pc, branchPc;
         public Sh2Instructions.Sh2BaseInstruction sh2Inst;
         public BytecodeContext delaySlotCtx;
+        public Ow2Sh2RegCache regCache;
         public boolean delaySlot;
     }
 
@@ -87,12 +97,19 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         opcodeWords = new int[Sh2Block.MAX_INST_LEN];
         sh2Config = Sh2Config.get();
         baseBlock = new Sh2Block(0, CpuDeviceAccess.MASTER);
+        if (Sh2DrcCodeCache.ENABLED && sh2Config.drcEn && rom != null) {
+            Sh2DrcCodeCache codeCache = Sh2DrcCodeCache.createInstance(rom,
+                    memory instanceof Sh2BusImpl ? Sh2BusImpl.class : Sh2Bus.class);
+            for (Sh2DrcContext ctx : sh2Ctx) {
+                ctx.codeCache = codeCache;
+            }
+        }
     }
 
     private Sh2Block doPrefetch(Sh2PcInfoWrapper piw, int pc, CpuDeviceAccess cpu) {
         if (collectStats) stats[cpu.ordinal()].addMiss();
         Sh2Block baseBlock = doPrefetchInternal(pc, cpu);
-        Sh2Block match = findMatchingBlockIfAny(baseBlock, piw);
+        Sh2Block match = findMatchingBlockIfAny(baseBlock, piw, cpu);
         if (match != Sh2Block.INVALID_BLOCK) {
             return match;
         }
@@ -101,37 +118,41 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         assert block.getCpu() == block.drcContext.cpu && block.getCpu() == cpu;
         boolean addBlockToList = !piw.knownBlocks.isEmpty();
         if (addBlockToList) {
-            Sh2Block prev = piw.addToKnownBlocks(block);
-            assert prev == null;
+            //a colliding block stays in the list, the new one is not recycled
+            addToKnownBlocks(piw, block);
         }
         if (verbose) LOG.info("{} prefetch block at pc: {}, len: {}\n{}", cpu,
                 th(pc), block.prefetchLenWords, toListOfInst(block));
         return block;
     }
 
-    private Sh2Block findMatchingBlockIfAny(Sh2Block baseBlock, Sh2PcInfoWrapper piw) {
+    private Sh2Block findMatchingBlockIfAny(Sh2Block baseBlock, Sh2PcInfoWrapper piw, CpuDeviceAccess cpu) {
         final boolean tryRecycleBlock = ENABLE_BLOCK_RECYCLING && !piw.knownBlocks.isEmpty();
         Sh2Block res = Sh2Block.INVALID_BLOCK; //new block, add it to the list
         if (tryRecycleBlock) {
-            Sh2Block entry = piw.knownBlocks.getOrDefault(baseBlock.hashCodeWords & HASH_CODE_MASK, Sh2Block.INVALID_BLOCK);
-            if (entry != Sh2Block.INVALID_BLOCK) {
-                //check for collisions on the 16-bit hashcode
-                if (entry.hashCodeWords != baseBlock.hashCodeWords) {
-                    LOG.error("Hash collision:\n{}\n{}", baseBlock, entry);
-                    return Sh2Block.INVALID_BLOCK;
-                }
-                assert Arrays.equals(entry.prefetchWords, 0, baseBlock.prefetchLenWords,
-                        opcodeWords, 0, baseBlock.prefetchLenWords);
-                entry.setValid();
-                entry.nextBlock = Sh2Block.INVALID_BLOCK;
-                if (verbose && entry.isPollingBlock()) {
-                    LOG.info("{} recycle block at pc: {}, len: {}\n{}", piw.block.getCpu(),
-                            th(piw.block.prefetchPc), entry.prefetchLenWords, toListOfInst(entry));
-                    LOG.info("{}\n{}\n{}", th(piw.block.prefetchPc), entry, entry.poller);
-                }
-//                    assert !rec.isPollingBlock() : th(pc) + "\n" + rec + "\n" + rec.poller;
-                res = entry;
+            final Stats st = stats[cpu.ordinal()];
+            Sh2Block entry = piw.knownBlocks.get(baseBlock.hashCodeWords);
+            if (entry == Sh2Block.INVALID_BLOCK) {
+                if (collectStats) st.knownMiss++;
+                return res;
             }
+            //same hash, different words
+            if (!Arrays.equals(entry.prefetchWords, 0, entry.prefetchLenWords,
+                    opcodeWords, 0, baseBlock.prefetchLenWords)) {
+                if (collectStats) st.knownCollision++;
+                if (verbose) LOG.info("Hash collision:\n{}\n{}", baseBlock, entry);
+                return res;
+            }
+            if (collectStats) st.knownHit++;
+            entry.setValid();
+            entry.nextBlock = Sh2Block.INVALID_BLOCK;
+            if (verbose && entry.isPollingBlock()) {
+                LOG.info("{} recycle block at pc: {}, len: {}\n{}", piw.block.getCpu(),
+                        th(piw.block.prefetchPc), entry.prefetchLenWords, toListOfInst(entry));
+                LOG.info("{}\n{}\n{}", th(piw.block.prefetchPc), entry, entry.poller);
+            }
+//            assert !rec.isPollingBlock() : th(pc) + "\n" + rec + "\n" + rec.poller;
+            res = entry;
         }
         return res;
     }
@@ -149,7 +170,7 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         to.prefetchWords = Arrays.copyOf(opcodeWords, from.prefetchLenWords);
         to.drcContext = drcContext[to.getCpu().ordinal()];
         to.setNoJump(from.isNoJump());
-        to.stage1(Sh2Instructions.generateInst(to.prefetchWords));
+        to.stage1(Sh2Instructions.generateInst(to.drcContext.opcodeMap, to.prefetchWords));
     }
 
     private Sh2Block doPrefetchInternal(int pc, CpuDeviceAccess cpu) {
@@ -174,6 +195,14 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         return fillOpcodes(cpu, pc, block.start, block.fetchBuffer, block, opcodeWords);
     }
 
+    //NOTE: a block ends at the first branch, blocks that follow conditional branches (superblocks) are not
+    //supported (yet), the code around it assumes a contiguous block with a single exit:
+    // - Ow2Sh2Bytecode emits one exit, the last branch sets the PC; a side exit needs its own register
+    //   write-back and cycle count
+    // - Sh2DrcBlockOptimizer detects pollers and busy loops as a block that branches back to its own start
+    // - invalidateMemoryRegion/invalidateCachePrefetch look back SH2_DRC_MAX_BLOCK_LEN_BYTES from the write
+    //   and match the [prefetchPc, prefetchPc + prefetchLenWords) range
+    // - interrupts are checked between blocks, see Sh2Impl
     private int fillOpcodes(CpuDeviceAccess cpu, int pc, int blockStart, ByteBuffer fetchBuffer,
                             Sh2Block block, int[] opcodeWords) {
         final Sh2Cache sh2Cache = cache[cpu.ordinal()];
@@ -257,10 +286,10 @@ public class Sh2Prefetch implements Sh2Prefetcher {
 
     private void checkBlock(FetchResult fetchResult, CpuDeviceAccess cpu) {
         final int pc = fetchResult.pc;
-        Sh2PcInfoWrapper piw = get(pc, cpu);
+        Sh2PcInfoWrapper piw = get(rt, pc, cpu);
         assert piw != null;
         if (piw == SH2_NOT_VISITED) {
-            piw = getOrCreate(pc, cpu);
+            piw = getOrCreate(rt, pc, cpu);
         }
         if (piw.block.isValid()) {
             assert fetchResult.pc == piw.block.prefetchPc : th(fetchResult.pc);
@@ -278,6 +307,12 @@ public class Sh2Prefetch implements Sh2Prefetcher {
             LOG.warn("{} New block generated at PC: {}\nPrev: {}\nNew : {}", cpu, th(pc), prev, block);
         }
         piw.setBlock(block);
+        if (block.stage2Drc == null && block.drcContext.codeCache != null) {
+            Runnable r = block.drcContext.codeCache.getDrcClass(block, block.drcContext);
+            if (r != null) {
+                block.stage2(r);
+            }
+        }
         fetchResult.block = block;
     }
 
@@ -336,35 +371,50 @@ public class Sh2Prefetch implements Sh2Prefetcher {
     }
 
     public static void checkPoller(CpuDeviceAccess cpuWrite, S32xDict.S32xRegType type, int addr, int val, Size size) {
-        checkPoller(cpuWrite, PollSysEventManager.SysEvent.valueOf(type.name()), addr, val, size);
+        checkPoller(PollSysEventManager.get(), cpuWrite, type, addr, val, size);
+    }
+
+    public static void checkPoller(PollSysEventManager sem, CpuDeviceAccess cpuWrite, S32xDict.S32xRegType type,
+                                   int addr, int val, Size size) {
+        checkPoller(sem, cpuWrite, PollSysEventManager.SysEvent.valueOf(type.name()), addr, val, size);
     }
 
     public static void checkPollersVdp(S32xDict.S32xRegType type, int addr, int val, Size size) {
+        checkPollersVdp(PollSysEventManager.get(), type, addr, val, size);
+    }
+
+    public static void checkPollersVdp(PollSysEventManager sem, S32xDict.S32xRegType type, int addr, int val, Size size) {
         //cpuWrite doesn't apply here...
-        checkPoller(null, PollSysEventManager.SysEvent.valueOf(type.name()), addr, val, size);
+        checkPoller(sem, null, PollSysEventManager.SysEvent.valueOf(type.name()), addr, val, size);
     }
 
     public static void checkPoller(CpuDeviceAccess cpuWrite, PollSysEventManager.SysEvent type, int addr, int val, Size size) {
-        int res = PollSysEventManager.instance.anyPollerActive();
+        checkPoller(PollSysEventManager.get(), cpuWrite, type, addr, val, size);
+    }
+
+    public static void checkPoller(PollSysEventManager sem, CpuDeviceAccess cpuWrite, PollSysEventManager.SysEvent type,
+                                   int addr, int val, Size size) {
+        int res = sem.anyPollerActive();
         if (res == 0) {
             return;
         }
         assert res <= 3;
         if ((res & 1) > 0) {
-            Sh2DrcBlockOptimizer.PollerCtx c = PollSysEventManager.instance.getPoller(CpuDeviceAccess.MASTER);
+            Sh2DrcBlockOptimizer.PollerCtx c = sem.getPoller(CpuDeviceAccess.MASTER);
             if (c.isPollingActive() && type == c.event) {
-                checkPollerInternal(c, cpuWrite, type, addr, val, size);
+                checkPollerInternal(sem, c, cpuWrite, type, addr, val, size);
             }
         }
         if ((res & 2) > 0) {
-            Sh2DrcBlockOptimizer.PollerCtx c = PollSysEventManager.instance.getPoller(CpuDeviceAccess.SLAVE);
+            Sh2DrcBlockOptimizer.PollerCtx c = sem.getPoller(CpuDeviceAccess.SLAVE);
             if (c.isPollingActive() && type == c.event) {
-                checkPollerInternal(c, cpuWrite, type, addr, val, size);
+                checkPollerInternal(sem, c, cpuWrite, type, addr, val, size);
             }
         }
     }
 
-    private static void checkPollerInternal(Sh2DrcBlockOptimizer.PollerCtx c, CpuDeviceAccess cpuWrite, PollSysEventManager.SysEvent type,
+    private static void checkPollerInternal(PollSysEventManager sem, Sh2DrcBlockOptimizer.PollerCtx c,
+                                            CpuDeviceAccess cpuWrite, PollSysEventManager.SysEvent type,
                                             int addr, int val, Size size) {
         final Sh2DrcBlockOptimizer.BlockPollData bpd = c.blockPollData;
         //TODO check, cache vs cache-through
@@ -378,7 +428,7 @@ public class Sh2Prefetch implements Sh2Prefetcher {
             boolean pollValuedUnchanged = c.pollValue == PollSysEventManager.readPollValue(c);
             assert !pollValuedUnchanged; //should not happen
             if (!pollValuedUnchanged) {
-                PollSysEventManager.instance.fireSysEvent(c.cpu, type);
+                sem.fireSysEvent(c.cpu, type);
             } else {
                 if (verbose)
                     LOG.info("{} poll value has not changed, poll write addr: {} {}, target: {} {} {}, writeVal: {}, " +
@@ -399,7 +449,7 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         final int addrEven = (addr & ~1);
         //find closest block, long requires starting at +2
         for (int i = addrEven + 2; i > addrEven - Sh2Block.SH2_DRC_MAX_BLOCK_LEN_BYTES; i -= 2) {
-            Sh2PcInfoWrapper piw = getOrDefault(i, blockOwner);
+            Sh2PcInfoWrapper piw = getOrDefault(rt, i, blockOwner);
             assert piw != null;
             if (!piw.block.isValid()) {
                 continue;
@@ -426,7 +476,7 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         //TODO is anything using this? I don't think so
         if (isCpuCacheOff) {
             LOG.error("Check!");
-            piw = getOrDefault(i & S32xDict.SH2_CACHE_THROUGH_MASK, cpu);
+            piw = getOrDefault(rt, i & S32xDict.SH2_CACHE_THROUGH_MASK, cpu);
             if (piw.block.isValid()) {
                 invalidateWrapper(addr, piw, false, val);
             }
@@ -434,7 +484,7 @@ public class Sh2Prefetch implements Sh2Prefetcher {
     }
 
     private void invalidateMemoryLocationForCpu(CpuDeviceAccess cpu, int addr, int i, int val) {
-        invalidateMemoryLocationForCpu(cpu, getOrDefault(i, cpu), addr, i, val);
+        invalidateMemoryLocationForCpu(cpu, getOrDefault(rt, i, cpu), addr, i, val);
     }
 
     static final int RANGE_MASK = 0xFFF_FFFF;
@@ -475,11 +525,17 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         //Blackthorne lots of SDRAM invalidation
         if (ENABLE_BLOCK_RECYCLING) {
             assert b.getCpu() != null;
-            piw.addToKnownBlocks(b);
+            addToKnownBlocks(piw, b);
         }
         piw.invalidateBlock();
     }
 
+    private void addToKnownBlocks(Sh2PcInfoWrapper piw, Sh2Block b) {
+        boolean full = piw.knownBlocks.isFull();
+        Sh2Block prev = piw.addToKnownBlocks(b);
+        if (collectStats && prev == null && full) stats[b.getCpu().ordinal()].knownEvict++;
+    }
+
     private void cacheOnFetch(int pc, int expOpcode, CpuDeviceAccess cpu) {
         boolean isCache = pc >>> PC_CACHE_AREA_SHIFT == 0;
         if (isCache && cache[cpu.ordinal()].getCacheContext().cacheEn > 0) {
@@ -503,7 +559,7 @@ public class Sh2Prefetch implements Sh2Prefetcher {
         final int addrEven = ctx.prevCacheAddr + Sh2Cache.CACHE_BYTES_PER_LINE;
         ;
         for (int i = addrEven; i > addr - Sh2Block.SH2_DRC_MAX_BLOCK_LEN_BYTES; i -= 2) {
-            Sh2PcInfoWrapper piw = getOrDefault(i, ctx.cpu);
+            Sh2PcInfoWrapper piw = getOrDefault(rt, i, ctx.cpu);
             assert piw != null;
             if (!piw.block.isValid()) {
                 continue;
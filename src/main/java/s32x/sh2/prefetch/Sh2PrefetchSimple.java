@@ -74,6 +74,7 @@ public class Sh2PrefetchSimple implements Sh2Prefetcher {
     private final Sh2Bus memory;
     private final Sh2Cache[] cache;
     private final Sh2Config sh2Config;
+    private final MdRuntimeData rt = MdRuntimeData.current();
     public final int romSize, romMask;
     public final BiosHolder.BiosData[] bios;
     public final ByteBuffer sdram;
@@ -178,7 +179,7 @@ public class Sh2PrefetchSimple implements Sh2Prefetcher {
     }
 
     public int fetch(int pc, BufferUtil.CpuDeviceAccess cpu) {
-        assert cpu == MdRuntimeData.getAccessTypeExt();
+        assert cpu == rt.getAccessType();
         if (!sh2Config.prefetchEn) {
             return memory.read(pc, Size.WORD) & 0xFFFF;
         }
@@ -216,7 +217,7 @@ public class Sh2PrefetchSimple implements Sh2Prefetcher {
 
     public int fetchDelaySlot(int pc, Sh2Helper.FetchResult ft, BufferUtil.CpuDeviceAccess cpu) {
         if (!sh2Config.prefetchEn) {
-            assert cpu == MdRuntimeData.getAccessTypeExt();
+            assert cpu == rt.getAccessType();
             return memory.read(pc, Size.WORD) & 0xFFFF;
         }
         final PrefetchContext pctx = prefetchContexts[cpu.ordinal()];
@@ -52,8 +52,10 @@ public interface Sh2Prefetcher {
     }
 
     class Stats {
-        static String format = "%s pfTot: %d, pfMissPerc: %f, pfDsMissPerc: %f";
+        static String format = "%s pfTot: %d, pfMissPerc: %f, pfDsMissPerc: %f, " +
+                "knownHit: %d, knownMiss: %d, knownCollision: %d, knownEvict: %d";
         public long pfMiss, pfTotal, pfDsMiss;
+        public long knownHit, knownMiss, knownCollision, knownEvict;
         private final BufferUtil.CpuDeviceAccess cpu;
 
         public Stats(BufferUtil.CpuDeviceAccess cpu) {
@@ -62,7 +64,8 @@ public interface Sh2Prefetcher {
 
         @Override
         public String toString() {
-            return String.format(format, cpu, pfTotal, 1.0 * pfMiss / pfTotal, 1.0 * pfDsMiss / pfTotal);
+            return String.format(format, cpu, pfTotal, 1.0 * pfMiss / pfTotal, 1.0 * pfDsMiss / pfTotal,
+                    knownHit, knownMiss, knownCollision, knownEvict);
         }
 
         public void addMiss() {
@@ -100,14 +100,16 @@ public class MarsLauncherHelper {
         mDrcCtx.cpu = ctx.masterCtx.cpuAccess;
         sDrcCtx.cpu = ctx.slaveCtx.cpuAccess;
 
-        Sh2Bus memory = new Sh2BusImpl(ctx.s32XMMREG, ctx.rom, biosHolder, bus, mDrcCtx, sDrcCtx);
+        Sh2Bus memory = new Sh2BusImpl(ctx.s32XMMREG, ctx.dmaFifo68k, ctx.rom, biosHolder, bus, mDrcCtx, sDrcCtx);
         ctx.memory = memory;
         ctx.mDevCtx = Sh2DeviceHelper.createDevices(ctx.masterCtx, ctx);
         ctx.sDevCtx = Sh2DeviceHelper.createDevices(ctx.slaveCtx, ctx);
         ctx.mDevCtx.sci.setOther(ctx.sDevCtx.sci);
-        ctx.sh2 = (ctx.masterCtx.debug || ctx.slaveCtx.debug) ?
+        Sh2Impl sh2 = (ctx.masterCtx.debug || ctx.slaveCtx.debug) ?
                 new Sh2Debug(ctx.memory) : new Sh2Impl(ctx.memory);
-        mDrcCtx.sh2 = sDrcCtx.sh2 = ctx.sh2;
+        ctx.sh2 = sh2;
+        mDrcCtx.sh2 = sDrcCtx.sh2 = sh2;
+        mDrcCtx.opcodeMap = sDrcCtx.opcodeMap = sh2.getOpcodeMap();
         mDrcCtx.memory = sDrcCtx.memory = ctx.memory;
         ctx.pwm = new Pwm(ctx.s32XMMREG.regContext);
         ctx.masterCtx.devices = ctx.mDevCtx;
@@ -130,7 +132,7 @@ public class MarsLauncherHelper {
         public Pwm pwm;
 
         public void initContext() {
-            bus.attachDevices(sh2, s32XMMREG);
+            bus.attachDevices(sh2, s32XMMREG, dmaFifo68k);
             memory.getSh2MMREGS(BufferUtil.CpuDeviceAccess.MASTER).init(mDevCtx);
             memory.getSh2MMREGS(BufferUtil.CpuDeviceAccess.SLAVE).init(sDevCtx);
             s32XMMREG.setInterruptControl(mDevCtx.intC, sDevCtx.intC);
@@ -113,6 +113,8 @@ public interface MarsVdp extends Device {
 
         public int[] screen;
         public MarsVdpContext vdpContext;
+        //H32 md layer stretched to H40, scratch buffer
+        public transient int[] mdStretchH40;
     }
 
     //NOTE, do not move or change, tests depend on it
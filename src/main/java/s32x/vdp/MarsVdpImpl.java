@@ -1,5 +1,7 @@
 package s32x.vdp;
 
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
 import omegadrive.util.*;
 import omegadrive.vdp.util.UpdatableViewer;
 import omegadrive.vdp.util.VdpDebugView;
@@ -19,6 +21,7 @@ import java.nio.ShortBuffer;
 import java.util.Arrays;
 import java.util.Optional;
 
+import static omegadrive.savestate.StateCodec.*;
 import static omegadrive.util.BufferUtil.writeBufferRaw;
 import static omegadrive.util.LogHelper.logWarnOnce;
 import static omegadrive.util.Util.th;
@@ -65,6 +68,7 @@ public class MarsVdpImpl implements MarsVdp {
     private final ShortBuffer[] colorPaletteWords = {colorPalette[CP_FRONT].asShortBuffer(), colorPalette[CP_BACK].asShortBuffer()};
     private final short[] fbDataWords = new short[DRAM_SIZE >> 1];
     private final int[] lineTableWords = new int[LINE_TABLE_WORDS];
+    private final MdRuntimeData rt = MdRuntimeData.current();
 
     private ByteBuffer vdpRegs;
     private MarsVdpDebugView view;
@@ -78,6 +82,7 @@ public class MarsVdpImpl implements MarsVdp {
 
     private int[] buffer = new int[0];
     private static final boolean verbose = false, verboseRead = false;
+    private static final int STATE_VERSION = 1;
 
     static class MidLinePaletteChangeContext {
         public int line = 0, lastLineDrawn = 0;
@@ -131,32 +136,32 @@ public class MarsVdpImpl implements MarsVdp {
     @Override
     public void write(int address, int value, Size size) {
         if (address >= S32xDict.START_32X_COLPAL_CACHE && address < S32xDict.END_32X_COLPAL_CACHE) {
-            assert MdRuntimeData.getAccessTypeExt() != BufferUtil.CpuDeviceAccess.Z80;
+            assert rt.getAccessType() != BufferUtil.CpuDeviceAccess.Z80;
             switch (size) {
                 case WORD, LONG -> {
                     if (ctx.pen == 0) {
                         //TODO should wait for pen=1
                         LogHelper.logWarnOnce(LOG, "{} Write to palette when palette disabled, pen: {}",
-                                MdRuntimeData.getAccessTypeExt(), ctx.pen);
+                                rt.getAccessType(), ctx.pen);
                     }
                     writeBufferRaw(colorPalette[CP_FRONT], address & S32xDict.S32X_COLPAL_MASK, value, size);
                 }
                 default ->
-                        LogHelper.logWarnOnce(LOG, "{} write, unable to access colorPalette as {}", MdRuntimeData.getAccessTypeExt(), size);
+                        LogHelper.logWarnOnce(LOG, "{} write, unable to access colorPalette as {}", rt.getAccessType(), size);
             }
-            S32xMemAccessDelay.addWriteCpuDelay(S32xMemAccessDelay.PALETTE);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, S32xMemAccessDelay.PALETTE);
         } else if (address >= S32xDict.START_DRAM_CACHE && address < S32xDict.END_DRAM_CACHE) {
             if (size == Size.BYTE && value == 0) { //value =0 on byte is ignored
                 return;
             }
             writeBufferRaw(dramBanks[vdpContext.frameBufferWritable], address & S32xDict.DRAM_MASK, value, size);
-            S32xMemAccessDelay.addWriteCpuDelay(S32xMemAccessDelay.FRAME_BUFFER);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, S32xMemAccessDelay.FRAME_BUFFER);
         } else if (address >= S32xDict.START_OVER_IMAGE_CACHE && address < S32xDict.END_OVER_IMAGE_CACHE) {
             //see Space Harrier, brutal, doom resurrection
             writeFrameBufferOver(address, value, size);
-            S32xMemAccessDelay.addWriteCpuDelay(S32xMemAccessDelay.FRAME_BUFFER);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, S32xMemAccessDelay.FRAME_BUFFER);
         } else {
-            LOG.error("{} unhandled write at {}, val: {} {}", MdRuntimeData.getAccessTypeExt(), th(address),
+            LOG.error("{} unhandled write at {}, val: {} {}", rt.getAccessType(), th(address),
                     th(value), size);
         }
     }
@@ -165,21 +170,21 @@ public class MarsVdpImpl implements MarsVdp {
     public int read(int address, Size size) {
         int res = 0;
         if (address >= S32xDict.START_32X_COLPAL_CACHE && address < S32xDict.END_32X_COLPAL_CACHE) {
-            assert MdRuntimeData.getAccessTypeExt() != BufferUtil.CpuDeviceAccess.Z80;
+            assert rt.getAccessType() != BufferUtil.CpuDeviceAccess.Z80;
             if (size == Size.WORD) {
                 res = BufferUtil.readBuffer(colorPalette[CP_FRONT], address & S32xDict.S32X_COLPAL_MASK, size);
             } else {
-                logWarnOnce(LOG, "{} read, unable to access colorPalette as {}", MdRuntimeData.getAccessTypeExt(), size);
+                logWarnOnce(LOG, "{} read, unable to access colorPalette as {}", rt.getAccessType(), size);
             }
-            S32xMemAccessDelay.addWriteCpuDelay(S32xMemAccessDelay.PALETTE);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, S32xMemAccessDelay.PALETTE);
         } else if (address >= S32xDict.START_DRAM_CACHE && address < S32xDict.END_DRAM_CACHE) {
             res = BufferUtil.readBuffer(dramBanks[vdpContext.frameBufferWritable], address & S32xDict.DRAM_MASK, size);
-            S32xMemAccessDelay.addWriteCpuDelay(S32xMemAccessDelay.FRAME_BUFFER);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, S32xMemAccessDelay.FRAME_BUFFER);
         } else if (address >= S32xDict.START_OVER_IMAGE_CACHE && address < S32xDict.END_OVER_IMAGE_CACHE) {
             res = BufferUtil.readBuffer(dramBanks[vdpContext.frameBufferWritable], address & S32xDict.DRAM_MASK, size);
-            S32xMemAccessDelay.addWriteCpuDelay(S32xMemAccessDelay.FRAME_BUFFER);
+            S32xMemAccessDelay.addWriteCpuDelay(rt, S32xMemAccessDelay.FRAME_BUFFER);
         } else {
-            LOG.error("{} unhandled read: {} {}", MdRuntimeData.getAccessTypeExt(), th(address), size);
+            LOG.error("{} unhandled read: {} {}", rt.getAccessType(), th(address), size);
         }
         return res;
     }
@@ -422,7 +427,7 @@ public class MarsVdpImpl implements MarsVdp {
         int val = readWordFromBuffer(reg32x); //TODO avoid the read?
         int addr = S32xDict.SH2_CACHE_THROUGH_OFFSET | S32xDict.START_32X_SYSREG_CACHE | reg32x.regSpec.fullAddr;
         assert S32xDict.getRegSpec(S32xDict.S32xRegCpuType.REG_MD, addr) == S32xDict.getRegSpec(S32xDict.S32xRegCpuType.REG_SH2, addr);
-        Sh2Prefetch.checkPollersVdp(reg32x.deviceType, addr, val, Size.WORD);
+        Sh2Prefetch.checkPollersVdp(rt.sysEventManager, reg32x.deviceType, addr, val, Size.WORD);
     }
 
     private void writeBufferWord(RegSpecS32x reg, int value) {
@@ -589,18 +594,16 @@ public class MarsVdpImpl implements MarsVdp {
         return out;
     }
 
-    private static int[] mdStretchH40 = new int[0];
-
     public static int[] doCompositeRenderingExt(VideoMode mdVideoMode, int[] mdData, MarsVdpRenderContext ctx) {
         final int[] marsData = Optional.ofNullable(ctx.screen).orElse(BufferUtil.EMPTY_INT_ARRAY);
         int[] out = mdData;
         boolean md_h32 = ctx.vdpContext.videoMode.isH40() && mdVideoMode.isH32();
         if (md_h32) {
-            if (mdStretchH40.length != marsData.length) {
-                mdStretchH40 = new int[marsData.length];
+            if (ctx.mdStretchH40 == null || ctx.mdStretchH40.length != marsData.length) {
+                ctx.mdStretchH40 = new int[marsData.length];
             }
-            BufferUtil.vidH32StretchToH40(mdVideoMode, mdData, mdStretchH40);
-            mdData = mdStretchH40;
+            BufferUtil.vidH32StretchToH40(mdVideoMode, mdData, ctx.mdStretchH40);
+            mdData = ctx.mdStretchH40;
         }
         if (mdData.length == marsData.length) {
             final boolean prio32x = ctx.vdpContext.priority == S32X;
@@ -691,16 +694,30 @@ public class MarsVdpImpl implements MarsVdp {
     @Override
     public void saveContext(ByteBuffer bb) {
         MarsVdp.super.saveContext(bb);
-        ctx.renderContext.screen = buffer;
-        dramBanks[0].rewind().get(ctx.fb0);
-        dramBanks[1].rewind().get(ctx.fb1);
-        colorPalette[CP_FRONT].rewind().get(ctx.palette);
-        bb.put(Util.serializeObject(ctx));
+        StateCodec.writeHeader(bb, ContextId.MARS_VDP, STATE_VERSION);
+        putBuffer(bb, dramBanks[0]);
+        putBuffer(bb, dramBanks[1]);
+        putBuffer(bb, colorPalette[CP_FRONT]);
+        bb.putInt(ctx.pal).putInt(ctx.pen);
+        putBoolean(bb, ctx.wasBlankScreen);
+        putEnum(bb, vdpContext.bitmapMode);
+        putEnum(bb, vdpContext.priority);
+        putEnum(bb, vdpContext.videoMode);
+        bb.putInt(vdpContext.screenShift).putInt(vdpContext.fsLatch);
+        bb.putInt(vdpContext.frameBufferDisplay).putInt(vdpContext.frameBufferWritable);
+        putBoolean(bb, vdpContext.hBlankOn);
+        putBoolean(bb, vdpContext.vBlankOn);
+        bb.putInt(vdpContext.hCount);
+        putInts(bb, buffer);
     }
 
     @Override
     public void loadContext(ByteBuffer bb) {
         MarsVdp.super.loadContext(bb);
+        if (!StateCodec.isLegacy(bb)) {
+            loadContextBinary(bb);
+            return;
+        }
         Serializable s = Util.deserializeObject(bb);
         assert s instanceof MarsVdpSaveContext;
         ctx = (MarsVdpSaveContext) s;
@@ -711,6 +728,32 @@ public class MarsVdpImpl implements MarsVdp {
         colorPalette[CP_FRONT].rewind().put(ctx.palette);
     }
 
+    private void loadContextBinary(ByteBuffer bb) {
+        StateCodec.readHeader(bb, ContextId.MARS_VDP, STATE_VERSION);
+        getBuffer(bb, dramBanks[0]);
+        getBuffer(bb, dramBanks[1]);
+        getBuffer(bb, colorPalette[CP_FRONT]);
+        ctx.pal = bb.getInt();
+        ctx.pen = bb.getInt();
+        ctx.wasBlankScreen = getBoolean(bb);
+        vdpContext.bitmapMode = getEnum(bb, BitmapMode.vals);
+        vdpContext.priority = getEnum(bb, VdpPriority.values());
+        vdpContext.videoMode = getEnum(bb, VideoMode.values());
+        vdpContext.screenShift = bb.getInt();
+        vdpContext.fsLatch = bb.getInt();
+        vdpContext.frameBufferDisplay = bb.getInt();
+        vdpContext.frameBufferWritable = bb.getInt();
+        vdpContext.hBlankOn = getBoolean(bb);
+        vdpContext.vBlankOn = getBoolean(bb);
+        vdpContext.hCount = bb.getInt();
+        int len = bb.getInt(bb.position());
+        if (len != buffer.length) {
+            buffer = new int[len];
+            ctx.renderContext.screen = buffer;
+        }
+        getInts(bb, buffer);
+    }
+
     @Override
     public void dumpMarsData() {
         DebugMarsVdpRenderContext d = new DebugMarsVdpRenderContext();
@@ -0,0 +1,77 @@
+package mcd.cdd;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static mcd.cdd.CdModel.SECTOR_2352;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * The mapped, buffered and in-memory track content should return the same data
+ */
+public class TrackContentHelperTest {
+
+    static final int NUM_SECTORS = 50;
+
+    @Test
+    public void testReadModes() throws Exception {
+        Random r = new Random(0x1234);
+        byte[] data = new byte[NUM_SECTORS * SECTOR_2352 + 3];
+        r.nextBytes(data);
+        File f = Files.createTempFile("tch", ".bin").toFile();
+        f.deleteOnExit();
+        Files.write(f.toPath(), data);
+        try (TrackContentHelper mapped = TrackContentHelper.ofFile(f, true);
+             TrackContentHelper buffered = TrackContentHelper.ofFile(f, false)) {
+            TrackContentHelper array = TrackContentHelper.ofDataArray(data);
+            Assertions.assertEquals(TrackContentHelper.TrackContentType.FILE_MAPPED, mapped.getType());
+            Assertions.assertEquals(TrackContentHelper.TrackContentType.FILE, buffered.getType());
+            TrackContentHelper[] all = {mapped, buffered, array};
+            for (var t : all) {
+                Assertions.assertEquals(data.length, t.length());
+            }
+            //cdda, sequential samples
+            for (int i = 0; i < NUM_SECTORS * SECTOR_2352 / 4; i++) {
+                int expLeft = (short) ((data[i << 2] & 0xFF) | (data[(i << 2) + 1] << 8));
+                int expRight = (short) ((data[(i << 2) + 2] & 0xFF) | (data[(i << 2) + 3] << 8));
+                for (var t : all) {
+                    t.seek(i << 2);
+                    Assertions.assertEquals(expLeft, t.readShortLE());
+                    Assertions.assertEquals(expRight, t.readShortLE());
+                }
+            }
+            //sectors, random access
+            byte[] exp = new byte[SECTOR_2352];
+            byte[] res = new byte[SECTOR_2352];
+            for (int i = 0; i < 200; i++) {
+                int pos = r.nextInt(data.length - SECTOR_2352);
+                System.arraycopy(data, pos, exp, 0, exp.length);
+                for (var t : all) {
+                    t.seek(pos);
+                    Assertions.assertEquals(res.length, t.read(res, 0, res.length));
+                    Assertions.assertArrayEquals(exp, res);
+                }
+            }
+            //short reads at the end of the file
+            for (var t : new TrackContentHelper[]{mapped, buffered}) {
+                t.seek(data.length - 3);
+                Assertions.assertEquals(3, t.read(res, 0, res.length));
+                Assertions.assertEquals(-1, t.read(res, 0, res.length));
+            }
+            //cdda samples at the end of the file
+            for (int i = 1; i <= 2; i++) {
+                mapped.seek(data.length - i);
+                buffered.seek(data.length - i);
+                Assertions.assertEquals(buffered.readShortLE(), mapped.readShortLE());
+                Assertions.assertEquals(buffered.readShortLE(), mapped.readShortLE());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package mcd.savestate;
+
+import mcd.McdDeviceHelper;
+import mcd.McdRegTestBase;
+import mcd.dict.MegaCdMemoryContext;
+import omegadrive.savestate.GstStateHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static mcd.dict.MegaCdDict.RegSpecMcd.MCD_TIMER_INT3;
+import static omegadrive.util.BufferUtil.CpuDeviceAccess.SUB_M68K;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class GscdStateHandlerTest extends McdRegTestBase {
+
+    @Test
+    public void testRoundTrip() {
+        Random r = new Random(0x5a5a);
+        MegaCdMemoryContext mc = lc.memoryContext;
+        r.nextBytes(mc.prgRam);
+        r.nextBytes(mc.wordRam01[0]);
+        r.nextBytes(mc.wordRam01[1]);
+        mc.wramSetup = MegaCdMemoryContext.WramSetup.W_1M_WR0_SUB;
+        writeRegWord(SUB_M68K, MCD_TIMER_INT3, 0x40);
+        lc.subCpu.getM68k().setPC(0x1234);
+        lc.subCpu.getM68k().setDataRegisterLong(3, 0xCAFE_BABE);
+        lc.cdd.getCddContext().io.sector = 1234;
+        lc.cdd.getCddContext().io.sample = 588;
+        lc.cdc.getContext().header.minute = 12;
+
+        ByteBuffer b1 = ByteBuffer.allocate(GstStateHandler.FILE_SIZE << 3);
+        GscdStateHandler.saveMcd(b1, lc);
+        //all the memory is in there
+        Assertions.assertTrue(b1.position() > MegaCdMemoryContext.MCD_PRG_RAM_SIZE + MegaCdMemoryContext.MCD_WORD_RAM_2M_SIZE);
+
+        McdDeviceHelper.McdLaunchContext lc2 = McdDeviceHelper.setupDevicesTest();
+        GscdStateHandler.loadMcd(ByteBuffer.wrap(b1.array(), 0, b1.position()), lc2);
+        Assertions.assertArrayEquals(mc.prgRam, lc2.memoryContext.prgRam);
+        Assertions.assertArrayEquals(mc.wordRam01[1], lc2.memoryContext.wordRam01[1]);
+        Assertions.assertEquals(mc.wramSetup, lc2.memoryContext.wramSetup);
+        Assertions.assertEquals(0x1234, lc2.subCpu.getPC());
+        Assertions.assertEquals(1234, lc2.cdd.getCddContext().io.sector);
+        Assertions.assertEquals(588, lc2.cdd.getCddContext().io.sample);
+
+        ByteBuffer b2 = ByteBuffer.allocate(b1.capacity());
+        GscdStateHandler.saveMcd(b2, lc2);
+        Assertions.assertEquals(b1.position(), b2.position());
+        Assertions.assertTrue(Arrays.equals(b1.array(), 0, b1.position(), b2.array(), 0, b2.position()));
+    }
+}
@@ -18,13 +18,17 @@
 package omegadrive.bus;
 
 import omegadrive.bus.model.MdMainBusProvider;
+import omegadrive.memory.IMemoryProvider;
+import omegadrive.memory.MemoryProvider;
 import omegadrive.util.Size;
 import omegadrive.util.SystemTestUtil;
+import omegadrive.util.Util;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 
+import java.util.Random;
 import java.util.function.Supplier;
 
 import static omegadrive.bus.model.MdMainBusProvider.*;
@@ -144,4 +148,28 @@ public class MdBusTest {
         Assertions.assertEquals(true, bus.isZ80BusRequested());
         Assertions.assertEquals(Z80_ACCESS_W, readFn.get());
     }
+
+    /**
+     * ROM and RAM pages are served by the page table, the ROM tail within a page by the address decoding
+     */
+    @Test
+    public void testRomRamPages() {
+        byte[] data = new byte[0x28000];
+        new Random(0x68).nextBytes(data);
+        IMemoryProvider mem = MemoryProvider.createInstance(data, MemoryProvider.M68K_RAM_SIZE);
+        bus = SystemTestUtil.setupNewMdSystem(mem);
+        byte[] rom = mem.getRomData();
+        for (int address : new int[]{0, 0x1_0000, 0x1_FFFE, 0x2_0000, 0x2_7FFC}) {
+            Assertions.assertEquals(Util.readData(rom, address, Size.WORD), bus.read(address, Size.WORD));
+            Assertions.assertEquals(Util.readData(rom, address, Size.LONG), bus.read(address, Size.LONG));
+        }
+        int prev = bus.read(0x1_0000, Size.WORD);
+        bus.write(0x1_0000, ~prev, Size.WORD);
+        Assertions.assertEquals(prev, bus.read(0x1_0000, Size.WORD));
+
+        bus.write(0xFF_0100, 0x1234_5678, Size.LONG);
+        Assertions.assertEquals(0x1234_5678, bus.read(0xE0_0100, Size.LONG));
+        bus.write(0xE1_0101, 0xAB, Size.BYTE);
+        Assertions.assertEquals(0x12AB, bus.read(0xFF_0100, Size.WORD));
+    }
 }
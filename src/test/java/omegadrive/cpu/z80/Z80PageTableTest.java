@@ -0,0 +1,73 @@
+package omegadrive.cpu.z80;
+
+import omegadrive.bus.z80.SmsBus;
+import omegadrive.cart.mapper.RomMapper;
+import omegadrive.cart.mapper.sms.SmsMapper;
+import omegadrive.memory.IMemoryProvider;
+import omegadrive.memory.MemoryProvider;
+import omegadrive.util.Size;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class Z80PageTableTest {
+
+    @Test
+    public void testMapUnmap() {
+        Z80PageTable pt = new Z80PageTable();
+        byte[] data = new byte[0x800];
+        data[0x401] = 0x12;
+        pt.mapRead(0x8000, 0x1000, data, 0x400, data.length - 1);
+        Assertions.assertEquals(0x12, pt.read(0x8001));
+        //wraps around the mask
+        Assertions.assertEquals(0x12, pt.read(0x8801));
+        Assertions.assertEquals(-1, pt.read(0x7FFF));
+        Assertions.assertFalse(pt.write(0x8001, 0));
+
+        pt.mapWrite(0xC000, 0x400, data, 0, data.length - 1);
+        Assertions.assertTrue(pt.write(0xC002, 0xAB));
+        Assertions.assertEquals(0xAB, pt.read(0x8402));
+
+        //mask smaller than a page, left to the bus
+        pt.mapRead(0, 0x400, new byte[0x10], 0, 0xF);
+        Assertions.assertEquals(-1, pt.read(0));
+
+        pt.unmapAll();
+        Assertions.assertEquals(-1, pt.read(0x8001));
+        Assertions.assertFalse(pt.write(0xC002, 0));
+    }
+
+    @Test
+    public void testSmsSegaMapper() {
+        byte[] rom = new byte[0x40000];
+        new Random(0x19).nextBytes(rom);
+        IMemoryProvider mem = MemoryProvider.createInstance(rom, MemoryProvider.SMS_Z80_RAM_SIZE);
+        Z80PageTable pt = new Z80PageTable();
+        SmsMapper smsMapper = SmsMapper.createInstance("test", mem, pt);
+        RomMapper mapper = smsMapper.setupRomMapper(SmsMapper.Type.SEGA, RomMapper.NO_OP_MAPPER);
+        checkPages(smsMapper, pt);
+
+        mapper.writeData(0xFFFD, 3, Size.BYTE);
+        mapper.writeData(0xFFFE, 7, Size.BYTE);
+        mapper.writeData(0xFFFF, 0xF, Size.BYTE);
+        checkPages(smsMapper, pt);
+
+        //ram writes, the mapping registers page is not mapped
+        Assertions.assertTrue(pt.write(0xC010, 0x55));
+        Assertions.assertEquals(0x55, smsMapper.readDataMapper(0xE010, Size.BYTE) & 0xFF);
+        Assertions.assertFalse(pt.write(SmsBus.SEGA_MAPPING_CONTROL_ADDRESS, 0));
+        Assertions.assertFalse(pt.write(0x1000, 0));
+    }
+
+    private static void checkPages(SmsMapper smsMapper, Z80PageTable pt) {
+        for (int i = 0; i < 0x10000; i++) {
+            Assertions.assertEquals(smsMapper.readDataMapper(i, Size.BYTE) & 0xFF, pt.read(i));
+        }
+    }
+}
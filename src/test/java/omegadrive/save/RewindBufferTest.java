@@ -0,0 +1,96 @@
+package omegadrive.save;
+
+import omegadrive.savestate.RewindBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class RewindBufferTest {
+
+    private static final int STATE_SIZE = 0x10000;
+
+    @Test
+    public void testRewind() {
+        RewindBuffer rb = new RewindBuffer(1 << 20, 1, false);
+        List<byte[]> states = createStates(20, STATE_SIZE);
+        states.forEach(rb::push);
+        Assertions.assertEquals(states.size(), rb.size());
+        //sparse changes should compress well
+        Assertions.assertTrue(rb.usedBytes() < (states.size() - 1) * STATE_SIZE / 8);
+        for (int i = states.size() - 1; i >= 0; i--) {
+            Assertions.assertArrayEquals(states.get(i), rb.pop().orElseThrow(), "State: " + i);
+        }
+        Assertions.assertTrue(rb.pop().isEmpty());
+        Assertions.assertEquals(0, rb.usedBytes());
+    }
+
+    @Test
+    public void testEviction() {
+        int capacity = STATE_SIZE / 8;
+        RewindBuffer rb = new RewindBuffer(capacity, 1, false);
+        List<byte[]> states = createStates(200, STATE_SIZE);
+        states.forEach(rb::push);
+        int size = rb.size();
+        Assertions.assertTrue(size > 1 && size < states.size());
+        Assertions.assertTrue(rb.usedBytes() <= capacity);
+        for (int i = 0; i < size; i++) {
+            Assertions.assertArrayEquals(states.get(states.size() - 1 - i), rb.pop().orElseThrow());
+        }
+        Assertions.assertTrue(rb.pop().isEmpty());
+    }
+
+    @Test
+    public void testSizeChange() {
+        RewindBuffer rb = new RewindBuffer(1 << 20, 1, true);
+        List<byte[]> states = createStates(6, STATE_SIZE);
+        states.set(2, createStates(1, STATE_SIZE + 1234).get(0));
+        states.set(4, new byte[100]);
+        states.forEach(rb::push);
+        for (int i = states.size() - 1; i >= 0; i--) {
+            Assertions.assertArrayEquals(states.get(i), rb.pop().orElseThrow(), "State: " + i);
+        }
+        //resume after rewinding
+        rb.push(states.get(0));
+        rb.push(states.get(1));
+        Assertions.assertArrayEquals(states.get(1), rb.pop().orElseThrow());
+        Assertions.assertArrayEquals(states.get(0), rb.pop().orElseThrow());
+        rb.close();
+    }
+
+    @Test
+    public void testCaptureFrame() {
+        RewindBuffer rb = new RewindBuffer(1 << 10, 3, false);
+        int cnt = 0;
+        for (int i = 0; i < 30; i++) {
+            cnt += rb.isCaptureFrame() ? 1 : 0;
+        }
+        Assertions.assertEquals(10, cnt);
+    }
+
+    //each state differs from the previous one by a few small patches
+    private static List<byte[]> createStates(int num, int size) {
+        Random r = new Random(num * 31L + size);
+        List<byte[]> l = new ArrayList<>();
+        byte[] s = new byte[size];
+        r.nextBytes(s);
+        for (int i = 0; i < num; i++) {
+            s = s.clone();
+            for (int k = 0; k < 10; k++) {
+                int pos = r.nextInt(size - 64);
+                for (int j = 0; j < r.nextInt(64); j++) {
+                    s[pos + j] = (byte) r.nextInt();
+                }
+            }
+            l.add(s);
+        }
+        return l;
+    }
+}
@@ -11,6 +11,8 @@ import omegadrive.savestate.GshStateHandler;
 import omegadrive.savestate.GstStateHandler;
 import omegadrive.sound.fm.ym2612.nukeykt.Ym2612Nuke;
 import omegadrive.sound.javasound.AbstractSoundManager;
+import omegadrive.system.SystemProvider;
+import omegadrive.util.MdRuntimeData;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -65,8 +67,10 @@ public class SavestateSerializeTest {
         Path p = Paths.get(fileFolder, svpSavestateName);
         GshStateHandler stateHandler = (GshStateHandler) BaseStateHandler.createInstance(
                 MD, p.toAbsolutePath().toString(), BaseStateHandler.Type.LOAD, Collections.emptySet());
+        MdRuntimeData.releaseInstance();
+        MdRuntimeData.newInstance(MD, SystemProvider.NO_CLOCK);
         SvpMapper svpMapper = SvpMapper.createInstance(RomMapper.NO_OP_MAPPER, NO_MEMORY);
-        Ssp16 ssp16 = SvpMapper.ssp16;
+        Ssp16 ssp16 = SvpMapper.getSsp16();
         int hc1 = Arrays.hashCode(ssp16.getSvpContext().iram_rom) + Arrays.hashCode(ssp16.getSvpContext().dram);
         stateHandler.loadSvpState(ssp16);
         Ssp16Types.Svp_t svpCtx = ssp16.getSvpContext();
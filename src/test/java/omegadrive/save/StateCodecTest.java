@@ -0,0 +1,78 @@
+package omegadrive.save;
+
+import omegadrive.savestate.StateCodec;
+import omegadrive.savestate.StateCodec.ContextId;
+import omegadrive.util.Fifo;
+import omegadrive.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class StateCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        ByteBuffer b = ByteBuffer.allocate(0x1000);
+        int[][] accm = {{1, -1}, {Integer.MAX_VALUE, Integer.MIN_VALUE}};
+        ByteBuffer mem = ByteBuffer.allocate(16);
+        mem.putInt(4, 0xCAFE_BABE);
+        Fifo<Integer> fifo = Fifo.createIntegerFixedSizeFifo(4);
+        fifo.push(3);
+        fifo.push(5);
+        fifo.pop();
+        fifo.push(7);
+
+        StateCodec.writeHeader(b, ContextId.PWM, 2);
+        StateCodec.putBoolean(b, true);
+        StateCodec.putInts(b, accm);
+        StateCodec.putBooleans(b, new boolean[]{true, false, true});
+        StateCodec.putBuffer(b, mem);
+        StateCodec.putEnum(b, ContextId.MARS_VDP);
+        StateCodec.putIntFifo(b, fifo);
+        int len = b.position();
+        Assertions.assertEquals(0, mem.position());
+
+        b.flip();
+        Assertions.assertFalse(StateCodec.isLegacy(b));
+        Assertions.assertEquals(2, StateCodec.readHeader(b, ContextId.PWM, 2));
+        Assertions.assertTrue(StateCodec.getBoolean(b));
+        int[][] accm2 = new int[2][2];
+        StateCodec.getInts(b, accm2);
+        Assertions.assertArrayEquals(accm, accm2);
+        boolean[] bools = new boolean[3];
+        StateCodec.getBooleans(b, bools);
+        Assertions.assertArrayEquals(new boolean[]{true, false, true}, bools);
+        ByteBuffer mem2 = ByteBuffer.allocate(16);
+        StateCodec.getBuffer(b, mem2);
+        Assertions.assertEquals(mem, mem2);
+        Assertions.assertEquals(ContextId.MARS_VDP, StateCodec.getEnum(b, ContextId.values()));
+        Fifo<Integer> fifo2 = Fifo.createIntegerFixedSizeFifo(4);
+        StateCodec.getIntFifo(b, fifo2);
+        Assertions.assertEquals(len, b.position());
+        Assertions.assertEquals(2, fifo2.getLevel());
+        Assertions.assertEquals(5, fifo2.pop());
+        Assertions.assertEquals(7, fifo2.pop());
+        Assertions.assertTrue(fifo2.isEmpty());
+    }
+
+    @Test
+    public void testHeaderMismatch() {
+        ByteBuffer b = ByteBuffer.allocate(16);
+        StateCodec.writeHeader(b, ContextId.SH2, 1);
+        Assertions.assertThrows(IllegalStateException.class, () -> StateCodec.readHeader(b.flip(), ContextId.PWM, 1));
+        Assertions.assertThrows(IllegalStateException.class, () -> StateCodec.readHeader(b.rewind(), ContextId.SH2, 0));
+    }
+
+    @Test
+    public void testLegacyDetection() {
+        ByteBuffer b = ByteBuffer.wrap(Util.serializeObject(new int[4]));
+        Assertions.assertTrue(StateCodec.isLegacy(b));
+        Assertions.assertEquals(0, b.position());
+    }
+}
@@ -0,0 +1,102 @@
+package omegadrive.sound;
+
+import omegadrive.sound.fm.StereoSampleRing;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class StereoSampleRingTest {
+
+    @Test
+    public void testWrapAround() {
+        StereoSampleRing ring = new StereoSampleRing(100);
+        Assertions.assertEquals(128, ring.capacity());
+        int[] buf = new int[256];
+        int next = 0, expected = 0;
+        for (int k = 0; k < 50; k++) {
+            for (int i = 0; i < 90; i++, next++) {
+                Assertions.assertTrue(ring.offer(next, -next));
+            }
+            ring.flush();
+            Assertions.assertEquals(90, ring.size());
+            int n = ring.drainStereo16(buf, 0, 128, 0);
+            Assertions.assertEquals(90, n);
+            for (int i = 0; i < n; i++, expected++) {
+                Assertions.assertEquals((short) expected, buf[i << 1]);
+                Assertions.assertEquals((short) -expected, buf[(i << 1) + 1]);
+            }
+        }
+        Assertions.assertEquals(0, ring.size());
+    }
+
+    @Test
+    public void testFullAndClear() {
+        StereoSampleRing ring = new StereoSampleRing(16);
+        for (int i = 0; i < ring.capacity(); i++) {
+            Assertions.assertTrue(ring.offer(i, i));
+        }
+        Assertions.assertFalse(ring.offer(1, 1));
+        ring.clear();
+        Assertions.assertEquals(0, ring.size());
+        Assertions.assertTrue(ring.offer(0x7FFF, 0x8000));
+        ring.flush();
+        int[] buf = new int[4];
+        Assertions.assertEquals(1, ring.drainStereo16(buf, 2, 2, 1));
+        Assertions.assertEquals(0x7FFF << 1, buf[2]);
+        Assertions.assertEquals(((short) 0x8000) << 1, buf[3]);
+    }
+
+    @Test
+    public void testBatchedPublish() {
+        StereoSampleRing ring = new StereoSampleRing(1024);
+        int[] buf = new int[1024];
+        for (int i = 0; i < StereoSampleRing.PUBLISH_BATCH - 1; i++) {
+            Assertions.assertTrue(ring.offer(i, i));
+        }
+        Assertions.assertEquals(0, ring.drainStereo16(buf, 0, 512, 0));
+        Assertions.assertTrue(ring.offer(1, 1));
+        Assertions.assertEquals(StereoSampleRing.PUBLISH_BATCH, ring.size());
+        Assertions.assertTrue(ring.offer(2, 2));
+        Assertions.assertEquals(StereoSampleRing.PUBLISH_BATCH, ring.drainStereo16(buf, 0, 512, 0));
+        ring.flush();
+        Assertions.assertEquals(1, ring.drainStereo16(buf, 0, 512, 0));
+        Assertions.assertEquals(2, buf[0]);
+    }
+
+    /**
+     * Yields instead of spinning, the test machine might have a single core
+     */
+    @Test
+    public void testProducerConsumer() throws Exception {
+        final int total = 200_000;
+        StereoSampleRing ring = new StereoSampleRing(1024);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; ) {
+                if (ring.offer(i, ~i)) {
+                    i++;
+                } else {
+                    Thread.yield();
+                }
+            }
+            ring.flush();
+        });
+        producer.start();
+        int[] buf = new int[512];
+        int expected = 0;
+        while (expected < total) {
+            int n = ring.drainStereo16(buf, 0, 256, 0);
+            if (n == 0) {
+                Thread.yield();
+            }
+            for (int i = 0; i < n; i++, expected++) {
+                Assertions.assertEquals((short) expected, buf[i << 1]);
+                Assertions.assertEquals((short) ~expected, buf[(i << 1) + 1]);
+            }
+        }
+        producer.join();
+    }
+}
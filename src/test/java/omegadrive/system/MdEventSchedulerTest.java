@@ -0,0 +1,49 @@
+package omegadrive.system;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static omegadrive.system.Megadrive.SVP_CYCLES_MASK;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * The event scheduler must land on the same cycles as the per-cycle checks in the legacy loop
+ */
+public class MdEventSchedulerTest {
+
+    static final int MAX_CYCLE = 200_000;
+
+    @Test
+    public void testNextSvpCycle() {
+        for (int i = 0; i < MAX_CYCLE; i++) {
+            int expected = i;
+            while ((expected & SVP_CYCLES_MASK) != 0) {
+                expected++;
+            }
+            Assertions.assertEquals(expected, Megadrive.nextSvpCycle(i), "cycle: " + i);
+        }
+    }
+
+    @Test
+    public void testNextFastFmCycle() {
+        for (int i = 0; i < MAX_CYCLE; i++) {
+            int expected = i;
+            while ((expected & 127) != 0) {
+                expected++;
+            }
+            Assertions.assertEquals(expected, Megadrive.nextFastFmCycle(i), "cycle: " + i);
+        }
+    }
+
+    @Test
+    public void testMinDue() {
+        //a sleeping cpu, ie. Md32x.SH2_SLEEP_VALUE, is never due
+        Assertions.assertEquals(10, Megadrive.minDue(10, -10000, 5));
+        Assertions.assertEquals(10, Megadrive.minDue(10, 4, 5));
+        Assertions.assertEquals(5, Megadrive.minDue(10, 5, 5));
+        Assertions.assertEquals(7, Megadrive.minDue(10, 7, 5));
+    }
+}
@@ -0,0 +1,189 @@
+package omegadrive.system.batch;
+
+import omegadrive.SystemLoader;
+import omegadrive.system.BaseSystem;
+import omegadrive.system.batch.BatchRunner.Result;
+import omegadrive.system.batch.BatchRunner.Status;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * The same rom, run in parallel, produces the same frames.
+ */
+public class BatchRunnerTest {
+
+    private static final int NUM_FRAMES = 30;
+    private static final int MD_LOOP = 0x200, SH2_CODE = 0x800;
+
+    private static boolean fullThrottle, testMode;
+
+    @BeforeAll
+    public static void beforeAll() {
+        fullThrottle = BaseSystem.fullThrottle;
+        testMode = SystemLoader.testMode;
+        BatchRunner.initBatchMode();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        BaseSystem.fullThrottle = fullThrottle;
+        SystemLoader.testMode = testMode;
+    }
+
+    /**
+     * The md and the 32x rom run twice each, all of them in parallel
+     */
+    @Test
+    public void testParallelDeterministic(@TempDir Path dir) throws Exception {
+        List<Path> roms = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            roms.add(Files.write(dir.resolve("test" + i + ".md"), createRom()));
+            roms.add(Files.write(dir.resolve("test" + i + ".32x"), createRom32x()));
+        }
+        List<Result> res = new BatchRunner(NUM_FRAMES, roms.size(), 60_000).run(roms);
+        Assertions.assertEquals(roms.size(), res.size());
+        for (int i = 0; i < res.size(); i++) {
+            Result r = res.get(i);
+            Assertions.assertEquals(Status.OK, r.status, r.rom);
+            Assertions.assertEquals(NUM_FRAMES, r.frames);
+            Assertions.assertTrue(r.audioSamples > 0, r.rom);
+            //the roms change the screen and the sound at every frame
+            Assertions.assertTrue(Arrays.stream(r.screenCrc).distinct().count() > NUM_FRAMES / 2, r.rom);
+            Assertions.assertTrue(Arrays.stream(r.audioCrc).distinct().count() > NUM_FRAMES / 2, r.rom);
+            Result first = res.get(i & 1);
+            Assertions.assertArrayEquals(first.screenCrc, r.screenCrc, r.rom);
+            Assertions.assertArrayEquals(first.audioCrc, r.audioCrc, r.rom);
+            Assertions.assertEquals(first.audioSamples, r.audioSamples, r.rom);
+        }
+        Assertions.assertEquals("S32X", res.get(1).system);
+        //the 32x layer covers the md backdrop
+        Assertions.assertFalse(Arrays.equals(res.get(0).screenCrc, res.get(1).screenCrc));
+    }
+
+    /**
+     * 68k, at every vblank changes the backdrop color and the frequency of the psg tone
+     */
+    private static byte[] createRom() {
+        ByteBuffer bb = createHeader(0x200);
+        putWords(bb, MD_LOOP,
+                0x41F9, 0x00C0, 0x0004, //lea $C00004,a0
+                0x43F9, 0x00C0, 0x0000, //lea $C00000,a1
+                0x30BC, 0x8144,         //move.w #$8144,(a0), display on
+                0x30BC, 0x8F02,         //move.w #$8F02,(a0), autoinc 2
+                0x7000,                 //moveq #0,d0
+                0x3210,                 //loop: move.w (a0),d1
+                0x0801, 0x0003,         //btst #3,d1, vblank
+                0x66F8,                 //bne.s loop
+                0x3210,                 //wait: move.w (a0),d1
+                0x0801, 0x0003,         //btst #3,d1
+                0x67F8,                 //beq.s wait
+                0x5C40,                 //addq.w #6,d0
+                0x20BC, 0xC000, 0x0000, //move.l #$C0000000,(a0), cram 0
+                0x3280,                 //move.w d0,(a1)
+                0x3400,                 //move.w d0,d2
+                0x0202, 0x000F,         //andi.b #$F,d2
+                0x0002, 0x0080,         //ori.b #$80,d2, psg ch0 tone low bits
+                0x13C2, 0x00C0, 0x0011, //move.b d2,$C00011
+                0x13FC, 0x0004, 0x00C0, 0x0011, //move.b #4,$C00011, tone high bits
+                0x13FC, 0x0090, 0x00C0, 0x0011, //move.b #$90,$C00011, ch0 volume max
+                0x60C4                  //bra.s loop
+        );
+        return bb.array();
+    }
+
+    /**
+     * The md rom above, the 68k enables the adapter and runs it from the rom mirror.
+     * The master sh2 draws a packed pixel frame using palette entry #1 and changes its color at every vblank.
+     */
+    private static byte[] createRom32x() {
+        ByteBuffer bb = ByteBuffer.wrap(createRom());
+        bb.putInt(4, 0x400);
+        bb.put(0x100, "SEGA 32X        ".getBytes(StandardCharsets.US_ASCII));
+        putWords(bb, 0x400,
+                0x41FA, 0x0016,         //lea stub(pc),a0
+                0x43F9, 0x00FF, 0x0000, //lea $FF0000,a1
+                0x22D8, 0x22D8, 0x22D8, 0x22D8, //move.l (a0)+,(a1)+
+                0x4EF9, 0x00FF, 0x0000, //jmp $FF0000
+                //stub, runs from ram: the rom is not visible at $0 once the adapter is enabled
+                0x33FC, 0x8003, 0x00A1, 0x5100, //move.w #$8003,$A15100, FM|nRES|ADEN
+                0x4EF9, 0x0088, MD_LOOP //jmp $880000+MD_LOOP
+        );
+        //mars header
+        bb.position(0x3C0);
+        bb.put("MARS TEST       ".getBytes(StandardCharsets.US_ASCII));
+        bb.putInt(0).putInt(SH2_CODE).putInt(0).putInt(0x100); //version, source, dest, size
+        bb.putInt(0x0600_0000).putInt(0x0600_005C).putInt(0x0600_0000).putInt(0x0600_0000); //master/slave pc, vbr
+        putWords(bb, SH2_CODE,
+                0xD110,         //mov.l @(VDPREG),r1
+                0xE001,         //mov #1,r0
+                0x2101,         //mov.w r0,@r1, packed pixel
+                0xD210,         //mov.l @(FB),r2
+                0xD310,         //mov.l @(LINE_TABLE),r3
+                0xE440, 0x4400, //mov #64,r4; shll r4
+                0x2232,         //lt: mov.l r3,@r2
+                0x7204,         //add #4,r2
+                0x4410,         //dt r4
+                0x8BFB,         //bf lt
+                0xD30E,         //mov.l @(PIXELS),r3
+                0xE440, 0x4400, //mov #64,r4; shll r4
+                0x2232,         //px: mov.l r3,@r2
+                0x7204,         //add #4,r2
+                0x4410,         //dt r4
+                0x8BFB,         //bf px
+                0xD50B,         //mov.l @(FBCTL),r5
+                0xE001,         //mov #1,r0
+                0x2501,         //mov.w r0,@r5, swap
+                0x6051,         //loop: mov.w @r5,r0
+                0x4011,         //cmp/pz r0, vblank
+                0x8BFC,         //bf loop
+                0x6051,         //wait: mov.w @r5,r0
+                0x4011,         //cmp/pz r0
+                0x89FC,         //bt wait
+                0x7601,         //add #1,r6
+                0xD707,         //mov.l @(PAL),r7
+                0x7702,         //add #2,r7
+                0x2761,         //mov.w r6,@r7, palette #1
+                0xAFF4,         //bra loop
+                0x0009,         //nop
+                0x0009,         //align
+                0x2000, 0x4100, //VDPREG
+                0x2400, 0x0000, //FB
+                0x0100, 0x0100, //LINE_TABLE, all lines show the row at word 0x100
+                0x0101, 0x0101, //PIXELS
+                0x2000, 0x410A, //FBCTL
+                0x2000, 0x4200, //PAL
+                0xAFFE, 0x0009  //slave: bra *; nop
+        );
+        return bb.array();
+    }
+
+    private static ByteBuffer createHeader(int pc) {
+        ByteBuffer bb = ByteBuffer.allocate(0x20000);
+        bb.putInt(0, 0xFFFE00);
+        bb.putInt(4, pc);
+        bb.put(0x100, "SEGA MEGA DRIVE ".getBytes(StandardCharsets.US_ASCII));
+        return bb;
+    }
+
+    private static void putWords(ByteBuffer bb, int pos, int... words) {
+        for (int w : words) {
+            bb.putShort(pos, (short) w);
+            pos += 2;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package omegadrive.system.perf;
+
+import omegadrive.system.perf.Telemetry.Section;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class TelemetryTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    public void testSectionsAndPercentiles() {
+        Telemetry t = Telemetry.resetClock(null);
+        //frame 0 is ignored
+        t.newFrame(1000 * MS, 0, 0);
+        for (int i = 1; i <= 100; i++) {
+            t.addSectionNs(Section.COMPOSITE, MS);
+            t.addSectionNs(Section.AUDIO, i * MS / 10);
+            t.newFrame(16 * MS, 0, 5 * MS);
+        }
+        Assertions.assertEquals(101, t.getFrameCounter());
+        Assertions.assertEquals(5 * MS, t.getPercentileNs(Section.SYNC, 50));
+        Assertions.assertEquals(16 * MS, t.getPercentileNs(Section.FRAME, 100));
+        Assertions.assertEquals(5 * MS, t.getPercentileNs(Section.AUDIO, 50));
+        Assertions.assertEquals(MS / 10, t.getPercentileNs(Section.AUDIO, 0));
+        Assertions.assertEquals(95 * MS / 10, t.getPercentileNs(Section.AUDIO, 95));
+        //OTHER is what is left of the frame
+        Assertions.assertEquals(16 * MS - 5 * MS - MS - MS / 10, t.getPercentileNs(Section.OTHER, 100));
+        Assertions.assertEquals(MS, t.getAvgNs(Section.COMPOSITE));
+        Assertions.assertEquals(0, t.getAvgNs(Section.M68K));
+
+        t.reset();
+        Assertions.assertEquals(0, t.getFrameCounter());
+        Assertions.assertEquals(0, t.getPercentileNs(Section.FRAME, 100));
+    }
+
+    @Test
+    public void testRingWraps() {
+        Telemetry t = Telemetry.resetClock(null);
+        for (int i = 0; i < Telemetry.RING_LEN * 3; i++) {
+            t.newFrame(i < Telemetry.RING_LEN * 2 ? 100 * MS : 10 * MS, 0, 0);
+        }
+        Assertions.assertEquals(10 * MS, t.getPercentileNs(Section.FRAME, 100));
+    }
+
+    @Test
+    public void testSampleInterval() {
+        Telemetry t = Telemetry.resetClock(null);
+        long tot = 0;
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            int v = t.nextSampleInterval();
+            Assertions.assertTrue(v >= 1 && v <= 2 * Telemetry.SAMPLE_STRIDE, "" + v);
+            tot += v;
+        }
+        Assertions.assertEquals(Telemetry.SAMPLE_STRIDE, tot / (double) n, 1.0);
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        Telemetry t = Telemetry.resetClock(null);
+        t.registerJmx("TEST");
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = mbs.queryNames(new ObjectName("helios:type=Telemetry,*"), null);
+        ObjectName on = names.stream().filter(o -> o.getKeyProperty("name").contains("TEST")).findFirst().orElseThrow();
+        for (int i = 0; i < 10; i++) {
+            t.newFrame(16 * MS, 0, 0);
+        }
+        Assertions.assertEquals(10L, mbs.getAttribute(on, "FrameCounter"));
+        Assertions.assertNotNull(mbs.getAttribute(on, "P99Ms"));
+        Object p = mbs.invoke(on, "percentileMs", new Object[]{"frame", 50.0},
+                new String[]{String.class.getName(), double.class.getName()});
+        Assertions.assertEquals(16.0, (double) p, 0.001);
+        t.unregisterJmx();
+        Assertions.assertFalse(mbs.isRegistered(on));
+    }
+}
@@ -0,0 +1,72 @@
+package omegadrive.util;
+
+import omegadrive.SystemLoader.SystemType;
+import omegadrive.system.SystemProvider;
+import omegadrive.util.BufferUtil.CpuDeviceAccess;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import s32x.event.PollSysEventManager;
+import s32x.sh2.Sh2Helper;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Each thread sees the runtime data of the emulator bound to it.
+ */
+public class MdRuntimeDataTest {
+
+    //tests using SystemTestUtil leave an instance bound to the junit thread
+    @BeforeEach
+    @AfterEach
+    public void unbind() {
+        MdRuntimeData.releaseInstance();
+    }
+
+    @Test
+    public void testInstancePerThread() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicReference<MdRuntimeData> rt1 = new AtomicReference<>(), rt2 = new AtomicReference<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread t1 = new MdRuntimeData.RuntimeThread(() -> run(barrier, rt1, CpuDeviceAccess.MASTER, 3, error), "t1");
+        Thread t2 = new Thread(() -> run(barrier, rt2, CpuDeviceAccess.SLAVE, 5, error), "t2");
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+        Assertions.assertNull(error.get());
+        Assertions.assertNotSame(rt1.get(), rt2.get());
+        Assertions.assertNotSame(rt1.get().sysEventManager, rt2.get().sysEventManager);
+        Assertions.assertNotSame(rt1.get().sh2PcInfo, rt2.get().sh2PcInfo);
+        //nothing leaks to the test thread
+        Assertions.assertNull(MdRuntimeData.current());
+    }
+
+    private static void run(CyclicBarrier barrier, AtomicReference<MdRuntimeData> res, CpuDeviceAccess cpu,
+                            int delay, AtomicReference<Throwable> error) {
+        try {
+            MdRuntimeData rt = MdRuntimeData.newInstance(SystemType.S32X, SystemProvider.NO_CLOCK);
+            res.set(rt);
+            MdRuntimeData.setAccessTypeExt(cpu);
+            Sh2Helper.clear();
+            Util.waitOnBarrier(barrier);
+            for (int i = 0; i < 1000; i++) {
+                MdRuntimeData.addCpuDelayExt(delay);
+            }
+            Util.waitOnBarrier(barrier);
+            Assertions.assertSame(rt, MdRuntimeData.current());
+            Assertions.assertSame(rt.sysEventManager, PollSysEventManager.get());
+            Assertions.assertEquals(cpu, MdRuntimeData.getAccessTypeExt());
+            Assertions.assertEquals(1000 * delay, MdRuntimeData.getCpuDelayExt());
+            Assertions.assertSame(rt, MdRuntimeData.releaseInstance());
+        } catch (Throwable t) {
+            error.set(t);
+        }
+    }
+}
@@ -38,7 +38,6 @@ import omegadrive.vdp.Tms9918aVdp;
 import omegadrive.vdp.md.MdVdp;
 import omegadrive.vdp.md.MdVdpMemoryInterface;
 import omegadrive.vdp.model.MdVdpProvider;
-import omegadrive.vdp.model.VdpMemoryInterface;
 import org.junit.Assert;
 import s32x.bus.S32xBusIntf;
 
@@ -58,7 +57,7 @@ public class SystemTestUtil {
         return setupNewMdSystem(MemoryProvider.createMdInstance(), MdVdpMemoryInterface.createInstance());
     }
 
-    public static MdMainBusProvider setupNewMdSystem(VdpMemoryInterface vdpMem) {
+    public static MdMainBusProvider setupNewMdSystem(MdVdpMemoryInterface vdpMem) {
         return setupNewMdSystem(MemoryProvider.createMdInstance(), vdpMem);
     }
 
@@ -66,7 +65,9 @@ public class SystemTestUtil {
         return setupNewMdSystem(cpuMem, MdVdpMemoryInterface.createInstance());
     }
 
-    public static MdMainBusProvider setupNewMdSystem(IMemoryProvider cpuMem1, VdpMemoryInterface vdpMem) {
+    public static MdMainBusProvider setupNewMdSystem(IMemoryProvider cpuMem1, MdVdpMemoryInterface vdpMem) {
+        MdRuntimeData.releaseInstance();
+        MdRuntimeData.newInstance(SystemLoader.SystemType.MD, SystemProvider.NO_CLOCK);
         SystemProvider systemProvider = createTestMdProvider(cpuMem1);
         MdMainBusProvider busProvider = new MdBus();
         busProvider.attachDevice(systemProvider);
@@ -98,7 +99,7 @@ public class SystemTestUtil {
 
     public static MdMainBusProvider setupNewMdSystem(S32xBusIntf busProvider, IMemoryProvider cpuMem1) {
         SystemProvider systemProvider = createTestMdProvider(cpuMem1);
-        VdpMemoryInterface vdpMem = MdVdpMemoryInterface.createInstance();
+        MdVdpMemoryInterface vdpMem = MdVdpMemoryInterface.createInstance();
         MdZ80BusProvider z80bus = new MdZ80BusProviderImpl();
         busProvider.attachDevice(systemProvider);
         MdVdpProvider vdpProvider1 = MdVdp.createInstance(busProvider, vdpMem);
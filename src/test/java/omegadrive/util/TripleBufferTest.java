@@ -0,0 +1,73 @@
+package omegadrive.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class TripleBufferTest {
+
+    @Test
+    public void testNewestWins() {
+        TripleBuffer<int[]> tb = new TripleBuffer<>(() -> new int[1]);
+        Assertions.assertNull(tb.take());
+        for (int i = 1; i <= 3; i++) {
+            tb.getBack()[0] = i;
+            Assertions.assertEquals(i == 1, tb.publish());
+        }
+        Assertions.assertEquals(3, tb.take()[0]);
+        Assertions.assertNull(tb.take());
+        Assertions.assertEquals(3, tb.getPublishedCount());
+        Assertions.assertEquals(2, tb.getDroppedCount());
+
+        tb.getBack()[0] = 4;
+        Assertions.assertTrue(tb.publish());
+        Assertions.assertEquals(4, tb.take()[0]);
+    }
+
+    /**
+     * The consumer never sees a frame the producer is still writing, and frames are never out of order
+     */
+    @Test
+    public void testNoTearing() throws Exception {
+        final int frames = 200_000;
+        TripleBuffer<int[]> tb = new TripleBuffer<>(() -> new int[64]);
+        AtomicReference<String> error = new AtomicReference<>();
+        AtomicInteger taken = new AtomicInteger();
+        Thread consumer = new Thread(() -> {
+            int last = 0;
+            while (last < frames && error.get() == null) {
+                int[] f = tb.take();
+                if (f == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                taken.incrementAndGet();
+                int v = f[0];
+                if (v <= last || Arrays.stream(f).anyMatch(e -> e != v)) {
+                    error.set("frame " + v + ", last: " + last + ", " + Arrays.toString(f));
+                }
+                last = v;
+            }
+        });
+        consumer.start();
+        for (int i = 1; i <= frames; i++) {
+            Arrays.fill(tb.getBack(), i);
+            tb.publish();
+        }
+        consumer.join(30_000);
+        Assertions.assertFalse(consumer.isAlive());
+        Assertions.assertNull(error.get(), error.get());
+        //the counters are updated after the slot is published, check them once the producer is done
+        Assertions.assertEquals(frames, tb.getPublishedCount());
+        Assertions.assertEquals(frames, taken.get() + tb.getDroppedCount(),
+                "taken: " + taken.get() + ", dropped: " + tb.getDroppedCount());
+    }
+}
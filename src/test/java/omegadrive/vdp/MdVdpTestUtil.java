@@ -31,11 +31,13 @@ import omegadrive.vdp.md.VdpInterruptHandler;
 import omegadrive.vdp.model.BaseVdpAdapter;
 import omegadrive.vdp.model.BaseVdpProvider;
 import omegadrive.vdp.model.MdVdpProvider;
+import omegadrive.vdp.model.MdVdpProvider.VdpRamType;
 import omegadrive.vdp.model.VdpMemoryInterface;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -298,4 +300,39 @@ public class MdVdpTestUtil {
     public static SystemProvider createTestMdProvider() {
         return SystemTestUtil.createTestMdProvider(MemoryProvider.createMdInstance());
     }
+
+    public static final int RANDOM_FRAME_SPRITE_TABLE = 0xF000;
+
+    /**
+     * Random tiles, planes and sprites.
+     * Mode5, display on, plane A 0xC000, window 0xD000, plane B 0xE000, sprites 0xF000, hscroll 0xFC00,
+     * 64x32 planes, window off
+     */
+    public static void setupRandomFrame(MdVdpProvider vdp, VdpMemoryInterface mem, int mode4, Random r) {
+        final int numSprites = 64;
+        int[] regs = {0x8004, 0x8164, 0x8230, 0x8334, 0x8407, 0x8578, 0x8700, 0x8B00, CTRL_PORT_MODE_4 | mode4,
+                0x8D3F, 0x8F02, 0x9001, 0x9100, 0x9200};
+        for (int reg : regs) {
+            vdp.writeControlPort(reg);
+        }
+        vdp.resetVideoMode(true);
+        for (int i = 0; i < 0x10000; i++) {
+            mem.writeVideoRamByte(VdpRamType.VRAM, i, (byte) r.nextInt());
+        }
+        for (int i = 0; i < 0x80; i++) {
+            mem.writeVideoRamByte(VdpRamType.CRAM, i, (byte) r.nextInt());
+        }
+        for (int i = 0; i < 0x50; i++) {
+            mem.writeVideoRamByte(VdpRamType.VSRAM, i, (byte) (r.nextInt() & 0x3));
+        }
+        //a linked list of sprites across the screen
+        for (int i = 0; i < numSprites; i++) {
+            int base = RANDOM_FRAME_SPRITE_TABLE + (i << 3);
+            int y = 0x80 + r.nextInt(224);
+            int x = 0x80 + r.nextInt(320);
+            mem.writeVideoRamWord(VdpRamType.VRAM, y, base);
+            mem.writeVideoRamWord(VdpRamType.VRAM, (r.nextInt(16) << 8) | (i + 1 < numSprites ? i + 1 : 0), base + 2);
+            mem.writeVideoRamWord(VdpRamType.VRAM, x, base + 6);
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package omegadrive.vdp.md;
+
+import omegadrive.util.MdRuntimeData;
+import omegadrive.util.SystemTestUtil;
+import omegadrive.vdp.MdVdpTestUtil;
+import omegadrive.vdp.model.MdVdpProvider.VdpRamType;
+import omegadrive.vdp.model.VdpRenderHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class VdpRenderPipelineTest {
+
+    private static final int RASTER_LINE = 100, DISPLAY_OFF_LINE = 150, DISPLAY_ON_LINE = 170;
+
+    private VdpRenderPipeline pipeline;
+
+    @AfterEach
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+        MdRuntimeData.releaseInstance();
+    }
+
+    /**
+     * The pipeline renders the same frames as the inline renderer, registers and memory change mid-frame
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0x00, 0x81, 0x89})
+    public void testSameAsInline(int mode4) {
+        MdVdpMemoryInterface mem = MdVdpMemoryInterface.createInstance();
+        MdVdp vdp = (MdVdp) SystemTestUtil.setupNewMdSystem(mem).getVdp();
+        VdpRenderHandler inline = VdpRenderHandlerImpl.createInstance(vdp, mem);
+        pipeline = (VdpRenderPipeline) VdpRenderPipeline.createInstance(vdp, mem);
+        Random r = new Random(0x1234);
+        MdVdpTestUtil.setupRandomFrame(vdp, mem, mode4, r);
+        int numLines = vdp.getVideoMode().getDimension().height;
+        for (int frame = 0; frame < 2; frame++) {
+            for (int line = 0; line < numLines; line++) {
+                if (frame == 0) {
+                    rasterEffects(vdp, mem, mode4, line, r);
+                }
+                inline.renderLine(line);
+                pipeline.renderLine(line);
+            }
+            Assertions.assertArrayEquals(inline.getScreenDataLinear(), pipeline.getScreenDataLinear(),
+                    "frame " + frame);
+        }
+    }
+
+    private static void rasterEffects(MdVdp vdp, MdVdpMemoryInterface mem, int mode4, int line, Random r) {
+        switch (line) {
+            case RASTER_LINE -> {
+                //backdrop, plane A base, hscroll base, shadow/highlight
+                vdp.writeControlPort(0x8710);
+                vdp.writeControlPort(0x8238);
+                vdp.writeControlPort(0x8D3E);
+                vdp.writeControlPort(MdVdpTestUtil.CTRL_PORT_MODE_4 | (mode4 ^ 0x08));
+                for (int i = 0; i < 0x20; i++) {
+                    mem.writeVideoRamByte(VdpRamType.CRAM, r.nextInt(0x80), (byte) r.nextInt());
+                    mem.writeVideoRamByte(VdpRamType.VSRAM, r.nextInt(0x50), (byte) (r.nextInt() & 0x3));
+                }
+                for (int i = 0; i < 0x400; i++) {
+                    mem.writeVideoRamByte(VdpRamType.VRAM, r.nextInt(0x10000), (byte) r.nextInt());
+                }
+                //move the sprites, updates the SAT cache
+                for (int i = 0; i < 16; i++) {
+                    int base = MdVdpTestUtil.RANDOM_FRAME_SPRITE_TABLE + (i << 3);
+                    mem.writeVideoRamWord(VdpRamType.VRAM, 0x80 + RASTER_LINE + r.nextInt(100), base);
+                }
+            }
+            case DISPLAY_OFF_LINE -> vdp.writeControlPort(0x8124);
+            case DISPLAY_ON_LINE -> vdp.writeControlPort(0x8164);
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package omegadrive.vdp.md;
+
+import omegadrive.vdp.model.MdVdpProvider.VdpRamType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class VdpTileCacheTest {
+
+    @Test
+    public void testDecodeAndInvalidate() {
+        MdVdpMemoryInterface mem = MdVdpMemoryInterface.createInstance();
+        VdpTileCache cache = mem.getTileCache();
+        int rowAddress = 0x1234 & ~3;
+        mem.writeVideoRamWord(VdpRamType.VRAM, 0x0123, rowAddress);
+        mem.writeVideoRamWord(VdpRamType.VRAM, 0x4567, rowAddress + 2);
+        int offset = cache.getRowOffset(rowAddress);
+        byte[] px = cache.getPixels(false);
+        byte[] pxFlip = cache.getPixels(true);
+        for (int i = 0; i < VdpTileCache.PIXELS_PER_ROW; i++) {
+            Assertions.assertEquals(i, px[offset + i]);
+            Assertions.assertEquals(7 - i, pxFlip[offset + i]);
+        }
+        //the address register wraps past 0xFFFF
+        mem.writeVideoRamByte(VdpRamType.VRAM, 0x10000 + rowAddress + 3, (byte) 0xFE);
+        offset = cache.getRowOffset(rowAddress);
+        Assertions.assertEquals(0xF, px[offset + 6]);
+        Assertions.assertEquals(0xE, px[offset + 7]);
+        Assertions.assertEquals(0xE, pxFlip[offset]);
+        Assertions.assertEquals(2, px[offset + 2]);
+    }
+}
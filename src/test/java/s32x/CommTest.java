@@ -1,6 +1,5 @@
 package s32x;
 
-import omegadrive.SystemLoader;
 import omegadrive.system.SystemProvider;
 import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Size;
@@ -37,9 +36,7 @@ public class CommTest {
     @BeforeEach
     public void before() {
         Sh2Helper.Sh2Config.reset(configDrcEn);
-        lc = createTestInstance();
-        MdRuntimeData.releaseInstance();
-        MdRuntimeData.newInstance(SystemLoader.SystemType.S32X, new SystemProvider.SystemClock() {
+        lc = createTestInstance(new byte[0x1000], new SystemProvider.SystemClock() {
             @Override
             public int getCycleCounter() {
                 return cycleCounter;
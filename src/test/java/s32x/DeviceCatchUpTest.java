@@ -0,0 +1,113 @@
+package s32x;
+
+import omegadrive.sound.PwmProvider;
+import omegadrive.util.Size;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import s32x.util.MarsLauncherHelper.Sh2LaunchContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static omegadrive.util.BufferUtil.CpuDeviceAccess.M68K;
+import static omegadrive.util.BufferUtil.CpuDeviceAccess.MASTER;
+import static s32x.MarsRegTestUtil.*;
+import static s32x.dict.S32xDict.M68K_START_32X_SYSREG;
+import static s32x.dict.S32xDict.RegSpecS32x.*;
+import static s32x.dict.S32xDict.START_32X_SYSREG;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ * <p>
+ * Stepping the pwm and the sh2 timers lazily, up to their next event, should match stepping them every cycle.
+ */
+public class DeviceCatchUpTest {
+
+    private static final int SH2_CYCLE_RATIO = 3;
+    private static final int NUM_CYCLES = 30_000;
+    private static final int ACCESS_INTERVAL = 97;
+    private static final int WDT_WTCSR_W = 0xFFFF_FE80;
+    private static final int WDT_WTCNT_R = 0xFFFF_FE81;
+
+    private Sh2LaunchContext lc;
+    private List<String> trace;
+    private int cycle, devicesCycle, visited;
+
+    @Test
+    public void testLazyMatchesEveryCycle() {
+        List<String> expected = run(false);
+        int allCycles = visited;
+        List<String> actual = run(true);
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertTrue(visited < allCycles / 10, visited + " vs " + allCycles);
+    }
+
+    private List<String> run(boolean lazy) {
+        lc = createTestInstance();
+        trace = new ArrayList<>();
+        cycle = devicesCycle = visited = 0;
+        lc.pwm.setPwmProvider(new PwmProvider() {
+            @Override
+            public void updatePwmCycle(int c) {
+            }
+
+            @Override
+            public void playSample(int left, int right) {
+                trace.add(cycle + ",play," + left + "," + right);
+            }
+        });
+        //wdt in timer mode, clock/64
+        lc.mDevCtx.sh2MMREG.write(WDT_WTCSR_W, 0xA521, Size.WORD);
+        writeBus(lc, M68K, M68K_START_32X_SYSREG + PWM_CYCLE.regSpec.fullAddr, 500, Size.WORD);
+        //interrupt every sample, L and R on
+        writeBus(lc, MASTER, START_32X_SYSREG + PWM_CTRL.regSpec.fullAddr, 0x105, Size.WORD);
+
+        cycle = 1;
+        while (cycle <= NUM_CYCLES) {
+            visited++;
+            if (cycle % ACCESS_INTERVAL == 0) {
+                if (lazy) {
+                    syncDevices();
+                }
+                access();
+            }
+            runDevices();
+            cycle = lazy ? Math.min(nextDevicesCycle(), (cycle / ACCESS_INTERVAL + 1) * ACCESS_INTERVAL) : cycle + 1;
+        }
+        return trace;
+    }
+
+    private void access() {
+        writeBus(lc, MASTER, START_32X_SYSREG + PWM_LCH_PW.regSpec.fullAddr, 100 + (cycle & 0xFF), Size.WORD);
+        int wtcnt = lc.mDevCtx.sh2MMREG.read(WDT_WTCNT_R, Size.BYTE);
+        int wtcsr = lc.mDevCtx.sh2MMREG.read(WDT_WTCSR_W, Size.BYTE);
+        int fifo = readBus(lc, MASTER, START_32X_SYSREG + PWM_LCH_PW.regSpec.fullAddr, Size.WORD);
+        trace.add(cycle + ",regs," + wtcnt + "," + wtcsr + "," + fifo + "," + lc.mDevCtx.intC.getInterruptLevel());
+    }
+
+    private void runDevices() {
+        int cycles = (cycle - devicesCycle) * SH2_CYCLE_RATIO;
+        devicesCycle = cycle;
+        lc.pwm.step(cycles);
+        lc.mDevCtx.sh2MMREG.deviceStepSh2Rate(cycles);
+        lc.sDevCtx.sh2MMREG.deviceStepSh2Rate(cycles);
+    }
+
+    private void syncDevices() {
+        int cycles = (cycle - 1 - devicesCycle) * SH2_CYCLE_RATIO;
+        if (cycles > 0) {
+            devicesCycle = cycle - 1;
+            lc.pwm.step(cycles);
+            lc.mDevCtx.sh2MMREG.stepTimers(cycles);
+            lc.sDevCtx.sh2MMREG.stepTimers(cycles);
+        }
+    }
+
+    private int nextDevicesCycle() {
+        int cycles = Math.min(lc.pwm.getCyclesToNextEvent(),
+                Math.min(lc.mDevCtx.sh2MMREG.getCyclesToNextEvent(), lc.sDevCtx.sh2MMREG.getCyclesToNextEvent()));
+        return devicesCycle + Math.max(1, (cycles + SH2_CYCLE_RATIO - 1) / SH2_CYCLE_RATIO);
+    }
+}
@@ -80,8 +80,15 @@ public class MarsRegTestUtil {
      * NOTE: any array modification after this point, will be ignored by the emulated system
      */
     public static Sh2LaunchContext createTestInstance(byte[] irom) {
+        return createTestInstance(irom, SystemProvider.NO_CLOCK);
+    }
+
+    /**
+     * The devices hold on to the runtime bound while they are created, the test must not replace it afterwards
+     */
+    public static Sh2LaunchContext createTestInstance(byte[] irom, SystemProvider.SystemClock clock) {
         MdRuntimeData.releaseInstance();
-        MdRuntimeData.newInstance(SystemLoader.SystemType.S32X, SystemProvider.NO_CLOCK);
+        MdRuntimeData.newInstance(SystemLoader.SystemType.S32X, clock);
         RomHolder romHolder = new RomHolder(irom);
         Sh2LaunchContext lc = MarsLauncherHelper.setupRom(S32xBus.createS32xBus(), romHolder, createTestBiosHolder());
         IMemoryProvider mp = MemoryProvider.createMdInstance();
@@ -38,7 +38,6 @@ public class RomAccessTest {
         MarsRegTestUtil.fillAsMdRom(rom, true);
         lc = MarsRegTestUtil.createTestInstance(rom);
         lc.s32XMMREG.aden = 1;
-        DmaFifo68k.rv = false;
     }
 
     @Test
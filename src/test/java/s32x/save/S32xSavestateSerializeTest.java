@@ -3,6 +3,7 @@ package s32x.save;
 import omegadrive.Device;
 import omegadrive.save.MdSavestateTest;
 import omegadrive.savestate.BaseStateHandler;
+import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Size;
 import omegadrive.util.Util;
 import omegadrive.util.ZipUtil;
@@ -11,7 +12,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import s32x.MarsRegTestUtil;
-import s32x.StaticBootstrapSupport;
 import s32x.savestate.Gs32xStateHandler;
 import s32x.sh2.Sh2Helper;
 import s32x.sh2.drc.Sh2Block;
@@ -47,7 +47,7 @@ public class S32xSavestateSerializeTest {
     @BeforeEach
     public void before() {
         lc = MarsRegTestUtil.createTestInstance();
-        StaticBootstrapSupport.instance = NO_OP;
+        MdRuntimeData.current().nextCycleResettable = NO_OP;
     }
 
     static Stream<Path> fileProvider() throws IOException {
@@ -61,7 +61,8 @@ public class S32xSavestateSerializeTest {
 
     /**
      * Has the serialization format been changed?
-     * Let's try to deserialize a byte stream, if it fails something is broken.
+     * Let's try to deserialize a legacy (java serialization) byte stream, if it fails something is broken,
+     * then check the binary format round trip.
      *
      * Find the serialVersionUID in the bytestream
      * System.out.println(Long.toHexString(-4974422545596588148L));
@@ -80,10 +81,21 @@ public class S32xSavestateSerializeTest {
                 S32X, p.toAbsolutePath().toString(), BaseStateHandler.Type.SAVE, deviceSet);
         saveHandler.processState();
 
-        ignoreKnownIssues(stateHandler, saveHandler);
+        //legacy state -> binary state -> load -> save, the two binary states should match
+        Gs32xStateHandler loadHandler = (Gs32xStateHandler) BaseStateHandler.createInstance(
+                S32X, p.toAbsolutePath().toString(), BaseStateHandler.Type.LOAD, deviceSet);
+        loadHandler.setData(saveHandler.getData());
+        loadHandler.processState();
+
+        Gs32xStateHandler saveHandler2 = (Gs32xStateHandler) BaseStateHandler.createInstance(
+                S32X, p.toAbsolutePath().toString(), BaseStateHandler.Type.SAVE, deviceSet);
+        saveHandler2.processState();
+
+        ignoreKnownIssues(saveHandler, saveHandler2);
 
 //        FileUtil.writeFileSafe(Paths.get(p.getParent().toAbsolutePath().toString(), p.getFileName().toString() + ".new"), saveHandler.getData());
-        Assertions.assertArrayEquals(stateHandler.getData(), saveHandler.getData());
+        Assertions.assertArrayEquals(saveHandler.getData(), saveHandler2.getData());
+        Assertions.assertTrue(saveHandler.getData().length < stateHandler.getData().length);
 
         //check fetchResult has been invalidated
         Gs32xStateHandler.Sh2ContextWrap scw = Gs32xStateHandler.getSh2ContextWrap();
@@ -2,6 +2,7 @@ package s32x.sh2;
 
 import omegadrive.util.BufferUtil;
 import org.junit.jupiter.api.BeforeEach;
+import s32x.DmaFifo68k;
 import s32x.S32XMMREG;
 import s32x.bus.S32xBus;
 import s32x.bus.Sh2Bus;
@@ -23,7 +24,9 @@ public abstract class Sh2BaseTest {
 
     @BeforeEach
     public void before() {
-        memory = new Sh2BusImpl(new S32XMMREG(), ByteBuffer.allocate(0x100), BiosHolder.NO_BIOS, S32xBus.createS32xBus());
+        S32XMMREG s32XMMREG = new S32XMMREG();
+        memory = new Sh2BusImpl(s32XMMREG, new DmaFifo68k(s32XMMREG.regContext), ByteBuffer.allocate(0x100),
+                BiosHolder.NO_BIOS, S32xBus.createS32xBus());
         sh2 = new Sh2Impl(memory);
         ctx = new Sh2Context(BufferUtil.CpuDeviceAccess.MASTER);
         sh2.setCtx(ctx);
@@ -1,8 +1,5 @@
 package s32x.sh2;
 
-import omegadrive.SystemLoader;
-import omegadrive.system.SystemProvider;
-import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Util;
 import org.junit.jupiter.api.BeforeEach;
 import s32x.MarsRegTestUtil;
@@ -57,8 +54,6 @@ public class Sh2MultiTestBase {
         rom = lc.memory.getMemoryDataCtx().rom;
         lc.s32XMMREG.aden = 1;
         memory = (Sh2BusImpl) lc.memory;
-        MdRuntimeData.releaseInstance();
-        MdRuntimeData.newInstance(SystemLoader.SystemType.S32X, SystemProvider.NO_CLOCK);
         masterCtx = lc.masterCtx;
         sh2 = lc.sh2;
         resetMemory();
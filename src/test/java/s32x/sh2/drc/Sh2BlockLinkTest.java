@@ -0,0 +1,49 @@
+package s32x.sh2.drc;
+
+import omegadrive.util.BufferUtil.CpuDeviceAccess;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import s32x.sh2.Sh2Instructions;
+import s32x.sh2.prefetch.Sh2Prefetcher.Sh2BlockUnit;
+
+import static s32x.sh2.Sh2Disassembler.NOP;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class Sh2BlockLinkTest {
+
+    private static final int PC = 0x0600_0100;
+    private static final int BRA_BACK = 0xAFFE, BSR_BACK = 0xBFFE, BT_FWD = 0x8904;
+
+    @Test
+    public void testStaticSuccessors() {
+        //bra/bsr -2 words: pc + 4 - 4
+        Assertions.assertEquals(PC, stage1(BRA_BACK, NOP).branchTargetPc);
+        Assertions.assertEquals(PC, stage1(BSR_BACK, NOP).branchTargetPc);
+        Sh2Block b = stage1(NOP, BT_FWD);
+        Assertions.assertEquals(PC + 2 + 4 + 8, b.branchTargetPc);
+        Assertions.assertEquals(PC + 4, b.fallThroughPc);
+    }
+
+    /**
+     * A block ending in a BSR to its own start is not a poller or a busy loop
+     */
+    @Test
+    public void testPollDetectIgnoresBsr() {
+        Assertions.assertEquals(PC, Sh2DrcBlockOptimizer.getBranchDestination(BRA_BACK, PC));
+        Assertions.assertEquals(0, Sh2DrcBlockOptimizer.getBranchDestination(BSR_BACK, PC));
+    }
+
+    private static Sh2Block stage1(int... opcodes) {
+        Sh2BlockUnit[] units = new Sh2BlockUnit[opcodes.length];
+        for (int i = 0; i < opcodes.length; i++) {
+            units[i] = new Sh2BlockUnit(Sh2Instructions.instOpcodeMap[opcodes[i]]);
+        }
+        Sh2Block b = new Sh2Block(PC, CpuDeviceAccess.MASTER);
+        b.stage1(units);
+        return b;
+    }
+}
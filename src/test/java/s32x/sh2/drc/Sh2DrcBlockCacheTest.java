@@ -0,0 +1,50 @@
+package s32x.sh2.drc;
+
+import omegadrive.util.BufferUtil.CpuDeviceAccess;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class Sh2DrcBlockCacheTest {
+
+    @Test
+    public void testClockEviction() {
+        Sh2DrcBlockCache cache = new Sh2DrcBlockCache(2);
+        Sh2Block a = compiledBlock(0x100, cache);
+        Sh2Block b = compiledBlock(0x200, cache);
+        Assertions.assertEquals(2, cache.getLiveBlocks());
+
+        //all used, the hand goes round once and evicts the oldest
+        Sh2Block c = compiledBlock(0x300, cache);
+        Assertions.assertNull(a.stage2Drc);
+        Assertions.assertNotNull(b.stage2Drc);
+        Assertions.assertEquals(1, cache.getEvictedBlocks());
+
+        //b has been used since, c has not
+        b.drcUsed = true;
+        c.drcUsed = false;
+        compiledBlock(0x400, cache);
+        Assertions.assertNull(c.stage2Drc);
+        Assertions.assertNotNull(b.stage2Drc);
+        Assertions.assertEquals(2, cache.getEvictedBlocks());
+        Assertions.assertEquals(0, cache.getRecompiledBlocks());
+
+        a.stage2Drc = () -> {
+        };
+        cache.add(a);
+        Assertions.assertEquals(1, cache.getRecompiledBlocks());
+        Assertions.assertEquals(2, cache.getLiveBlocks());
+    }
+
+    private static Sh2Block compiledBlock(int pc, Sh2DrcBlockCache cache) {
+        Sh2Block b = new Sh2Block(pc, CpuDeviceAccess.MASTER);
+        b.stage2Drc = () -> {
+        };
+        cache.add(b);
+        return b;
+    }
+}
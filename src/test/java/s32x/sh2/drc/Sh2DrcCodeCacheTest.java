@@ -0,0 +1,80 @@
+package s32x.sh2.drc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import s32x.sh2.drc.Sh2DrcCodeCache.Entry;
+import s32x.sh2.drc.Sh2DrcCodeCache.Key;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class Sh2DrcCodeCacheTest {
+
+    @Test
+    public void testAppendAndLoad(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("sub").resolve("test.drc");
+        Entry e1 = new Entry(new Key(0, 0x0600_1000, 0x1234), new int[]{0x0009, 0xAFFE, 0x7001}, "a.B1", new byte[]{1, 2, 3});
+        Entry e2 = new Entry(new Key(1, 0x2600_2000, -1), new int[]{0xFFFF}, "a.B2", new byte[0]);
+        Sh2DrcCodeCache.append(file, e1);
+        Sh2DrcCodeCache.append(file, e2);
+
+        List<Entry> l = Sh2DrcCodeCache.load(file);
+        Assertions.assertEquals(2, l.size());
+        assertEntry(e1, l.get(0));
+        assertEntry(e2, l.get(1));
+
+        //killed while writing the last entry, the previous ones are still good
+        byte[] b = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(b, b.length - 3));
+        l = Sh2DrcCodeCache.load(file);
+        Assertions.assertEquals(1, l.size());
+        assertEntry(e1, l.get(0));
+
+        //the truncated entry has been cut off, the next one follows the last good entry
+        Sh2DrcCodeCache.append(file, e2);
+        l = Sh2DrcCodeCache.load(file);
+        Assertions.assertEquals(2, l.size());
+        assertEntry(e2, l.get(1));
+
+        Assertions.assertTrue(Sh2DrcCodeCache.load(dir.resolve("none.drc")).isEmpty());
+    }
+
+    @Test
+    public void testCorrupted(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("test.drc");
+        Entry e1 = new Entry(new Key(0, 0x0600_1000, 0x1234), new int[]{0x0009}, "a.B1", new byte[]{1, 2, 3});
+        Sh2DrcCodeCache.append(file, e1);
+        byte[] b = Files.readAllBytes(file);
+        //code length
+        int pos = b.length - e1.code().length - 4;
+        b[pos] = (byte) 0x80;
+        Files.write(file, b);
+        Assertions.assertTrue(Sh2DrcCodeCache.load(file).isEmpty());
+        Assertions.assertFalse(Files.exists(file));
+
+        //rebuilt from scratch
+        Sh2DrcCodeCache.append(file, e1);
+        Assertions.assertEquals(1, Sh2DrcCodeCache.load(file).size());
+
+        //wrong header
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        Assertions.assertTrue(Sh2DrcCodeCache.load(file).isEmpty());
+        Sh2DrcCodeCache.append(file, e1);
+        Assertions.assertEquals(1, Sh2DrcCodeCache.load(file).size());
+    }
+
+    private static void assertEntry(Entry exp, Entry act) {
+        Assertions.assertEquals(exp.key(), act.key());
+        Assertions.assertArrayEquals(exp.words(), act.words());
+        Assertions.assertEquals(exp.className(), act.className());
+        Assertions.assertArrayEquals(exp.code(), act.code());
+    }
+}
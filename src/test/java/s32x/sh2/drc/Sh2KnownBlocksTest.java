@@ -0,0 +1,70 @@
+package s32x.sh2.drc;
+
+import omegadrive.util.BufferUtil.CpuDeviceAccess;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Federico Berti
+ * <p>
+ * Copyright 2026
+ */
+public class Sh2KnownBlocksTest {
+
+    @Test
+    public void testPutGet() {
+        Sh2KnownBlocks kb = new Sh2KnownBlocks(16);
+        Assertions.assertTrue(kb.isEmpty());
+        Assertions.assertEquals(Sh2Block.INVALID_BLOCK, kb.get(0));
+
+        //same lower 16 bits, they used to alias
+        Sh2Block a = block(0x1_0005);
+        Sh2Block b = block(0x2_0005);
+        Sh2Block c = block(0);
+        Assertions.assertNull(kb.putIfAbsent(a));
+        Assertions.assertNull(kb.putIfAbsent(b));
+        Assertions.assertNull(kb.putIfAbsent(c));
+        Assertions.assertEquals(a, kb.putIfAbsent(block(0x1_0005)));
+        Assertions.assertEquals(3, kb.size());
+        Assertions.assertEquals(a, kb.get(0x1_0005));
+        Assertions.assertEquals(b, kb.get(0x2_0005));
+        Assertions.assertEquals(c, kb.get(0));
+        Assertions.assertEquals(Sh2Block.INVALID_BLOCK, kb.get(5));
+    }
+
+    @Test
+    public void testEviction() {
+        final int max = 8;
+        Sh2KnownBlocks kb = new Sh2KnownBlocks(max);
+        Random r = new Random(0x32);
+        List<Sh2Block> l = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Sh2Block b = block(r.nextInt());
+            Assertions.assertEquals(i >= max, kb.isFull());
+            Assertions.assertNull(kb.putIfAbsent(b));
+            l.add(b);
+            Assertions.assertEquals(Math.min(i + 1, max), kb.size());
+            Assertions.assertEquals(b, kb.get(b.hashCodeWords));
+            //every block is either still there or has been evicted, never shadowed by a broken probe chain
+            int found = 0;
+            for (Sh2Block e : l) {
+                Sh2Block res = kb.get(e.hashCodeWords);
+                if (res != Sh2Block.INVALID_BLOCK) {
+                    Assertions.assertEquals(e, res);
+                    found++;
+                }
+            }
+            Assertions.assertEquals(kb.size(), found);
+        }
+    }
+
+    private static Sh2Block block(int hashCodeWords) {
+        Sh2Block b = new Sh2Block(0x100, CpuDeviceAccess.MASTER);
+        b.hashCodeWords = hashCodeWords;
+        return b;
+    }
+}
@@ -106,12 +106,13 @@ public class J2CoreTest {
     }
 
     public static Sh2Context createContext(BufferUtil.CpuDeviceAccess cpu, Sh2Bus memory) {
+        //the devices register with the runtime bound to this thread
+        MdRuntimeData.newInstance(SystemLoader.SystemType.S32X, SystemProvider.NO_CLOCK);
         Sh2Cache cache = Sh2Cache.createCacheInstance(cpu, memory);
         Sh2MMREG sh2MMREG = new Sh2MMREG(cpu, cache);
         Sh2Context context = new Sh2Context(BufferUtil.CpuDeviceAccess.MASTER, config.sh2Cycles, sh2Debug);
         context.devices = Sh2DeviceHelper.createDevices(context, memory, sh2MMREG);
         sh2MMREG.init(context.devices);
-        MdRuntimeData.newInstance(SystemLoader.SystemType.S32X, SystemProvider.NO_CLOCK);
         return context;
     }
 
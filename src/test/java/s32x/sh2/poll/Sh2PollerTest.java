@@ -58,8 +58,8 @@ public class Sh2PollerTest implements PollSysEventManager.SysEventListener {
         lastEvent = null;
         lc.sh2.reset(lc.masterCtx);
         MdRuntimeData.setAccessTypeExt(CpuDeviceAccess.MASTER);
-        PollSysEventManager.instance.reset();
-        PollSysEventManager.instance.addSysEventListener(CpuDeviceAccess.MASTER, "Sh2PollerTest", this);
+        PollSysEventManager.get().reset();
+        PollSysEventManager.get().addSysEventListener(CpuDeviceAccess.MASTER, "Sh2PollerTest", this);
         Sh2Helper.clear();
         Assumptions.assumeFalse(RUNNING_IN_GITHUB);
     }
@@ -413,10 +413,12 @@ public class Sh2PollerTest implements PollSysEventManager.SysEventListener {
     private void reloadSh2Cycles(int cycles) {
         Sh2Config.reset(Sh2Config.get().withCycles(cycles));
         lc = createTestInstance();
+        //new instance, new event manager
+        PollSysEventManager.get().addSysEventListener(CpuDeviceAccess.MASTER, "Sh2PollerTest", this);
     }
 
     public boolean isPollerActive() {
-        return PollSysEventManager.currentPollers[CpuDeviceAccess.MASTER.ordinal()].isPollingActive();
+        return PollSysEventManager.get().getPoller(CpuDeviceAccess.MASTER).isPollingActive();
     }
 
     private void loopUntilPollingActive(Sh2Context sh2Context) {
@@ -445,7 +447,7 @@ public class Sh2PollerTest implements PollSysEventManager.SysEventListener {
         lastEvent = event;
         System.out.println(cpu + "," + event);
         if (lastEvent == PollSysEventManager.SysEvent.SDRAM || lastEvent == PollSysEventManager.SysEvent.INT) {
-            PollSysEventManager.instance.resetPoller(cpu);
+            PollSysEventManager.get().resetPoller(cpu);
         }
     }
 }
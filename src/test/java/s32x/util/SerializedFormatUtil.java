@@ -5,10 +5,10 @@ import omegadrive.Device;
 import omegadrive.savestate.BaseStateHandler;
 import omegadrive.util.FileUtil;
 import omegadrive.util.LogHelper;
+import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Util;
 import org.slf4j.Logger;
 import s32x.MarsRegTestUtil;
-import s32x.StaticBootstrapSupport;
 import s32x.savestate.Gs32xStateHandler;
 import s32x.vdp.MarsVdp;
 import s32x.vdp.debug.DebugVideoRenderContext;
@@ -52,7 +52,7 @@ public class SerializedFormatUtil {
     private static void convertCpuDevice(Path p) {
         System.out.println(p.toAbsolutePath());
         MarsLauncherHelper.Sh2LaunchContext lc = MarsRegTestUtil.createTestInstance();
-        StaticBootstrapSupport.instance = NO_OP;
+        MdRuntimeData.current().nextCycleResettable = NO_OP;
         Set<Device> deviceSet = lc.bus.getAllDevices(Device.class);
         Gs32xStateHandler stateHandler = (Gs32xStateHandler) BaseStateHandler.createInstance(
                 S32X, p.toAbsolutePath().toString(), BaseStateHandler.Type.LOAD, deviceSet);
@@ -20,7 +20,10 @@
 package s32x.vdp.mars_render;
 
 import com.google.common.io.Files;
+import omegadrive.SystemLoader;
+import omegadrive.system.SystemProvider;
 import omegadrive.util.FileUtil;
+import omegadrive.util.MdRuntimeData;
 import omegadrive.util.Util;
 import omegadrive.util.VideoMode;
 import org.junit.jupiter.api.Assertions;
@@ -64,6 +67,8 @@ public class VdpMarsRenderCompareFileTest extends VdpRenderCompareTest {
         System.setProperty("helios.headless", "true");
         System.setProperty("md.show.vdp.debug.viewer", "false");
         System.out.println(baseDataFolderName);
+        MdRuntimeData.releaseInstance();
+        MdRuntimeData.newInstance(SystemLoader.SystemType.S32X, SystemProvider.NO_CLOCK);
     }
 
     @ParameterizedTest